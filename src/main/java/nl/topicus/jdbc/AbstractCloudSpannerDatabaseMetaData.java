@@ -1,16 +1,16 @@
-package nl.topicus.jdbc;
-
-import java.sql.DatabaseMetaData;
-
-import nl.topicus.jdbc.metadata.AbstractCloudSpannerWrapper;
-
-/**
- * 
- * @author loite
- *
- */
-public abstract class AbstractCloudSpannerDatabaseMetaData extends AbstractCloudSpannerWrapper implements
-		DatabaseMetaData
-{
-
-}
+package nl.topicus.jdbc;
+
+import java.sql.DatabaseMetaData;
+
+import nl.topicus.jdbc.metadata.AbstractCloudSpannerWrapper;
+
+/**
+ * 
+ * @author loite
+ *
+ */
+public abstract class AbstractCloudSpannerDatabaseMetaData extends AbstractCloudSpannerWrapper implements
+		DatabaseMetaData
+{
+
+}
@@ -0,0 +1,539 @@
+package nl.topicus.jdbc;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import nl.topicus.jdbc.metadata.AbstractCloudSpannerWrapper;
+import nl.topicus.jdbc.util.CloudSpannerConversionUtil;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.spanner.StructReader;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.Code;
+import com.google.cloud.spanner.ValueBinder;
+
+/**
+ * {@link Array} implementation for Google Cloud Spanner arrays. Arrays of
+ * INT64, FLOAT64 and BOOL values without any null elements are stored as
+ * primitive arrays and are bound as such to query parameters. Arrays that are
+ * read from a result set can return these primitive arrays directly through
+ * {@link #unwrap(Class)}.
+ *
+ * @author loite
+ *
+ */
+public class CloudSpannerArray implements Array
+{
+	private final Type type;
+
+	/**
+	 * The elements of this array: long[], double[] or boolean[] for arrays of
+	 * INT64, FLOAT64 or BOOL without null elements, and otherwise an array of
+	 * the Java types Long, Double, Boolean, String, byte[], java.sql.Date or
+	 * java.sql.Timestamp
+	 */
+	private Object data;
+
+	private CloudSpannerArray(Type type, Object data)
+	{
+		this.type = type;
+		this.data = data;
+	}
+
+	/**
+	 * Creates an array of the given element type
+	 *
+	 * @param typeName
+	 *            The name of the element type. This may be the name of a Google
+	 *            Cloud Spanner type (INT64, FLOAT64, BOOL, STRING, BYTES, DATE,
+	 *            TIMESTAMP) or the name of a corresponding JDBC type (BIGINT,
+	 *            DOUBLE, BOOLEAN, VARCHAR, BINARY, ...)
+	 * @param elements
+	 *            The elements of the array. This may be an object array or a
+	 *            primitive array.
+	 * @return The array
+	 * @throws SQLException
+	 *             if the type is unknown or the elements are not of the given
+	 *             type
+	 */
+	public static CloudSpannerArray createArray(String typeName, Object elements) throws SQLException
+	{
+		Type type = getElementType(typeName);
+		if (elements == null)
+			throw new SQLException("Array elements may not be null");
+		try
+		{
+			return new CloudSpannerArray(type, convert(type, elements));
+		}
+		catch (ClassCastException e)
+		{
+			throw new SQLException("Array elements are not of type " + typeName + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Creates an array from an ARRAY column of a row. Arrays of INT64, FLOAT64
+	 * and BOOL values without null elements are read directly as primitive
+	 * arrays, and can be retrieved as such with {@link #unwrap(Class)}.
+	 *
+	 * @param row
+	 *            The row to read the array from
+	 * @param columnIndex
+	 *            The zero-based index of the column. The value of the column
+	 *            may not be null.
+	 * @return The array
+	 * @throws SQLException
+	 *             if the column is not an ARRAY column or the elements of the
+	 *             array are of an unsupported type
+	 */
+	public static CloudSpannerArray createArray(StructReader row, int columnIndex) throws SQLException
+	{
+		Type columnType = row.getColumnType(columnIndex);
+		if (columnType.getCode() != Code.ARRAY)
+			throw new SQLException("Column is not an array: " + columnType);
+		Type type = columnType.getArrayElementType();
+		return new CloudSpannerArray(type, read(type, row, columnIndex));
+	}
+
+	private static Object read(Type type, StructReader row, int columnIndex) throws SQLException
+	{
+		// Arrays without null elements are returned as primitive arrays, arrays
+		// with null elements as boxed arrays
+		switch (type.getCode())
+		{
+		case INT64:
+		{
+			List<Long> list = row.getLongList(columnIndex);
+			long[] res = new long[list.size()];
+			int index = 0;
+			for (Long value : list)
+			{
+				if (value == null)
+					return list.toArray(new Long[list.size()]);
+				res[index++] = value.longValue();
+			}
+			return res;
+		}
+		case FLOAT64:
+		{
+			List<Double> list = row.getDoubleList(columnIndex);
+			double[] res = new double[list.size()];
+			int index = 0;
+			for (Double value : list)
+			{
+				if (value == null)
+					return list.toArray(new Double[list.size()]);
+				res[index++] = value.doubleValue();
+			}
+			return res;
+		}
+		case BOOL:
+		{
+			List<Boolean> list = row.getBooleanList(columnIndex);
+			boolean[] res = new boolean[list.size()];
+			int index = 0;
+			for (Boolean value : list)
+			{
+				if (value == null)
+					return list.toArray(new Boolean[list.size()]);
+				res[index++] = value.booleanValue();
+			}
+			return res;
+		}
+		case STRING:
+			return row.getStringList(columnIndex).toArray(new String[0]);
+		case BYTES:
+		{
+			List<ByteArray> list = row.getBytesList(columnIndex);
+			byte[][] res = new byte[list.size()][];
+			for (int i = 0; i < res.length; i++)
+				res[i] = list.get(i) == null ? null : list.get(i).toByteArray();
+			return res;
+		}
+		case DATE:
+		{
+			List<com.google.cloud.spanner.Date> list = row.getDateList(columnIndex);
+			Date[] res = new Date[list.size()];
+			for (int i = 0; i < res.length; i++)
+				res[i] = list.get(i) == null ? null : CloudSpannerConversionUtil.toSqlDate(list.get(i));
+			return res;
+		}
+		case TIMESTAMP:
+		{
+			List<com.google.cloud.spanner.Timestamp> list = row.getTimestampList(columnIndex);
+			Timestamp[] res = new Timestamp[list.size()];
+			for (int i = 0; i < res.length; i++)
+				res[i] = list.get(i) == null ? null : CloudSpannerConversionUtil.toSqlTimestamp(list.get(i));
+			return res;
+		}
+		default:
+			throw new SQLException("Unsupported array element type: " + type);
+		}
+	}
+
+	private static Type getElementType(String typeName) throws SQLException
+	{
+		if (typeName == null)
+			throw new SQLException("No type name specified for array");
+		switch (typeName.trim().toUpperCase())
+		{
+		case "INT64":
+		case "BIGINT":
+		case "INTEGER":
+		case "INT":
+		case "SMALLINT":
+		case "TINYINT":
+			return Type.int64();
+		case "FLOAT64":
+		case "DOUBLE":
+		case "FLOAT":
+		case "REAL":
+		case "DECIMAL":
+		case "NUMERIC":
+			return Type.float64();
+		case "BOOL":
+		case "BOOLEAN":
+		case "BIT":
+			return Type.bool();
+		case "STRING":
+		case "VARCHAR":
+		case "NVARCHAR":
+		case "CHAR":
+		case "NCHAR":
+		case "LONGVARCHAR":
+		case "LONGNVARCHAR":
+			return Type.string();
+		case "BYTES":
+		case "BINARY":
+		case "VARBINARY":
+		case "LONGVARBINARY":
+			return Type.bytes();
+		case "DATE":
+			return Type.date();
+		case "TIMESTAMP":
+			return Type.timestamp();
+		default:
+			throw new SQLException("Unsupported array element type: " + typeName);
+		}
+	}
+
+	private static Object convert(Type type, Object elements) throws SQLException
+	{
+		switch (type.getCode())
+		{
+		case INT64:
+			if (elements instanceof long[])
+				return ((long[]) elements).clone();
+			if (elements instanceof int[])
+				return Arrays.stream((int[]) elements).asLongStream().toArray();
+			return toPrimitiveOrBoxed(toObjectArray(elements), Long.class);
+		case FLOAT64:
+			if (elements instanceof double[])
+				return ((double[]) elements).clone();
+			return toPrimitiveOrBoxed(toObjectArray(elements), Double.class);
+		case BOOL:
+			if (elements instanceof boolean[])
+				return ((boolean[]) elements).clone();
+			return toPrimitiveOrBoxed(toObjectArray(elements), Boolean.class);
+		case STRING:
+		{
+			Object[] objects = toObjectArray(elements);
+			String[] res = new String[objects.length];
+			for (int i = 0; i < objects.length; i++)
+				res[i] = objects[i] == null ? null : objects[i].toString();
+			return res;
+		}
+		case BYTES:
+		{
+			Object[] objects = toObjectArray(elements);
+			byte[][] res = new byte[objects.length][];
+			for (int i = 0; i < objects.length; i++)
+				res[i] = (byte[]) objects[i];
+			return res;
+		}
+		case DATE:
+		{
+			Object[] objects = toObjectArray(elements);
+			Date[] res = new Date[objects.length];
+			for (int i = 0; i < objects.length; i++)
+				res[i] = objects[i] instanceof LocalDate ? Date.valueOf((LocalDate) objects[i]) : (Date) objects[i];
+			return res;
+		}
+		case TIMESTAMP:
+		{
+			Object[] objects = toObjectArray(elements);
+			Timestamp[] res = new Timestamp[objects.length];
+			for (int i = 0; i < objects.length; i++)
+				res[i] = objects[i] instanceof Instant ? Timestamp.from((Instant) objects[i])
+						: (Timestamp) objects[i];
+			return res;
+		}
+		default:
+			throw new SQLException("Unsupported array element type: " + type);
+		}
+	}
+
+	private static Object[] toObjectArray(Object elements) throws SQLException
+	{
+		if (elements instanceof Object[])
+			return (Object[]) elements;
+		if (elements instanceof List)
+			return ((List<?>) elements).toArray();
+		throw new SQLException("Unsupported array elements: " + elements.getClass().getName());
+	}
+
+	/**
+	 * Converts an array of numbers or booleans to a primitive array if it
+	 * contains no null elements, and to an array of the given wrapper type
+	 * otherwise
+	 */
+	private static Object toPrimitiveOrBoxed(Object[] objects, Class<?> wrapperType)
+	{
+		boolean hasNulls = false;
+		for (Object element : objects)
+		{
+			if (element == null)
+			{
+				hasNulls = true;
+				break;
+			}
+		}
+		if (wrapperType == Long.class)
+		{
+			if (hasNulls)
+			{
+				Long[] res = new Long[objects.length];
+				for (int i = 0; i < objects.length; i++)
+					res[i] = objects[i] == null ? null : ((Number) objects[i]).longValue();
+				return res;
+			}
+			long[] res = new long[objects.length];
+			for (int i = 0; i < objects.length; i++)
+				res[i] = ((Number) objects[i]).longValue();
+			return res;
+		}
+		if (wrapperType == Double.class)
+		{
+			if (hasNulls)
+			{
+				Double[] res = new Double[objects.length];
+				for (int i = 0; i < objects.length; i++)
+					res[i] = objects[i] == null ? null : ((Number) objects[i]).doubleValue();
+				return res;
+			}
+			double[] res = new double[objects.length];
+			for (int i = 0; i < objects.length; i++)
+				res[i] = ((Number) objects[i]).doubleValue();
+			return res;
+		}
+		if (hasNulls)
+		{
+			Boolean[] res = new Boolean[objects.length];
+			for (int i = 0; i < objects.length; i++)
+				res[i] = (Boolean) objects[i];
+			return res;
+		}
+		boolean[] res = new boolean[objects.length];
+		for (int i = 0; i < objects.length; i++)
+			res[i] = (Boolean) objects[i];
+		return res;
+	}
+
+	private void ensureNotFreed() throws SQLException
+	{
+		if (data == null)
+			throw new SQLException("Array has been freed");
+	}
+
+	/**
+	 * @return The Google Cloud Spanner type of the elements of this array
+	 */
+	public Type getElementType()
+	{
+		return type;
+	}
+
+	/**
+	 * Binds this array to a parameter or a column of a mutation
+	 *
+	 * @param binder
+	 *            The binder to bind the array to
+	 * @return The result of the binder
+	 */
+	public <R> R bind(ValueBinder<R> binder)
+	{
+		if (data == null)
+			throw new IllegalStateException("Array has been freed");
+		switch (type.getCode())
+		{
+		case INT64:
+			if (data instanceof long[])
+				return binder.toInt64Array((long[]) data);
+			return binder.toInt64Array(Arrays.asList((Long[]) data));
+		case FLOAT64:
+			if (data instanceof double[])
+				return binder.toFloat64Array((double[]) data);
+			return binder.toFloat64Array(Arrays.asList((Double[]) data));
+		case BOOL:
+			if (data instanceof boolean[])
+				return binder.toBoolArray((boolean[]) data);
+			return binder.toBoolArray(Arrays.asList((Boolean[]) data));
+		case STRING:
+			return binder.toStringArray(Arrays.asList((String[]) data));
+		case BYTES:
+		{
+			byte[][] bytes = (byte[][]) data;
+			List<ByteArray> list = new ArrayList<>(bytes.length);
+			for (byte[] element : bytes)
+				list.add(element == null ? null : ByteArray.copyFrom(element));
+			return binder.toBytesArray(list);
+		}
+		case DATE:
+		{
+			Date[] dates = (Date[]) data;
+			List<com.google.cloud.spanner.Date> list = new ArrayList<>(dates.length);
+			for (Date element : dates)
+				list.add(element == null ? null : CloudSpannerConversionUtil.toCloudSpannerDate(element));
+			return binder.toDateArray(list);
+		}
+		case TIMESTAMP:
+		{
+			Timestamp[] timestamps = (Timestamp[]) data;
+			List<com.google.cloud.spanner.Timestamp> list = new ArrayList<>(timestamps.length);
+			for (Timestamp element : timestamps)
+				list.add(element == null ? null : CloudSpannerConversionUtil.toCloudSpannerTimestamp(element));
+			return binder.toTimestampArray(list);
+		}
+		default:
+			throw new IllegalStateException("Unsupported array element type: " + type);
+		}
+	}
+
+	/**
+	 * Returns the elements of this array as a long[], double[] or boolean[]
+	 * for arrays of INT64, FLOAT64 or BOOL values without null elements. The
+	 * returned array is not copied, changes to it are visible in this array.
+	 *
+	 * @param iface
+	 *            long[].class, double[].class or boolean[].class
+	 * @return The elements of this array
+	 * @throws SQLException
+	 *             if the elements of this array cannot be returned as the
+	 *             given type
+	 */
+	public <T> T unwrap(Class<T> iface) throws SQLException
+	{
+		ensureNotFreed();
+		if (!iface.isInstance(data))
+			throw new SQLException("Array of " + getBaseTypeName() + " cannot be unwrapped to " + iface.getName());
+		return iface.cast(data);
+	}
+
+	/**
+	 * @param iface
+	 *            The type to check
+	 * @return true if {@link #unwrap(Class)} can return the elements of this
+	 *         array as the given type
+	 */
+	public boolean isWrapperFor(Class<?> iface) throws SQLException
+	{
+		ensureNotFreed();
+		return iface.isInstance(data);
+	}
+
+	@Override
+	public String getBaseTypeName() throws SQLException
+	{
+		ensureNotFreed();
+		return type.getCode().name();
+	}
+
+	@Override
+	public int getBaseType() throws SQLException
+	{
+		ensureNotFreed();
+		return AbstractCloudSpannerWrapper.extractColumnType(type);
+	}
+
+	@Override
+	public Object getArray() throws SQLException
+	{
+		ensureNotFreed();
+		if (data instanceof long[])
+			return Arrays.stream((long[]) data).boxed().toArray(Long[]::new);
+		if (data instanceof double[])
+			return Arrays.stream((double[]) data).boxed().toArray(Double[]::new);
+		if (data instanceof boolean[])
+		{
+			boolean[] booleans = (boolean[]) data;
+			Boolean[] res = new Boolean[booleans.length];
+			for (int i = 0; i < booleans.length; i++)
+				res[i] = booleans[i];
+			return res;
+		}
+		return ((Object[]) data).clone();
+	}
+
+	@Override
+	public Object getArray(Map<String, Class<?>> map) throws SQLException
+	{
+		return getArray();
+	}
+
+	@Override
+	public Object getArray(long index, int count) throws SQLException
+	{
+		Object[] array = (Object[]) getArray();
+		if (index < 1 || index > array.length + 1 || count < 0)
+			throw new SQLException("Invalid index or count: " + index + ", " + count);
+		int from = (int) index - 1;
+		return Arrays.copyOfRange(array, from, Math.min(array.length, from + count));
+	}
+
+	@Override
+	public Object getArray(long index, int count, Map<String, Class<?>> map) throws SQLException
+	{
+		return getArray(index, count);
+	}
+
+	@Override
+	public ResultSet getResultSet() throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public ResultSet getResultSet(Map<String, Class<?>> map) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public ResultSet getResultSet(long index, int count) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public ResultSet getResultSet(long index, int count, Map<String, Class<?>> map) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public void free() throws SQLException
+	{
+		data = null;
+	}
+
+}
@@ -1,373 +1,784 @@
-package nl.topicus.jdbc;
-
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.security.AccessControlException;
-import java.sql.CallableStatement;
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.SQLFeatureNotSupportedException;
-import java.sql.Statement;
-import java.util.Arrays;
-
-import nl.topicus.jdbc.statement.CloudSpannerPreparedStatement;
-import nl.topicus.jdbc.statement.CloudSpannerStatement;
-import nl.topicus.jdbc.transaction.CloudSpannerTransaction;
-
-import com.google.api.client.http.HttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.auth.oauth2.AccessToken;
-import com.google.auth.oauth2.GoogleCredentials;
-import com.google.auth.oauth2.ServiceAccountCredentials;
-import com.google.auth.oauth2.UserCredentials;
-import com.google.cloud.spanner.DatabaseAdminClient;
-import com.google.cloud.spanner.DatabaseClient;
-import com.google.cloud.spanner.DatabaseId;
-import com.google.cloud.spanner.Operation;
-import com.google.cloud.spanner.Spanner;
-import com.google.cloud.spanner.SpannerException;
-import com.google.cloud.spanner.SpannerOptions;
-import com.google.cloud.spanner.SpannerOptions.Builder;
-import com.google.spanner.admin.database.v1.UpdateDatabaseDdlMetadata;
-
-/**
- * JDBC Driver for Google Cloud Spanner.
- * 
- * @author loite
- *
- */
-public class CloudSpannerConnection extends AbstractCloudSpannerConnection
-{
-	private final CloudSpannerDriver driver;
-
-	private Spanner spanner;
-
-	private String clientId;
-
-	private DatabaseClient dbClient;
-
-	private DatabaseAdminClient adminClient;
-
-	private boolean autoCommit = true;
-
-	private boolean closed;
-
-	private boolean readOnly;
-
-	private final String url;
-
-	private String simulateProductName;
-
-	private String instanceId;
-
-	private String database;
-
-	private CloudSpannerTransaction transaction;
-
-	CloudSpannerConnection(CloudSpannerDriver driver, String url, String projectId, String instanceId, String database,
-			String credentialsPath, String oauthToken) throws SQLException
-	{
-		this.driver = driver;
-		this.instanceId = instanceId;
-		this.database = database;
-		this.url = url;
-		try
-		{
-			Builder builder = SpannerOptions.newBuilder();
-			if (projectId != null)
-				builder.setProjectId(projectId);
-			GoogleCredentials credentials = null;
-			if (credentialsPath != null)
-			{
-				credentials = getCredentialsFromFile(credentialsPath);
-				builder.setCredentials(credentials);
-			}
-			else if (oauthToken != null)
-			{
-				credentials = getCredentialsFromOAuthToken(oauthToken);
-				builder.setCredentials(credentials);
-			}
-			if (credentials != null)
-			{
-				if (credentials instanceof UserCredentials)
-				{
-					clientId = ((UserCredentials) credentials).getClientId();
-				}
-				if (credentials instanceof ServiceAccountCredentials)
-				{
-					clientId = ((ServiceAccountCredentials) credentials).getClientId();
-				}
-			}
-
-			SpannerOptions options = builder.build();
-			spanner = options.getService();
-			dbClient = spanner.getDatabaseClient(DatabaseId.of(options.getProjectId(), instanceId, database));
-			adminClient = spanner.getDatabaseAdminClient();
-			transaction = new CloudSpannerTransaction(dbClient, this);
-		}
-		catch (Exception e)
-		{
-			throw new SQLException("Error when opening Google Cloud Spanner connection: " + e.getMessage(), e);
-		}
-	}
-
-	public static GoogleCredentials getCredentialsFromOAuthToken(String oauthToken) throws IOException
-	{
-		GoogleCredentials credentials = null;
-		if (oauthToken != null && oauthToken.length() > 0)
-		{
-			credentials = new GoogleCredentials(new AccessToken(oauthToken, null));
-		}
-		return credentials;
-	}
-
-	public static GoogleCredentials getCredentialsFromFile(String credentialsPath) throws IOException
-	{
-		HttpTransport transport = new NetHttpTransport();
-		// First try the environment variable
-		GoogleCredentials credentials = null;
-		if (credentialsPath != null && credentialsPath.length() > 0)
-		{
-			InputStream credentialsStream = null;
-			try
-			{
-				File credentialsFile = new File(credentialsPath);
-				if (!credentialsFile.isFile())
-				{
-					// Path will be put in the message from the catch block
-					// below
-					throw new IOException("File does not exist.");
-				}
-				credentialsStream = new FileInputStream(credentialsFile);
-				credentials = GoogleCredentials.fromStream(credentialsStream, transport);
-			}
-			catch (IOException e)
-			{
-				throw new IOException(String.format("Error reading credential file %s: %s", credentialsPath,
-						e.getMessage()), e);
-			}
-			catch (AccessControlException expected)
-			{
-				// Exception querying file system is expected on App-Engine
-			}
-			finally
-			{
-				if (credentialsStream != null)
-				{
-					credentialsStream.close();
-				}
-			}
-		}
-		return credentials;
-	}
-
-	Spanner getSpanner()
-	{
-		return spanner;
-	}
-
-	public void setSimulateProductName(String productName)
-	{
-		this.simulateProductName = productName;
-	}
-
-	public Void executeDDL(String sql) throws SQLException
-	{
-		try
-		{
-			Operation<Void, UpdateDatabaseDdlMetadata> operation = adminClient.updateDatabaseDdl(instanceId, database,
-					Arrays.asList(sql), null);
-			operation = operation.waitFor();
-			return operation.getResult();
-		}
-		catch (SpannerException e)
-		{
-			throw new SQLException("Could not execute DDL statement", e);
-		}
-	}
-
-	String getProductName()
-	{
-		if (simulateProductName != null)
-			return simulateProductName;
-		return "Google Cloud Spanner";
-	}
-
-	@Override
-	public CloudSpannerStatement createStatement() throws SQLException
-	{
-		return new CloudSpannerStatement(this, dbClient);
-	}
-
-	@Override
-	public CloudSpannerPreparedStatement prepareStatement(String sql) throws SQLException
-	{
-		return new CloudSpannerPreparedStatement(sql, this, dbClient);
-	}
-
-	@Override
-	public CallableStatement prepareCall(String sql) throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public String nativeSQL(String sql) throws SQLException
-	{
-		return sql;
-	}
-
-	@Override
-	public void setAutoCommit(boolean autoCommit) throws SQLException
-	{
-		this.autoCommit = autoCommit;
-	}
-
-	@Override
-	public boolean getAutoCommit() throws SQLException
-	{
-		return autoCommit;
-	}
-
-	@Override
-	public void commit() throws SQLException
-	{
-		transaction.commit();
-	}
-
-	@Override
-	public void rollback() throws SQLException
-	{
-		transaction.rollback();
-	}
-
-	public CloudSpannerTransaction getTransaction()
-	{
-		return transaction;
-	}
-
-	@Override
-	public void close() throws SQLException
-	{
-		transaction.rollback();
-		closed = true;
-		driver.closeConnection(this);
-	}
-
-	@Override
-	public boolean isClosed() throws SQLException
-	{
-		return closed;
-	}
-
-	@Override
-	public DatabaseMetaData getMetaData() throws SQLException
-	{
-		return new CloudSpannerDatabaseMetaData(this);
-	}
-
-	@Override
-	public void setReadOnly(boolean readOnly) throws SQLException
-	{
-		if (transaction.isRunning())
-			throw new SQLException(
-					"There is currently a transaction running. Commit or rollback the running transaction before changing read-only mode.");
-		this.readOnly = readOnly;
-	}
-
-	@Override
-	public boolean isReadOnly() throws SQLException
-	{
-		return readOnly;
-	}
-
-	@Override
-	public void setTransactionIsolation(int level) throws SQLException
-	{
-		if (level != Connection.TRANSACTION_SERIALIZABLE)
-		{
-			throw new SQLException("Transaction level " + level
-					+ " is not supported. Only Connection.TRANSACTION_SERIALIZABLE is supported");
-		}
-	}
-
-	@Override
-	public int getTransactionIsolation() throws SQLException
-	{
-		return Connection.TRANSACTION_SERIALIZABLE;
-	}
-
-	@Override
-	public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException
-	{
-		return new CloudSpannerStatement(this, dbClient);
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
-			throws SQLException
-	{
-		return new CloudSpannerPreparedStatement(sql, this, dbClient);
-	}
-
-	@Override
-	public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability)
-			throws SQLException
-	{
-		return new CloudSpannerStatement(this, dbClient);
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
-			int resultSetHoldability) throws SQLException
-	{
-		return new CloudSpannerPreparedStatement(sql, this, dbClient);
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException
-	{
-		return new CloudSpannerPreparedStatement(sql, this, dbClient);
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException
-	{
-		return new CloudSpannerPreparedStatement(sql, this, dbClient);
-	}
-
-	@Override
-	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException
-	{
-		return new CloudSpannerPreparedStatement(sql, this, dbClient);
-	}
-
-	public String getUrl()
-	{
-		return url;
-	}
-
-	public String getClientId()
-	{
-		return clientId;
-	}
-
-	@Override
-	public boolean isValid(int timeout) throws SQLException
-	{
-		Statement statement = createStatement();
-		statement.setQueryTimeout(timeout);
-		try (ResultSet rs = statement.executeQuery("SELECT 1"))
-		{
-			if (rs.next())
-				return true;
-		}
-		return false;
-	}
-
-}
+package nl.topicus.jdbc;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.AccessControlException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLPermission;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import nl.topicus.jdbc.metadata.UniqueIndex;
+import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
+import nl.topicus.jdbc.statement.CloudSpannerPreparedStatement;
+import nl.topicus.jdbc.statement.CloudSpannerStatement;
+import nl.topicus.jdbc.transaction.CloudSpannerTransaction;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+import com.google.auth.oauth2.UserCredentials;
+import com.google.cloud.spanner.DatabaseAdminClient;
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.DatabaseId;
+import com.google.cloud.spanner.Operation;
+import com.google.cloud.spanner.Spanner;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.SpannerOptions;
+import com.google.cloud.spanner.SpannerOptions.Builder;
+import com.google.spanner.admin.database.v1.UpdateDatabaseDdlMetadata;
+
+/**
+ * JDBC Driver for Google Cloud Spanner.
+ * 
+ * @author loite
+ *
+ */
+public class CloudSpannerConnection extends AbstractCloudSpannerConnection
+{
+	static final long DEFAULT_SCROLL_CACHE_MEMORY = 64L * 1024L * 1024L;
+
+	private final CloudSpannerDriver driver;
+
+	private Spanner spanner;
+
+	private String clientId;
+
+	private DatabaseClient dbClient;
+
+	private DatabaseAdminClient adminClient;
+
+	private boolean autoCommit = true;
+
+	private boolean closed;
+
+	private boolean readOnly;
+
+	private final String url;
+
+	private String simulateProductName;
+
+	private String instanceId;
+
+	private String database;
+
+	private CloudSpannerTransaction transaction;
+
+	/**
+	 * Flag to indicate that this connection may execute statements that are
+	 * not executed atomically, such as UPDATE and DELETE statements with an
+	 * arbitrary WHERE clause that are committed in chunks in autocommit mode.
+	 */
+	private boolean allowExtendedMode;
+
+	/**
+	 * Flag to indicate that point lookups in autocommit mode may be coalesced
+	 * with point lookups from other connections to the same database into
+	 * multi-key reads.
+	 */
+	private boolean coalescePointLookups;
+
+	/**
+	 * Flag to indicate that IN-lists of parameters in prepared SELECT
+	 * statements should be sent to Google Cloud Spanner as one array parameter
+	 * (IN UNNEST(@p)).
+	 */
+	private boolean unnestInLists;
+
+	/**
+	 * Flag to indicate that literals in the WHERE and LIMIT clauses of queries
+	 * that are executed with a {@link java.sql.Statement} should be replaced
+	 * by parameters.
+	 */
+	private boolean parameterizeLiterals;
+
+	/**
+	 * The maximum number of bytes of rows that a scrollable result set keeps
+	 * in memory. The remaining rows are written to a temporary file.
+	 */
+	private long scrollCacheMemory = DEFAULT_SCROLL_CACHE_MEMORY;
+
+	/**
+	 * Cache of the primary key columns of tables, keyed by the upper case
+	 * table name. The cache is cleared when a DDL statement is executed.
+	 */
+	private final Map<String, List<String>> primaryKeyColumns = new ConcurrentHashMap<>();
+
+	/**
+	 * Cache of the descending primary key columns of tables, keyed by the
+	 * upper case table name. Filled together with {@link #primaryKeyColumns}.
+	 */
+	private final Map<String, Set<String>> descendingKeyColumns = new ConcurrentHashMap<>();
+
+	/**
+	 * Cache of the unique secondary indexes of tables, keyed by the upper case
+	 * table name. The cache is cleared when a DDL statement is executed.
+	 */
+	private final Map<String, List<UniqueIndex>> uniqueIndexes = new ConcurrentHashMap<>();
+
+	/**
+	 * Cache of the columns of tables, keyed by the upper case table name. The
+	 * cache is cleared when a DDL statement is executed.
+	 */
+	private final Map<String, List<String>> tableColumns = new ConcurrentHashMap<>();
+
+	/**
+	 * Cache of the JDBC types of the columns of tables, keyed by the upper case
+	 * table name. The cache is cleared when a DDL statement is executed.
+	 */
+	private final Map<String, Map<String, Integer>> columnTypes = new ConcurrentHashMap<>();
+
+	/**
+	 * The time in milliseconds after which queries on this connection are
+	 * cancelled, 0 means no timeout
+	 */
+	private int networkTimeout;
+
+	/**
+	 * The result sets of statements of this connection that have not yet been
+	 * closed
+	 */
+	private final Set<CloudSpannerResultSet> activeResultSets = ConcurrentHashMap.newKeySet();
+
+	CloudSpannerConnection(CloudSpannerDriver driver, String url, String projectId, String instanceId, String database,
+			String credentialsPath, String oauthToken) throws SQLException
+	{
+		this.driver = driver;
+		this.instanceId = instanceId;
+		this.database = database;
+		this.url = url;
+		try
+		{
+			Builder builder = SpannerOptions.newBuilder();
+			if (projectId != null)
+				builder.setProjectId(projectId);
+			GoogleCredentials credentials = null;
+			if (credentialsPath != null)
+			{
+				credentials = getCredentialsFromFile(credentialsPath);
+				builder.setCredentials(credentials);
+			}
+			else if (oauthToken != null)
+			{
+				credentials = getCredentialsFromOAuthToken(oauthToken);
+				builder.setCredentials(credentials);
+			}
+			if (credentials != null)
+			{
+				if (credentials instanceof UserCredentials)
+				{
+					clientId = ((UserCredentials) credentials).getClientId();
+				}
+				if (credentials instanceof ServiceAccountCredentials)
+				{
+					clientId = ((ServiceAccountCredentials) credentials).getClientId();
+				}
+			}
+
+			SpannerOptions options = builder.build();
+			spanner = options.getService();
+			dbClient = spanner.getDatabaseClient(DatabaseId.of(options.getProjectId(), instanceId, database));
+			adminClient = spanner.getDatabaseAdminClient();
+			transaction = new CloudSpannerTransaction(dbClient, this);
+		}
+		catch (Exception e)
+		{
+			throw new SQLException("Error when opening Google Cloud Spanner connection: " + e.getMessage(), e);
+		}
+	}
+
+	public static GoogleCredentials getCredentialsFromOAuthToken(String oauthToken) throws IOException
+	{
+		GoogleCredentials credentials = null;
+		if (oauthToken != null && oauthToken.length() > 0)
+		{
+			credentials = new GoogleCredentials(new AccessToken(oauthToken, null));
+		}
+		return credentials;
+	}
+
+	public static GoogleCredentials getCredentialsFromFile(String credentialsPath) throws IOException
+	{
+		HttpTransport transport = new NetHttpTransport();
+		// First try the environment variable
+		GoogleCredentials credentials = null;
+		if (credentialsPath != null && credentialsPath.length() > 0)
+		{
+			InputStream credentialsStream = null;
+			try
+			{
+				File credentialsFile = new File(credentialsPath);
+				if (!credentialsFile.isFile())
+				{
+					// Path will be put in the message from the catch block
+					// below
+					throw new IOException("File does not exist.");
+				}
+				credentialsStream = new FileInputStream(credentialsFile);
+				credentials = GoogleCredentials.fromStream(credentialsStream, transport);
+			}
+			catch (IOException e)
+			{
+				throw new IOException(String.format("Error reading credential file %s: %s", credentialsPath,
+						e.getMessage()), e);
+			}
+			catch (AccessControlException expected)
+			{
+				// Exception querying file system is expected on App-Engine
+			}
+			finally
+			{
+				if (credentialsStream != null)
+				{
+					credentialsStream.close();
+				}
+			}
+		}
+		return credentials;
+	}
+
+	Spanner getSpanner()
+	{
+		return spanner;
+	}
+
+	public void setSimulateProductName(String productName)
+	{
+		this.simulateProductName = productName;
+	}
+
+	public boolean isAllowExtendedMode()
+	{
+		return allowExtendedMode;
+	}
+
+	public void setAllowExtendedMode(boolean allowExtendedMode)
+	{
+		this.allowExtendedMode = allowExtendedMode;
+	}
+
+	public boolean isCoalescePointLookups()
+	{
+		return coalescePointLookups;
+	}
+
+	public void setCoalescePointLookups(boolean coalescePointLookups)
+	{
+		this.coalescePointLookups = coalescePointLookups;
+	}
+
+	public boolean isUnnestInLists()
+	{
+		return unnestInLists;
+	}
+
+	public void setUnnestInLists(boolean unnestInLists)
+	{
+		this.unnestInLists = unnestInLists;
+	}
+
+	public boolean isParameterizeLiterals()
+	{
+		return parameterizeLiterals;
+	}
+
+	public void setParameterizeLiterals(boolean parameterizeLiterals)
+	{
+		this.parameterizeLiterals = parameterizeLiterals;
+	}
+
+	public long getScrollCacheMemory()
+	{
+		return scrollCacheMemory;
+	}
+
+	public void setScrollCacheMemory(long scrollCacheMemory)
+	{
+		this.scrollCacheMemory = scrollCacheMemory;
+	}
+
+	/**
+	 * Returns the primary key columns of a table in key order. The result is
+	 * cached for the lifetime of this connection, or until a DDL statement is
+	 * executed on this connection.
+	 * 
+	 * @param table
+	 *            The name of the table
+	 * @return The primary key columns of the table, or an empty list if the
+	 *         table was not found
+	 * @throws SQLException
+	 */
+	public List<String> getPrimaryKeyColumns(String table) throws SQLException
+	{
+		String key = table.toUpperCase();
+		List<String> res = primaryKeyColumns.get(key);
+		if (res == null)
+		{
+			List<String> columns = new ArrayList<>();
+			Set<String> descending = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+			try (ResultSet rs = getMetaData().getPrimaryKeys(null, null, table))
+			{
+				while (rs.next())
+				{
+					if (table.equalsIgnoreCase(rs.getString("TABLE_NAME")))
+					{
+						columns.add(rs.getString("COLUMN_NAME"));
+						if ("DESC".equalsIgnoreCase(rs.getString("COLUMN_ORDERING")))
+							descending.add(rs.getString("COLUMN_NAME"));
+					}
+				}
+			}
+			res = Collections.unmodifiableList(columns);
+			descendingKeyColumns.put(key, Collections.unmodifiableSet(descending));
+			primaryKeyColumns.put(key, res);
+		}
+		return res;
+	}
+
+	/**
+	 * Checks whether a primary key column of a table is sorted in descending
+	 * order
+	 * 
+	 * @param table
+	 *            The name of the table
+	 * @param column
+	 *            The name of the primary key column
+	 * @return true if the column is part of the primary key of the table and
+	 *         is sorted in descending order
+	 * @throws SQLException
+	 */
+	public boolean isDescendingPrimaryKeyColumn(String table, String column) throws SQLException
+	{
+		getPrimaryKeyColumns(table);
+		Set<String> descending = descendingKeyColumns.get(table.toUpperCase());
+		return descending != null && descending.contains(column);
+	}
+
+	/**
+	 * Returns the unique secondary indexes of a table. The result is cached
+	 * for the lifetime of this connection, or until a DDL statement is
+	 * executed on this connection.
+	 * 
+	 * @param table
+	 *            The name of the table
+	 * @return The unique indexes of the table, not including the primary key
+	 * @throws SQLException
+	 */
+	public List<UniqueIndex> getUniqueIndexes(String table) throws SQLException
+	{
+		String key = table.toUpperCase();
+		List<UniqueIndex> res = uniqueIndexes.get(key);
+		if (res == null)
+		{
+			Map<String, List<String>> keyColumns = new LinkedHashMap<>();
+			Map<String, List<String>> storedColumns = new HashMap<>();
+			try (ResultSet rs = getMetaData().getIndexInfo(null, null, table, true, false))
+			{
+				while (rs.next())
+				{
+					String index = rs.getString("INDEX_NAME");
+					if (!table.equalsIgnoreCase(rs.getString("TABLE_NAME")) || "PRIMARY_KEY".equals(index))
+						continue;
+					keyColumns.computeIfAbsent(index, name -> new ArrayList<>());
+					storedColumns.computeIfAbsent(index, name -> new ArrayList<>());
+					// Stored columns have no ordinal position
+					if (rs.getObject("ORDINAL_POSITION") == null)
+						storedColumns.get(index).add(rs.getString("COLUMN_NAME"));
+					else
+						keyColumns.get(index).add(rs.getString("COLUMN_NAME"));
+				}
+			}
+			List<UniqueIndex> indexes = new ArrayList<>(keyColumns.size());
+			for (Map.Entry<String, List<String>> entry : keyColumns.entrySet())
+			{
+				indexes.add(new UniqueIndex(entry.getKey(), entry.getValue(), storedColumns.get(entry.getKey())));
+			}
+			res = Collections.unmodifiableList(indexes);
+			uniqueIndexes.put(key, res);
+		}
+		return res;
+	}
+
+	/**
+	 * Returns the columns of a table in the order in which they are defined.
+	 * The result is cached for the lifetime of this connection, or until a
+	 * DDL statement is executed on this connection.
+	 * 
+	 * @param table
+	 *            The name of the table
+	 * @return The columns of the table, or an empty list if the table was not
+	 *         found
+	 * @throws SQLException
+	 */
+	public List<String> getTableColumns(String table) throws SQLException
+	{
+		String key = table.toUpperCase();
+		List<String> res = tableColumns.get(key);
+		if (res == null)
+		{
+			loadTableColumns(table);
+			res = tableColumns.get(key);
+		}
+		return res;
+	}
+
+	/**
+	 * Returns the JDBC type of a column of a table. The types of the columns of
+	 * a table are cached for the lifetime of this connection, or until a DDL
+	 * statement is executed on this connection.
+	 * 
+	 * @param table
+	 *            The name of the table
+	 * @param column
+	 *            The name of the column
+	 * @return The JDBC type of the column (see {@link java.sql.Types}), or null
+	 *         if the column was not found
+	 * @throws SQLException
+	 */
+	public Integer getColumnType(String table, String column) throws SQLException
+	{
+		String key = table.toUpperCase();
+		Map<String, Integer> types = columnTypes.get(key);
+		if (types == null)
+		{
+			loadTableColumns(table);
+			types = columnTypes.get(key);
+		}
+		return types.get(column);
+	}
+
+	private void loadTableColumns(String table) throws SQLException
+	{
+		Map<Long, String> columns = new TreeMap<>();
+		Map<String, Integer> types = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		try (ResultSet rs = getMetaData().getColumns(null, null, table, null))
+		{
+			while (rs.next())
+			{
+				if (table.equalsIgnoreCase(rs.getString("TABLE_NAME")))
+				{
+					columns.put(rs.getLong("ORDINAL_POSITION"), rs.getString("COLUMN_NAME"));
+					types.put(rs.getString("COLUMN_NAME"), rs.getInt("DATA_TYPE"));
+				}
+			}
+		}
+		String key = table.toUpperCase();
+		columnTypes.put(key, Collections.unmodifiableMap(types));
+		tableColumns.put(key, Collections.unmodifiableList(new ArrayList<>(columns.values())));
+	}
+
+	public Void executeDDL(String sql) throws SQLException
+	{
+		primaryKeyColumns.clear();
+		descendingKeyColumns.clear();
+		uniqueIndexes.clear();
+		tableColumns.clear();
+		columnTypes.clear();
+		try
+		{
+			Operation<Void, UpdateDatabaseDdlMetadata> operation = adminClient.updateDatabaseDdl(instanceId, database,
+					Arrays.asList(sql), null);
+			operation = operation.waitFor();
+			return operation.getResult();
+		}
+		catch (SpannerException e)
+		{
+			throw new SQLException("Could not execute DDL statement", e);
+		}
+	}
+
+	String getProductName()
+	{
+		if (simulateProductName != null)
+			return simulateProductName;
+		return "Google Cloud Spanner";
+	}
+
+	@Override
+	public CloudSpannerStatement createStatement() throws SQLException
+	{
+		return new CloudSpannerStatement(this, dbClient);
+	}
+
+	@Override
+	public CloudSpannerPreparedStatement prepareStatement(String sql) throws SQLException
+	{
+		return new CloudSpannerPreparedStatement(sql, this, dbClient);
+	}
+
+	@Override
+	public CallableStatement prepareCall(String sql) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public String nativeSQL(String sql) throws SQLException
+	{
+		return sql;
+	}
+
+	@Override
+	public void setAutoCommit(boolean autoCommit) throws SQLException
+	{
+		this.autoCommit = autoCommit;
+	}
+
+	@Override
+	public boolean getAutoCommit() throws SQLException
+	{
+		return autoCommit;
+	}
+
+	@Override
+	public void commit() throws SQLException
+	{
+		transaction.commit();
+	}
+
+	@Override
+	public void rollback() throws SQLException
+	{
+		transaction.rollback();
+	}
+
+	public CloudSpannerTransaction getTransaction()
+	{
+		return transaction;
+	}
+
+	@Override
+	public void close() throws SQLException
+	{
+		if (closed)
+			return;
+		transaction.rollback();
+		closed = true;
+		driver.closeConnection(this);
+	}
+
+	/**
+	 * Aborts this connection. The running queries of this connection are
+	 * cancelled immediately, the transaction is rolled back and the connection
+	 * is released by the given executor.
+	 */
+	@Override
+	public void abort(Executor executor) throws SQLException
+	{
+		SecurityManager securityManager = System.getSecurityManager();
+		if (securityManager != null)
+			securityManager.checkPermission(new SQLPermission("callAbort"));
+		if (executor == null)
+			throw new SQLException("Executor may not be null");
+		if (closed)
+			return;
+		closed = true;
+		for (CloudSpannerResultSet resultSet : activeResultSets)
+		{
+			resultSet.cancel(false);
+		}
+		executor.execute(() -> {
+			try
+			{
+				transaction.rollback();
+			}
+			catch (SQLException e)
+			{
+				// ignore, the connection is aborted
+			}
+			driver.closeConnection(this);
+		});
+	}
+
+	/**
+	 * Sets the time after which queries on this connection are cancelled. The
+	 * timeout applies to all statements of this connection, a statement with a
+	 * lower query timeout is cancelled after its query timeout.
+	 */
+	@Override
+	public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException
+	{
+		SecurityManager securityManager = System.getSecurityManager();
+		if (securityManager != null)
+			securityManager.checkPermission(new SQLPermission("setNetworkTimeout"));
+		if (milliseconds < 0)
+			throw new SQLException("Network timeout must be greater than or equal to 0");
+		this.networkTimeout = milliseconds;
+	}
+
+	@Override
+	public int getNetworkTimeout()
+	{
+		return networkTimeout;
+	}
+
+	/**
+	 * Registers a result set of a statement of this connection, so that its
+	 * query is cancelled when the connection is aborted
+	 * 
+	 * @param resultSet
+	 *            The result set to register
+	 */
+	public void registerResultSet(CloudSpannerResultSet resultSet)
+	{
+		activeResultSets.add(resultSet);
+	}
+
+	/**
+	 * Removes a closed result set from this connection
+	 * 
+	 * @param resultSet
+	 *            The result set to remove
+	 */
+	public void unregisterResultSet(CloudSpannerResultSet resultSet)
+	{
+		activeResultSets.remove(resultSet);
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException
+	{
+		return closed;
+	}
+
+	@Override
+	public DatabaseMetaData getMetaData() throws SQLException
+	{
+		return new CloudSpannerDatabaseMetaData(this);
+	}
+
+	@Override
+	public void setReadOnly(boolean readOnly) throws SQLException
+	{
+		if (transaction.isRunning())
+			throw new SQLException(
+					"There is currently a transaction running. Commit or rollback the running transaction before changing read-only mode.");
+		this.readOnly = readOnly;
+	}
+
+	@Override
+	public boolean isReadOnly() throws SQLException
+	{
+		return readOnly;
+	}
+
+	@Override
+	public void setTransactionIsolation(int level) throws SQLException
+	{
+		if (level != Connection.TRANSACTION_SERIALIZABLE)
+		{
+			throw new SQLException("Transaction level " + level
+					+ " is not supported. Only Connection.TRANSACTION_SERIALIZABLE is supported");
+		}
+	}
+
+	@Override
+	public int getTransactionIsolation() throws SQLException
+	{
+		return Connection.TRANSACTION_SERIALIZABLE;
+	}
+
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException
+	{
+		CloudSpannerStatement statement = new CloudSpannerStatement(this, dbClient);
+		statement.setResultSetType(resultSetType);
+		return statement;
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
+			throws SQLException
+	{
+		CloudSpannerPreparedStatement statement = new CloudSpannerPreparedStatement(sql, this, dbClient);
+		statement.setResultSetType(resultSetType);
+		return statement;
+	}
+
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+			throws SQLException
+	{
+		return createStatement(resultSetType, resultSetConcurrency);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
+			int resultSetHoldability) throws SQLException
+	{
+		return prepareStatement(sql, resultSetType, resultSetConcurrency);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException
+	{
+		return new CloudSpannerPreparedStatement(sql, this, dbClient);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException
+	{
+		return new CloudSpannerPreparedStatement(sql, this, dbClient);
+	}
+
+	@Override
+	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException
+	{
+		return new CloudSpannerPreparedStatement(sql, this, dbClient);
+	}
+
+	public String getUrl()
+	{
+		return url;
+	}
+
+	public String getClientId()
+	{
+		return clientId;
+	}
+
+	@Override
+	public boolean isValid(int timeout) throws SQLException
+	{
+		if (timeout < 0)
+			throw new SQLException("Timeout must be greater than or equal to 0");
+		if (closed)
+			return false;
+		try (Statement statement = createStatement())
+		{
+			statement.setQueryTimeout(timeout);
+			try (ResultSet rs = statement.executeQuery("SELECT 1"))
+			{
+				if (rs.next())
+					return true;
+			}
+		}
+		catch (SQLException | SpannerException e)
+		{
+			// The connection is not valid if the query fails or times out
+		}
+		return false;
+	}
+
+}
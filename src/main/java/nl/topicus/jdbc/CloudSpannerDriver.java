@@ -1,229 +1,283 @@
-package nl.topicus.jdbc;
-
-import java.lang.management.ManagementFactory;
-import java.lang.management.RuntimeMXBean;
-import java.sql.Connection;
-import java.sql.Driver;
-import java.sql.DriverPropertyInfo;
-import java.sql.SQLException;
-import java.sql.SQLFeatureNotSupportedException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Properties;
-import java.util.logging.Handler;
-import java.util.logging.Level;
-import java.util.logging.LogManager;
-import java.util.logging.Logger;
-
-import com.google.cloud.spanner.Spanner;
-
-public class CloudSpannerDriver implements Driver
-{
-	static
-	{
-		try
-		{
-			java.sql.DriverManager.registerDriver(new CloudSpannerDriver());
-		}
-		catch (SQLException e)
-		{
-		}
-	}
-	static final int MAJOR_VERSION = 1;
-
-	static final int MINOR_VERSION = 0;
-
-	private static final String PROJECT_URL_PART = "Project=";
-
-	private static final String INSTANCE_URL_PART = "Instance=";
-
-	private static final String DATABASE_URL_PART = "Database=";
-
-	private static final String KEY_FILE_URL_PART = "PvtKeyPath=";
-
-	private static final String OAUTH_ACCESS_TOKEN_URL_PART = "OAuthAccessToken=";
-
-	private static final String SIMULATE_PRODUCT_NAME = "SimulateProductName=";
-
-	/**
-	 * Keep track of all connections that are opened, so that we know which
-	 * Spanner instances to close.
-	 */
-	private Map<Spanner, List<CloudSpannerConnection>> connections = new HashMap<Spanner, List<CloudSpannerConnection>>();
-
-	/**
-	 * Connects to a Google Cloud Spanner database.
-	 * 
-	 * @param url
-	 *            Connection URL in the form
-	 *            jdbc:cloudspanner://localhost;Project
-	 *            =projectId;Instance=instanceId
-	 *            ;Database=databaseName;PvtKeyPath
-	 *            =path_to_key_file;SimulateProductName=product_name
-	 * @param info
-	 *            not used
-	 * @return A CloudSpannerConnection
-	 * @throws SQLException
-	 *             if an error occurs while connecting to Google Cloud Spanner
-	 */
-	@Override
-	public Connection connect(String url, Properties info) throws SQLException
-	{
-		if (!acceptsURL(url))
-			return null;
-		checkAndSetLogging();
-
-		String[] parts = url.split(":", 3);
-		String[] connectionParts = parts[2].split(";");
-		// String server = connectionParts[0];
-		String project = null;
-		String instance = null;
-		String database = null;
-		String keyFile = null;
-		String oauthToken = null;
-		String productName = null;
-
-		// Get connection properties from connection string
-		for (int i = 1; i < connectionParts.length; i++)
-		{
-			String conPart = connectionParts[i].replace(" ", "");
-			if (conPart.startsWith(PROJECT_URL_PART))
-				project = conPart.substring(PROJECT_URL_PART.length());
-			else if (conPart.startsWith(INSTANCE_URL_PART))
-				instance = conPart.substring(INSTANCE_URL_PART.length());
-			else if (conPart.startsWith(DATABASE_URL_PART))
-				database = conPart.substring(DATABASE_URL_PART.length());
-			else if (conPart.startsWith(KEY_FILE_URL_PART))
-				keyFile = conPart.substring(KEY_FILE_URL_PART.length());
-			else if (conPart.startsWith(OAUTH_ACCESS_TOKEN_URL_PART))
-				oauthToken = conPart.substring(OAUTH_ACCESS_TOKEN_URL_PART.length());
-			else if (conPart.startsWith(SIMULATE_PRODUCT_NAME))
-				productName = conPart.substring(SIMULATE_PRODUCT_NAME.length());
-			else
-				throw new SQLException("Unknown URL parameter " + conPart);
-		}
-		// Get connection properties from properties
-		project = info.getProperty(PROJECT_URL_PART.substring(0, PROJECT_URL_PART.length() - 1), project);
-		instance = info.getProperty(INSTANCE_URL_PART.substring(0, INSTANCE_URL_PART.length() - 1), instance);
-		database = info.getProperty(DATABASE_URL_PART.substring(0, DATABASE_URL_PART.length() - 1), database);
-		keyFile = info.getProperty(KEY_FILE_URL_PART.substring(0, KEY_FILE_URL_PART.length() - 1), keyFile);
-		oauthToken = info.getProperty(
-				OAUTH_ACCESS_TOKEN_URL_PART.substring(0, OAUTH_ACCESS_TOKEN_URL_PART.length() - 1), oauthToken);
-		productName = info.getProperty(SIMULATE_PRODUCT_NAME.substring(0, SIMULATE_PRODUCT_NAME.length() - 1),
-				productName);
-
-		CloudSpannerConnection connection = new CloudSpannerConnection(this, url, project, instance, database, keyFile,
-				oauthToken);
-		connection.setSimulateProductName(productName);
-		registerConnection(connection);
-
-		return connection;
-	}
-
-	/**
-	 * Checks whether a logging properties file has been specified for this VM.
-	 * If not, the default logging level is changed to avoid a lot of debugging
-	 * logging.
-	 */
-	private void checkAndSetLogging()
-	{
-		try
-		{
-			RuntimeMXBean runtimeMxBean = ManagementFactory.getRuntimeMXBean();
-			List<String> arguments = runtimeMxBean.getInputArguments();
-			for (String arg : arguments)
-			{
-				if (arg.startsWith("-Djava.util.logging.config"))
-					return;
-			}
-		}
-		catch (Exception e)
-		{
-			// ignore
-			return;
-		}
-		Logger logger = LogManager.getLogManager().getLogger("");
-		for (Handler handler : logger.getHandlers())
-		{
-			handler.setLevel(Level.WARNING);
-		}
-	}
-
-	private void registerConnection(CloudSpannerConnection connection)
-	{
-		List<CloudSpannerConnection> list = connections.get(connection.getSpanner());
-		if (list == null)
-		{
-			list = new ArrayList<CloudSpannerConnection>();
-			connections.put(connection.getSpanner(), list);
-		}
-		list.add(connection);
-	}
-
-	void closeConnection(CloudSpannerConnection connection)
-	{
-		List<CloudSpannerConnection> list = connections.get(connection.getSpanner());
-		if (list == null)
-			throw new IllegalStateException("Connection is not registered");
-		if (!list.remove(connection))
-			throw new IllegalStateException("Connection is not registered");
-
-		if (list.isEmpty())
-		{
-			Spanner spanner = connection.getSpanner();
-			connections.remove(spanner);
-			spanner.closeAsync();
-		}
-	}
-
-	@Override
-	public boolean acceptsURL(String url) throws SQLException
-	{
-		return url.startsWith("jdbc:cloudspanner:");
-	}
-
-	@Override
-	public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException
-	{
-		DriverPropertyInfo[] res = new DriverPropertyInfo[0];
-
-		return res;
-	}
-
-	@Override
-	public int getMajorVersion()
-	{
-		return getDriverMajorVersion();
-	}
-
-	public static int getDriverMajorVersion()
-	{
-		return MAJOR_VERSION;
-	}
-
-	@Override
-	public int getMinorVersion()
-	{
-		return getDriverMinorVersion();
-	}
-
-	public static int getDriverMinorVersion()
-	{
-		return MINOR_VERSION;
-	}
-
-	@Override
-	public boolean jdbcCompliant()
-	{
-		return true;
-	}
-
-	@Override
-	public Logger getParentLogger() throws SQLFeatureNotSupportedException
-	{
-		throw new SQLFeatureNotSupportedException("java.util.logging is not used");
-	}
-
-}
+package nl.topicus.jdbc;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+import com.google.cloud.spanner.Spanner;
+
+public class CloudSpannerDriver implements Driver
+{
+	static
+	{
+		try
+		{
+			java.sql.DriverManager.registerDriver(new CloudSpannerDriver());
+		}
+		catch (SQLException e)
+		{
+		}
+	}
+	static final int MAJOR_VERSION = 1;
+
+	static final int MINOR_VERSION = 0;
+
+	private static final String PROJECT_URL_PART = "Project=";
+
+	private static final String INSTANCE_URL_PART = "Instance=";
+
+	private static final String DATABASE_URL_PART = "Database=";
+
+	private static final String KEY_FILE_URL_PART = "PvtKeyPath=";
+
+	private static final String OAUTH_ACCESS_TOKEN_URL_PART = "OAuthAccessToken=";
+
+	private static final String SIMULATE_PRODUCT_NAME = "SimulateProductName=";
+
+	private static final String ALLOW_EXTENDED_MODE = "AllowExtendedMode=";
+
+	private static final String COALESCE_POINT_LOOKUPS = "CoalescePointLookups=";
+
+	private static final String UNNEST_IN_LISTS = "UnnestInLists=";
+
+	private static final String PARAMETERIZE_LITERALS = "ParameterizeLiterals=";
+
+	private static final String SCROLL_CACHE_MEMORY = "ScrollCacheMemory=";
+
+	/**
+	 * Keep track of all connections that are opened, so that we know which
+	 * Spanner instances to close.
+	 */
+	private Map<Spanner, List<CloudSpannerConnection>> connections = new HashMap<Spanner, List<CloudSpannerConnection>>();
+
+	/**
+	 * Connects to a Google Cloud Spanner database.
+	 * 
+	 * @param url
+	 *            Connection URL in the form
+	 *            jdbc:cloudspanner://localhost;Project
+	 *            =projectId;Instance=instanceId
+	 *            ;Database=databaseName;PvtKeyPath
+	 *            =path_to_key_file;SimulateProductName=product_name;
+	 *            AllowExtendedMode=true;CoalescePointLookups=true;
+	 *            UnnestInLists=true;ParameterizeLiterals=true;
+	 *            ScrollCacheMemory=67108864
+	 * @param info
+	 *            not used
+	 * @return A CloudSpannerConnection
+	 * @throws SQLException
+	 *             if an error occurs while connecting to Google Cloud Spanner
+	 */
+	@Override
+	public Connection connect(String url, Properties info) throws SQLException
+	{
+		if (!acceptsURL(url))
+			return null;
+		checkAndSetLogging();
+
+		String[] parts = url.split(":", 3);
+		String[] connectionParts = parts[2].split(";");
+		// String server = connectionParts[0];
+		String project = null;
+		String instance = null;
+		String database = null;
+		String keyFile = null;
+		String oauthToken = null;
+		String productName = null;
+		String allowExtendedMode = null;
+		String coalescePointLookups = null;
+		String unnestInLists = null;
+		String parameterizeLiterals = null;
+		String scrollCacheMemory = null;
+
+		// Get connection properties from connection string
+		for (int i = 1; i < connectionParts.length; i++)
+		{
+			String conPart = connectionParts[i].replace(" ", "");
+			if (conPart.startsWith(PROJECT_URL_PART))
+				project = conPart.substring(PROJECT_URL_PART.length());
+			else if (conPart.startsWith(INSTANCE_URL_PART))
+				instance = conPart.substring(INSTANCE_URL_PART.length());
+			else if (conPart.startsWith(DATABASE_URL_PART))
+				database = conPart.substring(DATABASE_URL_PART.length());
+			else if (conPart.startsWith(KEY_FILE_URL_PART))
+				keyFile = conPart.substring(KEY_FILE_URL_PART.length());
+			else if (conPart.startsWith(OAUTH_ACCESS_TOKEN_URL_PART))
+				oauthToken = conPart.substring(OAUTH_ACCESS_TOKEN_URL_PART.length());
+			else if (conPart.startsWith(SIMULATE_PRODUCT_NAME))
+				productName = conPart.substring(SIMULATE_PRODUCT_NAME.length());
+			else if (conPart.startsWith(ALLOW_EXTENDED_MODE))
+				allowExtendedMode = conPart.substring(ALLOW_EXTENDED_MODE.length());
+			else if (conPart.startsWith(COALESCE_POINT_LOOKUPS))
+				coalescePointLookups = conPart.substring(COALESCE_POINT_LOOKUPS.length());
+			else if (conPart.startsWith(UNNEST_IN_LISTS))
+				unnestInLists = conPart.substring(UNNEST_IN_LISTS.length());
+			else if (conPart.startsWith(PARAMETERIZE_LITERALS))
+				parameterizeLiterals = conPart.substring(PARAMETERIZE_LITERALS.length());
+			else if (conPart.startsWith(SCROLL_CACHE_MEMORY))
+				scrollCacheMemory = conPart.substring(SCROLL_CACHE_MEMORY.length());
+			else
+				throw new SQLException("Unknown URL parameter " + conPart);
+		}
+		// Get connection properties from properties
+		project = info.getProperty(PROJECT_URL_PART.substring(0, PROJECT_URL_PART.length() - 1), project);
+		instance = info.getProperty(INSTANCE_URL_PART.substring(0, INSTANCE_URL_PART.length() - 1), instance);
+		database = info.getProperty(DATABASE_URL_PART.substring(0, DATABASE_URL_PART.length() - 1), database);
+		keyFile = info.getProperty(KEY_FILE_URL_PART.substring(0, KEY_FILE_URL_PART.length() - 1), keyFile);
+		oauthToken = info.getProperty(
+				OAUTH_ACCESS_TOKEN_URL_PART.substring(0, OAUTH_ACCESS_TOKEN_URL_PART.length() - 1), oauthToken);
+		productName = info.getProperty(SIMULATE_PRODUCT_NAME.substring(0, SIMULATE_PRODUCT_NAME.length() - 1),
+				productName);
+		allowExtendedMode = info.getProperty(ALLOW_EXTENDED_MODE.substring(0, ALLOW_EXTENDED_MODE.length() - 1),
+				allowExtendedMode);
+		coalescePointLookups = info.getProperty(
+				COALESCE_POINT_LOOKUPS.substring(0, COALESCE_POINT_LOOKUPS.length() - 1), coalescePointLookups);
+		unnestInLists = info.getProperty(UNNEST_IN_LISTS.substring(0, UNNEST_IN_LISTS.length() - 1), unnestInLists);
+		parameterizeLiterals = info.getProperty(
+				PARAMETERIZE_LITERALS.substring(0, PARAMETERIZE_LITERALS.length() - 1), parameterizeLiterals);
+		scrollCacheMemory = info.getProperty(SCROLL_CACHE_MEMORY.substring(0, SCROLL_CACHE_MEMORY.length() - 1),
+				scrollCacheMemory);
+		long scrollCacheMemoryBytes = CloudSpannerConnection.DEFAULT_SCROLL_CACHE_MEMORY;
+		if (scrollCacheMemory != null)
+		{
+			try
+			{
+				scrollCacheMemoryBytes = Long.parseLong(scrollCacheMemory);
+			}
+			catch (NumberFormatException e)
+			{
+				throw new SQLException("Invalid value for " + SCROLL_CACHE_MEMORY + scrollCacheMemory, e);
+			}
+		}
+
+		CloudSpannerConnection connection = new CloudSpannerConnection(this, url, project, instance, database, keyFile,
+				oauthToken);
+		connection.setSimulateProductName(productName);
+		connection.setAllowExtendedMode(Boolean.valueOf(allowExtendedMode));
+		connection.setCoalescePointLookups(Boolean.valueOf(coalescePointLookups));
+		connection.setUnnestInLists(Boolean.valueOf(unnestInLists));
+		connection.setParameterizeLiterals(Boolean.valueOf(parameterizeLiterals));
+		connection.setScrollCacheMemory(scrollCacheMemoryBytes);
+		registerConnection(connection);
+
+		return connection;
+	}
+
+	/**
+	 * Checks whether a logging properties file has been specified for this VM.
+	 * If not, the default logging level is changed to avoid a lot of debugging
+	 * logging.
+	 */
+	private void checkAndSetLogging()
+	{
+		try
+		{
+			RuntimeMXBean runtimeMxBean = ManagementFactory.getRuntimeMXBean();
+			List<String> arguments = runtimeMxBean.getInputArguments();
+			for (String arg : arguments)
+			{
+				if (arg.startsWith("-Djava.util.logging.config"))
+					return;
+			}
+		}
+		catch (Exception e)
+		{
+			// ignore
+			return;
+		}
+		Logger logger = LogManager.getLogManager().getLogger("");
+		for (Handler handler : logger.getHandlers())
+		{
+			handler.setLevel(Level.WARNING);
+		}
+	}
+
+	private void registerConnection(CloudSpannerConnection connection)
+	{
+		List<CloudSpannerConnection> list = connections.get(connection.getSpanner());
+		if (list == null)
+		{
+			list = new ArrayList<CloudSpannerConnection>();
+			connections.put(connection.getSpanner(), list);
+		}
+		list.add(connection);
+	}
+
+	void closeConnection(CloudSpannerConnection connection)
+	{
+		List<CloudSpannerConnection> list = connections.get(connection.getSpanner());
+		if (list == null)
+			throw new IllegalStateException("Connection is not registered");
+		if (!list.remove(connection))
+			throw new IllegalStateException("Connection is not registered");
+
+		if (list.isEmpty())
+		{
+			Spanner spanner = connection.getSpanner();
+			connections.remove(spanner);
+			spanner.closeAsync();
+		}
+	}
+
+	@Override
+	public boolean acceptsURL(String url) throws SQLException
+	{
+		return url.startsWith("jdbc:cloudspanner:");
+	}
+
+	@Override
+	public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException
+	{
+		DriverPropertyInfo[] res = new DriverPropertyInfo[0];
+
+		return res;
+	}
+
+	@Override
+	public int getMajorVersion()
+	{
+		return getDriverMajorVersion();
+	}
+
+	public static int getDriverMajorVersion()
+	{
+		return MAJOR_VERSION;
+	}
+
+	@Override
+	public int getMinorVersion()
+	{
+		return getDriverMinorVersion();
+	}
+
+	public static int getDriverMinorVersion()
+	{
+		return MINOR_VERSION;
+	}
+
+	@Override
+	public boolean jdbcCompliant()
+	{
+		return true;
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException
+	{
+		throw new SQLFeatureNotSupportedException("java.util.logging is not used");
+	}
+
+}
@@ -0,0 +1,73 @@
+package nl.topicus.jdbc.metadata;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A unique secondary index of a table
+ *
+ * @author loite
+ *
+ */
+public class UniqueIndex
+{
+	private final String name;
+
+	private final List<String> keyColumns;
+
+	private final Set<String> storedColumns;
+
+	public UniqueIndex(String name, List<String> keyColumns, Collection<String> storedColumns)
+	{
+		this.name = name;
+		this.keyColumns = Collections.unmodifiableList(keyColumns);
+		Set<String> stored = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		stored.addAll(storedColumns);
+		this.storedColumns = Collections.unmodifiableSet(stored);
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * @return The key columns of the index in index order
+	 */
+	public List<String> getKeyColumns()
+	{
+		return keyColumns;
+	}
+
+	/**
+	 * @return The columns that are stored in the index in addition to the key
+	 *         columns (STORING clause)
+	 */
+	public Set<String> getStoredColumns()
+	{
+		return storedColumns;
+	}
+
+	/**
+	 * Checks whether all given columns can be read from this index
+	 *
+	 * @param columns
+	 *            The columns to check
+	 * @param primaryKeyColumns
+	 *            The primary key columns of the table. These are always
+	 *            included in an index.
+	 * @return true if all columns are key, stored or primary key columns
+	 */
+	public boolean covers(Collection<String> columns, Collection<String> primaryKeyColumns)
+	{
+		Set<String> available = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		available.addAll(keyColumns);
+		available.addAll(storedColumns);
+		available.addAll(primaryKeyColumns);
+		return available.containsAll(columns);
+	}
+
+}
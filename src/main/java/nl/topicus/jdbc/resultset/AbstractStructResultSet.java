@@ -0,0 +1,286 @@
+package nl.topicus.jdbc.resultset;
+
+import java.util.List;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.spanner.Date;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Timestamp;
+import com.google.cloud.spanner.Type;
+
+/**
+ * Base class for Google Cloud Spanner {@link ResultSet}s that return their
+ * rows as {@link Struct}s. All getters are delegated to the current row.
+ *
+ * @author loite
+ *
+ */
+abstract class AbstractStructResultSet implements ResultSet
+{
+	/**
+	 * @return The current row
+	 * @throws IllegalStateException
+	 *             if the result set is closed or not positioned on a row
+	 */
+	protected abstract Struct current();
+
+	@Override
+	public Struct getCurrentRowAsStruct()
+	{
+		return current();
+	}
+
+	@Override
+	public int getColumnCount()
+	{
+		return getType().getStructFields().size();
+	}
+
+	@Override
+	public int getColumnIndex(String columnName)
+	{
+		return getType().getFieldIndex(columnName);
+	}
+
+	@Override
+	public Type getColumnType(int columnIndex)
+	{
+		return getType().getStructFields().get(columnIndex).getType();
+	}
+
+	@Override
+	public Type getColumnType(String columnName)
+	{
+		return getColumnType(getColumnIndex(columnName));
+	}
+
+	@Override
+	public boolean isNull(int columnIndex)
+	{
+		return current().isNull(columnIndex);
+	}
+
+	@Override
+	public boolean isNull(String columnName)
+	{
+		return current().isNull(columnName);
+	}
+
+	@Override
+	public boolean getBoolean(int columnIndex)
+	{
+		return current().getBoolean(columnIndex);
+	}
+
+	@Override
+	public boolean getBoolean(String columnName)
+	{
+		return current().getBoolean(columnName);
+	}
+
+	@Override
+	public long getLong(int columnIndex)
+	{
+		return current().getLong(columnIndex);
+	}
+
+	@Override
+	public long getLong(String columnName)
+	{
+		return current().getLong(columnName);
+	}
+
+	@Override
+	public double getDouble(int columnIndex)
+	{
+		return current().getDouble(columnIndex);
+	}
+
+	@Override
+	public double getDouble(String columnName)
+	{
+		return current().getDouble(columnName);
+	}
+
+	@Override
+	public String getString(int columnIndex)
+	{
+		return current().getString(columnIndex);
+	}
+
+	@Override
+	public String getString(String columnName)
+	{
+		return current().getString(columnName);
+	}
+
+	@Override
+	public ByteArray getBytes(int columnIndex)
+	{
+		return current().getBytes(columnIndex);
+	}
+
+	@Override
+	public ByteArray getBytes(String columnName)
+	{
+		return current().getBytes(columnName);
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex)
+	{
+		return current().getTimestamp(columnIndex);
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnName)
+	{
+		return current().getTimestamp(columnName);
+	}
+
+	@Override
+	public Date getDate(int columnIndex)
+	{
+		return current().getDate(columnIndex);
+	}
+
+	@Override
+	public Date getDate(String columnName)
+	{
+		return current().getDate(columnName);
+	}
+
+	@Override
+	public boolean[] getBooleanArray(int columnIndex)
+	{
+		return current().getBooleanArray(columnIndex);
+	}
+
+	@Override
+	public boolean[] getBooleanArray(String columnName)
+	{
+		return current().getBooleanArray(columnName);
+	}
+
+	@Override
+	public List<Boolean> getBooleanList(int columnIndex)
+	{
+		return current().getBooleanList(columnIndex);
+	}
+
+	@Override
+	public List<Boolean> getBooleanList(String columnName)
+	{
+		return current().getBooleanList(columnName);
+	}
+
+	@Override
+	public long[] getLongArray(int columnIndex)
+	{
+		return current().getLongArray(columnIndex);
+	}
+
+	@Override
+	public long[] getLongArray(String columnName)
+	{
+		return current().getLongArray(columnName);
+	}
+
+	@Override
+	public List<Long> getLongList(int columnIndex)
+	{
+		return current().getLongList(columnIndex);
+	}
+
+	@Override
+	public List<Long> getLongList(String columnName)
+	{
+		return current().getLongList(columnName);
+	}
+
+	@Override
+	public double[] getDoubleArray(int columnIndex)
+	{
+		return current().getDoubleArray(columnIndex);
+	}
+
+	@Override
+	public double[] getDoubleArray(String columnName)
+	{
+		return current().getDoubleArray(columnName);
+	}
+
+	@Override
+	public List<Double> getDoubleList(int columnIndex)
+	{
+		return current().getDoubleList(columnIndex);
+	}
+
+	@Override
+	public List<Double> getDoubleList(String columnName)
+	{
+		return current().getDoubleList(columnName);
+	}
+
+	@Override
+	public List<String> getStringList(int columnIndex)
+	{
+		return current().getStringList(columnIndex);
+	}
+
+	@Override
+	public List<String> getStringList(String columnName)
+	{
+		return current().getStringList(columnName);
+	}
+
+	@Override
+	public List<ByteArray> getBytesList(int columnIndex)
+	{
+		return current().getBytesList(columnIndex);
+	}
+
+	@Override
+	public List<ByteArray> getBytesList(String columnName)
+	{
+		return current().getBytesList(columnName);
+	}
+
+	@Override
+	public List<Timestamp> getTimestampList(int columnIndex)
+	{
+		return current().getTimestampList(columnIndex);
+	}
+
+	@Override
+	public List<Timestamp> getTimestampList(String columnName)
+	{
+		return current().getTimestampList(columnName);
+	}
+
+	@Override
+	public List<Date> getDateList(int columnIndex)
+	{
+		return current().getDateList(columnIndex);
+	}
+
+	@Override
+	public List<Date> getDateList(String columnName)
+	{
+		return current().getDateList(columnName);
+	}
+
+	@Override
+	public List<Struct> getStructList(int columnIndex)
+	{
+		return current().getStructList(columnIndex);
+	}
+
+	@Override
+	public List<Struct> getStructList(String columnName)
+	{
+		return current().getStructList(columnName);
+	}
+
+}
@@ -1,526 +1,903 @@
-package nl.topicus.jdbc.resultset;
-
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
-import java.io.Reader;
-import java.io.StringReader;
-import java.math.BigDecimal;
-import java.math.MathContext;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
-import java.sql.Date;
-import java.sql.ResultSetMetaData;
-import java.sql.SQLException;
-import java.sql.SQLWarning;
-import java.sql.Statement;
-import java.sql.Time;
-import java.sql.Timestamp;
-import java.util.Calendar;
-
-import nl.topicus.jdbc.util.CloudSpannerConversionUtil;
-
-import com.google.cloud.spanner.Type;
-
-public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet
-{
-	private com.google.cloud.spanner.ResultSet resultSet;
-
-	private boolean closed = false;
-
-	private boolean wasNull = false;
-
-	private boolean beforeFirst = true;
-
-	private boolean afterLast = false;
-
-	private boolean nextCalledForMetaData = false;
-
-	private boolean nextCalledForMetaDataResult = false;
-
-	private Statement statement;
-
-	public CloudSpannerResultSet(com.google.cloud.spanner.ResultSet resultSet)
-	{
-		this.resultSet = resultSet;
-	}
-
-	@Override
-	public boolean wasNull() throws SQLException
-	{
-		return wasNull;
-	}
-
-	private void ensureOpenAndInValidPosition() throws SQLException
-	{
-		ensureOpen();
-		ensureAfterFirst();
-		ensureBeforeLast();
-	}
-
-	private void ensureAfterFirst() throws SQLException
-	{
-		if (beforeFirst)
-			throw new SQLException("Before first record");
-	}
-
-	private void ensureBeforeLast() throws SQLException
-	{
-		if (afterLast)
-			throw new SQLException("After last record");
-	}
-
-	private void ensureOpen() throws SQLException
-	{
-		if (closed)
-			throw new SQLException("Resultset is closed");
-	}
-
-	@Override
-	public boolean next() throws SQLException
-	{
-		ensureOpen();
-		if (!beforeFirst && nextCalledForMetaData)
-		{
-			nextCalledForMetaData = false;
-			return nextCalledForMetaDataResult;
-		}
-		beforeFirst = false;
-		boolean res = resultSet.next();
-		afterLast = !res;
-
-		return res;
-	}
-
-	@Override
-	public void close() throws SQLException
-	{
-		resultSet.close();
-		closed = true;
-	}
-
-	@Override
-	public String getString(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? null : resultSet.getString(columnIndex - 1);
-	}
-
-	@Override
-	public boolean getBoolean(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? false : resultSet.getBoolean(columnIndex - 1);
-	}
-
-	@Override
-	public long getLong(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? 0 : resultSet.getLong(columnIndex - 1);
-	}
-
-	@Override
-	public double getDouble(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? 0 : resultSet.getDouble(columnIndex - 1);
-	}
-
-	private BigDecimal toBigDecimal(double d, int scale)
-	{
-		return new BigDecimal(d, new MathContext(scale));
-	}
-
-	@Override
-	public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException
-	{
-		return isNull(columnIndex) ? null : toBigDecimal(resultSet.getDouble(columnIndex - 1), scale);
-	}
-
-	@Override
-	public byte[] getBytes(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? null : resultSet.getBytes(columnIndex - 1).toByteArray();
-	}
-
-	@Override
-	public Date getDate(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? null : CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(columnIndex - 1));
-	}
-
-	private Time toTime(com.google.cloud.spanner.Timestamp ts)
-	{
-		Time res = new Time(ts.getSeconds());
-		return res;
-	}
-
-	@Override
-	public Time getTime(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? null : toTime(resultSet.getTimestamp(columnIndex - 1));
-	}
-
-	@Override
-	public Timestamp getTimestamp(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? null : CloudSpannerConversionUtil.toSqlTimestamp(resultSet
-				.getTimestamp(columnIndex - 1));
-	}
-
-	@Override
-	public String getString(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? null : resultSet.getString(columnLabel);
-	}
-
-	@Override
-	public boolean getBoolean(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? false : resultSet.getBoolean(columnLabel);
-	}
-
-	@Override
-	public long getLong(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? 0 : resultSet.getLong(columnLabel);
-	}
-
-	@Override
-	public double getDouble(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? 0 : resultSet.getDouble(columnLabel);
-	}
-
-	@Override
-	public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException
-	{
-		return isNull(columnLabel) ? null : toBigDecimal(resultSet.getDouble(columnLabel), scale);
-	}
-
-	@Override
-	public byte[] getBytes(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? null : resultSet.getBytes(columnLabel).toByteArray();
-	}
-
-	@Override
-	public Date getDate(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? null : CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(columnLabel));
-	}
-
-	@Override
-	public Time getTime(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? null : toTime(resultSet.getTimestamp(columnLabel));
-	}
-
-	@Override
-	public Timestamp getTimestamp(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? null : CloudSpannerConversionUtil.toSqlTimestamp(resultSet
-				.getTimestamp(columnLabel));
-	}
-
-	@Override
-	public ResultSetMetaData getMetaData() throws SQLException
-	{
-		ensureOpen();
-		if (beforeFirst)
-		{
-			nextCalledForMetaDataResult = resultSet.next();
-			afterLast = !nextCalledForMetaDataResult;
-			beforeFirst = false;
-			nextCalledForMetaData = true;
-		}
-		return new CloudSpannerResultSetMetaData(resultSet);
-	}
-
-	@Override
-	public int findColumn(String columnLabel) throws SQLException
-	{
-		ensureOpen();
-		try
-		{
-			return resultSet.getColumnIndex(columnLabel) + 1;
-		}
-		catch (IllegalArgumentException e)
-		{
-			throw new SQLException("Column not found: " + columnLabel, e);
-		}
-	}
-
-	private boolean isNull(int columnIndex) throws SQLException
-	{
-		ensureOpenAndInValidPosition();
-		boolean res = resultSet.isNull(columnIndex - 1);
-		wasNull = res;
-		return res;
-	}
-
-	private boolean isNull(String columnName) throws SQLException
-	{
-		ensureOpenAndInValidPosition();
-		boolean res = resultSet.isNull(columnName);
-		wasNull = res;
-		return res;
-	}
-
-	@Override
-	public BigDecimal getBigDecimal(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? null : toBigDecimal(resultSet.getDouble(columnIndex - 1), 34);
-	}
-
-	@Override
-	public BigDecimal getBigDecimal(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? null : toBigDecimal(resultSet.getDouble(columnLabel), 34);
-	}
-
-	@Override
-	public Statement getStatement() throws SQLException
-	{
-		ensureOpen();
-		return statement;
-	}
-
-	@Override
-	public Date getDate(int columnIndex, Calendar cal) throws SQLException
-	{
-		return isNull(columnIndex) ? null : CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(columnIndex - 1));
-	}
-
-	@Override
-	public Date getDate(String columnLabel, Calendar cal) throws SQLException
-	{
-		return isNull(columnLabel) ? null : CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(columnLabel));
-	}
-
-	@Override
-	public Time getTime(int columnIndex, Calendar cal) throws SQLException
-	{
-		return isNull(columnIndex) ? null : toTime(resultSet.getTimestamp(columnIndex - 1));
-	}
-
-	@Override
-	public Time getTime(String columnLabel, Calendar cal) throws SQLException
-	{
-		return isNull(columnLabel) ? null : toTime(resultSet.getTimestamp(columnLabel));
-	}
-
-	@Override
-	public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException
-	{
-		return isNull(columnIndex) ? null : CloudSpannerConversionUtil.toSqlTimestamp(resultSet
-				.getTimestamp(columnIndex - 1));
-	}
-
-	@Override
-	public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException
-	{
-		return isNull(columnLabel) ? null : CloudSpannerConversionUtil.toSqlTimestamp(resultSet
-				.getTimestamp(columnLabel));
-	}
-
-	@Override
-	public boolean isClosed() throws SQLException
-	{
-		return closed;
-	}
-
-	@Override
-	public byte getByte(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? 0 : (byte) resultSet.getLong(columnIndex - 1);
-	}
-
-	@Override
-	public short getShort(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? 0 : (short) resultSet.getLong(columnIndex - 1);
-	}
-
-	@Override
-	public int getInt(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? 0 : (int) resultSet.getLong(columnIndex - 1);
-	}
-
-	@Override
-	public float getFloat(int columnIndex) throws SQLException
-	{
-		return isNull(columnIndex) ? 0 : (float) resultSet.getDouble(columnIndex - 1);
-	}
-
-	@Override
-	public byte getByte(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? 0 : (byte) resultSet.getLong(columnLabel);
-	}
-
-	@Override
-	public short getShort(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? 0 : (short) resultSet.getLong(columnLabel);
-	}
-
-	@Override
-	public int getInt(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? 0 : (int) resultSet.getLong(columnLabel);
-	}
-
-	@Override
-	public float getFloat(String columnLabel) throws SQLException
-	{
-		return isNull(columnLabel) ? 0 : (float) resultSet.getDouble(columnLabel);
-	}
-
-	@Override
-	public Object getObject(String columnLabel) throws SQLException
-	{
-		Type type = resultSet.getColumnType(columnLabel);
-		return isNull(columnLabel) ? null : getObject(type, columnLabel);
-	}
-
-	@Override
-	public Object getObject(int columnIndex) throws SQLException
-	{
-		Type type = resultSet.getColumnType(columnIndex - 1);
-		return isNull(columnIndex) ? null : getObject(type, columnIndex);
-	}
-
-	private Object getObject(Type type, String columnLabel) throws SQLException
-	{
-		return getObject(type, resultSet.getColumnIndex(columnLabel));
-	}
-
-	private Object getObject(Type type, int columnIndex) throws SQLException
-	{
-		if (type == Type.bool())
-			return getBoolean(columnIndex);
-		if (type == Type.bytes())
-			return getBytes(columnIndex);
-		if (type == Type.date())
-			return getDate(columnIndex);
-		if (type == Type.float64())
-			return getFloat(columnIndex);
-		if (type == Type.int64())
-			return getInt(columnIndex);
-		if (type == Type.string())
-			return getString(columnIndex);
-		if (type == Type.timestamp())
-			return getTimestamp(columnIndex);
-		throw new SQLException("Unknown type: " + type.toString());
-	}
-
-	@Override
-	public SQLWarning getWarnings() throws SQLException
-	{
-		ensureOpen();
-		return null;
-	}
-
-	@Override
-	public void clearWarnings() throws SQLException
-	{
-		ensureOpen();
-	}
-
-	@Override
-	public boolean isBeforeFirst() throws SQLException
-	{
-		ensureOpen();
-		return beforeFirst;
-	}
-
-	@Override
-	public boolean isAfterLast() throws SQLException
-	{
-		ensureOpen();
-		return afterLast;
-	}
-
-	@Override
-	public Reader getCharacterStream(int columnIndex) throws SQLException
-	{
-		String val = getString(columnIndex);
-		return val == null ? null : new StringReader(val);
-	}
-
-	@Override
-	public Reader getCharacterStream(String columnLabel) throws SQLException
-	{
-		String val = getString(columnLabel);
-		return val == null ? null : new StringReader(val);
-	}
-
-	private InputStream getInputStream(String val, Charset charset)
-	{
-		if (val == null)
-			return null;
-		byte[] b = val.getBytes(charset);
-		return new ByteArrayInputStream(b);
-	}
-
-	@Override
-	public InputStream getAsciiStream(int columnIndex) throws SQLException
-	{
-		return getInputStream(getString(columnIndex), StandardCharsets.US_ASCII);
-	}
-
-	@Override
-	public InputStream getUnicodeStream(int columnIndex) throws SQLException
-	{
-		return getInputStream(getString(columnIndex), StandardCharsets.UTF_16LE);
-	}
-
-	@Override
-	public InputStream getBinaryStream(int columnIndex) throws SQLException
-	{
-		byte[] val = getBytes(columnIndex);
-		return val == null ? null : new ByteArrayInputStream(val);
-	}
-
-	@Override
-	public InputStream getAsciiStream(String columnLabel) throws SQLException
-	{
-		return getInputStream(getString(columnLabel), StandardCharsets.US_ASCII);
-	}
-
-	@Override
-	public InputStream getUnicodeStream(String columnLabel) throws SQLException
-	{
-		return getInputStream(getString(columnLabel), StandardCharsets.UTF_16LE);
-	}
-
-	@Override
-	public InputStream getBinaryStream(String columnLabel) throws SQLException
-	{
-		byte[] val = getBytes(columnLabel);
-		return val == null ? null : new ByteArrayInputStream(val);
-	}
-
-	@Override
-	public String getNString(int columnIndex) throws SQLException
-	{
-		return getString(columnIndex);
-	}
-
-	@Override
-	public String getNString(String columnLabel) throws SQLException
-	{
-		return getString(columnLabel);
-	}
-
-	@Override
-	public Reader getNCharacterStream(int columnIndex) throws SQLException
-	{
-		return getCharacterStream(columnIndex);
-	}
-
-	@Override
-	public Reader getNCharacterStream(String columnLabel) throws SQLException
-	{
-		return getCharacterStream(columnLabel);
-	}
-
-}
+package nl.topicus.jdbc.resultset;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import nl.topicus.jdbc.CloudSpannerArray;
+import nl.topicus.jdbc.util.CloudSpannerConversionUtil;
+
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.Code;
+
+public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet
+{
+	private com.google.cloud.spanner.ResultSet resultSet;
+
+	private boolean closed = false;
+
+	private boolean wasNull = false;
+
+	private boolean beforeFirst = true;
+
+	private boolean afterLast = false;
+
+	/**
+	 * True if this result set is open and positioned on a row
+	 */
+	private boolean onRow = false;
+
+	private boolean nextCalledForMetaData = false;
+
+	private boolean nextCalledForMetaDataResult = false;
+
+	private Statement statement;
+
+	/**
+	 * The maximum number of rows that this result set returns, 0 means no
+	 * maximum
+	 */
+	private int maxRows;
+
+	private int rowCount;
+
+	private volatile boolean cancelled;
+
+	private volatile boolean timedOut;
+
+	private Runnable closeHandler;
+
+	/**
+	 * Cancels the query when it exceeds its timeout, null if there is no
+	 * timeout or if the first result of the query has been received
+	 */
+	private volatile Future<?> timeoutTimer;
+
+	/**
+	 * The underlying result set if this is a scrollable result set, otherwise
+	 * null
+	 */
+	private ScrollableResultSet scrollable;
+
+	/**
+	 * Resolves column labels to column indices, created on first use
+	 */
+	private ColumnLabelIndex columnLabels;
+
+	/**
+	 * The metadata of the row type, shared with other result sets of the same
+	 * row type and created on first use
+	 */
+	private CloudSpannerResultSetMetaData metaData;
+
+	public CloudSpannerResultSet(com.google.cloud.spanner.ResultSet resultSet)
+	{
+		this.resultSet = resultSet;
+		if (resultSet instanceof ScrollableResultSet)
+			this.scrollable = (ScrollableResultSet) resultSet;
+	}
+
+	public CloudSpannerResultSet(Statement statement, com.google.cloud.spanner.ResultSet resultSet)
+			throws SQLException
+	{
+		this(resultSet);
+		this.statement = statement;
+		// A scrollable result set limits the number of rows that it reads
+		if (scrollable == null)
+			this.maxRows = statement.getMaxRows();
+	}
+
+	@Override
+	public boolean wasNull() throws SQLException
+	{
+		return wasNull;
+	}
+
+	private void ensureOpenAndInValidPosition() throws SQLException
+	{
+		ensureOpen();
+		ensureAfterFirst();
+		ensureBeforeLast();
+		if (!onRow)
+			throw new SQLException("Not positioned on a row");
+	}
+
+	private void ensureAfterFirst() throws SQLException
+	{
+		if (beforeFirst)
+			throw new SQLException("Before first record");
+	}
+
+	private void ensureBeforeLast() throws SQLException
+	{
+		if (afterLast)
+			throw new SQLException("After last record");
+	}
+
+	private void ensureOpen() throws SQLException
+	{
+		if (closed)
+			throw new SQLException("Resultset is closed");
+	}
+
+	/**
+	 * Cancels the query of this result set. The stream that returns the rows
+	 * of the query is closed, which also cancels the query on the server. This
+	 * method may be called from any thread. A subsequent or concurrent call to
+	 * {@link #next()} throws an {@link SQLException}, or an
+	 * {@link SQLTimeoutException} if the query was cancelled because it timed
+	 * out.
+	 * 
+	 * @param timeout
+	 *            true if the query is cancelled because it exceeded its timeout
+	 */
+	public void cancel(boolean timeout)
+	{
+		if (!cancelled)
+		{
+			timedOut = timeout;
+			cancelled = true;
+			resultSet.close();
+		}
+	}
+
+	/**
+	 * Sets a handler that is called once when this result set is closed
+	 * 
+	 * @param closeHandler
+	 *            The handler to call
+	 */
+	public void setCloseHandler(Runnable closeHandler)
+	{
+		this.closeHandler = closeHandler;
+	}
+
+	/**
+	 * Sets the timer that cancels the query of this result set when it
+	 * exceeds its timeout. The timer is stopped when the first row or the end
+	 * of the rows has been received, as the query has then been executed.
+	 * Reading the remaining rows is not limited by the timeout, so that a slow
+	 * reader or a scrollable result set that is kept open is not cancelled.
+	 * 
+	 * @param timeoutTimer
+	 *            The timer to stop
+	 */
+	public void setTimeoutTimer(Future<?> timeoutTimer)
+	{
+		this.timeoutTimer = timeoutTimer;
+	}
+
+	private void stopTimeoutTimer()
+	{
+		Future<?> timer = timeoutTimer;
+		if (timer != null)
+		{
+			timeoutTimer = null;
+			timer.cancel(false);
+		}
+	}
+
+	private void ensureNotCancelled(RuntimeException cause) throws SQLException
+	{
+		if (timedOut)
+			throw new SQLTimeoutException("Query timed out", cause);
+		if (cancelled)
+			throw new SQLException("Query was cancelled", cause);
+	}
+
+	private boolean nextRow() throws SQLException
+	{
+		ensureNotCancelled(null);
+		try
+		{
+			boolean res = resultSet.next();
+			stopTimeoutTimer();
+			return res;
+		}
+		catch (RuntimeException e)
+		{
+			// Closing the stream of a cancelled query makes next() fail
+			ensureNotCancelled(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean next() throws SQLException
+	{
+		ensureOpen();
+		if (scrollable != null)
+			return moveTo(scrollable.getRowNumber() + 1);
+		boolean res;
+		if (!beforeFirst && nextCalledForMetaData)
+		{
+			nextCalledForMetaData = false;
+			res = nextCalledForMetaDataResult;
+		}
+		else
+		{
+			beforeFirst = false;
+			res = nextRow();
+		}
+		if (res && maxRows > 0 && ++rowCount > maxRows)
+		{
+			// The query could not be limited by Cloud Spanner, silently drop
+			// the rows that exceed the maximum
+			res = false;
+		}
+		afterLast = !res;
+		onRow = res;
+
+		return res;
+	}
+
+	@Override
+	public void close() throws SQLException
+	{
+		stopTimeoutTimer();
+		resultSet.close();
+		if (!closed && closeHandler != null)
+			closeHandler.run();
+		closed = true;
+		onRow = false;
+	}
+
+	@Override
+	public String getString(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : resultSet.getString(index);
+	}
+
+	@Override
+	public boolean getBoolean(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? false : resultSet.getBoolean(index);
+	}
+
+	@Override
+	public long getLong(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? 0 : resultSet.getLong(index);
+	}
+
+	@Override
+	public double getDouble(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? 0 : resultSet.getDouble(index);
+	}
+
+	private BigDecimal toBigDecimal(double d, int scale)
+	{
+		return new BigDecimal(d, new MathContext(scale));
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : toBigDecimal(resultSet.getDouble(index), scale);
+	}
+
+	@Override
+	public byte[] getBytes(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : resultSet.getBytes(index).toByteArray();
+	}
+
+	@Override
+	public Date getDate(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(index));
+	}
+
+	@Override
+	public Time getTime(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : CloudSpannerConversionUtil.toSqlTime(resultSet.getTimestamp(index));
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : CloudSpannerConversionUtil.toSqlTimestamp(resultSet.getTimestamp(index));
+	}
+
+	@Override
+	public String getString(String columnLabel) throws SQLException
+	{
+		return getString(findColumn(columnLabel));
+	}
+
+	@Override
+	public boolean getBoolean(String columnLabel) throws SQLException
+	{
+		return getBoolean(findColumn(columnLabel));
+	}
+
+	@Override
+	public long getLong(String columnLabel) throws SQLException
+	{
+		return getLong(findColumn(columnLabel));
+	}
+
+	@Override
+	public double getDouble(String columnLabel) throws SQLException
+	{
+		return getDouble(findColumn(columnLabel));
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException
+	{
+		return getBigDecimal(findColumn(columnLabel), scale);
+	}
+
+	@Override
+	public byte[] getBytes(String columnLabel) throws SQLException
+	{
+		return getBytes(findColumn(columnLabel));
+	}
+
+	@Override
+	public Date getDate(String columnLabel) throws SQLException
+	{
+		return getDate(findColumn(columnLabel));
+	}
+
+	@Override
+	public Time getTime(String columnLabel) throws SQLException
+	{
+		return getTime(findColumn(columnLabel));
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnLabel) throws SQLException
+	{
+		return getTimestamp(findColumn(columnLabel));
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException
+	{
+		ensureOpen();
+		if (beforeFirst && scrollable == null)
+		{
+			nextCalledForMetaDataResult = nextRow();
+			afterLast = !nextCalledForMetaDataResult;
+			beforeFirst = false;
+			onRow = nextCalledForMetaDataResult;
+			nextCalledForMetaData = true;
+		}
+		if (metaData == null)
+			metaData = CloudSpannerResultSetMetaData.of(resultSet.getType());
+		return metaData;
+	}
+
+	@Override
+	public int findColumn(String columnLabel) throws SQLException
+	{
+		ensureOpen();
+		if (columnLabels == null)
+			columnLabels = ColumnLabelIndex.of(resultSet.getType());
+		int index = columnLabels.indexOf(columnLabel);
+		if (index < 0)
+			throw new SQLException("Column not found: " + columnLabel);
+		return index + 1;
+	}
+
+	/**
+	 * Checks that this result set is positioned on a row and records whether
+	 * the value of a column is null. This is the only check that the getters
+	 * perform before they read the value of the column.
+	 * 
+	 * @param columnIndex
+	 *            The one-based index of the column
+	 * @return The zero-based index of the column, or -1 if the value is null
+	 * @throws SQLException
+	 *             if the result set is closed or not positioned on a row
+	 */
+	private int valueIndex(int columnIndex) throws SQLException
+	{
+		if (!onRow)
+			ensureOpenAndInValidPosition();
+		int index = columnIndex - 1;
+		wasNull = resultSet.isNull(index);
+		return wasNull ? -1 : index;
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : toBigDecimal(resultSet.getDouble(index), 34);
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(String columnLabel) throws SQLException
+	{
+		return getBigDecimal(findColumn(columnLabel));
+	}
+
+	@Override
+	public Statement getStatement() throws SQLException
+	{
+		ensureOpen();
+		return statement;
+	}
+
+	@Override
+	public Date getDate(int columnIndex, Calendar cal) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		if (index < 0)
+			return null;
+		TimeZone zone = cal == null ? TimeZone.getDefault() : cal.getTimeZone();
+		return CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(index), zone);
+	}
+
+	@Override
+	public Date getDate(String columnLabel, Calendar cal) throws SQLException
+	{
+		return getDate(findColumn(columnLabel), cal);
+	}
+
+	@Override
+	public Time getTime(int columnIndex, Calendar cal) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : CloudSpannerConversionUtil.toSqlTime(resultSet.getTimestamp(index));
+	}
+
+	@Override
+	public Time getTime(String columnLabel, Calendar cal) throws SQLException
+	{
+		return getTime(findColumn(columnLabel), cal);
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : CloudSpannerConversionUtil.toSqlTimestamp(resultSet.getTimestamp(index));
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException
+	{
+		return getTimestamp(findColumn(columnLabel), cal);
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException
+	{
+		return closed;
+	}
+
+	@Override
+	public byte getByte(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? 0 : (byte) resultSet.getLong(index);
+	}
+
+	@Override
+	public short getShort(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? 0 : (short) resultSet.getLong(index);
+	}
+
+	@Override
+	public int getInt(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? 0 : (int) resultSet.getLong(index);
+	}
+
+	@Override
+	public float getFloat(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? 0 : (float) resultSet.getDouble(index);
+	}
+
+	@Override
+	public byte getByte(String columnLabel) throws SQLException
+	{
+		return getByte(findColumn(columnLabel));
+	}
+
+	@Override
+	public short getShort(String columnLabel) throws SQLException
+	{
+		return getShort(findColumn(columnLabel));
+	}
+
+	@Override
+	public int getInt(String columnLabel) throws SQLException
+	{
+		return getInt(findColumn(columnLabel));
+	}
+
+	@Override
+	public float getFloat(String columnLabel) throws SQLException
+	{
+		return getFloat(findColumn(columnLabel));
+	}
+
+	@Override
+	public Object getObject(String columnLabel) throws SQLException
+	{
+		return getObject(findColumn(columnLabel));
+	}
+
+	@Override
+	public Object getObject(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : getObject(resultSet.getColumnType(index), index);
+	}
+
+	@Override
+	public Array getArray(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : CloudSpannerArray.createArray(resultSet, index);
+	}
+
+	@Override
+	public Array getArray(String columnLabel) throws SQLException
+	{
+		return getArray(findColumn(columnLabel));
+	}
+
+	@Override
+	public <T> T getObject(int columnIndex, Class<T> type) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		if (index < 0)
+			return null;
+		Type columnType = resultSet.getColumnType(index);
+		Object res;
+		if (columnType == Type.date() && type == LocalDate.class)
+			res = CloudSpannerConversionUtil.toLocalDate(resultSet.getDate(index));
+		else if (columnType == Type.timestamp() && type == Instant.class)
+			res = CloudSpannerConversionUtil.toInstant(resultSet.getTimestamp(index));
+		else if (columnType == Type.timestamp() && type == OffsetDateTime.class)
+			res = CloudSpannerConversionUtil.toInstant(resultSet.getTimestamp(index)).atOffset(ZoneOffset.UTC);
+		else if (columnType == Type.timestamp() && type == LocalDateTime.class)
+			res = LocalDateTime.ofInstant(CloudSpannerConversionUtil.toInstant(resultSet.getTimestamp(index)),
+					ZoneId.systemDefault());
+		else if (columnType == Type.int64() && type == Long.class)
+			res = resultSet.getLong(index);
+		else if (columnType == Type.float64() && type == Double.class)
+			res = resultSet.getDouble(index);
+		else if (columnType.getCode() == Code.ARRAY && type.isArray())
+		{
+			CloudSpannerArray array = CloudSpannerArray.createArray(resultSet, index);
+			res = array.isWrapperFor(type) ? array.unwrap(type) : array.getArray();
+		}
+		else
+			res = getObject(columnType, index);
+		if (!type.isInstance(res))
+			throw new SQLException("Cannot convert a value of type " + columnType + " to " + type.getName());
+		return type.cast(res);
+	}
+
+	@Override
+	public <T> T getObject(String columnLabel, Class<T> type) throws SQLException
+	{
+		return getObject(findColumn(columnLabel), type);
+	}
+
+	/**
+	 * @return The value of a column that is not null
+	 */
+	private Object getObject(Type type, int index) throws SQLException
+	{
+		if (type == Type.bool())
+			return resultSet.getBoolean(index);
+		if (type == Type.bytes())
+			return resultSet.getBytes(index).toByteArray();
+		if (type == Type.date())
+			return CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(index));
+		if (type == Type.float64())
+			return (float) resultSet.getDouble(index);
+		if (type == Type.int64())
+			return (int) resultSet.getLong(index);
+		if (type == Type.string())
+			return resultSet.getString(index);
+		if (type == Type.timestamp())
+			return CloudSpannerConversionUtil.toSqlTimestamp(resultSet.getTimestamp(index));
+		if (type.getCode() == Code.ARRAY)
+			return CloudSpannerArray.createArray(resultSet, index);
+		throw new SQLException("Unknown type: " + type.toString());
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException
+	{
+		ensureOpen();
+		return null;
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException
+	{
+		ensureOpen();
+	}
+
+	/**
+	 * Executes an operation on the scrollable result set and converts errors
+	 * of a cancelled query
+	 */
+	private <T> T scroll(Supplier<T> operation) throws SQLException
+	{
+		ensureOpen();
+		if (scrollable == null)
+			throw new SQLFeatureNotSupportedException("The result set is of type TYPE_FORWARD_ONLY");
+		ensureNotCancelled(null);
+		try
+		{
+			T res = operation.get();
+			stopTimeoutTimer();
+			return res;
+		}
+		catch (RuntimeException e)
+		{
+			ensureNotCancelled(e);
+			throw e;
+		}
+	}
+
+	private boolean moveTo(int row) throws SQLException
+	{
+		boolean res = scroll(() -> scrollable.moveTo(row));
+		beforeFirst = scrollable.getRowNumber() == 0;
+		afterLast = scrollable.isAfterLastRow();
+		onRow = res;
+		return res;
+	}
+
+	@Override
+	public boolean absolute(int row) throws SQLException
+	{
+		if (row >= 0)
+			return moveTo(row);
+		int rowCount = scroll(() -> scrollable.getRowCount());
+		return moveTo(Math.max(rowCount + 1 + row, 0));
+	}
+
+	@Override
+	public boolean relative(int rows) throws SQLException
+	{
+		long row = (long) scroll(() -> scrollable.getRowNumber()) + rows;
+		return moveTo((int) Math.max(Math.min(row, Integer.MAX_VALUE), 0L));
+	}
+
+	@Override
+	public boolean previous() throws SQLException
+	{
+		return moveTo(scroll(() -> scrollable.getRowNumber()) - 1);
+	}
+
+	@Override
+	public boolean first() throws SQLException
+	{
+		return moveTo(1);
+	}
+
+	@Override
+	public boolean last() throws SQLException
+	{
+		return moveTo(scroll(() -> scrollable.getRowCount()));
+	}
+
+	@Override
+	public void beforeFirst() throws SQLException
+	{
+		moveTo(0);
+	}
+
+	@Override
+	public void afterLast() throws SQLException
+	{
+		moveTo(Integer.MAX_VALUE);
+	}
+
+	@Override
+	public boolean isFirst() throws SQLException
+	{
+		return scroll(() -> scrollable.getRowNumber()) == 1;
+	}
+
+	@Override
+	public boolean isLast() throws SQLException
+	{
+		return scroll(() -> scrollable.isOnLastRow());
+	}
+
+	@Override
+	public int getRow() throws SQLException
+	{
+		return afterLast ? 0 : scroll(() -> scrollable.getRowNumber());
+	}
+
+	@Override
+	public int getType() throws SQLException
+	{
+		return scrollable == null ? super.getType() : TYPE_SCROLL_INSENSITIVE;
+	}
+
+	@Override
+	public void setFetchDirection(int direction) throws SQLException
+	{
+		if (scrollable == null)
+			super.setFetchDirection(direction);
+		else if (direction != FETCH_FORWARD && direction != FETCH_REVERSE && direction != FETCH_UNKNOWN)
+			throw new SQLException("Unknown direction: " + direction);
+	}
+
+	@Override
+	public boolean isBeforeFirst() throws SQLException
+	{
+		ensureOpen();
+		return beforeFirst;
+	}
+
+	@Override
+	public boolean isAfterLast() throws SQLException
+	{
+		ensureOpen();
+		return afterLast;
+	}
+
+	@Override
+	public Reader getCharacterStream(int columnIndex) throws SQLException
+	{
+		String val = getString(columnIndex);
+		return val == null ? null : new StringReader(val);
+	}
+
+	@Override
+	public Reader getCharacterStream(String columnLabel) throws SQLException
+	{
+		return getCharacterStream(findColumn(columnLabel));
+	}
+
+	private InputStream getInputStream(String val, Charset charset)
+	{
+		if (val == null)
+			return null;
+		return new EncodingInputStream(val, charset);
+	}
+
+	@Override
+	public InputStream getAsciiStream(int columnIndex) throws SQLException
+	{
+		return getInputStream(getString(columnIndex), StandardCharsets.US_ASCII);
+	}
+
+	@Override
+	public InputStream getUnicodeStream(int columnIndex) throws SQLException
+	{
+		return getInputStream(getString(columnIndex), StandardCharsets.UTF_16LE);
+	}
+
+	@Override
+	public InputStream getBinaryStream(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : resultSet.getBytes(index).asInputStream();
+	}
+
+	/**
+	 * Returns the value of a BYTES column as a read-only view of the bytes
+	 * that were received from Google Cloud Spanner, without copying them
+	 * 
+	 * @param columnIndex
+	 *            The one-based index of the column
+	 * @return A read-only buffer with the value of the column, or null if the
+	 *         value is null
+	 * @throws SQLException
+	 *             if the result set is closed or not positioned on a row
+	 */
+	public ByteBuffer getByteBuffer(int columnIndex) throws SQLException
+	{
+		int index = valueIndex(columnIndex);
+		return index < 0 ? null : resultSet.getBytes(index).asReadOnlyByteBuffer();
+	}
+
+	/**
+	 * Returns the value of a BYTES column as a read-only view of the bytes
+	 * that were received from Google Cloud Spanner, without copying them
+	 * 
+	 * @param columnLabel
+	 *            The label of the column
+	 * @return A read-only buffer with the value of the column, or null if the
+	 *         value is null
+	 * @throws SQLException
+	 *             if the result set is closed, not positioned on a row or the
+	 *             column does not exist
+	 */
+	public ByteBuffer getByteBuffer(String columnLabel) throws SQLException
+	{
+		return getByteBuffer(findColumn(columnLabel));
+	}
+
+	@Override
+	public InputStream getAsciiStream(String columnLabel) throws SQLException
+	{
+		return getAsciiStream(findColumn(columnLabel));
+	}
+
+	@Override
+	public InputStream getUnicodeStream(String columnLabel) throws SQLException
+	{
+		return getUnicodeStream(findColumn(columnLabel));
+	}
+
+	@Override
+	public InputStream getBinaryStream(String columnLabel) throws SQLException
+	{
+		return getBinaryStream(findColumn(columnLabel));
+	}
+
+	@Override
+	public String getNString(int columnIndex) throws SQLException
+	{
+		return getString(columnIndex);
+	}
+
+	@Override
+	public String getNString(String columnLabel) throws SQLException
+	{
+		return getNString(findColumn(columnLabel));
+	}
+
+	@Override
+	public Reader getNCharacterStream(int columnIndex) throws SQLException
+	{
+		return getCharacterStream(columnIndex);
+	}
+
+	@Override
+	public Reader getNCharacterStream(String columnLabel) throws SQLException
+	{
+		return getNCharacterStream(findColumn(columnLabel));
+	}
+
+}
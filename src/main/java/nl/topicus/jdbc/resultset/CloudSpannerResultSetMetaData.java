@@ -1,147 +1,246 @@
-package nl.topicus.jdbc.resultset;
-
-import java.sql.ResultSetMetaData;
-import java.sql.SQLException;
-import java.sql.Types;
-
-import nl.topicus.jdbc.metadata.AbstractCloudSpannerWrapper;
-
-import com.google.cloud.spanner.ResultSet;
-
-public class CloudSpannerResultSetMetaData extends AbstractCloudSpannerWrapper implements ResultSetMetaData
-{
-	private ResultSet resultSet;
-
-	public CloudSpannerResultSetMetaData(ResultSet resultSet)
-	{
-		this.resultSet = resultSet;
-	}
-
-	@Override
-	public int getColumnCount() throws SQLException
-	{
-		return resultSet.getColumnCount();
-	}
-
-	@Override
-	public boolean isAutoIncrement(int column) throws SQLException
-	{
-		return false;
-	}
-
-	@Override
-	public boolean isCaseSensitive(int column) throws SQLException
-	{
-		return false;
-	}
-
-	@Override
-	public boolean isSearchable(int column) throws SQLException
-	{
-		return true;
-	}
-
-	@Override
-	public boolean isCurrency(int column) throws SQLException
-	{
-		return false;
-	}
-
-	@Override
-	public int isNullable(int column) throws SQLException
-	{
-		return columnNullableUnknown;
-	}
-
-	@Override
-	public boolean isSigned(int column) throws SQLException
-	{
-		int type = getColumnType(column);
-		return type == Types.DOUBLE || type == Types.BIGINT;
-	}
-
-	@Override
-	public int getColumnDisplaySize(int column) throws SQLException
-	{
-		return 0;
-	}
-
-	@Override
-	public String getColumnLabel(int column) throws SQLException
-	{
-		return resultSet.getType().getStructFields().get(column - 1).getName();
-	}
-
-	@Override
-	public String getColumnName(int column) throws SQLException
-	{
-		return resultSet.getType().getStructFields().get(column - 1).getName();
-	}
-
-	@Override
-	public String getSchemaName(int column) throws SQLException
-	{
-		return "";
-	}
-
-	@Override
-	public int getPrecision(int column) throws SQLException
-	{
-		return 0;
-	}
-
-	@Override
-	public int getScale(int column) throws SQLException
-	{
-		return 0;
-	}
-
-	@Override
-	public String getTableName(int column) throws SQLException
-	{
-		return "";
-	}
-
-	@Override
-	public String getCatalogName(int column) throws SQLException
-	{
-		return "";
-	}
-
-	@Override
-	public int getColumnType(int column) throws SQLException
-	{
-		return extractColumnType(resultSet.getColumnType(column - 1));
-	}
-
-	@Override
-	public String getColumnTypeName(int column) throws SQLException
-	{
-		return resultSet.getColumnType(column - 1).getCode().name();
-	}
-
-	@Override
-	public boolean isReadOnly(int column) throws SQLException
-	{
-		return true;
-	}
-
-	@Override
-	public boolean isWritable(int column) throws SQLException
-	{
-		return false;
-	}
-
-	@Override
-	public boolean isDefinitelyWritable(int column) throws SQLException
-	{
-		return false;
-	}
-
-	@Override
-	public String getColumnClassName(int column) throws SQLException
-	{
-		return getClassName(getColumnType(column));
-	}
-
-}
+package nl.topicus.jdbc.resultset;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+import nl.topicus.jdbc.metadata.AbstractCloudSpannerWrapper;
+import nl.topicus.jdbc.util.BoundedLruCache;
+
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+
+/**
+ * Immutable {@link ResultSetMetaData} of one row type. The properties of the
+ * columns are computed once when the metadata is created, and the metadata is
+ * shared by all result sets with the same row type.
+ *
+ * @author loite
+ *
+ */
+public class CloudSpannerResultSetMetaData extends AbstractCloudSpannerWrapper implements ResultSetMetaData
+{
+	private static final int MAX_CACHE_SIZE = 1000;
+
+	private static final BoundedLruCache<Type, CloudSpannerResultSetMetaData> CACHE = new BoundedLruCache<>(
+			MAX_CACHE_SIZE);
+
+	private final String[] names;
+
+	private final int[] types;
+
+	private final String[] typeNames;
+
+	private final String[] classNames;
+
+	private final int[] displaySizes;
+
+	/**
+	 *
+	 * @param type
+	 *            The row type of the result set
+	 */
+	public CloudSpannerResultSetMetaData(Type type)
+	{
+		List<StructField> fields = type.getStructFields();
+		names = new String[fields.size()];
+		types = new int[fields.size()];
+		typeNames = new String[fields.size()];
+		classNames = new String[fields.size()];
+		displaySizes = new int[fields.size()];
+		for (int index = 0; index < fields.size(); index++)
+		{
+			StructField field = fields.get(index);
+			names[index] = field.getName();
+			types[index] = extractColumnType(field.getType());
+			typeNames[index] = field.getType().getCode().name();
+			classNames[index] = getClassName(types[index]);
+			displaySizes[index] = getDisplaySize(types[index]);
+		}
+	}
+
+	/**
+	 *
+	 * @param resultSet
+	 *            The result set to create the metadata for. The row type of
+	 *            the result set must be known, which means that
+	 *            {@link ResultSet#next()} must have been called.
+	 */
+	public CloudSpannerResultSetMetaData(ResultSet resultSet)
+	{
+		this(resultSet.getType());
+	}
+
+	/**
+	 * @param type
+	 *            A row type
+	 * @return The metadata of the row type
+	 */
+	static CloudSpannerResultSetMetaData of(Type type)
+	{
+		return CACHE.get(type, CloudSpannerResultSetMetaData::new);
+	}
+
+	/**
+	 * @return The maximum number of characters of the values of a type, or 0
+	 *         if there is no fixed maximum
+	 */
+	private static int getDisplaySize(int sqlType)
+	{
+		switch (sqlType)
+		{
+		case Types.BOOLEAN:
+			return 5;
+		case Types.BIGINT:
+			return 20;
+		case Types.DOUBLE:
+			return 24;
+		case Types.DATE:
+			return 10;
+		case Types.TIMESTAMP:
+			return 30;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * @return The zero-based index of a column
+	 */
+	private int index(int column) throws SQLException
+	{
+		if (column < 1 || column > names.length)
+			throw new SQLException("Invalid column index: " + column);
+		return column - 1;
+	}
+
+	@Override
+	public int getColumnCount() throws SQLException
+	{
+		return names.length;
+	}
+
+	@Override
+	public boolean isAutoIncrement(int column) throws SQLException
+	{
+		return false;
+	}
+
+	@Override
+	public boolean isCaseSensitive(int column) throws SQLException
+	{
+		return false;
+	}
+
+	@Override
+	public boolean isSearchable(int column) throws SQLException
+	{
+		return true;
+	}
+
+	@Override
+	public boolean isCurrency(int column) throws SQLException
+	{
+		return false;
+	}
+
+	@Override
+	public int isNullable(int column) throws SQLException
+	{
+		return columnNullableUnknown;
+	}
+
+	@Override
+	public boolean isSigned(int column) throws SQLException
+	{
+		int type = getColumnType(column);
+		return type == Types.DOUBLE || type == Types.BIGINT;
+	}
+
+	@Override
+	public int getColumnDisplaySize(int column) throws SQLException
+	{
+		return displaySizes[index(column)];
+	}
+
+	@Override
+	public String getColumnLabel(int column) throws SQLException
+	{
+		return names[index(column)];
+	}
+
+	@Override
+	public String getColumnName(int column) throws SQLException
+	{
+		return names[index(column)];
+	}
+
+	@Override
+	public String getSchemaName(int column) throws SQLException
+	{
+		return "";
+	}
+
+	@Override
+	public int getPrecision(int column) throws SQLException
+	{
+		return 0;
+	}
+
+	@Override
+	public int getScale(int column) throws SQLException
+	{
+		return 0;
+	}
+
+	@Override
+	public String getTableName(int column) throws SQLException
+	{
+		return "";
+	}
+
+	@Override
+	public String getCatalogName(int column) throws SQLException
+	{
+		return "";
+	}
+
+	@Override
+	public int getColumnType(int column) throws SQLException
+	{
+		return types[index(column)];
+	}
+
+	@Override
+	public String getColumnTypeName(int column) throws SQLException
+	{
+		return typeNames[index(column)];
+	}
+
+	@Override
+	public boolean isReadOnly(int column) throws SQLException
+	{
+		return true;
+	}
+
+	@Override
+	public boolean isWritable(int column) throws SQLException
+	{
+		return false;
+	}
+
+	@Override
+	public boolean isDefinitelyWritable(int column) throws SQLException
+	{
+		return false;
+	}
+
+	@Override
+	public String getColumnClassName(int column) throws SQLException
+	{
+		return classNames[index(column)];
+	}
+
+}
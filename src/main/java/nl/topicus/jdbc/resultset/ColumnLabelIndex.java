@@ -0,0 +1,102 @@
+package nl.topicus.jdbc.resultset;
+
+import java.util.List;
+
+import nl.topicus.jdbc.util.BoundedLruCache;
+
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+
+/**
+ * Case-insensitive lookup table from column labels to column indices for one
+ * row type. The labels are stored in an open addressing hash table that is
+ * built once per distinct row type and shared by all result sets with that
+ * type, so that resolving a label does not allocate and does not walk the
+ * fields of the row. If several columns have the same label, the label
+ * resolves to the first of these columns.
+ *
+ * @author loite
+ *
+ */
+final class ColumnLabelIndex
+{
+	private static final int MAX_CACHE_SIZE = 1000;
+
+	private static final BoundedLruCache<Type, ColumnLabelIndex> CACHE = new BoundedLruCache<>(MAX_CACHE_SIZE);
+
+	/**
+	 * The labels of the slots of the hash table, null for an empty slot
+	 */
+	private final String[] labels;
+
+	/**
+	 * The zero-based column indices of the slots of the hash table
+	 */
+	private final int[] indices;
+
+	private final int mask;
+
+	private ColumnLabelIndex(List<StructField> fields)
+	{
+		int size = Integer.highestOneBit(Math.max(fields.size(), 1) * 2 + 1) << 1;
+		labels = new String[size];
+		indices = new int[size];
+		mask = size - 1;
+		for (int index = 0; index < fields.size(); index++)
+		{
+			String label = fields.get(index).getName();
+			int slot = hash(label) & mask;
+			while (labels[slot] != null && !labels[slot].equalsIgnoreCase(label))
+				slot = (slot + 1) & mask;
+			if (labels[slot] == null)
+			{
+				labels[slot] = label;
+				indices[slot] = index;
+			}
+		}
+	}
+
+	/**
+	 * @param type
+	 *            A row type
+	 * @return The lookup table for the row type
+	 */
+	static ColumnLabelIndex of(Type type)
+	{
+		return CACHE.get(type, key -> new ColumnLabelIndex(key.getStructFields()));
+	}
+
+	/**
+	 * @param label
+	 *            A column label, case-insensitive
+	 * @return The zero-based index of the column, or -1 if there is no column
+	 *         with the label
+	 */
+	int indexOf(String label)
+	{
+		if (label == null)
+			return -1;
+		int slot = hash(label) & mask;
+		String candidate;
+		while ((candidate = labels[slot]) != null)
+		{
+			if (candidate == label || candidate.equalsIgnoreCase(label))
+				return indices[slot];
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Computes a hash code of a label that is the same for all labels that
+	 * are equal ignoring case
+	 */
+	private static int hash(String label)
+	{
+		int res = 0;
+		for (int i = 0; i < label.length(); i++)
+			res = 31 * res + Character.toUpperCase(Character.toLowerCase(label.charAt(i)));
+		return res ^ (res >>> 16);
+	}
+
+}
@@ -0,0 +1,105 @@
+package nl.topicus.jdbc.resultset;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * {@link InputStream} that encodes a character sequence on the fly. Only a
+ * small buffer of encoded bytes is kept in memory, instead of a copy of the
+ * complete encoded sequence. Characters that cannot be encoded are replaced
+ * by the replacement of the charset, like {@link String#getBytes(Charset)}
+ * does.
+ *
+ * @author loite
+ *
+ */
+class EncodingInputStream extends InputStream
+{
+	private static final int BUFFER_SIZE = 8192;
+
+	private final CharBuffer chars;
+
+	private final CharsetEncoder encoder;
+
+	private final ByteBuffer bytes;
+
+	private boolean flushed;
+
+	/**
+	 *
+	 * @param value
+	 *            The characters to encode
+	 * @param charset
+	 *            The charset to encode the characters with
+	 */
+	EncodingInputStream(CharSequence value, Charset charset)
+	{
+		this.chars = CharBuffer.wrap(value);
+		this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		int size = (int) Math.min(BUFFER_SIZE, Math.ceil(value.length() * (double) encoder.maxBytesPerChar()) + 16);
+		this.bytes = ByteBuffer.allocate(size);
+		this.bytes.flip();
+	}
+
+	/**
+	 * Encodes the next characters if all encoded bytes have been read
+	 *
+	 * @return false if all characters have been encoded and read
+	 */
+	private boolean fill() throws IOException
+	{
+		while (!bytes.hasRemaining())
+		{
+			if (flushed)
+				return false;
+			bytes.clear();
+			CoderResult result = encoder.encode(chars, bytes, true);
+			if (result.isUnderflow())
+			{
+				result = encoder.flush(bytes);
+				flushed = result.isUnderflow();
+			}
+			if (result.isError())
+				result.throwException();
+			bytes.flip();
+		}
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException
+	{
+		return fill() ? bytes.get() & 0xFF : -1;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException
+	{
+		if (off < 0 || len < 0 || len > b.length - off)
+			throw new IndexOutOfBoundsException();
+		if (len == 0)
+			return 0;
+		int res = 0;
+		while (res < len && fill())
+		{
+			int count = Math.min(len - res, bytes.remaining());
+			bytes.get(b, off + res, count);
+			res += count;
+		}
+		return res == 0 ? -1 : res;
+	}
+
+	@Override
+	public int available()
+	{
+		return bytes.remaining();
+	}
+
+}
@@ -0,0 +1,247 @@
+package nl.topicus.jdbc.resultset;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.spanner.v1.ResultSetStats;
+
+/**
+ * A Google Cloud Spanner {@link ResultSet} that reads the rows of another
+ * result set in a background thread. The rows are handed to the consumer
+ * through a bounded buffer, so that the network latency of reading the rows
+ * overlaps with the processing of the rows by the consumer. The producer
+ * blocks when the buffer is full. Closing this result set stops the producer
+ * and closes the underlying result set.
+ *
+ * @author loite
+ *
+ */
+public class PrefetchingResultSet extends AbstractStructResultSet
+{
+	/**
+	 * The time that the producer waits for free space in the buffer before it
+	 * checks whether the result set has been closed
+	 */
+	private static final long OFFER_TIMEOUT_MILLIS = 100L;
+
+	private static final ExecutorService PRODUCERS = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "cloudspanner-result-set-prefetch");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Marks the end of the rows in the buffer
+	 */
+	private static final Object END_OF_ROWS = new Object();
+
+	/**
+	 * Wraps an error of the producer in the buffer
+	 */
+	private static final class ProducerError
+	{
+		private final RuntimeException error;
+
+		private ProducerError(RuntimeException error)
+		{
+			this.error = error;
+		}
+	}
+
+	private final ResultSet delegate;
+
+	private final BlockingQueue<Object> buffer;
+
+	private final CompletableFuture<Type> type = new CompletableFuture<>();
+
+	private final Future<?> producer;
+
+	/**
+	 * Set by the producer when it starts, or by {@link #close()} if the
+	 * producer had not started yet. Whoever sets it closes the delegate.
+	 */
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	private volatile boolean closed;
+
+	private boolean endOfRows;
+
+	private Struct current;
+
+	/**
+	 *
+	 * @param delegate
+	 *            The result set to read the rows from
+	 * @param bufferSize
+	 *            The maximum number of rows that are read ahead of the
+	 *            consumer
+	 */
+	public PrefetchingResultSet(ResultSet delegate, int bufferSize)
+	{
+		if (bufferSize < 1)
+			throw new IllegalArgumentException("Buffer size must be at least 1");
+		this.delegate = delegate;
+		this.buffer = new ArrayBlockingQueue<>(bufferSize);
+		this.producer = PRODUCERS.submit(this::produce);
+	}
+
+	private void produce()
+	{
+		if (!started.compareAndSet(false, true))
+			return;
+		try
+		{
+			while (!closed && delegate.next())
+			{
+				type.complete(delegate.getType());
+				if (!put(delegate.getCurrentRowAsStruct()))
+					break;
+			}
+			if (!closed)
+				type.complete(delegate.getType());
+			put(END_OF_ROWS);
+		}
+		catch (RuntimeException e)
+		{
+			type.completeExceptionally(e);
+			put(new ProducerError(e));
+		}
+		finally
+		{
+			type.completeExceptionally(new IllegalStateException("Result set is closed"));
+			delegate.close();
+		}
+	}
+
+	/**
+	 * Puts an element in the buffer, waiting for free space if necessary
+	 *
+	 * @return true if the element was added, false if the result set was
+	 *         closed while waiting
+	 */
+	private boolean put(Object element)
+	{
+		try
+		{
+			while (!closed)
+			{
+				if (buffer.offer(element, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+					return true;
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	@Override
+	public boolean next()
+	{
+		if (closed)
+			throw new IllegalStateException("Result set is closed");
+		if (endOfRows)
+			return false;
+		Object element;
+		try
+		{
+			element = buffer.take();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the next row", e);
+		}
+		if (closed)
+			throw new IllegalStateException("Result set is closed");
+		if (element instanceof ProducerError)
+		{
+			endOfRows = true;
+			current = null;
+			throw ((ProducerError) element).error;
+		}
+		if (element == END_OF_ROWS)
+		{
+			endOfRows = true;
+			current = null;
+			return false;
+		}
+		current = (Struct) element;
+		return true;
+	}
+
+	@Override
+	protected Struct current()
+	{
+		if (closed)
+			throw new IllegalStateException("Result set is closed");
+		if (current == null)
+			throw new IllegalStateException("Result set is not positioned on a row");
+		return current;
+	}
+
+	/**
+	 * Closes this result set. This method may be called from any thread,
+	 * also while the consumer is waiting for the next row. The producer stops
+	 * adding elements to the buffer when the result set is closed, so an
+	 * element is added here to wake up a waiting consumer.
+	 */
+	@Override
+	public void close()
+	{
+		if (!closed)
+		{
+			closed = true;
+			type.completeExceptionally(new IllegalStateException("Result set is closed"));
+			producer.cancel(true);
+			// A producer that is cancelled before it starts never runs
+			if (started.compareAndSet(false, true))
+				delegate.close();
+			buffer.clear();
+			// If the producer was adding a row while the buffer was cleared,
+			// the buffer may be full, but then the consumer gets that row
+			buffer.offer(END_OF_ROWS);
+			current = null;
+		}
+	}
+
+	public ResultSetStats getStats()
+	{
+		return null;
+	}
+
+	@Override
+	public Type getType()
+	{
+		if (current != null)
+			return current.getType();
+		try
+		{
+			return type.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the result set type", e);
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof SpannerException)
+				throw (SpannerException) e.getCause();
+			throw new IllegalStateException("Prefetching rows failed: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+}
@@ -0,0 +1,195 @@
+package nl.topicus.jdbc.resultset;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Stores encoded rows for random access. Rows are kept in memory until the
+ * memory limit is reached, all subsequent rows are written to a temporary file
+ * that is read through memory mapped windows. The temporary file is deleted
+ * when the cache is closed.
+ *
+ * @author loite
+ *
+ */
+class RowCache implements Closeable
+{
+	private static final int INITIAL_MEMORY_SIZE = 8192;
+
+	private static final int INITIAL_ROW_CAPACITY = 256;
+
+	/**
+	 * The minimum size of the part of the temporary file that is mapped into
+	 * memory at once. Windows start at a multiple of this size, so that
+	 * scrolling backwards and forwards over the rows of the file maps the same
+	 * windows.
+	 */
+	private static final int WINDOW_SIZE = 16 * 1024 * 1024;
+
+	private final int memoryLimit;
+
+	private final int windowSize;
+
+	private byte[] memory;
+
+	private int memoryLength;
+
+	/**
+	 * The start position of each row in memory or, for rows after
+	 * {@link #firstSpilledRow}, in the temporary file
+	 */
+	private long[] offsets = new long[INITIAL_ROW_CAPACITY];
+
+	private int[] lengths = new int[INITIAL_ROW_CAPACITY];
+
+	private int rowCount;
+
+	/**
+	 * The index of the first row that is stored in the temporary file, or -1
+	 * if all rows are in memory
+	 */
+	private int firstSpilledRow = -1;
+
+	private FileChannel channel;
+
+	private long fileLength;
+
+	private MappedByteBuffer window;
+
+	private long windowStart;
+
+	/**
+	 *
+	 * @param memoryLimit
+	 *            The maximum number of bytes of rows to keep in memory
+	 */
+	RowCache(long memoryLimit)
+	{
+		this(memoryLimit, WINDOW_SIZE);
+	}
+
+	/**
+	 *
+	 * @param memoryLimit
+	 *            The maximum number of bytes of rows to keep in memory
+	 * @param windowSize
+	 *            The minimum size of the part of the temporary file that is
+	 *            mapped into memory at once
+	 */
+	RowCache(long memoryLimit, int windowSize)
+	{
+		if (windowSize < 1)
+			throw new IllegalArgumentException("Window size must be at least 1");
+		this.memoryLimit = (int) Math.min(Math.max(memoryLimit, 0L), Integer.MAX_VALUE - 8);
+		this.memory = new byte[Math.min(INITIAL_MEMORY_SIZE, this.memoryLimit)];
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * @return The number of rows in this cache
+	 */
+	int size()
+	{
+		return rowCount;
+	}
+
+	/**
+	 * Adds a row to this cache
+	 *
+	 * @param row
+	 *            The encoded row
+	 * @param length
+	 *            The number of bytes of the row
+	 * @throws IOException
+	 *             if the row could not be written to the temporary file
+	 */
+	void add(byte[] row, int length) throws IOException
+	{
+		if (rowCount == offsets.length)
+		{
+			offsets = Arrays.copyOf(offsets, rowCount * 2);
+			lengths = Arrays.copyOf(lengths, rowCount * 2);
+		}
+		if (firstSpilledRow == -1 && length <= memoryLimit - memoryLength)
+		{
+			if (memoryLength + length > memory.length)
+				memory = Arrays.copyOf(memory,
+						(int) Math.min(memoryLimit, Math.max(memoryLength + (long) length, memory.length * 2L)));
+			System.arraycopy(row, 0, memory, memoryLength, length);
+			offsets[rowCount] = memoryLength;
+			memoryLength += length;
+		}
+		else
+		{
+			if (firstSpilledRow == -1)
+			{
+				firstSpilledRow = rowCount;
+				Path file = Files.createTempFile("cloudspanner-rows", ".tmp");
+				channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+						StandardOpenOption.DELETE_ON_CLOSE);
+			}
+			ByteBuffer buffer = ByteBuffer.wrap(row, 0, length);
+			long position = fileLength;
+			while (buffer.hasRemaining())
+				position += channel.write(buffer, position);
+			offsets[rowCount] = fileLength;
+			fileLength = position;
+		}
+		lengths[rowCount] = length;
+		rowCount++;
+	}
+
+	/**
+	 * Returns a read-only buffer that contains a row of this cache. The buffer
+	 * is positioned at the start of the row and its limit is the end of the
+	 * row.
+	 *
+	 * @param index
+	 *            The zero-based index of the row
+	 * @return A buffer containing the row
+	 * @throws IOException
+	 *             if the row could not be read from the temporary file
+	 */
+	ByteBuffer get(int index) throws IOException
+	{
+		if (index < 0 || index >= rowCount)
+			throw new IndexOutOfBoundsException("Row index " + index + " out of bounds");
+		long offset = offsets[index];
+		int length = lengths[index];
+		if (firstSpilledRow == -1 || index < firstSpilledRow)
+			return ByteBuffer.wrap(memory, (int) offset, length).asReadOnlyBuffer();
+		if (window == null || offset < windowStart || offset + length > windowStart + window.capacity())
+		{
+			long start = offset - offset % windowSize;
+			long size = Math.min(Math.max(windowSize, offset + length - start), fileLength - start);
+			window = channel.map(MapMode.READ_ONLY, start, size);
+			windowStart = start;
+		}
+		ByteBuffer res = window.duplicate();
+		res.position((int) (offset - windowStart));
+		res.limit(res.position() + length);
+		return res;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		memory = null;
+		window = null;
+		if (channel != null)
+		{
+			// The file is deleted when the channel is closed
+			channel.close();
+			channel = null;
+		}
+	}
+
+}
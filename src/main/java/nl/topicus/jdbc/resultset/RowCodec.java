@@ -0,0 +1,365 @@
+package nl.topicus.jdbc.resultset;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.spanner.Date;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.StructReader;
+import com.google.cloud.spanner.Timestamp;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.cloud.spanner.ValueBinder;
+
+/**
+ * Encodes rows of a Google Cloud Spanner result set into a compact binary form
+ * and decodes them back into {@link Struct}s. Each value is preceded by a null
+ * flag. Numbers are stored in fixed width, strings and byte arrays are stored
+ * with their length, dates as year, month and day and timestamps as seconds
+ * and nanoseconds. Arrays are stored with their length and a null flag per
+ * element. STRUCT columns are not supported.
+ *
+ * @author loite
+ *
+ */
+class RowCodec
+{
+	/**
+	 * Gives access to the internal buffer to avoid a copy per encoded row
+	 */
+	private static final class RowBuffer extends ByteArrayOutputStream
+	{
+		private RowBuffer()
+		{
+			super(256);
+		}
+
+		private byte[] getBuffer()
+		{
+			return buf;
+		}
+	}
+
+	private final Type type;
+
+	private final RowBuffer bytes = new RowBuffer();
+
+	private final DataOutputStream output = new DataOutputStream(bytes);
+
+	/**
+	 *
+	 * @param type
+	 *            The type of the rows to encode and decode
+	 */
+	RowCodec(Type type)
+	{
+		this.type = type;
+	}
+
+	/**
+	 * Encodes the current row of a result set. The returned array is reused by
+	 * the next call to this method.
+	 *
+	 * @param row
+	 *            The row to encode
+	 * @return The encoded row, the length of the encoded row is given by
+	 *         {@link #getEncodedLength()}
+	 * @throws IOException
+	 */
+	byte[] encode(StructReader row) throws IOException
+	{
+		bytes.reset();
+		List<StructField> fields = type.getStructFields();
+		for (int index = 0; index < fields.size(); index++)
+		{
+			boolean isNull = row.isNull(index);
+			output.writeBoolean(isNull);
+			if (!isNull)
+				encodeValue(row, index, fields.get(index).getType());
+		}
+		output.flush();
+		return bytes.getBuffer();
+	}
+
+	/**
+	 * @return The length of the last encoded row
+	 */
+	int getEncodedLength()
+	{
+		return bytes.size();
+	}
+
+	private void encodeValue(StructReader row, int index, Type valueType) throws IOException
+	{
+		switch (valueType.getCode())
+		{
+		case BOOL:
+			output.writeBoolean(row.getBoolean(index));
+			break;
+		case INT64:
+			output.writeLong(row.getLong(index));
+			break;
+		case FLOAT64:
+			output.writeDouble(row.getDouble(index));
+			break;
+		case STRING:
+			writeString(row.getString(index));
+			break;
+		case BYTES:
+			writeBytes(row.getBytes(index));
+			break;
+		case DATE:
+			writeDate(row.getDate(index));
+			break;
+		case TIMESTAMP:
+			writeTimestamp(row.getTimestamp(index));
+			break;
+		case ARRAY:
+			encodeArray(row, index, valueType.getArrayElementType());
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported column type for scrollable result sets: " + valueType);
+		}
+	}
+
+	private void encodeArray(StructReader row, int index, Type elementType) throws IOException
+	{
+		switch (elementType.getCode())
+		{
+		case BOOL:
+			for (Boolean value : writeSize(row.getBooleanList(index)))
+				if (writeNotNull(value))
+					output.writeBoolean(value);
+			break;
+		case INT64:
+			for (Long value : writeSize(row.getLongList(index)))
+				if (writeNotNull(value))
+					output.writeLong(value);
+			break;
+		case FLOAT64:
+			for (Double value : writeSize(row.getDoubleList(index)))
+				if (writeNotNull(value))
+					output.writeDouble(value);
+			break;
+		case STRING:
+			for (String value : writeSize(row.getStringList(index)))
+				if (writeNotNull(value))
+					writeString(value);
+			break;
+		case BYTES:
+			for (ByteArray value : writeSize(row.getBytesList(index)))
+				if (writeNotNull(value))
+					writeBytes(value);
+			break;
+		case DATE:
+			for (Date value : writeSize(row.getDateList(index)))
+				if (writeNotNull(value))
+					writeDate(value);
+			break;
+		case TIMESTAMP:
+			for (Timestamp value : writeSize(row.getTimestampList(index)))
+				if (writeNotNull(value))
+					writeTimestamp(value);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported array element type for scrollable result sets: "
+					+ elementType);
+		}
+	}
+
+	private <T> List<T> writeSize(List<T> list) throws IOException
+	{
+		output.writeInt(list.size());
+		return list;
+	}
+
+	private boolean writeNotNull(Object value) throws IOException
+	{
+		output.writeBoolean(value == null);
+		return value != null;
+	}
+
+	private void writeString(String value) throws IOException
+	{
+		byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(utf8.length);
+		output.write(utf8);
+	}
+
+	private void writeBytes(ByteArray value) throws IOException
+	{
+		output.writeInt(value.length());
+		output.write(value.toByteArray());
+	}
+
+	private void writeDate(Date value) throws IOException
+	{
+		output.writeShort(value.getYear());
+		output.writeByte(value.getMonth());
+		output.writeByte(value.getDayOfMonth());
+	}
+
+	private void writeTimestamp(Timestamp value) throws IOException
+	{
+		output.writeLong(value.getSeconds());
+		output.writeInt(value.getNanos());
+	}
+
+	/**
+	 * Decodes a row
+	 *
+	 * @param buffer
+	 *            A buffer positioned at the start of the encoded row
+	 * @return The decoded row
+	 */
+	Struct decode(ByteBuffer buffer)
+	{
+		Struct.Builder builder = Struct.newBuilder();
+		for (StructField field : type.getStructFields())
+		{
+			ValueBinder<Struct.Builder> binder = builder.set(field.getName());
+			boolean isNull = buffer.get() != 0;
+			decodeValue(buffer, binder, field.getType(), isNull);
+		}
+		return builder.build();
+	}
+
+	private void decodeValue(ByteBuffer buffer, ValueBinder<Struct.Builder> binder, Type valueType, boolean isNull)
+	{
+		switch (valueType.getCode())
+		{
+		case BOOL:
+			binder.to(isNull ? null : Boolean.valueOf(buffer.get() != 0));
+			break;
+		case INT64:
+			binder.to(isNull ? null : Long.valueOf(buffer.getLong()));
+			break;
+		case FLOAT64:
+			binder.to(isNull ? null : Double.valueOf(buffer.getDouble()));
+			break;
+		case STRING:
+			binder.to(isNull ? null : readString(buffer));
+			break;
+		case BYTES:
+			binder.to(isNull ? null : readBytes(buffer));
+			break;
+		case DATE:
+			binder.to(isNull ? null : readDate(buffer));
+			break;
+		case TIMESTAMP:
+			binder.to(isNull ? null : readTimestamp(buffer));
+			break;
+		case ARRAY:
+			decodeArray(buffer, binder, valueType.getArrayElementType(), isNull);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported column type for scrollable result sets: " + valueType);
+		}
+	}
+
+	private void decodeArray(ByteBuffer buffer, ValueBinder<Struct.Builder> binder, Type elementType, boolean isNull)
+	{
+		int size = isNull ? 0 : buffer.getInt();
+		switch (elementType.getCode())
+		{
+		case BOOL:
+		{
+			List<Boolean> list = isNull ? null : new ArrayList<>(size);
+			for (int i = 0; i < size; i++)
+				list.add(buffer.get() != 0 ? null : Boolean.valueOf(buffer.get() != 0));
+			binder.toBoolArray(list);
+			break;
+		}
+		case INT64:
+		{
+			List<Long> list = isNull ? null : new ArrayList<>(size);
+			for (int i = 0; i < size; i++)
+				list.add(buffer.get() != 0 ? null : Long.valueOf(buffer.getLong()));
+			binder.toInt64Array(list);
+			break;
+		}
+		case FLOAT64:
+		{
+			List<Double> list = isNull ? null : new ArrayList<>(size);
+			for (int i = 0; i < size; i++)
+				list.add(buffer.get() != 0 ? null : Double.valueOf(buffer.getDouble()));
+			binder.toFloat64Array(list);
+			break;
+		}
+		case STRING:
+		{
+			List<String> list = isNull ? null : new ArrayList<>(size);
+			for (int i = 0; i < size; i++)
+				list.add(buffer.get() != 0 ? null : readString(buffer));
+			binder.toStringArray(list);
+			break;
+		}
+		case BYTES:
+		{
+			List<ByteArray> list = isNull ? null : new ArrayList<>(size);
+			for (int i = 0; i < size; i++)
+				list.add(buffer.get() != 0 ? null : readBytes(buffer));
+			binder.toBytesArray(list);
+			break;
+		}
+		case DATE:
+		{
+			List<Date> list = isNull ? null : new ArrayList<>(size);
+			for (int i = 0; i < size; i++)
+				list.add(buffer.get() != 0 ? null : readDate(buffer));
+			binder.toDateArray(list);
+			break;
+		}
+		case TIMESTAMP:
+		{
+			List<Timestamp> list = isNull ? null : new ArrayList<>(size);
+			for (int i = 0; i < size; i++)
+				list.add(buffer.get() != 0 ? null : readTimestamp(buffer));
+			binder.toTimestampArray(list);
+			break;
+		}
+		default:
+			throw new IllegalArgumentException("Unsupported array element type for scrollable result sets: "
+					+ elementType);
+		}
+	}
+
+	private static byte[] readByteArray(ByteBuffer buffer)
+	{
+		byte[] res = new byte[buffer.getInt()];
+		buffer.get(res);
+		return res;
+	}
+
+	private static String readString(ByteBuffer buffer)
+	{
+		return new String(readByteArray(buffer), StandardCharsets.UTF_8);
+	}
+
+	private static ByteArray readBytes(ByteBuffer buffer)
+	{
+		return ByteArray.copyFrom(readByteArray(buffer));
+	}
+
+	private static Date readDate(ByteBuffer buffer)
+	{
+		int year = buffer.getShort();
+		int month = buffer.get();
+		int day = buffer.get();
+		return Date.fromYearMonthDay(year, month, day);
+	}
+
+	private static Timestamp readTimestamp(ByteBuffer buffer)
+	{
+		long seconds = buffer.getLong();
+		int nanos = buffer.getInt();
+		return Timestamp.ofTimeSecondsAndNanos(seconds, nanos);
+	}
+
+}
@@ -0,0 +1,239 @@
+package nl.topicus.jdbc.resultset;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.spanner.v1.ResultSetStats;
+
+/**
+ * A Google Cloud Spanner {@link ResultSet} that can be positioned on any row.
+ * The rows of another result set are read on demand and are stored in a
+ * {@link RowCache}, which keeps the rows in memory up to a given number of
+ * bytes and writes the remaining rows to a temporary file. Moving to a row
+ * that has been read before never executes the query again.
+ *
+ * @author loite
+ *
+ */
+public class ScrollableResultSet extends AbstractStructResultSet
+{
+	private final ResultSet delegate;
+
+	private final RowCache cache;
+
+	/**
+	 * The maximum number of rows to read, 0 means no maximum
+	 */
+	private final int maxRows;
+
+	private RowCodec codec;
+
+	private Type type;
+
+	private boolean endOfRows;
+
+	private boolean closed;
+
+	/**
+	 * The current row number: 0 is before the first row, 1 is the first row
+	 * and {@link RowCache#size()} + 1 is after the last row
+	 */
+	private int position;
+
+	private Struct current;
+
+	/**
+	 *
+	 * @param delegate
+	 *            The result set to read the rows from
+	 * @param memoryLimit
+	 *            The maximum number of bytes of rows to keep in memory
+	 * @param maxRows
+	 *            The maximum number of rows to read from the delegate, 0 means
+	 *            no maximum
+	 */
+	public ScrollableResultSet(ResultSet delegate, long memoryLimit, int maxRows)
+	{
+		this.delegate = delegate;
+		this.cache = new RowCache(memoryLimit);
+		this.maxRows = maxRows;
+	}
+
+	private void ensureOpen()
+	{
+		if (closed)
+			throw new IllegalStateException("Result set is closed");
+	}
+
+	/**
+	 * Reads rows from the delegate until the cache contains the given row or
+	 * there are no more rows
+	 *
+	 * @param row
+	 *            The one-based row number
+	 * @return true if the cache contains the row
+	 */
+	private boolean load(int row)
+	{
+		try
+		{
+			while (cache.size() < row && !endOfRows)
+			{
+				if ((maxRows > 0 && cache.size() >= maxRows) || !delegate.next())
+				{
+					if (type == null)
+						type = delegate.getType();
+					endOfRows = true;
+					delegate.close();
+				}
+				else
+				{
+					if (codec == null)
+					{
+						type = delegate.getType();
+						codec = new RowCodec(type);
+					}
+					byte[] bytes = codec.encode(delegate);
+					cache.add(bytes, codec.getEncodedLength());
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Could not cache row", e);
+		}
+		return row <= cache.size();
+	}
+
+	/**
+	 * Moves to a row
+	 *
+	 * @param row
+	 *            The one-based row number. 0 moves before the first row, a row
+	 *            number larger than the number of rows moves after the last
+	 *            row.
+	 * @return true if the result set is positioned on a row
+	 */
+	public boolean moveTo(int row)
+	{
+		ensureOpen();
+		current = null;
+		if (row <= 0)
+		{
+			position = 0;
+			return false;
+		}
+		if (load(row))
+		{
+			position = row;
+			return true;
+		}
+		position = cache.size() + 1;
+		return false;
+	}
+
+	/**
+	 * @return The current row number, 0 if the result set is before the first
+	 *         row and the number of rows + 1 if the result set is after the
+	 *         last row
+	 */
+	public int getRowNumber()
+	{
+		return position;
+	}
+
+	/**
+	 * Reads all remaining rows
+	 *
+	 * @return The total number of rows
+	 */
+	public int getRowCount()
+	{
+		ensureOpen();
+		load(Integer.MAX_VALUE);
+		return cache.size();
+	}
+
+	/**
+	 * @return true if the result set is positioned on the last row
+	 */
+	public boolean isOnLastRow()
+	{
+		ensureOpen();
+		return position > 0 && position <= cache.size() && !load(position + 1);
+	}
+
+	/**
+	 * @return true if the result set is positioned after the last row
+	 */
+	public boolean isAfterLastRow()
+	{
+		return position > 0 && position > cache.size();
+	}
+
+	@Override
+	public boolean next()
+	{
+		return moveTo(position == Integer.MAX_VALUE ? position : position + 1);
+	}
+
+	@Override
+	protected Struct current()
+	{
+		ensureOpen();
+		if (position < 1 || position > cache.size())
+			throw new IllegalStateException("Result set is not positioned on a row");
+		if (current == null)
+		{
+			try
+			{
+				current = codec.decode(cache.get(position - 1));
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException("Could not read cached row", e);
+			}
+		}
+		return current;
+	}
+
+	@Override
+	public Type getType()
+	{
+		if (type == null)
+		{
+			ensureOpen();
+			load(1);
+		}
+		return type;
+	}
+
+	@Override
+	public void close()
+	{
+		if (!closed)
+		{
+			closed = true;
+			current = null;
+			if (!endOfRows)
+				delegate.close();
+			try
+			{
+				cache.close();
+			}
+			catch (IOException e)
+			{
+				// ignore
+			}
+		}
+	}
+
+	public ResultSetStats getStats()
+	{
+		return null;
+	}
+
+}
@@ -0,0 +1,79 @@
+package nl.topicus.jdbc.resultset;
+
+import java.util.List;
+
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.spanner.v1.ResultSetStats;
+
+/**
+ * A Google Cloud Spanner {@link ResultSet} that iterates over rows that have
+ * already been read from the database. This makes it possible to wrap rows
+ * that were read by a different statement or thread in a
+ * {@link CloudSpannerResultSet}.
+ *
+ * @author loite
+ *
+ */
+public class StructListResultSet extends AbstractStructResultSet
+{
+	private final Type type;
+
+	private final List<Struct> rows;
+
+	private int index = -1;
+
+	private boolean closed;
+
+	/**
+	 *
+	 * @param type
+	 *            The struct type of the rows
+	 * @param rows
+	 *            The rows of the result set
+	 */
+	public StructListResultSet(Type type, List<Struct> rows)
+	{
+		this.type = type;
+		this.rows = rows;
+	}
+
+	@Override
+	protected Struct current()
+	{
+		if (closed)
+			throw new IllegalStateException("Result set is closed");
+		if (index < 0 || index >= rows.size())
+			throw new IllegalStateException("Result set is not positioned on a row");
+		return rows.get(index);
+	}
+
+	@Override
+	public boolean next()
+	{
+		if (closed)
+			throw new IllegalStateException("Result set is closed");
+		if (index < rows.size())
+			index++;
+		return index < rows.size();
+	}
+
+	@Override
+	public void close()
+	{
+		closed = true;
+	}
+
+	public ResultSetStats getStats()
+	{
+		return null;
+	}
+
+	@Override
+	public Type getType()
+	{
+		return type;
+	}
+
+}
@@ -1,298 +1,429 @@
-package nl.topicus.jdbc.statement;
-
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.SQLFeatureNotSupportedException;
-import java.sql.SQLWarning;
-import java.sql.Statement;
-
-import nl.topicus.jdbc.CloudSpannerConnection;
-
-import com.google.cloud.spanner.DatabaseClient;
-import com.google.cloud.spanner.Mutation;
-import com.google.cloud.spanner.ReadContext;
-import com.google.cloud.spanner.TransactionContext;
-import com.google.cloud.spanner.TransactionRunner.TransactionCallable;
-
-/**
- * 
- * @author loite
- *
- */
-abstract class AbstractCloudSpannerStatement implements Statement
-{
-	private DatabaseClient dbClient;
-
-	/**
-	 * Flag to indicate that this statement should use a SingleUseReadContext
-	 * regardless whether a transaction is running or not. This is for example
-	 * needed for meta data operations (select statements on
-	 * INFORMATION_SCHEMA).
-	 */
-	private boolean forceSingleUseReadContext;
-
-	private boolean closed;
-
-	private int queryTimeout;
-
-	private boolean poolable;
-
-	private boolean closeOnCompletion;
-
-	private CloudSpannerConnection connection;
-
-	private int maxRows;
-
-	private int maxFieldSize = 0;
-
-	AbstractCloudSpannerStatement(CloudSpannerConnection connection, DatabaseClient dbClient)
-	{
-		this.connection = connection;
-		this.dbClient = dbClient;
-	}
-
-	protected DatabaseClient getDbClient()
-	{
-		return dbClient;
-	}
-
-	public boolean isForceSingleUseReadContext()
-	{
-		return forceSingleUseReadContext;
-	}
-
-	public void setForceSingleUseReadContext(boolean forceSingleUseReadContext)
-	{
-		this.forceSingleUseReadContext = forceSingleUseReadContext;
-	}
-
-	protected ReadContext getReadContext() throws SQLException
-	{
-		if (connection.getAutoCommit() || forceSingleUseReadContext)
-		{
-			return dbClient.singleUse();
-		}
-		return connection.getTransaction();
-	}
-
-	protected int writeMutation(Mutation mutation) throws SQLException
-	{
-		if (connection.isReadOnly())
-		{
-			throw new SQLException("Connection is in read-only mode. Mutations are not allowed");
-		}
-		if (connection.getAutoCommit())
-		{
-			dbClient.readWriteTransaction().run(new TransactionCallable<Void>()
-			{
-
-				@Override
-				public Void run(TransactionContext transaction) throws Exception
-				{
-					transaction.buffer(mutation);
-					return null;
-				}
-			});
-		}
-		else
-		{
-			connection.getTransaction().buffer(mutation);
-		}
-		return 1;
-	}
-
-	@Override
-	public <T> T unwrap(Class<T> iface) throws SQLException
-	{
-		return null;
-	}
-
-	@Override
-	public boolean isWrapperFor(Class<?> iface) throws SQLException
-	{
-		return false;
-	}
-
-	@Override
-	public boolean isClosed() throws SQLException
-	{
-		return closed;
-	}
-
-	@Override
-	public void close() throws SQLException
-	{
-		closed = true;
-	}
-
-	protected void checkClosed() throws SQLException
-	{
-		if (isClosed())
-			throw new SQLException("Statement is closed");
-	}
-
-	@Override
-	public int getMaxFieldSize() throws SQLException
-	{
-		return maxFieldSize;
-	}
-
-	@Override
-	public void setMaxFieldSize(int max) throws SQLException
-	{
-		this.maxFieldSize = max;
-	}
-
-	@Override
-	public int getMaxRows() throws SQLException
-	{
-		return maxRows;
-	}
-
-	@Override
-	public void setMaxRows(int max) throws SQLException
-	{
-		this.maxRows = max;
-	}
-
-	@Override
-	public void setEscapeProcessing(boolean enable) throws SQLException
-	{
-		// silently ignore
-	}
-
-	@Override
-	public int getQueryTimeout() throws SQLException
-	{
-		return queryTimeout;
-	}
-
-	@Override
-	public void setQueryTimeout(int seconds) throws SQLException
-	{
-		queryTimeout = seconds;
-	}
-
-	@Override
-	public void cancel() throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public SQLWarning getWarnings() throws SQLException
-	{
-		return null;
-	}
-
-	@Override
-	public void clearWarnings() throws SQLException
-	{
-		// silently ignore
-	}
-
-	@Override
-	public void setCursorName(String name) throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public void setFetchDirection(int direction) throws SQLException
-	{
-		if (!(direction == ResultSet.FETCH_FORWARD || direction == ResultSet.FETCH_REVERSE || direction == ResultSet.FETCH_UNKNOWN))
-			throw new SQLException("Unknown direction: " + direction);
-		// silently ignore
-	}
-
-	@Override
-	public int getFetchDirection() throws SQLException
-	{
-		return ResultSet.FETCH_FORWARD;
-	}
-
-	@Override
-	public void setFetchSize(int rows) throws SQLException
-	{
-		// silently ignore
-	}
-
-	@Override
-	public int getFetchSize() throws SQLException
-	{
-		return 0;
-	}
-
-	@Override
-	public int getResultSetConcurrency() throws SQLException
-	{
-		return ResultSet.CONCUR_READ_ONLY;
-	}
-
-	@Override
-	public int getResultSetType() throws SQLException
-	{
-		return ResultSet.TYPE_FORWARD_ONLY;
-	}
-
-	@Override
-	public void addBatch(String sql) throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public void clearBatch() throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public int[] executeBatch() throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public CloudSpannerConnection getConnection() throws SQLException
-	{
-		return connection;
-	}
-
-	@Override
-	public ResultSet getGeneratedKeys() throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public int getResultSetHoldability() throws SQLException
-	{
-		return ResultSet.HOLD_CURSORS_OVER_COMMIT;
-	}
-
-	@Override
-	public void setPoolable(boolean poolable) throws SQLException
-	{
-		this.poolable = poolable;
-	}
-
-	@Override
-	public boolean isPoolable() throws SQLException
-	{
-		return poolable;
-	}
-
-	@Override
-	public void closeOnCompletion() throws SQLException
-	{
-		closeOnCompletion = true;
-	}
-
-	@Override
-	public boolean isCloseOnCompletion() throws SQLException
-	{
-		return closeOnCompletion;
-	}
-
-}
+package nl.topicus.jdbc.statement;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import nl.topicus.jdbc.CloudSpannerConnection;
+import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
+import nl.topicus.jdbc.resultset.PrefetchingResultSet;
+import nl.topicus.jdbc.resultset.ScrollableResultSet;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.TransactionContext;
+import com.google.cloud.spanner.TransactionRunner.TransactionCallable;
+
+/**
+ * 
+ * @author loite
+ *
+ */
+abstract class AbstractCloudSpannerStatement implements Statement
+{
+	/**
+	 * Cancels queries that exceed their timeout
+	 */
+	private static final ScheduledExecutorService TIMEOUT_SCHEDULER = createTimeoutScheduler();
+
+	private DatabaseClient dbClient;
+
+	/**
+	 * Flag to indicate that this statement should use a SingleUseReadContext
+	 * regardless whether a transaction is running or not. This is for example
+	 * needed for meta data operations (select statements on
+	 * INFORMATION_SCHEMA).
+	 */
+	private boolean forceSingleUseReadContext;
+
+	private boolean closed;
+
+	private int queryTimeout;
+
+	private boolean poolable;
+
+	private boolean closeOnCompletion;
+
+	private CloudSpannerConnection connection;
+
+	private int maxRows;
+
+	private int maxFieldSize = 0;
+
+	private int fetchSize;
+
+	private int resultSetType = ResultSet.TYPE_FORWARD_ONLY;
+
+	/**
+	 * The result sets of this statement that have not yet been closed
+	 */
+	private final Set<CloudSpannerResultSet> activeResultSets = ConcurrentHashMap.newKeySet();
+
+	AbstractCloudSpannerStatement(CloudSpannerConnection connection, DatabaseClient dbClient)
+	{
+		this.connection = connection;
+		this.dbClient = dbClient;
+	}
+
+	private static ScheduledExecutorService createTimeoutScheduler()
+	{
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "cloudspanner-query-timeout");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
+
+	protected DatabaseClient getDbClient()
+	{
+		return dbClient;
+	}
+
+	public boolean isForceSingleUseReadContext()
+	{
+		return forceSingleUseReadContext;
+	}
+
+	public void setForceSingleUseReadContext(boolean forceSingleUseReadContext)
+	{
+		this.forceSingleUseReadContext = forceSingleUseReadContext;
+	}
+
+	protected ReadContext getReadContext() throws SQLException
+	{
+		if (connection.getAutoCommit() || forceSingleUseReadContext)
+		{
+			return dbClient.singleUse();
+		}
+		return connection.getTransaction();
+	}
+
+	protected int writeMutation(Mutation mutation) throws SQLException
+	{
+		writeMutations(Collections.singleton(mutation));
+		return 1;
+	}
+
+	protected void writeMutations(Iterable<Mutation> mutations) throws SQLException
+	{
+		if (connection.isReadOnly())
+		{
+			throw new SQLException("Connection is in read-only mode. Mutations are not allowed");
+		}
+		if (connection.getAutoCommit())
+		{
+			dbClient.readWriteTransaction().run(new TransactionCallable<Void>()
+			{
+
+				@Override
+				public Void run(TransactionContext transaction) throws Exception
+				{
+					transaction.buffer(mutations);
+					return null;
+				}
+			});
+		}
+		else
+		{
+			connection.getTransaction().buffer(mutations);
+		}
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException
+	{
+		return null;
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException
+	{
+		return false;
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException
+	{
+		return closed;
+	}
+
+	@Override
+	public void close() throws SQLException
+	{
+		closed = true;
+		for (CloudSpannerResultSet resultSet : activeResultSets)
+		{
+			resultSet.close();
+		}
+	}
+
+	protected void checkClosed() throws SQLException
+	{
+		if (isClosed())
+			throw new SQLException("Statement is closed");
+	}
+
+	@Override
+	public int getMaxFieldSize() throws SQLException
+	{
+		return maxFieldSize;
+	}
+
+	@Override
+	public void setMaxFieldSize(int max) throws SQLException
+	{
+		this.maxFieldSize = max;
+	}
+
+	@Override
+	public int getMaxRows() throws SQLException
+	{
+		return maxRows;
+	}
+
+	@Override
+	public void setMaxRows(int max) throws SQLException
+	{
+		this.maxRows = max;
+	}
+
+	@Override
+	public void setEscapeProcessing(boolean enable) throws SQLException
+	{
+		// silently ignore
+	}
+
+	@Override
+	public int getQueryTimeout() throws SQLException
+	{
+		return queryTimeout;
+	}
+
+	@Override
+	public void setQueryTimeout(int seconds) throws SQLException
+	{
+		if (seconds < 0)
+			throw new SQLException("Query timeout must be greater than or equal to 0");
+		queryTimeout = seconds;
+	}
+
+	/**
+	 * @return The time in milliseconds after which a query of this statement
+	 *         is cancelled, which is the lowest of the query timeout of this
+	 *         statement and the network timeout of the connection, or 0 if
+	 *         there is no timeout
+	 */
+	private long getTimeoutMillis()
+	{
+		long res = queryTimeout * 1000L;
+		int networkTimeout = connection.getNetworkTimeout();
+		if (networkTimeout > 0 && (res == 0 || networkTimeout < res))
+			res = networkTimeout;
+		return res;
+	}
+
+	/**
+	 * Cancels the running queries of this statement. The streams that return
+	 * the rows of the queries are closed, which also cancels the queries on
+	 * the server and releases their sessions. Reading the next row of a
+	 * cancelled result set throws an {@link SQLException}.
+	 */
+	@Override
+	public void cancel() throws SQLException
+	{
+		for (CloudSpannerResultSet resultSet : activeResultSets)
+		{
+			resultSet.cancel(false);
+		}
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException
+	{
+		return null;
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException
+	{
+		// silently ignore
+	}
+
+	@Override
+	public void setCursorName(String name) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public void setFetchDirection(int direction) throws SQLException
+	{
+		if (!(direction == ResultSet.FETCH_FORWARD || direction == ResultSet.FETCH_REVERSE || direction == ResultSet.FETCH_UNKNOWN))
+			throw new SQLException("Unknown direction: " + direction);
+		// silently ignore
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException
+	{
+		return ResultSet.FETCH_FORWARD;
+	}
+
+	/**
+	 * Sets the fetch size for result sets of this statement. If the fetch size
+	 * is larger than 0, the rows of a result set are read ahead in a background
+	 * thread into a buffer that holds at most this number of rows.
+	 */
+	@Override
+	public void setFetchSize(int rows) throws SQLException
+	{
+		if (rows < 0)
+			throw new SQLException("Fetch size must be greater than or equal to 0");
+		this.fetchSize = rows;
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException
+	{
+		return fetchSize;
+	}
+
+	/**
+	 * Creates a JDBC result set for the results of a query. The rows are
+	 * prefetched in the background if a fetch size has been set for this
+	 * statement. The result set returns at most the maximum number of rows of
+	 * this statement, and its query is cancelled when the query timeout of this
+	 * statement or the network timeout of the connection expires before the
+	 * first row has been received. If this
+	 * statement creates scrollable result sets, the rows are cached as they are
+	 * read.
+	 * 
+	 * @param resultSet
+	 *            The Google Cloud Spanner result set of the query
+	 * @return The JDBC result set
+	 * @throws SQLException
+	 */
+	protected ResultSet createResultSet(com.google.cloud.spanner.ResultSet resultSet) throws SQLException
+	{
+		com.google.cloud.spanner.ResultSet rows = fetchSize > 0 ? new PrefetchingResultSet(resultSet, fetchSize)
+				: resultSet;
+		if (resultSetType != ResultSet.TYPE_FORWARD_ONLY)
+			rows = new ScrollableResultSet(rows, connection.getScrollCacheMemory(), maxRows);
+		CloudSpannerResultSet res = new CloudSpannerResultSet(this, rows);
+		res.setFetchSize(fetchSize);
+		long timeout = getTimeoutMillis();
+		if (timeout > 0)
+			res.setTimeoutTimer(TIMEOUT_SCHEDULER.schedule(() -> res.cancel(true), timeout, TimeUnit.MILLISECONDS));
+		activeResultSets.add(res);
+		connection.registerResultSet(res);
+		res.setCloseHandler(() -> {
+			activeResultSets.remove(res);
+			connection.unregisterResultSet(res);
+		});
+		return res;
+	}
+
+	@Override
+	public int getResultSetConcurrency() throws SQLException
+	{
+		return ResultSet.CONCUR_READ_ONLY;
+	}
+
+	@Override
+	public int getResultSetType() throws SQLException
+	{
+		return resultSetType;
+	}
+
+	/**
+	 * Sets the type of the result sets of this statement.
+	 * {@link ResultSet#TYPE_SCROLL_SENSITIVE} is not supported and is replaced
+	 * by {@link ResultSet#TYPE_SCROLL_INSENSITIVE}.
+	 * 
+	 * @param resultSetType
+	 *            The type of the result sets of this statement
+	 * @throws SQLException
+	 *             if the type is unknown
+	 */
+	public void setResultSetType(int resultSetType) throws SQLException
+	{
+		if (resultSetType == ResultSet.TYPE_FORWARD_ONLY || resultSetType == ResultSet.TYPE_SCROLL_INSENSITIVE)
+			this.resultSetType = resultSetType;
+		else if (resultSetType == ResultSet.TYPE_SCROLL_SENSITIVE)
+			this.resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
+		else
+			throw new SQLException("Unknown result set type: " + resultSetType);
+	}
+
+	@Override
+	public void addBatch(String sql) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public void clearBatch() throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public int[] executeBatch() throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public CloudSpannerConnection getConnection() throws SQLException
+	{
+		return connection;
+	}
+
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public int getResultSetHoldability() throws SQLException
+	{
+		return ResultSet.HOLD_CURSORS_OVER_COMMIT;
+	}
+
+	@Override
+	public void setPoolable(boolean poolable) throws SQLException
+	{
+		this.poolable = poolable;
+	}
+
+	@Override
+	public boolean isPoolable() throws SQLException
+	{
+		return poolable;
+	}
+
+	@Override
+	public void closeOnCompletion() throws SQLException
+	{
+		closeOnCompletion = true;
+	}
+
+	@Override
+	public boolean isCloseOnCompletion() throws SQLException
+	{
+		return closeOnCompletion;
+	}
+
+}
@@ -1,133 +1,252 @@
-package nl.topicus.jdbc.statement;
-
-import javax.xml.bind.DatatypeConverter;
-
-import net.sf.jsqlparser.expression.DateValue;
-import net.sf.jsqlparser.expression.DoubleValue;
-import net.sf.jsqlparser.expression.Expression;
-import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
-import net.sf.jsqlparser.expression.HexValue;
-import net.sf.jsqlparser.expression.JdbcParameter;
-import net.sf.jsqlparser.expression.LongValue;
-import net.sf.jsqlparser.expression.NullValue;
-import net.sf.jsqlparser.expression.SignedExpression;
-import net.sf.jsqlparser.expression.StringValue;
-import net.sf.jsqlparser.expression.TimeValue;
-import net.sf.jsqlparser.expression.TimestampValue;
-import net.sf.jsqlparser.schema.Column;
-
-abstract class AbstractSpannerExpressionVisitorAdapter<R> extends ExpressionVisitorAdapter
-{
-	private ParameterStore parameterStore;
-
-	private String column;
-
-	AbstractSpannerExpressionVisitorAdapter(ParameterStore parameterStore)
-	{
-		this(parameterStore, null);
-	}
-
-	AbstractSpannerExpressionVisitorAdapter(ParameterStore parameterStore, String column)
-	{
-		this.parameterStore = parameterStore;
-		this.column = column;
-	}
-
-	protected abstract void setValue(Object value);
-
-	@Override
-	public void visit(JdbcParameter parameter)
-	{
-		Object value = parameterStore.getParameter(parameter.getIndex());
-		parameterStore.setColumn(parameter.getIndex(), column);
-		setValue(value);
-	}
-
-	@Override
-	public void visit(NullValue value)
-	{
-		setValue(null);
-	}
-
-	@Override
-	public void visit(DoubleValue value)
-	{
-		setValue(value.getValue());
-	}
-
-	@Override
-	public void visit(SignedExpression value)
-	{
-		Expression underlyingValue = value.getExpression();
-		if (underlyingValue instanceof DoubleValue)
-		{
-			DoubleValue doubleValue = (DoubleValue) underlyingValue;
-			doubleValue.setValue(value.getSign() == '-' ? -doubleValue.getValue() : doubleValue.getValue());
-			visit(doubleValue);
-		}
-		else if (underlyingValue instanceof LongValue)
-		{
-			LongValue longValue = (LongValue) underlyingValue;
-			longValue.setValue(value.getSign() == '-' ? -longValue.getValue() : longValue.getValue());
-			visit(longValue);
-		}
-		else
-		{
-			super.visit(value);
-		}
-	}
-
-	@Override
-	public void visit(LongValue value)
-	{
-		setValue(value.getValue());
-	}
-
-	@Override
-	public void visit(DateValue value)
-	{
-		setValue(value.getValue());
-	}
-
-	@Override
-	public void visit(TimeValue value)
-	{
-		setValue(value.getValue());
-	}
-
-	@Override
-	public void visit(TimestampValue value)
-	{
-		setValue(value.getValue());
-	}
-
-	@Override
-	public void visit(StringValue value)
-	{
-		setValue(value.getValue());
-	}
-
-	@Override
-	public void visit(HexValue value)
-	{
-		String stringValue = value.getValue().substring(2);
-		byte[] byteValue = DatatypeConverter.parseHexBinary(stringValue);
-		setValue(byteValue);
-	}
-
-	/**
-	 * Booleans are not recognized by the parser, but are seen as column names.
-	 * 
-	 * @param column
-	 */
-	@Override
-	public void visit(Column column)
-	{
-		String stringValue = column.getColumnName();
-		if (stringValue.equalsIgnoreCase("true") || stringValue.equalsIgnoreCase("false"))
-		{
-			setValue(Boolean.valueOf(stringValue));
-		}
-	}
-
+package nl.topicus.jdbc.statement;
+
+import java.math.BigDecimal;
+
+import javax.xml.bind.DatatypeConverter;
+
+import net.sf.jsqlparser.expression.DateValue;
+import net.sf.jsqlparser.expression.DoubleValue;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
+import net.sf.jsqlparser.expression.HexValue;
+import net.sf.jsqlparser.expression.JdbcParameter;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.NullValue;
+import net.sf.jsqlparser.expression.SignedExpression;
+import net.sf.jsqlparser.expression.StringValue;
+import net.sf.jsqlparser.expression.TimeValue;
+import net.sf.jsqlparser.expression.TimestampValue;
+import net.sf.jsqlparser.schema.Column;
+
+abstract class AbstractSpannerExpressionVisitorAdapter<R> extends ExpressionVisitorAdapter
+{
+	private ParameterStore parameterStore;
+
+	private String column;
+
+	AbstractSpannerExpressionVisitorAdapter(ParameterStore parameterStore)
+	{
+		this(parameterStore, null);
+	}
+
+	AbstractSpannerExpressionVisitorAdapter(ParameterStore parameterStore, String column)
+	{
+		this.parameterStore = parameterStore;
+		this.column = column;
+	}
+
+	protected ParameterStore getParameterStore()
+	{
+		return parameterStore;
+	}
+
+	protected abstract void setValue(Object value);
+
+	/**
+	 * Sets the value of a parameter. Subclasses can override this method to
+	 * use information that is cached for the parameter slot.
+	 * 
+	 * @param parameterIndex
+	 *            The index of the parameter
+	 * @param value
+	 *            The value to set
+	 */
+	protected void setParameterValue(int parameterIndex, Object value)
+	{
+		setValue(value);
+	}
+
+	/**
+	 * Sets a primitive integral value. Subclasses that can handle primitive
+	 * values should override this method to prevent boxing.
+	 * 
+	 * @param value
+	 *            The value to set
+	 */
+	protected void setLongValue(long value)
+	{
+		setValue(value);
+	}
+
+	/**
+	 * Sets a primitive floating point value. Subclasses that can handle
+	 * primitive values should override this method to prevent boxing.
+	 * 
+	 * @param value
+	 *            The value to set
+	 */
+	protected void setDoubleValue(double value)
+	{
+		setValue(value);
+	}
+
+	/**
+	 * Sets a primitive boolean value. Subclasses that can handle primitive
+	 * values should override this method to prevent boxing.
+	 * 
+	 * @param value
+	 *            The value to set
+	 */
+	protected void setBooleanValue(boolean value)
+	{
+		setValue(value);
+	}
+
+	@Override
+	public void visit(JdbcParameter parameter)
+	{
+		int index = parameter.getIndex();
+		parameterStore.setColumn(index, column);
+		switch (parameterStore.getKind(index))
+		{
+		case BOOLEAN:
+			setBooleanValue(parameterStore.getBoolean(index));
+			break;
+		case BYTE:
+		case SHORT:
+		case INT:
+		case LONG:
+			setLongValue(parameterStore.getLong(index));
+			break;
+		case FLOAT:
+		case DOUBLE:
+			setDoubleValue(parameterStore.getDouble(index));
+			break;
+		default:
+			setParameterValue(index, parameterStore.getParameter(index));
+			break;
+		}
+	}
+
+	@Override
+	public void visit(NullValue value)
+	{
+		setValue(null);
+	}
+
+	@Override
+	public void visit(DoubleValue value)
+	{
+		setValue(value.getValue());
+	}
+
+	@Override
+	public void visit(SignedExpression value)
+	{
+		Expression underlyingValue = value.getExpression();
+		// Do not change the underlying value, as the same expression may be
+		// visited multiple times (e.g. for each row in a batch)
+		if (underlyingValue instanceof DoubleValue)
+		{
+			double doubleValue = ((DoubleValue) underlyingValue).getValue();
+			setDoubleValue(value.getSign() == '-' ? -doubleValue : doubleValue);
+		}
+		else if (underlyingValue instanceof LongValue)
+		{
+			long longValue = ((LongValue) underlyingValue).getValue();
+			setLongValue(value.getSign() == '-' ? -longValue : longValue);
+		}
+		else if (underlyingValue instanceof JdbcParameter && value.getSign() == '-')
+		{
+			visitNegatedParameter((JdbcParameter) underlyingValue);
+		}
+		else
+		{
+			super.visit(value);
+		}
+	}
+
+	/**
+	 * Sets the negated value of a numeric parameter
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the value of the parameter is not a number
+	 */
+	private void visitNegatedParameter(JdbcParameter parameter)
+	{
+		int index = parameter.getIndex();
+		parameterStore.setColumn(index, column);
+		switch (parameterStore.getKind(index))
+		{
+		case BYTE:
+		case SHORT:
+		case INT:
+		case LONG:
+			setLongValue(-parameterStore.getLong(index));
+			break;
+		case FLOAT:
+		case DOUBLE:
+			setDoubleValue(-parameterStore.getDouble(index));
+			break;
+		default:
+			Object parameterValue = parameterStore.getParameter(index);
+			if (parameterValue == null)
+				setParameterValue(index, null);
+			else if (parameterValue instanceof BigDecimal)
+				setValue(((BigDecimal) parameterValue).negate());
+			else if (parameterValue instanceof Long || parameterValue instanceof Integer
+					|| parameterValue instanceof Short || parameterValue instanceof Byte)
+				setLongValue(-((Number) parameterValue).longValue());
+			else if (parameterValue instanceof Double || parameterValue instanceof Float)
+				setDoubleValue(-((Number) parameterValue).doubleValue());
+			else
+				throw new IllegalArgumentException("Only numeric values can be negated: "
+						+ parameterValue.getClass().getName());
+			break;
+		}
+	}
+
+	@Override
+	public void visit(LongValue value)
+	{
+		setValue(value.getValue());
+	}
+
+	@Override
+	public void visit(DateValue value)
+	{
+		setValue(value.getValue());
+	}
+
+	@Override
+	public void visit(TimeValue value)
+	{
+		setValue(value.getValue());
+	}
+
+	@Override
+	public void visit(TimestampValue value)
+	{
+		setValue(value.getValue());
+	}
+
+	@Override
+	public void visit(StringValue value)
+	{
+		setValue(value.getValue());
+	}
+
+	@Override
+	public void visit(HexValue value)
+	{
+		String stringValue = value.getValue().substring(2);
+		byte[] byteValue = DatatypeConverter.parseHexBinary(stringValue);
+		setValue(byteValue);
+	}
+
+	/**
+	 * Booleans are not recognized by the parser, but are seen as column names.
+	 * 
+	 * @param column
+	 */
+	@Override
+	public void visit(Column column)
+	{
+		String stringValue = column.getColumnName();
+		if (stringValue.equalsIgnoreCase("true") || stringValue.equalsIgnoreCase("false"))
+		{
+			setValue(Boolean.valueOf(stringValue));
+		}
+	}
+
 }
\ No newline at end of file
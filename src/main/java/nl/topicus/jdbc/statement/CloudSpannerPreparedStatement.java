@@ -1,482 +1,1342 @@
-package nl.topicus.jdbc.statement;
-
-import java.sql.ParameterMetaData;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.SQLFeatureNotSupportedException;
-import java.sql.Types;
-import java.util.ArrayList;
-import java.util.List;
-
-import net.sf.jsqlparser.JSQLParserException;
-import net.sf.jsqlparser.expression.Expression;
-import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
-import net.sf.jsqlparser.expression.JdbcParameter;
-import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
-import net.sf.jsqlparser.expression.operators.relational.ItemsList;
-import net.sf.jsqlparser.parser.CCJSqlParserUtil;
-import net.sf.jsqlparser.schema.Column;
-import net.sf.jsqlparser.statement.Statement;
-import net.sf.jsqlparser.statement.delete.Delete;
-import net.sf.jsqlparser.statement.insert.Insert;
-import net.sf.jsqlparser.statement.select.PlainSelect;
-import net.sf.jsqlparser.statement.select.Select;
-import net.sf.jsqlparser.statement.select.SelectBody;
-import net.sf.jsqlparser.statement.select.SelectVisitor;
-import net.sf.jsqlparser.statement.select.SetOperationList;
-import net.sf.jsqlparser.statement.select.SubSelect;
-import net.sf.jsqlparser.statement.select.WithItem;
-import net.sf.jsqlparser.statement.update.Update;
-import nl.topicus.jdbc.CloudSpannerConnection;
-import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
-
-import com.google.cloud.spanner.DatabaseClient;
-import com.google.cloud.spanner.Key;
-import com.google.cloud.spanner.KeySet;
-import com.google.cloud.spanner.Mutation;
-import com.google.cloud.spanner.Mutation.WriteBuilder;
-import com.google.cloud.spanner.ReadContext;
-
-/**
- * 
- * @author loite
- *
- */
-public class CloudSpannerPreparedStatement extends AbstractCloudSpannerPreparedStatement
-{
-	private String sql;
-
-	private List<Mutation> batchMutations = new ArrayList<>();
-
-	public CloudSpannerPreparedStatement(String sql, CloudSpannerConnection connection, DatabaseClient dbClient)
-	{
-		super(connection, dbClient);
-		this.sql = sql;
-	}
-
-	@Override
-	public ResultSet executeQuery() throws SQLException
-	{
-		Statement statement;
-		try
-		{
-			statement = CCJSqlParserUtil.parse(sql);
-		}
-		catch (JSQLParserException e)
-		{
-			throw new SQLException("Error while parsing sql statement", e);
-		}
-		if (statement instanceof Select)
-		{
-			com.google.cloud.spanner.Statement.Builder builder = createSelectBuilder(statement);
-			try (ReadContext context = getReadContext())
-			{
-				com.google.cloud.spanner.ResultSet rs = context.executeQuery(builder.build());
-				return new CloudSpannerResultSet(rs);
-			}
-		}
-		throw new SQLException("SQL statement not suitable for executeQuery");
-	}
-
-	private com.google.cloud.spanner.Statement.Builder createSelectBuilder(Statement statement)
-	{
-		String namedSql = convertPositionalParametersToNamedParameters(sql);
-		com.google.cloud.spanner.Statement.Builder builder = com.google.cloud.spanner.Statement.newBuilder(namedSql);
-		setSelectParameters(((Select) statement).getSelectBody(), builder);
-
-		return builder;
-	}
-
-	private String convertPositionalParametersToNamedParameters(String sql)
-	{
-		boolean inString = false;
-		StringBuilder res = new StringBuilder(sql);
-		int i = 0;
-		int parIndex = 1;
-		while (i < res.length())
-		{
-			char c = res.charAt(i);
-			if (c == '\'')
-			{
-				inString = !inString;
-			}
-			else if (c == '?' && !inString)
-			{
-				res.replace(i, i + 1, "@p" + parIndex);
-				parIndex++;
-			}
-			i++;
-		}
-
-		return res.toString();
-	}
-
-	private void setSelectParameters(SelectBody body, com.google.cloud.spanner.Statement.Builder builder)
-	{
-		body.accept(new SelectVisitor()
-		{
-
-			@Override
-			public void visit(WithItem withItem)
-			{
-			}
-
-			@Override
-			public void visit(SetOperationList setOpList)
-			{
-			}
-
-			@Override
-			public void visit(PlainSelect plainSelect)
-			{
-				setWhereParameters(plainSelect.getWhere(), builder);
-				if (plainSelect.getLimit() != null)
-				{
-					setWhereParameters(plainSelect.getLimit().getRowCount(), builder);
-				}
-				if (plainSelect.getOffset() != null && plainSelect.getOffset().isOffsetJdbcParameter())
-				{
-					ValueBinderExpressionVisitorAdapter<com.google.cloud.spanner.Statement.Builder> binder = new ValueBinderExpressionVisitorAdapter<com.google.cloud.spanner.Statement.Builder>(
-							getParameterStore(), builder.bind("p" + getParameterStore().getHighestIndex()), null);
-					binder.setValue(getParameterStore().getParameter(getParameterStore().getHighestIndex()));
-					getParameterStore().setType(getParameterStore().getHighestIndex(), Types.BIGINT);
-				}
-			}
-		});
-	}
-
-	private void setWhereParameters(Expression where, com.google.cloud.spanner.Statement.Builder builder)
-	{
-		if (where != null)
-		{
-			where.accept(new ExpressionVisitorAdapter()
-			{
-
-				@Override
-				public void visit(JdbcParameter parameter)
-				{
-					parameter
-							.accept(new ValueBinderExpressionVisitorAdapter<com.google.cloud.spanner.Statement.Builder>(
-									getParameterStore(), builder.bind("p" + parameter.getIndex()), null));
-				}
-
-				@Override
-				public void visit(SubSelect subSelect)
-				{
-					setSelectParameters(subSelect.getSelectBody(), builder);
-				}
-
-			});
-		}
-	}
-
-	@Override
-	public void addBatch() throws SQLException
-	{
-		if (getConnection().getAutoCommit())
-		{
-			throw new SQLFeatureNotSupportedException(
-					"Batching of statements is only allowed when not running in autocommit mode");
-		}
-		if (isDDLStatement())
-		{
-			throw new SQLFeatureNotSupportedException("DDL statements may not be batched");
-		}
-		Mutation mutation = createMutation();
-		batchMutations.add(mutation);
-		getParameterStore().clearParameters();
-	}
-
-	@Override
-	public void clearBatch() throws SQLException
-	{
-		batchMutations.clear();
-		getParameterStore().clearParameters();
-	}
-
-	@Override
-	public int[] executeBatch() throws SQLException
-	{
-		int[] res = new int[batchMutations.size()];
-		int index = 0;
-		for (Mutation mutation : batchMutations)
-		{
-			res[index] = writeMutation(mutation);
-			index++;
-		}
-		batchMutations.clear();
-		getParameterStore().clearParameters();
-		return res;
-	}
-
-	@Override
-	public int executeUpdate() throws SQLException
-	{
-		if (isDDLStatement())
-		{
-			String ddl = formatDDLStatement(sql);
-			return executeDDL(ddl);
-		}
-		return writeMutation(createMutation());
-	}
-
-	private Mutation createMutation() throws SQLException
-	{
-		try
-		{
-			if (isDDLStatement())
-			{
-				throw new SQLException("Cannot create mutation for DDL statement");
-			}
-			Statement statement = CCJSqlParserUtil.parse(sql);
-			if (statement instanceof Insert)
-			{
-				return createInsertMutation((Insert) statement);
-			}
-			else if (statement instanceof Update)
-			{
-				return createUpdateMutation((Update) statement);
-			}
-			else if (statement instanceof Delete)
-			{
-				return createDeleteMutation((Delete) statement);
-			}
-			else
-			{
-				throw new SQLFeatureNotSupportedException(
-						"Unrecognized or unsupported SQL-statment: Expected one of INSERT, UPDATE or DELETE. Please note that batching of prepared statements is not supported for SELECT-statements.");
-			}
-		}
-		catch (JSQLParserException e)
-		{
-			throw new SQLException("Error while parsing sql statement " + sql, e);
-		}
-	}
-
-	private static final String[] DDL_STATEMENTS = { "CREATE", "ALTER", "DROP" };
-
-	/**
-	 * Do a quick check if this SQL statement is a DDL statement
-	 * 
-	 * @return true if the SQL statement is a DDL statement
-	 */
-	private boolean isDDLStatement()
-	{
-		String ddl = this.sql.trim();
-		ddl = ddl.substring(0, Math.min(8, ddl.length())).toUpperCase();
-		for (String statement : DDL_STATEMENTS)
-		{
-			if (ddl.startsWith(statement))
-				return true;
-		}
-
-		return false;
-	}
-
-	/**
-	 * Does some formatting to DDL statements that might have been generated by
-	 * standard SQL generators to make it compatible with Google Cloud Spanner.
-	 * 
-	 * @param sql
-	 *            The sql to format
-	 * @return The formatted DDL statement.
-	 * @throws SQLException
-	 */
-	private String formatDDLStatement(String sql) throws SQLException
-	{
-		String res = sql.trim().toUpperCase();
-		String[] parts = res.split("\\s+");
-		if (parts.length >= 2)
-		{
-			String sqlWithSingleSpaces = String.join(" ", parts);
-			if (sqlWithSingleSpaces.startsWith("CREATE TABLE"))
-			{
-				int primaryKeyIndex = res.indexOf(", PRIMARY KEY (");
-				if (primaryKeyIndex > -1)
-				{
-					int endPrimaryKeyIndex = res.indexOf(")", primaryKeyIndex);
-					String primaryKeySpec = res.substring(primaryKeyIndex + 2, endPrimaryKeyIndex + 1);
-					res = res.replace(", " + primaryKeySpec, "");
-					res = res + " " + primaryKeySpec;
-				}
-			}
-		}
-
-		return res;
-	}
-
-	private Mutation createInsertMutation(Insert insert) throws SQLException
-	{
-		ItemsList items = insert.getItemsList();
-		if (!(items instanceof ExpressionList))
-		{
-			throw new SQLException("Insert statement must contain a list of values");
-		}
-		List<Expression> expressions = ((ExpressionList) items).getExpressions();
-		String table = unquoteIdentifier(insert.getTable().getFullyQualifiedName());
-		getParameterStore().setTable(table);
-		WriteBuilder builder = Mutation.newInsertBuilder(table);
-		int index = 0;
-		for (Column col : insert.getColumns())
-		{
-			String columnName = unquoteIdentifier(col.getFullyQualifiedName());
-			expressions.get(index).accept(
-					new ValueBinderExpressionVisitorAdapter<WriteBuilder>(getParameterStore(), builder.set(columnName),
-							columnName));
-			index++;
-		}
-		return builder.build();
-	}
-
-	private Mutation createUpdateMutation(Update update) throws SQLException
-	{
-		if (update.getTables().isEmpty())
-			throw new SQLException("No table found in update statement");
-		if (update.getTables().size() > 1)
-			throw new SQLException("Update statements for multiple tables at once are not supported");
-		String table = unquoteIdentifier(update.getTables().get(0).getFullyQualifiedName());
-		getParameterStore().setTable(table);
-		List<Expression> expressions = update.getExpressions();
-		WriteBuilder builder = Mutation.newUpdateBuilder(table);
-		int index = 0;
-		for (Column col : update.getColumns())
-		{
-			String columnName = unquoteIdentifier(col.getFullyQualifiedName());
-			expressions.get(index).accept(
-					new ValueBinderExpressionVisitorAdapter<WriteBuilder>(getParameterStore(), builder.set(columnName),
-							columnName));
-			index++;
-		}
-		visitInsertWhereClause(update.getWhere(), builder);
-
-		return builder.build();
-	}
-
-	private Mutation createDeleteMutation(Delete delete) throws SQLException
-	{
-		String table = unquoteIdentifier(delete.getTable().getFullyQualifiedName());
-		getParameterStore().setTable(table);
-		Expression where = delete.getWhere();
-		if (where == null)
-		{
-			// Delete all
-			return Mutation.delete(table, KeySet.all());
-		}
-		else
-		{
-			// Delete one
-			Key.Builder keyBuilder = Key.newBuilder();
-			visitDeleteWhereClause(where, keyBuilder);
-			return Mutation.delete(table, keyBuilder.build());
-		}
-	}
-
-	private void visitDeleteWhereClause(Expression where, Key.Builder keyBuilder)
-	{
-		if (where != null)
-		{
-			where.accept(new DMLWhereClauseVisitor(getParameterStore())
-			{
-
-				@Override
-				protected void visitExpression(Column col, Expression expression)
-				{
-					expression.accept(new KeyBuilderExpressionVisitorAdapter<>(getParameterStore(), keyBuilder));
-				}
-
-			});
-		}
-	}
-
-	private void visitInsertWhereClause(Expression where, WriteBuilder builder)
-	{
-		if (where != null)
-		{
-			where.accept(new DMLWhereClauseVisitor(getParameterStore())
-			{
-
-				@Override
-				protected void visitExpression(Column col, Expression expression)
-				{
-					String columnName = unquoteIdentifier(col.getFullyQualifiedName());
-					expression.accept(new ValueBinderExpressionVisitorAdapter<WriteBuilder>(getParameterStore(),
-							builder.set(columnName), columnName));
-				}
-
-			});
-		}
-	}
-
-	private static String unquoteIdentifier(String identifier)
-	{
-		if (identifier == null)
-			return identifier;
-		if (identifier.charAt(0) == '`' && identifier.charAt(identifier.length() - 1) == '`')
-			identifier = identifier.substring(1, identifier.length() - 1);
-		return identifier;
-	}
-
-	private int executeDDL(String ddl) throws SQLException
-	{
-		getConnection().executeDDL(ddl);
-		return 0;
-	}
-
-	@Override
-	public boolean execute() throws SQLException
-	{
-		Statement statement;
-		try
-		{
-			statement = CCJSqlParserUtil.parse(sql);
-		}
-		catch (JSQLParserException e)
-		{
-			throw new SQLException("Error while parsing sql statement", e);
-		}
-		if (statement instanceof Select)
-		{
-			lastResultSet = executeQuery();
-			lastUpdateCount = -1;
-			return true;
-		}
-		else
-		{
-			lastUpdateCount = executeUpdate();
-			lastResultSet = null;
-			return false;
-		}
-	}
-
-	@Override
-	public ParameterMetaData getParameterMetaData() throws SQLException
-	{
-		// parse the SQL statement without executing it
-		try
-		{
-			if (isDDLStatement())
-			{
-				throw new SQLException("Cannot get parameter meta data for DDL statement");
-			}
-			Statement statement = CCJSqlParserUtil.parse(sql);
-			if (statement instanceof Insert || statement instanceof Update || statement instanceof Delete)
-			{
-				// Create mutation, but don't do anything with it. This
-				// initializes column names of the parameter store.
-				createMutation();
-			}
-			else if (statement instanceof Select)
-			{
-				// Create select builder, but don't do anything with it. This
-				// initializes column names of the parameter store.
-				createSelectBuilder(statement);
-			}
-		}
-		catch (JSQLParserException e)
-		{
-			throw new SQLException("Error while parsing sql statement " + sql, e);
-		}
-		return new CloudSpannerParameterMetaData(this);
-	}
-
-}
+package nl.topicus.jdbc.statement;
+
+import java.sql.ParameterMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
+import net.sf.jsqlparser.expression.JdbcParameter;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.ItemsList;
+import net.sf.jsqlparser.expression.operators.relational.MultiExpressionList;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.delete.Delete;
+import net.sf.jsqlparser.statement.insert.Insert;
+import net.sf.jsqlparser.statement.select.AllColumns;
+import net.sf.jsqlparser.statement.select.Limit;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectBody;
+import net.sf.jsqlparser.statement.select.SelectExpressionItem;
+import net.sf.jsqlparser.statement.select.SelectItem;
+import net.sf.jsqlparser.statement.select.SelectVisitor;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+import net.sf.jsqlparser.statement.select.SubSelect;
+import net.sf.jsqlparser.statement.select.WithItem;
+import net.sf.jsqlparser.statement.update.Update;
+import nl.topicus.jdbc.CloudSpannerConnection;
+import nl.topicus.jdbc.metadata.UniqueIndex;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeyRange;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.Mutation.WriteBuilder;
+import com.google.cloud.spanner.ReadContext;
+
+/**
+ * 
+ * @author loite
+ *
+ */
+public class CloudSpannerPreparedStatement extends AbstractCloudSpannerPreparedStatement
+{
+	/**
+	 * The name of the column that is added as the first column to the result
+	 * of a batch of SELECT statements. The column contains the (zero-based)
+	 * index of the parameter set in the batch that returned the row.
+	 */
+	public static final String BATCH_ORDINAL_COLUMN = SelectBatchRewriter.BATCH_ORDINAL_COLUMN;
+
+	static final String DEFAULT_PARAMETER_PREFIX = "p";
+
+	private String sql;
+
+	/**
+	 * The mutation operation to use for the rows of an INSERT statement. This
+	 * is INSERT_OR_UPDATE or REPLACE for upsert statements.
+	 */
+	private Mutation.Op insertOperation = Mutation.Op.INSERT;
+
+	private List<Mutation> batchMutations = new ArrayList<>();
+
+	/**
+	 * The number of mutations that was added to {@link #batchMutations} for
+	 * each call to addBatch
+	 */
+	private List<Integer> batchUpdateCounts = new ArrayList<>();
+
+	/**
+	 * Columnar buffer for batches of INSERT and UPDATE statements. The buffer
+	 * is created the first time addBatch is called. Statements that cannot be
+	 * buffered in columns use {@link #batchMutations} instead.
+	 */
+	private ColumnarBatchBuffer batchBuffer;
+
+	private boolean batchBufferResolved;
+
+	/**
+	 * The parameter sets that have been added to a batch of SELECT
+	 * statements. Each statement contains the SELECT statement with its
+	 * parameters renamed to parameters that are unique within the batch.
+	 */
+	private List<com.google.cloud.spanner.Statement> selectBatch = new ArrayList<>();
+
+	/**
+	 * The ORDER BY items of the batched SELECT statement that are appended to
+	 * the ORDER BY clause of the query that executes the batch
+	 */
+	private String selectBatchOrderBy;
+
+	public CloudSpannerPreparedStatement(String sql, CloudSpannerConnection connection, DatabaseClient dbClient)
+	{
+		super(connection, dbClient);
+		this.sql = sql;
+		getParameterStore().setColumnTypeResolver(this::getColumnType);
+	}
+
+	/**
+	 * Returns the JDBC type of a column. This is used to determine the type of
+	 * a null parameter value that is bound to the column.
+	 * 
+	 * @return The JDBC type of the column, or null if it could not be
+	 *         determined
+	 */
+	private Integer getColumnType(String table, String column)
+	{
+		try
+		{
+			return getConnection().getColumnType(table, unquoteIdentifier(column));
+		}
+		catch (SQLException e)
+		{
+			return null;
+		}
+	}
+
+	@Override
+	public ResultSet executeQuery() throws SQLException
+	{
+		if (!selectBatch.isEmpty())
+		{
+			return executeSelectBatch();
+		}
+		Statement statement = parseStatement();
+		if (statement instanceof Select)
+		{
+			PointLookup lookup = createPointLookup((Select) statement);
+			if (lookup != null && getConnection().isCoalescePointLookups() && getConnection().getAutoCommit()
+					&& PointLookupCoalescer.canCoalesce(lookup))
+			{
+				return createResultSet(PointLookupCoalescer.getInstance(getConnection().getUrl()).lookup(getDbClient(),
+						lookup));
+			}
+			if (lookup != null)
+			{
+				try (ReadContext context = getReadContext())
+				{
+					return createResultSet(lookup.execute(context));
+				}
+			}
+			com.google.cloud.spanner.Statement query = null;
+			if (getConnection().isUnnestInLists())
+				query = InListRewriter.rewrite((Select) statement, getParameterStore(), getMaxRows());
+			if (query == null)
+				query = createSelectBuilder(statement).build();
+			try (ReadContext context = getReadContext())
+			{
+				com.google.cloud.spanner.ResultSet rs = context.executeQuery(query);
+				return createResultSet(rs);
+			}
+		}
+		throw new SQLException("SQL statement not suitable for executeQuery");
+	}
+
+	/**
+	 * Checks whether a SELECT statement selects at most one row from one table
+	 * by the full primary key or by the full key of a unique index, and only
+	 * selects plain columns or all columns (*).
+	 * 
+	 * @param select
+	 *            The SELECT statement
+	 * @return A point lookup for the current parameter values, or null if the
+	 *         statement must be executed as a SQL query
+	 * @throws SQLException
+	 */
+	private PointLookup createPointLookup(Select select) throws SQLException
+	{
+		if (select.getWithItemsList() != null || !(select.getSelectBody() instanceof PlainSelect))
+			return null;
+		PlainSelect plainSelect = (PlainSelect) select.getSelectBody();
+		if (!(plainSelect.getFromItem() instanceof Table) || plainSelect.getJoins() != null
+				|| plainSelect.getWhere() == null || plainSelect.getDistinct() != null
+				|| plainSelect.getGroupByColumnReferences() != null || plainSelect.getHaving() != null
+				|| plainSelect.getLimit() != null || plainSelect.getOffset() != null || plainSelect.getTop() != null
+				|| plainSelect.getFetch() != null || plainSelect.isForUpdate())
+			return null;
+		Table from = (Table) plainSelect.getFromItem();
+		if (from.getSchemaName() != null)
+			return null;
+		String table = unquoteIdentifier(from.getName());
+		List<String> columns = new ArrayList<>(plainSelect.getSelectItems().size());
+		for (SelectItem item : plainSelect.getSelectItems())
+		{
+			if (item instanceof AllColumns && plainSelect.getSelectItems().size() == 1)
+			{
+				columns.addAll(getConnection().getTableColumns(table));
+				if (columns.isEmpty())
+					return null;
+				continue;
+			}
+			if (!(item instanceof SelectExpressionItem))
+				return null;
+			SelectExpressionItem expressionItem = (SelectExpressionItem) item;
+			if (expressionItem.getAlias() != null || !WhereClauseAnalyzer.isColumn(expressionItem.getExpression()))
+				return null;
+			columns.add(WhereClauseAnalyzer.getColumnName(expressionItem.getExpression()));
+		}
+		Map<String, Expression> equalities = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		if (!WhereClauseAnalyzer.collectEqualities(plainSelect.getWhere(), equalities))
+			return null;
+		List<String> keyColumns = getConnection().getPrimaryKeyColumns(table);
+		getParameterStore().setTable(table);
+		if (WhereClauseAnalyzer.isPrimaryKeyEquality(plainSelect.getWhere(), keyColumns))
+		{
+			Key key = createKey(keyColumns, equalities);
+			return key == null ? null : new PointLookup(table, null, columns, keyColumns, key);
+		}
+		for (UniqueIndex index : getConnection().getUniqueIndexes(table))
+		{
+			if (equalities.size() == index.getKeyColumns().size()
+					&& equalities.keySet().containsAll(index.getKeyColumns()) && index.covers(columns, keyColumns))
+			{
+				Key key = createKey(index.getKeyColumns(), equalities);
+				return key == null ? null : new PointLookup(table, index.getName(), columns, index.getKeyColumns(),
+						key);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return The key with the values of the given key columns, or null if a
+	 *         value cannot be converted to a key value
+	 */
+	private Key createKey(List<String> keyColumns, Map<String, Expression> values)
+	{
+		Key.Builder builder = Key.newBuilder();
+		for (String keyColumn : keyColumns)
+		{
+			if (!KeyBuilderExpressionVisitorAdapter.appendKeyValue(getParameterStore(), builder, keyColumn,
+					values.get(keyColumn)))
+				return null;
+		}
+		return builder.build();
+	}
+
+	private com.google.cloud.spanner.Statement.Builder createSelectBuilder(Statement statement) throws SQLException
+	{
+		Select select = (Select) statement;
+		String namedSql = convertPositionalParametersToNamedParameters(MaxRowsRewriter.rewrite(sql, select,
+				getMaxRows()));
+		com.google.cloud.spanner.Statement.Builder builder = com.google.cloud.spanner.Statement.newBuilder(namedSql);
+		setSelectParameters(select.getSelectBody(), builder);
+		limitRowCountParameter(select, builder);
+
+		return builder;
+	}
+
+	/**
+	 * Lowers the value of a LIMIT parameter to the maximum number of rows of
+	 * this statement if the parameter value exceeds it
+	 */
+	private void limitRowCountParameter(Select select, com.google.cloud.spanner.Statement.Builder builder)
+			throws SQLException
+	{
+		Limit limit = MaxRowsRewriter.getLimit(select.getSelectBody());
+		if (getMaxRows() > 0 && limit != null && limit.getRowCount() instanceof JdbcParameter)
+		{
+			int index = ((JdbcParameter) limit.getRowCount()).getIndex();
+			Object value = getParameterStore().getParameter(index);
+			if (value instanceof Number && ((Number) value).longValue() > getMaxRows())
+				builder.bind(DEFAULT_PARAMETER_PREFIX + index).to((long) getMaxRows());
+		}
+	}
+
+	private String convertPositionalParametersToNamedParameters(String sql)
+	{
+		return convertPositionalParametersToNamedParameters(sql, DEFAULT_PARAMETER_PREFIX);
+	}
+
+	private String convertPositionalParametersToNamedParameters(String sql, String parameterPrefix)
+	{
+		boolean inString = false;
+		StringBuilder res = new StringBuilder(sql);
+		int i = 0;
+		int parIndex = 1;
+		while (i < res.length())
+		{
+			char c = res.charAt(i);
+			if (c == '\'')
+			{
+				inString = !inString;
+			}
+			else if (c == '?' && !inString)
+			{
+				res.replace(i, i + 1, "@" + parameterPrefix + parIndex);
+				parIndex++;
+			}
+			i++;
+		}
+
+		return res.toString();
+	}
+
+	private void setSelectParameters(SelectBody body, com.google.cloud.spanner.Statement.Builder builder)
+	{
+		setSelectParameters(body, builder, DEFAULT_PARAMETER_PREFIX);
+	}
+
+	private void setSelectParameters(SelectBody body, com.google.cloud.spanner.Statement.Builder builder,
+			String parameterPrefix)
+	{
+		body.accept(new SelectVisitor()
+		{
+
+			@Override
+			public void visit(WithItem withItem)
+			{
+			}
+
+			@Override
+			public void visit(SetOperationList setOpList)
+			{
+			}
+
+			@Override
+			public void visit(PlainSelect plainSelect)
+			{
+				setWhereParameters(plainSelect.getWhere(), builder, parameterPrefix);
+				if (plainSelect.getLimit() != null)
+				{
+					setWhereParameters(plainSelect.getLimit().getRowCount(), builder, parameterPrefix);
+				}
+				if (plainSelect.getOffset() != null && plainSelect.getOffset().isOffsetJdbcParameter())
+				{
+					ValueBinderExpressionVisitorAdapter<com.google.cloud.spanner.Statement.Builder> binder = new ValueBinderExpressionVisitorAdapter<com.google.cloud.spanner.Statement.Builder>(
+							getParameterStore(), builder.bind(parameterPrefix + getParameterStore().getHighestIndex()), null);
+					binder.setValue(getParameterStore().getParameter(getParameterStore().getHighestIndex()));
+					getParameterStore().setType(getParameterStore().getHighestIndex(), Types.BIGINT);
+				}
+			}
+		});
+	}
+
+	private void setWhereParameters(Expression where, com.google.cloud.spanner.Statement.Builder builder)
+	{
+		setWhereParameters(where, builder, DEFAULT_PARAMETER_PREFIX);
+	}
+
+	private void setWhereParameters(Expression where, com.google.cloud.spanner.Statement.Builder builder,
+			String parameterPrefix)
+	{
+		if (where != null)
+		{
+			where.accept(new ExpressionVisitorAdapter()
+			{
+
+				@Override
+				public void visit(JdbcParameter parameter)
+				{
+					parameter
+							.accept(new ValueBinderExpressionVisitorAdapter<com.google.cloud.spanner.Statement.Builder>(
+									getParameterStore(), builder.bind(parameterPrefix + parameter.getIndex()), null));
+				}
+
+				@Override
+				public void visit(SubSelect subSelect)
+				{
+					setSelectParameters(subSelect.getSelectBody(), builder, parameterPrefix);
+				}
+
+			});
+		}
+	}
+
+	@Override
+	public void addBatch() throws SQLException
+	{
+		if (isSelectStatement())
+		{
+			addSelectBatch();
+			return;
+		}
+		if (getConnection().getAutoCommit())
+		{
+			throw new SQLFeatureNotSupportedException(
+					"Batching of statements is only allowed when not running in autocommit mode");
+		}
+		if (isDDLStatement())
+		{
+			throw new SQLFeatureNotSupportedException("DDL statements may not be batched");
+		}
+		if (!batchBufferResolved)
+		{
+			batchBuffer = createColumnarBatchBuffer();
+			batchBufferResolved = true;
+		}
+		if (batchBuffer != null)
+		{
+			batchBuffer.addRow();
+		}
+		else
+		{
+			Statement statement = parseStatement();
+			List<Mutation> mutations;
+			if (statement instanceof Delete)
+			{
+				mutations = Collections.singletonList(createBatchDeleteMutation((Delete) statement));
+			}
+			else
+			{
+				if (createPipelinedDMLExecutor(statement) != null)
+				{
+					throw new SQLFeatureNotSupportedException(
+							"INSERT ... SELECT statements and UPDATE statements that do not specify one row by its primary key may not be batched");
+				}
+				mutations = createMutations(statement);
+			}
+			batchMutations.addAll(mutations);
+			batchUpdateCounts.add(getBatchUpdateCount(mutations));
+		}
+		getParameterStore().clearParameters();
+	}
+
+	/**
+	 * Adds the current parameter values of a SELECT statement to the batch.
+	 * The batch is executed as one query by {@link #executeQuery()}.
+	 */
+	private void addSelectBatch() throws SQLException
+	{
+		Statement statement = parseStatement();
+		if (!(statement instanceof Select))
+		{
+			throw new SQLException("SQL statement not suitable for a batch of SELECT statements");
+		}
+		if (selectBatch.isEmpty())
+			selectBatchOrderBy = SelectBatchRewriter.getOrderBy(((Select) statement).getSelectBody());
+		String parameterPrefix = "b" + selectBatch.size() + DEFAULT_PARAMETER_PREFIX;
+		com.google.cloud.spanner.Statement.Builder builder = com.google.cloud.spanner.Statement
+				.newBuilder(convertPositionalParametersToNamedParameters(sql, parameterPrefix));
+		setSelectParameters(((Select) statement).getSelectBody(), builder, parameterPrefix);
+		selectBatch.add(builder.build());
+		getParameterStore().clearParameters();
+	}
+
+	/**
+	 * Executes all SELECT statements in the batch as one query. See
+	 * {@link SelectBatchRewriter}.
+	 * 
+	 * @return The combined result of all SELECT statements in the batch
+	 */
+	private ResultSet executeSelectBatch() throws SQLException
+	{
+		com.google.cloud.spanner.Statement query = SelectBatchRewriter.rewrite(selectBatch, selectBatchOrderBy);
+		selectBatch.clear();
+		try (ReadContext context = getReadContext())
+		{
+			return createResultSet(context.executeQuery(query));
+		}
+	}
+
+	@Override
+	public void clearBatch() throws SQLException
+	{
+		selectBatch.clear();
+		batchMutations.clear();
+		batchUpdateCounts.clear();
+		if (batchBuffer != null)
+			batchBuffer.clear();
+		getParameterStore().clearParameters();
+	}
+
+	@Override
+	public int[] executeBatch() throws SQLException
+	{
+		if (!selectBatch.isEmpty())
+		{
+			throw new SQLException("A batch of SELECT statements must be executed with executeQuery()");
+		}
+		int[] res;
+		if (batchBuffer != null)
+		{
+			res = new int[batchBuffer.size()];
+			Arrays.fill(res, 1);
+			writeMutations(batchBuffer);
+			batchBuffer.clear();
+		}
+		else
+		{
+			res = new int[batchUpdateCounts.size()];
+			int index = 0;
+			for (Integer count : batchUpdateCounts)
+			{
+				res[index] = count.intValue();
+				index++;
+			}
+			writeMutations(mergeDeleteMutations(batchMutations));
+			batchMutations.clear();
+			batchUpdateCounts.clear();
+		}
+		getParameterStore().clearParameters();
+		return res;
+	}
+
+	/**
+	 * Merges consecutive delete mutations on the same table into one delete
+	 * mutation with a key set that contains all keys and ranges of the merged
+	 * mutations. Other mutations are left as is, and the order of the
+	 * mutations is preserved.
+	 * 
+	 * @param mutations
+	 *            The mutations to merge
+	 * @return The merged mutations
+	 */
+	private static List<Mutation> mergeDeleteMutations(List<Mutation> mutations)
+	{
+		List<Mutation> res = new ArrayList<>(mutations.size());
+		int index = 0;
+		while (index < mutations.size())
+		{
+			Mutation mutation = mutations.get(index);
+			int end = index + 1;
+			if (mutation.getOperation() == Mutation.Op.DELETE)
+			{
+				while (end < mutations.size() && mutations.get(end).getOperation() == Mutation.Op.DELETE
+						&& mutations.get(end).getTable().equals(mutation.getTable()))
+				{
+					end++;
+				}
+			}
+			if (end - index == 1)
+			{
+				res.add(mutation);
+			}
+			else
+			{
+				KeySet.Builder builder = KeySet.newBuilder();
+				for (Mutation delete : mutations.subList(index, end))
+				{
+					KeySet keySet = delete.getKeySet();
+					if (keySet.isAll())
+						builder.setAll();
+					for (Key key : keySet.getKeys())
+						builder.addKey(key);
+					for (KeyRange range : keySet.getRanges())
+						builder.addRange(range);
+				}
+				res.add(Mutation.delete(mutation.getTable(), builder.build()));
+			}
+			index = end;
+		}
+		return res;
+	}
+
+	/**
+	 * Resolves the column layout of this statement for a columnar batch
+	 * buffer.
+	 * 
+	 * @return A columnar batch buffer for this statement, or null if this
+	 *         statement cannot be batched in columns, for example because a
+	 *         value is an expression that contains a parameter
+	 * @throws SQLException
+	 */
+	private ColumnarBatchBuffer createColumnarBatchBuffer() throws SQLException
+	{
+		Statement statement = parseStatement();
+		List<String> columns = new ArrayList<>();
+		List<Expression> sources = new ArrayList<>();
+		String table;
+		Mutation.Op operation;
+		if (statement instanceof Insert)
+		{
+			Insert insert = (Insert) statement;
+			if (!(insert.getItemsList() instanceof ExpressionList) || insert.getColumns() == null)
+				return null;
+			List<Expression> expressions = ((ExpressionList) insert.getItemsList()).getExpressions();
+			if (expressions.size() != insert.getColumns().size())
+				return null;
+			table = unquoteIdentifier(insert.getTable().getFullyQualifiedName());
+			operation = insertOperation;
+			addColumnSources(insert.getColumns(), expressions, columns, sources);
+		}
+		else if (statement instanceof Update)
+		{
+			Update update = (Update) statement;
+			if (update.getTables().size() != 1 || update.getWhere() == null)
+				return null;
+			table = unquoteIdentifier(update.getTables().get(0).getFullyQualifiedName());
+			checkUpdatedColumns(table, update);
+			if (!WhereClauseAnalyzer.isPrimaryKeyEquality(update.getWhere(), getConnection().getPrimaryKeyColumns(table)))
+				return null;
+			operation = Mutation.Op.UPDATE;
+			addColumnSources(update.getColumns(), update.getExpressions(), columns, sources);
+			update.getWhere().accept(new DMLWhereClauseVisitor(getParameterStore())
+			{
+
+				@Override
+				protected void visitExpression(Column col, Expression expression)
+				{
+					columns.add(unquoteIdentifier(col.getFullyQualifiedName()));
+					sources.add(expression);
+				}
+
+			});
+		}
+		else
+		{
+			return null;
+		}
+		Expression[] sourceArray = sources.toArray(new Expression[sources.size()]);
+		if (!ColumnarBatchBuffer.canBuffer(sourceArray))
+			return null;
+		return new ColumnarBatchBuffer(operation, table, columns.toArray(new String[columns.size()]), sourceArray,
+				getParameterStore());
+	}
+
+	private static void addColumnSources(List<Column> columns, List<Expression> expressions, List<String> columnNames,
+			List<Expression> sources)
+	{
+		int index = 0;
+		for (Column col : columns)
+		{
+			columnNames.add(unquoteIdentifier(col.getFullyQualifiedName()));
+			sources.add(expressions.get(index));
+			index++;
+		}
+	}
+
+	@Override
+	public int executeUpdate() throws SQLException
+	{
+		if (isDDLStatement())
+		{
+			String ddl = formatDDLStatement(sql);
+			return executeDDL(ddl);
+		}
+		Statement statement = parseStatement();
+		if (statement instanceof Delete)
+		{
+			Mutation mutation = createKeyDeleteMutation((Delete) statement);
+			if (mutation != null)
+				return writeMutation(mutation);
+		}
+		PipelinedDMLExecutor executor = createPipelinedDMLExecutor(statement);
+		if (executor != null)
+			return executePipelinedDML(executor);
+		List<Mutation> mutations = createMutations(statement);
+		writeMutations(mutations);
+		// Cloud Spanner does not return the number of affected rows of a
+		// mutation, so each mutation is counted as one row
+		return mutations.size();
+	}
+
+	/**
+	 * Returns the update count of a statement in a batch that is executed as
+	 * the given mutations. A delete mutation with a key range or with more
+	 * than one key may delete any number of rows, and Cloud Spanner does not
+	 * return the number of deleted rows.
+	 * 
+	 * @return The number of mutations, or
+	 *         {@link java.sql.Statement#SUCCESS_NO_INFO} if the number of
+	 *         affected rows is not known
+	 */
+	private static int getBatchUpdateCount(List<Mutation> mutations)
+	{
+		for (Mutation mutation : mutations)
+		{
+			if (mutation.getOperation() == Mutation.Op.DELETE && !isSingleKey(mutation.getKeySet()))
+				return java.sql.Statement.SUCCESS_NO_INFO;
+		}
+		return mutations.size();
+	}
+
+	/**
+	 * @return true if the key set contains exactly one key and no key ranges
+	 */
+	private static boolean isSingleKey(KeySet keySet)
+	{
+		if (keySet.isAll() || keySet.getRanges().iterator().hasNext())
+			return false;
+		Iterator<Key> keys = keySet.getKeys().iterator();
+		if (!keys.hasNext())
+			return false;
+		keys.next();
+		return !keys.hasNext();
+	}
+
+	/**
+	 * Executes an UPDATE or DELETE statement that may affect more than one
+	 * row. The statement is executed in the current transaction if the
+	 * connection is not in autocommit mode. In autocommit mode the statement
+	 * is executed in a new read/write transaction, or in chunks that are
+	 * committed separately if extended mode is allowed on the connection.
+	 */
+	private int executePipelinedDML(PipelinedDMLExecutor executor) throws SQLException
+	{
+		if (getConnection().isReadOnly())
+		{
+			throw new SQLException("Connection is in read-only mode. Mutations are not allowed");
+		}
+		long count;
+		try
+		{
+			if (!getConnection().getAutoCommit())
+				count = executor.executeInTransaction(getConnection().getTransaction());
+			else if (getConnection().isAllowExtendedMode())
+				count = executor.executeChunked(getDbClient());
+			else
+				count = executor.executeInNewTransaction(getDbClient());
+		}
+		catch (IllegalArgumentException e)
+		{
+			// A value of the query could not be bound to a mutation
+			throw new SQLException(e.getMessage(), e);
+		}
+		return (int) Math.min(count, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates an executor for an INSERT ... SELECT statement, or for an UPDATE
+	 * or DELETE statement with a WHERE clause that does not specify exactly
+	 * one row by its primary key. The keys of the affected rows are selected
+	 * with a query that uses the WHERE clause of the statement. A DELETE
+	 * statement should only be executed by an executor if
+	 * {@link #createKeyDeleteMutation(Delete)} returned null for it.
+	 * 
+	 * @param statement
+	 *            The parsed statement
+	 * @return An executor for the statement, or null if the statement can be
+	 *         executed as one mutation
+	 * @throws SQLException
+	 */
+	private PipelinedDMLExecutor createPipelinedDMLExecutor(Statement statement) throws SQLException
+	{
+		String table;
+		Expression where;
+		if (statement instanceof Insert)
+		{
+			Insert insert = (Insert) statement;
+			return insert.getSelect() == null ? null : createInsertSelectExecutor(insert);
+		}
+		else if (statement instanceof Update)
+		{
+			Update update = (Update) statement;
+			if (update.getTables().size() != 1)
+				return null;
+			table = unquoteIdentifier(update.getTables().get(0).getFullyQualifiedName());
+			checkUpdatedColumns(table, update);
+			where = update.getWhere();
+		}
+		else if (statement instanceof Delete)
+		{
+			Delete delete = (Delete) statement;
+			table = unquoteIdentifier(delete.getTable().getFullyQualifiedName());
+			where = delete.getWhere();
+		}
+		else
+		{
+			return null;
+		}
+		if (where == null)
+			return null;
+		List<String> keyColumns = getConnection().getPrimaryKeyColumns(table);
+		if (keyColumns.isEmpty())
+			return null;
+		getParameterStore().setTable(table);
+		if (!(statement instanceof Delete) && WhereClauseAnalyzer.isPrimaryKeyEquality(where, keyColumns))
+		{
+			return null;
+		}
+		com.google.cloud.spanner.Statement keyQuery = createKeyQuery(table, keyColumns, where);
+		int keyCount = keyColumns.size();
+		if (statement instanceof Delete)
+		{
+			return new PipelinedDMLExecutor(keyQuery,
+					row -> Mutation.delete(table, PipelinedDMLExecutor.createKey(row, keyCount)), keyCount);
+		}
+		Update update = (Update) statement;
+		List<String> columns = new ArrayList<>();
+		for (Column col : update.getColumns())
+		{
+			columns.add(unquoteIdentifier(col.getFullyQualifiedName()));
+		}
+		List<Expression> expressions = update.getExpressions();
+		for (Expression expression : expressions)
+		{
+			if (!WhereClauseAnalyzer.isValue(expression))
+				throw new SQLFeatureNotSupportedException(
+						"Only literals and parameters are supported as values in UPDATE statements that do not specify one row by its primary key: "
+								+ expression.toString());
+		}
+		return new PipelinedDMLExecutor(keyQuery, row -> {
+			WriteBuilder builder = Mutation.newUpdateBuilder(table);
+			for (int index = 0; index < keyCount; index++)
+			{
+				PipelinedDMLExecutor.bindValue(builder.set(keyColumns.get(index)), row, index);
+			}
+			for (int index = 0; index < columns.size(); index++)
+			{
+				expressions.get(index).accept(
+						new ValueBinderExpressionVisitorAdapter<WriteBuilder>(getParameterStore(), builder
+								.set(columns.get(index)), columns.get(index)));
+			}
+			return builder.build();
+		}, keyCount + columns.size());
+	}
+
+	/**
+	 * Checks that an UPDATE statement does not set a primary key column. The
+	 * key columns of an update mutation are set from the WHERE clause or from
+	 * the keys of the rows that are selected by the WHERE clause, and Cloud
+	 * Spanner does not allow changing the primary key of a row.
+	 * 
+	 * @throws SQLException
+	 *             if the statement sets a primary key column
+	 */
+	private void checkUpdatedColumns(String table, Update update) throws SQLException
+	{
+		List<String> keyColumns = getConnection().getPrimaryKeyColumns(table);
+		for (Column col : update.getColumns())
+		{
+			String column = unquoteIdentifier(col.getFullyQualifiedName());
+			for (String keyColumn : keyColumns)
+			{
+				if (keyColumn.equalsIgnoreCase(column))
+					throw new SQLException("UPDATE statements may not set a primary key column: " + column);
+			}
+		}
+	}
+
+	/**
+	 * Creates an executor for an INSERT ... SELECT statement. The rows of the
+	 * SELECT statement are streamed, and each row is converted to an insert
+	 * mutation. The column mapping is resolved once for the statement: the
+	 * n-th column of the SELECT statement is inserted into the n-th column of
+	 * the INSERT statement.
+	 */
+	private PipelinedDMLExecutor createInsertSelectExecutor(Insert insert) throws SQLException
+	{
+		if (insert.getColumns() == null || insert.getColumns().isEmpty())
+			throw new SQLFeatureNotSupportedException(
+					"INSERT ... SELECT statements must specify the columns to insert: INSERT INTO TABLE (COLUMNS) SELECT ...");
+		String table = unquoteIdentifier(insert.getTable().getFullyQualifiedName());
+		getParameterStore().setTable(table);
+		String[] columns = new String[insert.getColumns().size()];
+		for (int index = 0; index < columns.length; index++)
+		{
+			columns[index] = unquoteIdentifier(insert.getColumns().get(index).getFullyQualifiedName());
+		}
+		SelectBody body = insert.getSelect().getSelectBody();
+		if (body instanceof PlainSelect && !hasAllColumns((PlainSelect) body)
+				&& ((PlainSelect) body).getSelectItems().size() != columns.length)
+		{
+			throw new SQLException("Number of selected columns (" + ((PlainSelect) body).getSelectItems().size()
+					+ ") does not match the number of columns (" + columns.length + ")");
+		}
+		String namedSql = convertPositionalParametersToNamedParameters(insert.getSelect().toString());
+		com.google.cloud.spanner.Statement.Builder builder = com.google.cloud.spanner.Statement.newBuilder(namedSql);
+		// All parameters of an INSERT ... SELECT statement are part of the
+		// SELECT statement, including any parameters in the select list
+		setAllParameters(builder);
+		Mutation.Op operation = insertOperation;
+		return new PipelinedDMLExecutor(builder.build(), row -> {
+			if (row.getColumnCount() != columns.length)
+				throw new IllegalArgumentException("Number of selected columns (" + row.getColumnCount()
+						+ ") does not match the number of columns (" + columns.length + ")");
+			WriteBuilder writeBuilder = ColumnarBatchBuffer.newWriteBuilder(operation, table);
+			for (int index = 0; index < columns.length; index++)
+			{
+				PipelinedDMLExecutor.bindValue(writeBuilder.set(columns[index]), row, index);
+			}
+			return writeBuilder.build();
+		}, columns.length);
+	}
+
+	/**
+	 * Binds the value of each parameter of this statement to the named
+	 * parameter with the same position
+	 */
+	private void setAllParameters(com.google.cloud.spanner.Statement.Builder builder)
+	{
+		for (int index = 1; index <= getParameterStore().getHighestIndex(); index++)
+		{
+			new JdbcParameter(index, false)
+					.accept(new ValueBinderExpressionVisitorAdapter<com.google.cloud.spanner.Statement.Builder>(
+							getParameterStore(), builder.bind(DEFAULT_PARAMETER_PREFIX + index), null));
+		}
+	}
+
+	private static boolean hasAllColumns(PlainSelect select)
+	{
+		for (SelectItem item : select.getSelectItems())
+		{
+			if (!(item instanceof SelectExpressionItem))
+				return true;
+		}
+		return false;
+	}
+
+	private com.google.cloud.spanner.Statement createKeyQuery(String table, List<String> keyColumns, Expression where)
+	{
+		StringBuilder keySql = new StringBuilder("SELECT ");
+		boolean first = true;
+		for (String keyColumn : keyColumns)
+		{
+			if (!first)
+				keySql.append(", ");
+			keySql.append('`').append(keyColumn).append('`');
+			first = false;
+		}
+		keySql.append(" FROM `").append(table).append("` WHERE ");
+		keySql.append(WhereClauseAnalyzer.toNamedParameterSql(where));
+		com.google.cloud.spanner.Statement.Builder builder = com.google.cloud.spanner.Statement.newBuilder(keySql
+				.toString());
+		setWhereParameters(where, builder);
+		return builder.build();
+	}
+
+	private List<Mutation> createMutations() throws SQLException
+	{
+		return createMutations(parseStatement());
+	}
+
+	private List<Mutation> createMutations(Statement statement) throws SQLException
+	{
+		if (isDDLStatement())
+		{
+			throw new SQLException("Cannot create mutation for DDL statement");
+		}
+		if (statement instanceof Insert)
+		{
+			return createInsertMutations((Insert) statement);
+		}
+		else if (statement instanceof Update)
+		{
+			return Collections.singletonList(createUpdateMutation((Update) statement));
+		}
+		else if (statement instanceof Delete)
+		{
+			return Collections.singletonList(createDeleteMutation((Delete) statement));
+		}
+		else
+		{
+			throw new SQLFeatureNotSupportedException(
+					"Unrecognized or unsupported SQL-statment: Expected one of INSERT, UPDATE or DELETE. Please note that batching of prepared statements is not supported for SELECT-statements.");
+		}
+	}
+
+	/**
+	 * Parses the SQL statement of this prepared statement. Upsert statements
+	 * are rewritten to INSERT statements before parsing, and the mutation
+	 * operation to use for the rows of the statement is registered in
+	 * {@link #insertOperation}.
+	 * 
+	 * @return The parsed statement
+	 * @throws SQLException
+	 *             if the statement could not be parsed
+	 */
+	private Statement parseStatement() throws SQLException
+	{
+		UpsertSqlRewriter.Result rewrite = UpsertSqlRewriter.rewrite(sql);
+		insertOperation = rewrite.getOperation();
+		Statement statement;
+		try
+		{
+			statement = CCJSqlParserUtil.parse(rewrite.getSql());
+		}
+		catch (JSQLParserException e)
+		{
+			throw new SQLException("Error while parsing sql statement " + sql, e);
+		}
+		if (rewrite.getUpdatedColumns() != null && statement instanceof Insert)
+			checkDuplicateKeyColumns((Insert) statement, rewrite.getUpdatedColumns());
+		return statement;
+	}
+
+	private void checkDuplicateKeyColumns(Insert insert, List<String> updatedColumns) throws SQLException
+	{
+		if (insert.getColumns() == null || insert.getColumns().isEmpty())
+			throw new SQLFeatureNotSupportedException(
+					"INSERT ... ON DUPLICATE KEY UPDATE statements must specify the columns to insert");
+		List<String> insertedColumns = new ArrayList<>(insert.getColumns().size());
+		for (Column col : insert.getColumns())
+			insertedColumns.add(unquoteIdentifier(col.getFullyQualifiedName()));
+		String table = unquoteIdentifier(insert.getTable().getFullyQualifiedName());
+		UpsertSqlRewriter.checkDuplicateKeyColumns(updatedColumns, insertedColumns, getConnection()
+				.getPrimaryKeyColumns(table));
+	}
+
+	private static final String[] DDL_STATEMENTS = { "CREATE", "ALTER", "DROP" };
+
+	private static final String[] SELECT_STATEMENTS = { "SELECT", "WITH", "(" };
+
+	/**
+	 * Do a quick check if this SQL statement is a DDL statement
+	 * 
+	 * @return true if the SQL statement is a DDL statement
+	 */
+	private boolean isDDLStatement()
+	{
+		String ddl = this.sql.trim();
+		ddl = ddl.substring(0, Math.min(8, ddl.length())).toUpperCase();
+		for (String statement : DDL_STATEMENTS)
+		{
+			if (ddl.startsWith(statement))
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Do a quick check if this SQL statement is a SELECT statement
+	 * 
+	 * @return true if the SQL statement is a SELECT statement
+	 */
+	private boolean isSelectStatement()
+	{
+		String select = this.sql.trim();
+		select = select.substring(0, Math.min(6, select.length())).toUpperCase();
+		for (String statement : SELECT_STATEMENTS)
+		{
+			if (select.startsWith(statement))
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Does some formatting to DDL statements that might have been generated by
+	 * standard SQL generators to make it compatible with Google Cloud Spanner.
+	 * 
+	 * @param sql
+	 *            The sql to format
+	 * @return The formatted DDL statement.
+	 * @throws SQLException
+	 */
+	private String formatDDLStatement(String sql) throws SQLException
+	{
+		String res = sql.trim().toUpperCase();
+		String[] parts = res.split("\\s+");
+		if (parts.length >= 2)
+		{
+			String sqlWithSingleSpaces = String.join(" ", parts);
+			if (sqlWithSingleSpaces.startsWith("CREATE TABLE"))
+			{
+				int primaryKeyIndex = res.indexOf(", PRIMARY KEY (");
+				if (primaryKeyIndex > -1)
+				{
+					int endPrimaryKeyIndex = res.indexOf(")", primaryKeyIndex);
+					String primaryKeySpec = res.substring(primaryKeyIndex + 2, endPrimaryKeyIndex + 1);
+					res = res.replace(", " + primaryKeySpec, "");
+					res = res + " " + primaryKeySpec;
+				}
+			}
+		}
+
+		return res;
+	}
+
+	/**
+	 * Creates the insert mutations for an insert statement. An insert
+	 * statement with a multi-row VALUES list results in one mutation per row.
+	 * The JDBC parameters are numbered consecutively across all rows.
+	 * 
+	 * @param insert
+	 *            The insert statement
+	 * @return The mutations for the rows of the insert statement
+	 * @throws SQLException
+	 */
+	private List<Mutation> createInsertMutations(Insert insert) throws SQLException
+	{
+		ItemsList items = insert.getItemsList();
+		List<ExpressionList> rows;
+		if (items instanceof ExpressionList)
+		{
+			rows = Collections.singletonList((ExpressionList) items);
+		}
+		else if (items instanceof MultiExpressionList)
+		{
+			rows = ((MultiExpressionList) items).getExprList();
+		}
+		else
+		{
+			throw new SQLException("Insert statement must contain a list of values");
+		}
+		String table = unquoteIdentifier(insert.getTable().getFullyQualifiedName());
+		getParameterStore().setTable(table);
+		List<Column> columns = insert.getColumns();
+		List<Mutation> mutations = new ArrayList<>(rows.size());
+		for (ExpressionList row : rows)
+		{
+			List<Expression> expressions = row.getExpressions();
+			if (rows.size() > 1 && expressions.size() != columns.size())
+			{
+				throw new SQLException("Number of values (" + expressions.size()
+						+ ") does not match the number of columns (" + columns.size() + ")");
+			}
+			WriteBuilder builder = ColumnarBatchBuffer.newWriteBuilder(insertOperation, table);
+			int index = 0;
+			for (Column col : columns)
+			{
+				String columnName = unquoteIdentifier(col.getFullyQualifiedName());
+				expressions.get(index).accept(
+						new ValueBinderExpressionVisitorAdapter<WriteBuilder>(getParameterStore(), builder
+								.set(columnName), columnName));
+				index++;
+			}
+			mutations.add(builder.build());
+		}
+		return mutations;
+	}
+
+	private Mutation createUpdateMutation(Update update) throws SQLException
+	{
+		if (update.getTables().isEmpty())
+			throw new SQLException("No table found in update statement");
+		if (update.getTables().size() > 1)
+			throw new SQLException("Update statements for multiple tables at once are not supported");
+		String table = unquoteIdentifier(update.getTables().get(0).getFullyQualifiedName());
+		getParameterStore().setTable(table);
+		List<Expression> expressions = update.getExpressions();
+		WriteBuilder builder = Mutation.newUpdateBuilder(table);
+		int index = 0;
+		for (Column col : update.getColumns())
+		{
+			String columnName = unquoteIdentifier(col.getFullyQualifiedName());
+			expressions.get(index).accept(
+					new ValueBinderExpressionVisitorAdapter<WriteBuilder>(getParameterStore(), builder.set(columnName),
+							columnName));
+			index++;
+		}
+		visitInsertWhereClause(update.getWhere(), builder);
+
+		return builder.build();
+	}
+
+	private Mutation createDeleteMutation(Delete delete) throws SQLException
+	{
+		Mutation mutation = createKeyDeleteMutation(delete);
+		if (mutation != null)
+			return mutation;
+		// Delete one, with the key values in the order of the where clause
+		Key.Builder keyBuilder = Key.newBuilder();
+		visitDeleteWhereClause(delete.getWhere(), keyBuilder);
+		return Mutation.delete(unquoteIdentifier(delete.getTable().getFullyQualifiedName()), keyBuilder.build());
+	}
+
+	/**
+	 * Creates the delete mutation of a DELETE statement in a batch. A batched
+	 * DELETE statement must specify its rows by primary key, by a list of
+	 * primary keys, by a key prefix or by a key range.
+	 * 
+	 * @throws SQLException
+	 *             if the statement does not specify its rows by key, or if a
+	 *             key value is NULL or cannot be converted to the type of its
+	 *             key column
+	 */
+	private Mutation createBatchDeleteMutation(Delete delete) throws SQLException
+	{
+		Mutation mutation = createKeyDeleteMutation(delete);
+		if (mutation != null)
+			return mutation;
+		String table = unquoteIdentifier(delete.getTable().getFullyQualifiedName());
+		List<String> keyColumns = getConnection().getPrimaryKeyColumns(table);
+		if (keyColumns.isEmpty())
+			return createDeleteMutation(delete);
+		if (KeyRangePredicate.parse(delete.getWhere(), keyColumns) != null
+				|| KeyListPredicate.parse(delete.getWhere(), keyColumns) != null)
+		{
+			throw new SQLException(
+					"The key values of a batched DELETE statement may not be NULL and must be convertible to the type of their primary key column");
+		}
+		throw new SQLFeatureNotSupportedException(
+				"DELETE statements that do not specify their rows by primary key, a list of primary keys or a key range may not be batched");
+	}
+
+	/**
+	 * Creates a delete mutation for a DELETE statement without a WHERE
+	 * clause, or with a WHERE clause that selects rows by a list of keys, a
+	 * key prefix or a key range.
+	 * 
+	 * @return The delete mutation, or null if the WHERE clause cannot be
+	 *         translated to keys with the current parameter values. The rows
+	 *         to delete must then be selected with a query.
+	 */
+	private Mutation createKeyDeleteMutation(Delete delete) throws SQLException
+	{
+		String table = unquoteIdentifier(delete.getTable().getFullyQualifiedName());
+		getParameterStore().setTable(table);
+		Expression where = delete.getWhere();
+		if (where == null)
+		{
+			// Delete all
+			return Mutation.delete(table, KeySet.all());
+		}
+		return createKeyDeleteMutation(table, getConnection().getPrimaryKeyColumns(table), where);
+	}
+
+	/**
+	 * Creates a delete mutation for a WHERE clause that selects rows by a
+	 * list of keys, a key prefix or a key range.
+	 * 
+	 * @return The delete mutation, or null if the WHERE clause cannot be
+	 *         translated to keys with the current parameter values. The rows
+	 *         to delete must then be selected with a query.
+	 */
+	private Mutation createKeyDeleteMutation(String table, List<String> keyColumns, Expression where)
+			throws SQLException
+	{
+		KeyRangePredicate predicate = KeyRangePredicate.parse(where, keyColumns);
+		KeyListPredicate keyList = predicate == null ? KeyListPredicate.parse(where, keyColumns) : null;
+		if (keyList != null)
+		{
+			// Delete a list of rows
+			KeySet keySet = keyList.createKeySet(getParameterStore());
+			return keySet == null ? null : Mutation.delete(table, keySet);
+		}
+		else if (predicate == null)
+		{
+			return null;
+		}
+		else if (predicate.isSingleKey(keyColumns.size()))
+		{
+			// Delete one
+			Key key = predicate.createKey(getParameterStore());
+			return key == null ? null : Mutation.delete(table, key);
+		}
+		else
+		{
+			// Delete all rows with a key prefix and/or in a key range
+			boolean descending = predicate.getRangeColumn() != null
+					&& getConnection().isDescendingPrimaryKeyColumn(table, predicate.getRangeColumn());
+			KeyRange range = predicate.createKeyRange(getParameterStore(), descending);
+			return range == null ? null : Mutation.delete(table, KeySet.range(range));
+		}
+	}
+
+	private void visitDeleteWhereClause(Expression where, Key.Builder keyBuilder)
+	{
+		if (where != null)
+		{
+			where.accept(new DMLWhereClauseVisitor(getParameterStore())
+			{
+
+				@Override
+				protected void visitExpression(Column col, Expression expression)
+				{
+					expression.accept(new KeyBuilderExpressionVisitorAdapter<>(getParameterStore(), keyBuilder,
+							unquoteIdentifier(col.getFullyQualifiedName())));
+				}
+
+			});
+		}
+	}
+
+	private void visitInsertWhereClause(Expression where, WriteBuilder builder)
+	{
+		if (where != null)
+		{
+			where.accept(new DMLWhereClauseVisitor(getParameterStore())
+			{
+
+				@Override
+				protected void visitExpression(Column col, Expression expression)
+				{
+					String columnName = unquoteIdentifier(col.getFullyQualifiedName());
+					expression.accept(new ValueBinderExpressionVisitorAdapter<WriteBuilder>(getParameterStore(),
+							builder.set(columnName), columnName));
+				}
+
+			});
+		}
+	}
+
+	private static String unquoteIdentifier(String identifier)
+	{
+		if (identifier == null)
+			return identifier;
+		if (identifier.charAt(0) == '`' && identifier.charAt(identifier.length() - 1) == '`')
+			identifier = identifier.substring(1, identifier.length() - 1);
+		return identifier;
+	}
+
+	private int executeDDL(String ddl) throws SQLException
+	{
+		getConnection().executeDDL(ddl);
+		return 0;
+	}
+
+	@Override
+	public boolean execute() throws SQLException
+	{
+		Statement statement = parseStatement();
+		if (statement instanceof Select)
+		{
+			lastResultSet = executeQuery();
+			lastUpdateCount = -1;
+			return true;
+		}
+		else
+		{
+			lastUpdateCount = executeUpdate();
+			lastResultSet = null;
+			return false;
+		}
+	}
+
+	@Override
+	public ParameterMetaData getParameterMetaData() throws SQLException
+	{
+		// parse the SQL statement without executing it
+		if (isDDLStatement())
+		{
+			throw new SQLException("Cannot get parameter meta data for DDL statement");
+		}
+		Statement statement = parseStatement();
+		if (statement instanceof Insert || statement instanceof Update || statement instanceof Delete)
+		{
+			// Create mutation, but don't do anything with it. This
+			// initializes column names of the parameter store.
+			if (statement instanceof Insert && ((Insert) statement).getSelect() != null)
+				createPipelinedDMLExecutor(statement);
+			else
+				createMutations(statement);
+		}
+		else if (statement instanceof Select)
+		{
+			// Create select builder, but don't do anything with it. This
+			// initializes column names of the parameter store.
+			createSelectBuilder(statement);
+		}
+		return new CloudSpannerParameterMetaData(this);
+	}
+
+}
@@ -1,139 +1,163 @@
-package nl.topicus.jdbc.statement;
-
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.SQLFeatureNotSupportedException;
-
-import net.sf.jsqlparser.JSQLParserException;
-import net.sf.jsqlparser.parser.CCJSqlParserUtil;
-import net.sf.jsqlparser.statement.Statement;
-import net.sf.jsqlparser.statement.select.Select;
-import nl.topicus.jdbc.CloudSpannerConnection;
-import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
-
-import com.google.cloud.spanner.DatabaseClient;
-import com.google.cloud.spanner.ReadContext;
-
-/**
- * 
- * @author loite
- *
- */
-public class CloudSpannerStatement extends AbstractCloudSpannerStatement
-{
-	protected ResultSet lastResultSet = null;
-
-	protected int lastUpdateCount = -1;
-
-	public CloudSpannerStatement(CloudSpannerConnection connection, DatabaseClient dbClient)
-	{
-		super(connection, dbClient);
-	}
-
-	@Override
-	public ResultSet executeQuery(String sql) throws SQLException
-	{
-		try (ReadContext context = getReadContext())
-		{
-			com.google.cloud.spanner.ResultSet rs = context.executeQuery(com.google.cloud.spanner.Statement.of(sql));
-			return new CloudSpannerResultSet(rs);
-		}
-	}
-
-	@Override
-	public int executeUpdate(String sql) throws SQLException
-	{
-		PreparedStatement ps = getConnection().prepareStatement(sql);
-		return ps.executeUpdate();
-	}
-
-	@Override
-	public boolean execute(String sql) throws SQLException
-	{
-		Statement statement;
-		try
-		{
-			statement = CCJSqlParserUtil.parse(sql);
-		}
-		catch (JSQLParserException e)
-		{
-			throw new SQLException("Error while parsing sql statement", e);
-		}
-		if (statement instanceof Select)
-		{
-			lastResultSet = executeQuery(sql);
-			lastUpdateCount = -1;
-			return true;
-		}
-		else
-		{
-			lastUpdateCount = executeUpdate(sql);
-			lastResultSet = null;
-			return false;
-		}
-	}
-
-	@Override
-	public ResultSet getResultSet() throws SQLException
-	{
-		return lastResultSet;
-	}
-
-	@Override
-	public int getUpdateCount() throws SQLException
-	{
-		return lastUpdateCount;
-	}
-
-	@Override
-	public boolean getMoreResults() throws SQLException
-	{
-		lastResultSet.close();
-		lastResultSet = null;
-		return false;
-	}
-
-	@Override
-	public boolean getMoreResults(int current) throws SQLException
-	{
-		return getMoreResults();
-	}
-
-	@Override
-	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public int executeUpdate(String sql, String[] columnNames) throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public boolean execute(String sql, int[] columnIndexes) throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-	@Override
-	public boolean execute(String sql, String[] columnNames) throws SQLException
-	{
-		throw new SQLFeatureNotSupportedException();
-	}
-
-}
+package nl.topicus.jdbc.statement;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.Select;
+import nl.topicus.jdbc.CloudSpannerConnection;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.ReadContext;
+
+/**
+ * 
+ * @author loite
+ *
+ */
+public class CloudSpannerStatement extends AbstractCloudSpannerStatement
+{
+	protected ResultSet lastResultSet = null;
+
+	protected int lastUpdateCount = -1;
+
+	public CloudSpannerStatement(CloudSpannerConnection connection, DatabaseClient dbClient)
+	{
+		super(connection, dbClient);
+	}
+
+	@Override
+	public ResultSet executeQuery(String sql) throws SQLException
+	{
+		sql = limitMaxRows(sql);
+		com.google.cloud.spanner.Statement statement = getConnection().isParameterizeLiterals() ? LiteralParameterizer
+				.parameterize(sql) : com.google.cloud.spanner.Statement.of(sql);
+		try (ReadContext context = getReadContext())
+		{
+			com.google.cloud.spanner.ResultSet rs = context.executeQuery(statement);
+			return createResultSet(rs);
+		}
+	}
+
+	/**
+	 * Adds a LIMIT clause to a query if a maximum number of rows has been set
+	 * for this statement. The query is sent unchanged if it cannot be parsed.
+	 */
+	private String limitMaxRows(String sql) throws SQLException
+	{
+		if (getMaxRows() <= 0)
+			return sql;
+		try
+		{
+			Statement statement = CCJSqlParserUtil.parse(sql);
+			if (statement instanceof Select)
+				return MaxRowsRewriter.rewrite(sql, (Select) statement, getMaxRows());
+		}
+		catch (JSQLParserException e)
+		{
+			// Let Cloud Spanner report any errors in the query, the result set
+			// will still return at most the maximum number of rows
+		}
+		return sql;
+	}
+
+	@Override
+	public int executeUpdate(String sql) throws SQLException
+	{
+		PreparedStatement ps = getConnection().prepareStatement(sql);
+		return ps.executeUpdate();
+	}
+
+	@Override
+	public boolean execute(String sql) throws SQLException
+	{
+		Statement statement;
+		try
+		{
+			statement = CCJSqlParserUtil.parse(UpsertSqlRewriter.rewrite(sql).getSql());
+		}
+		catch (JSQLParserException e)
+		{
+			throw new SQLException("Error while parsing sql statement", e);
+		}
+		if (statement instanceof Select)
+		{
+			lastResultSet = executeQuery(sql);
+			lastUpdateCount = -1;
+			return true;
+		}
+		else
+		{
+			lastUpdateCount = executeUpdate(sql);
+			lastResultSet = null;
+			return false;
+		}
+	}
+
+	@Override
+	public ResultSet getResultSet() throws SQLException
+	{
+		return lastResultSet;
+	}
+
+	@Override
+	public int getUpdateCount() throws SQLException
+	{
+		return lastUpdateCount;
+	}
+
+	@Override
+	public boolean getMoreResults() throws SQLException
+	{
+		lastResultSet.close();
+		lastResultSet = null;
+		return false;
+	}
+
+	@Override
+	public boolean getMoreResults(int current) throws SQLException
+	{
+		return getMoreResults();
+	}
+
+	@Override
+	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public int executeUpdate(String sql, String[] columnNames) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public boolean execute(String sql, int[] columnIndexes) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public boolean execute(String sql, String[] columnNames) throws SQLException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+
+}
@@ -0,0 +1,369 @@
+package nl.topicus.jdbc.statement;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
+import net.sf.jsqlparser.expression.JdbcParameter;
+import net.sf.jsqlparser.statement.select.SubSelect;
+
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.Mutation.WriteBuilder;
+import com.google.cloud.spanner.ValueBinder;
+
+/**
+ * Buffer for batches of a prepared INSERT or UPDATE statement. Instead of
+ * creating a {@link Mutation} for each call to addBatch, the parameter values
+ * of each row are recorded in per-column primitive and object arrays. The
+ * column layout of the statement is resolved once, and the mutations are only
+ * created when the batch is flushed.
+ *
+ * @author loite
+ *
+ */
+class ColumnarBatchBuffer implements Iterable<Mutation>
+{
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final Mutation.Op operation;
+
+	private final String table;
+
+	private final String[] columns;
+
+	/**
+	 * The expression that is the source of the value of each column. For
+	 * columns that get their value from a parameter, the parameter index is
+	 * also registered in {@link #parameterIndexes}.
+	 */
+	private final Expression[] sources;
+
+	private final int[] parameterIndexes;
+
+	private final ParameterStore parameterStore;
+
+	private final ColumnBuffer[] buffers;
+
+	private int rowCount;
+
+	ColumnarBatchBuffer(Mutation.Op operation, String table, String[] columns, Expression[] sources,
+			ParameterStore parameterStore)
+	{
+		this.operation = operation;
+		this.table = table;
+		this.columns = columns;
+		this.sources = sources;
+		this.parameterStore = parameterStore;
+		this.parameterIndexes = new int[columns.length];
+		this.buffers = new ColumnBuffer[columns.length];
+		for (int col = 0; col < columns.length; col++)
+		{
+			if (sources[col] instanceof JdbcParameter)
+			{
+				parameterIndexes[col] = ((JdbcParameter) sources[col]).getIndex();
+				buffers[col] = new ColumnBuffer();
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the values of the columns of a statement can be recorded
+	 * in a columnar batch buffer. Only the values of columns that are set to a
+	 * parameter are recorded for each row. All other column values are
+	 * evaluated when the batch is flushed, and must therefore not depend on
+	 * any parameters, as these have been cleared or set to the values of the
+	 * last row by then.
+	 * 
+	 * @param sources
+	 *            The expression that is the source of the value of each column
+	 * @return true if no other expression than a plain parameter contains a
+	 *         parameter
+	 */
+	static boolean canBuffer(Expression[] sources)
+	{
+		for (Expression source : sources)
+		{
+			if (!(source instanceof JdbcParameter) && containsParameter(source))
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean containsParameter(Expression expression)
+	{
+		boolean[] res = new boolean[1];
+		expression.accept(new ExpressionVisitorAdapter()
+		{
+
+			@Override
+			public void visit(JdbcParameter parameter)
+			{
+				res[0] = true;
+			}
+
+			@Override
+			public void visit(SubSelect subSelect)
+			{
+				// The parameters of a sub query are not visited
+				res[0] = true;
+			}
+
+		});
+		return res[0];
+	}
+
+	String getTable()
+	{
+		return table;
+	}
+
+	int size()
+	{
+		return rowCount;
+	}
+
+	/**
+	 * Records the current parameter values of the parameter store as a new row
+	 * in this buffer.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if a parameter value is of an unsupported type. The row is
+	 *             not added in that case.
+	 */
+	void addRow()
+	{
+		try
+		{
+			for (int col = 0; col < columns.length; col++)
+			{
+				if (buffers[col] != null)
+				{
+					buffers[col].add(rowCount, parameterStore, parameterIndexes[col], table, columns[col]);
+				}
+			}
+		}
+		catch (IllegalArgumentException e)
+		{
+			for (ColumnBuffer buffer : buffers)
+			{
+				if (buffer != null)
+					buffer.clearRow(rowCount);
+			}
+			throw e;
+		}
+		rowCount++;
+	}
+
+	void clear()
+	{
+		for (ColumnBuffer buffer : buffers)
+		{
+			if (buffer != null)
+				buffer.clear(rowCount);
+		}
+		rowCount = 0;
+	}
+
+	/**
+	 * Creates the mutations for the buffered rows. The mutations are created
+	 * lazily while iterating.
+	 */
+	@Override
+	public Iterator<Mutation> iterator()
+	{
+		return new Iterator<Mutation>()
+		{
+			private int row = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return row < rowCount;
+			}
+
+			@Override
+			public Mutation next()
+			{
+				if (!hasNext())
+					throw new NoSuchElementException();
+				Mutation mutation = createMutation(row);
+				row++;
+				return mutation;
+			}
+		};
+	}
+
+	static WriteBuilder newWriteBuilder(Mutation.Op operation, String table)
+	{
+		switch (operation)
+		{
+		case INSERT:
+			return Mutation.newInsertBuilder(table);
+		case UPDATE:
+			return Mutation.newUpdateBuilder(table);
+		case INSERT_OR_UPDATE:
+			return Mutation.newInsertOrUpdateBuilder(table);
+		case REPLACE:
+			return Mutation.newReplaceBuilder(table);
+		default:
+			throw new IllegalArgumentException("Unsupported write operation: " + operation);
+		}
+	}
+
+	private Mutation createMutation(int row)
+	{
+		WriteBuilder builder = newWriteBuilder(operation, table);
+		for (int col = 0; col < columns.length; col++)
+		{
+			ValueBinder<WriteBuilder> binder = builder.set(columns[col]);
+			if (buffers[col] != null)
+			{
+				buffers[col].bind(row, binder);
+			}
+			else
+			{
+				sources[col].accept(new ValueBinderExpressionVisitorAdapter<WriteBuilder>(parameterStore, binder,
+						columns[col]));
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * The recorded values of one column
+	 */
+	private static final class ColumnBuffer
+	{
+		private ParameterStore.Kind[] kinds = new ParameterStore.Kind[INITIAL_CAPACITY];
+
+		private long[] longs = new long[INITIAL_CAPACITY];
+
+		private double[] doubles = new double[INITIAL_CAPACITY];
+
+		private Object[] objects = new Object[INITIAL_CAPACITY];
+
+		private Integer[] types = new Integer[INITIAL_CAPACITY];
+
+		private ParameterValueBinders.Binder[] nullBinders = new ParameterValueBinders.Binder[INITIAL_CAPACITY];
+
+		private Class<?> binderClass;
+
+		private Integer binderType;
+
+		private ParameterValueBinders.Binder binder;
+
+		private void ensureCapacity(int row)
+		{
+			if (row >= kinds.length)
+			{
+				int newLength = Math.max(kinds.length * 2, row + 1);
+				kinds = Arrays.copyOf(kinds, newLength);
+				longs = Arrays.copyOf(longs, newLength);
+				doubles = Arrays.copyOf(doubles, newLength);
+				objects = Arrays.copyOf(objects, newLength);
+				types = Arrays.copyOf(types, newLength);
+				nullBinders = Arrays.copyOf(nullBinders, newLength);
+			}
+		}
+
+		private void add(int row, ParameterStore store, int parameterIndex, String table, String column)
+		{
+			ensureCapacity(row);
+			ParameterStore.Kind kind = store.getKind(parameterIndex);
+			kinds[row] = kind;
+			switch (kind)
+			{
+			case BOOLEAN:
+			case BYTE:
+			case SHORT:
+			case INT:
+			case LONG:
+				longs[row] = store.getLong(parameterIndex);
+				break;
+			case FLOAT:
+			case DOUBLE:
+				doubles[row] = store.getDouble(parameterIndex);
+				break;
+			default:
+				objects[row] = store.getParameter(parameterIndex);
+				types[row] = store.getType(parameterIndex);
+				nullBinders[row] = objects[row] == null ? store.getNullBinder(parameterIndex, table, column) : null;
+				// Resolve the binder through the parameter store now, so that
+				// an unsupported value is reported by addBatch and not by
+				// executeBatch, and so that a null value in a later row gets
+				// the type of this value
+				if (objects[row] != null && store.getBinder(parameterIndex, objects[row].getClass()) == null)
+					throw new IllegalArgumentException("Unsupported parameter type: "
+							+ objects[row].getClass().getName() + " - " + objects[row].toString());
+				break;
+			}
+		}
+
+		private void clearRow(int row)
+		{
+			if (row < kinds.length)
+			{
+				objects[row] = null;
+				types[row] = null;
+				nullBinders[row] = null;
+			}
+		}
+
+		private void clear(int rowCount)
+		{
+			Arrays.fill(objects, 0, rowCount, null);
+			Arrays.fill(types, 0, rowCount, null);
+			Arrays.fill(nullBinders, 0, rowCount, null);
+		}
+
+		private void bind(int row, ValueBinder<?> valueBinder)
+		{
+			switch (kinds[row])
+			{
+			case BOOLEAN:
+				valueBinder.to(longs[row] != 0L);
+				break;
+			case BYTE:
+			case SHORT:
+			case INT:
+			case LONG:
+				valueBinder.to(longs[row]);
+				break;
+			case FLOAT:
+			case DOUBLE:
+				valueBinder.to(doubles[row]);
+				break;
+			default:
+				Object value = objects[row];
+				if (value == null)
+				{
+					nullBinders[row].bind(valueBinder, null);
+				}
+				else
+				{
+					getBinder(value, types[row]).bind(valueBinder, value);
+				}
+				break;
+			}
+		}
+
+		private ParameterValueBinders.Binder getBinder(Object value, Integer type)
+		{
+			Class<?> valueClass = value.getClass();
+			if (binder == null || binderClass != valueClass || !Objects.equals(binderType, type))
+			{
+				binder = ParameterValueBinders.resolve(valueClass, type);
+				if (binder == null)
+					throw new IllegalArgumentException("Unsupported parameter type: " + valueClass.getName() + " - "
+							+ value.toString());
+				binderClass = valueClass;
+				binderType = type;
+			}
+			return binder;
+		}
+	}
+
+}
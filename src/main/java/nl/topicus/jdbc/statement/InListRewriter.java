@@ -0,0 +1,202 @@
+package nl.topicus.jdbc.statement;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.JdbcParameter;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.util.deparser.ExpressionDeParser;
+import net.sf.jsqlparser.util.deparser.SelectDeParser;
+import nl.topicus.jdbc.CloudSpannerArray;
+
+import com.google.cloud.spanner.Statement;
+
+/**
+ * Rewrites IN-lists of parameters in a SELECT statement, such as 'WHERE ID IN
+ * (?, ?, ?)', into 'WHERE ID IN UNNEST(@pin1)' with one array parameter. This
+ * keeps the SQL text of a query the same regardless of the number of values
+ * in the list, so that Google Cloud Spanner can reuse the query plan.
+ *
+ * An IN-list is only rewritten if all values of the list are parameters with
+ * a non-null value of the same type.
+ *
+ * @author loite
+ *
+ */
+class InListRewriter
+{
+	static final String ARRAY_PARAMETER_PREFIX = "pin";
+
+	private final ParameterStore parameterStore;
+
+	/**
+	 * The values of the rewritten IN-lists, keyed by the array parameter name
+	 */
+	private final Map<String, CloudSpannerArray> arrays = new LinkedHashMap<>();
+
+	/**
+	 * The parameters that were not part of a rewritten IN-list
+	 */
+	private final List<JdbcParameter> parameters = new ArrayList<>();
+
+	private InListRewriter(ParameterStore parameterStore)
+	{
+		this.parameterStore = parameterStore;
+	}
+
+	/**
+	 * Rewrites the IN-lists of a SELECT statement and binds the current
+	 * parameter values
+	 *
+	 * @param select
+	 *            The SELECT statement to rewrite
+	 * @param parameterStore
+	 *            The parameter values of the statement
+	 * @param maxRows
+	 *            The maximum number of rows that the statement may return, 0
+	 *            means no maximum
+	 * @return The rewritten statement, or null if the statement contains no
+	 *         IN-lists that can be rewritten
+	 */
+	static Statement rewrite(Select select, ParameterStore parameterStore, int maxRows)
+	{
+		if (select.getWithItemsList() != null)
+			return null;
+		InListRewriter rewriter = new InListRewriter(parameterStore);
+		String sql = rewriter.deparse(select);
+		if (rewriter.arrays.isEmpty() || containsPositionalParameter(sql))
+			return null;
+		sql = MaxRowsRewriter.rewrite(sql, select, maxRows);
+		Statement.Builder builder = Statement.newBuilder(sql);
+		for (JdbcParameter parameter : rewriter.parameters)
+		{
+			parameter.accept(new ValueBinderExpressionVisitorAdapter<Statement.Builder>(parameterStore, builder
+					.bind(CloudSpannerPreparedStatement.DEFAULT_PARAMETER_PREFIX + parameter.getIndex()), null));
+		}
+		for (Map.Entry<String, CloudSpannerArray> entry : rewriter.arrays.entrySet())
+		{
+			entry.getValue().bind(builder.bind(entry.getKey()));
+		}
+		return builder.build();
+	}
+
+	private String deparse(Select select)
+	{
+		StringBuilder buffer = new StringBuilder();
+		SelectDeParser selectDeParser = new SelectDeParser();
+		selectDeParser.setBuffer(buffer);
+		ExpressionDeParser expressionDeParser = new ExpressionDeParser(selectDeParser, buffer)
+		{
+			@Override
+			public void visit(JdbcParameter parameter)
+			{
+				parameters.add(parameter);
+				getBuffer().append("@").append(CloudSpannerPreparedStatement.DEFAULT_PARAMETER_PREFIX)
+						.append(parameter.getIndex());
+			}
+
+			@Override
+			public void visit(InExpression inExpression)
+			{
+				CloudSpannerArray array = createArray(inExpression);
+				if (array == null)
+				{
+					super.visit(inExpression);
+				}
+				else
+				{
+					String name = ARRAY_PARAMETER_PREFIX + (arrays.size() + 1);
+					arrays.put(name, array);
+					inExpression.getLeftExpression().accept(this);
+					getBuffer().append(inExpression.isNot() ? " NOT IN UNNEST(@" : " IN UNNEST(@").append(name)
+							.append(")");
+				}
+			}
+		};
+		selectDeParser.setExpressionVisitor(expressionDeParser);
+		select.getSelectBody().accept(selectDeParser);
+		return buffer.toString();
+	}
+
+	/**
+	 * Creates an array of the values of an IN-list
+	 *
+	 * @return The array, or null if the IN-list cannot be rewritten
+	 */
+	private CloudSpannerArray createArray(InExpression inExpression)
+	{
+		if (inExpression.getLeftExpression() == null || inExpression.getLeftItemsList() != null
+				|| !(inExpression.getRightItemsList() instanceof ExpressionList))
+			return null;
+		List<Expression> expressions = ((ExpressionList) inExpression.getRightItemsList()).getExpressions();
+		if (expressions == null || expressions.isEmpty())
+			return null;
+		Object[] values = new Object[expressions.size()];
+		String typeName = null;
+		for (int i = 0; i < values.length; i++)
+		{
+			if (!(expressions.get(i) instanceof JdbcParameter))
+				return null;
+			values[i] = parameterStore.getParameter(((JdbcParameter) expressions.get(i)).getIndex());
+			String valueTypeName = getTypeName(values[i]);
+			if (valueTypeName == null || (typeName != null && !typeName.equals(valueTypeName)))
+				return null;
+			typeName = valueTypeName;
+		}
+		try
+		{
+			return CloudSpannerArray.createArray(typeName, values);
+		}
+		catch (SQLException e)
+		{
+			return null;
+		}
+	}
+
+	private static String getTypeName(Object value)
+	{
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+			return "INT64";
+		if (value instanceof Double || value instanceof Float || value instanceof BigDecimal)
+			return "FLOAT64";
+		if (value instanceof Boolean)
+			return "BOOL";
+		if (value instanceof String)
+			return "STRING";
+		if (value instanceof byte[])
+			return "BYTES";
+		if (value instanceof Date)
+			return "DATE";
+		if (value instanceof Timestamp)
+			return "TIMESTAMP";
+		return null;
+	}
+
+	/**
+	 * Checks whether the deparsed statement still contains a positional
+	 * parameter, for example in an OFFSET clause
+	 */
+	private static boolean containsPositionalParameter(String sql)
+	{
+		boolean inString = false;
+		for (int i = 0; i < sql.length(); i++)
+		{
+			char c = sql.charAt(i);
+			if (c == '\'')
+				inString = !inString;
+			else if (c == '?' && !inString)
+				return true;
+		}
+		return false;
+	}
+
+}
@@ -1,21 +1,252 @@
-package nl.topicus.jdbc.statement;
-
-import com.google.cloud.spanner.Key;
-
-class KeyBuilderExpressionVisitorAdapter<R> extends AbstractSpannerExpressionVisitorAdapter<R>
-{
-	private Key.Builder keyBuilder;
-
-	KeyBuilderExpressionVisitorAdapter(ParameterStore parameterStore, Key.Builder keyBuilder)
-	{
-		super(parameterStore);
-		this.keyBuilder = keyBuilder;
-	}
-
-	@Override
-	protected void setValue(Object value)
-	{
-		keyBuilder.appendObject(value);
-	}
-
-}
+package nl.topicus.jdbc.statement;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+import net.sf.jsqlparser.expression.Expression;
+import nl.topicus.jdbc.util.CloudSpannerConversionUtil;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.spanner.Key;
+
+/**
+ * Appends the values of expressions to a {@link Key.Builder}. A key only
+ * accepts values of the Java types of the Cloud Spanner column types, so all
+ * other values are converted in the same way as parameter values are bound to
+ * a query. If the type of the key column is known, the value is also
+ * converted to that type. A value that cannot be converted causes an
+ * {@link IllegalArgumentException}.
+ *
+ * @author loite
+ *
+ */
+class KeyBuilderExpressionVisitorAdapter<R> extends AbstractSpannerExpressionVisitorAdapter<R>
+{
+	private final Key.Builder keyBuilder;
+
+	/**
+	 * The Java type of the values of the key column, or null if the type of
+	 * the column is not known
+	 */
+	private final Class<?> keyClass;
+
+	private boolean nullValue;
+
+	KeyBuilderExpressionVisitorAdapter(ParameterStore parameterStore, Key.Builder keyBuilder, String column)
+	{
+		super(parameterStore, column);
+		this.keyBuilder = keyBuilder;
+		this.keyClass = column == null ? null : getKeyClass(parameterStore.getColumnType(column));
+	}
+
+	/**
+	 * Appends the value of an expression to a key
+	 *
+	 * @param parameterStore
+	 *            The parameter values to use
+	 * @param keyBuilder
+	 *            The key to append the value to
+	 * @param column
+	 *            The key column of the value, or null if not known
+	 * @param value
+	 *            A literal or parameter
+	 * @return true if the value was appended, false if the value is NULL or
+	 *         cannot be converted to a key value. The key must not be used in
+	 *         that case, as a comparison with NULL never matches in SQL, while
+	 *         a key with a NULL value matches a row with a NULL key value.
+	 */
+	static boolean appendKeyValue(ParameterStore parameterStore, Key.Builder keyBuilder, String column,
+			Expression value)
+	{
+		try
+		{
+			KeyBuilderExpressionVisitorAdapter<?> adapter = new KeyBuilderExpressionVisitorAdapter<>(parameterStore,
+					keyBuilder, column);
+			value.accept(adapter);
+			return !adapter.nullValue;
+		}
+		catch (IllegalArgumentException e)
+		{
+			return false;
+		}
+	}
+
+	@Override
+	protected void setLongValue(long value)
+	{
+		if (keyClass == null || keyClass == Long.class)
+			keyBuilder.append(value);
+		else
+			setValue(Long.valueOf(value));
+	}
+
+	@Override
+	protected void setDoubleValue(double value)
+	{
+		if (keyClass == null || keyClass == Double.class)
+			keyBuilder.append(value);
+		else
+			setValue(Double.valueOf(value));
+	}
+
+	@Override
+	protected void setValue(Object value)
+	{
+		if (value == null)
+			nullValue = true;
+		keyBuilder.appendObject(toKeyValue(value, keyClass));
+	}
+
+	/**
+	 * @param sqlType
+	 *            A JDBC type, or null
+	 * @return The Java type that a key accepts for a column of the JDBC type,
+	 *         or null if the type is not known
+	 */
+	static Class<?> getKeyClass(Integer sqlType)
+	{
+		if (sqlType == null)
+			return null;
+		switch (sqlType.intValue())
+		{
+		case Types.BIT:
+		case Types.BOOLEAN:
+			return Boolean.class;
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+		case Types.BIGINT:
+			return Long.class;
+		case Types.FLOAT:
+		case Types.REAL:
+		case Types.DOUBLE:
+		case Types.NUMERIC:
+		case Types.DECIMAL:
+			return Double.class;
+		case Types.CHAR:
+		case Types.VARCHAR:
+		case Types.LONGVARCHAR:
+		case Types.NCHAR:
+		case Types.NVARCHAR:
+		case Types.LONGNVARCHAR:
+			return String.class;
+		case Types.BINARY:
+		case Types.VARBINARY:
+		case Types.LONGVARBINARY:
+			return ByteArray.class;
+		case Types.DATE:
+			return com.google.cloud.spanner.Date.class;
+		case Types.TIMESTAMP:
+		case Types.TIMESTAMP_WITH_TIMEZONE:
+			return com.google.cloud.spanner.Timestamp.class;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Converts a value to a value that can be appended to a key
+	 *
+	 * @param value
+	 *            The value to convert
+	 * @param keyClass
+	 *            The Java type of the key column, or null if not known
+	 * @return The converted value
+	 * @throws IllegalArgumentException
+	 *             if the value cannot be converted
+	 */
+	static Object toKeyValue(Object value, Class<?> keyClass)
+	{
+		if (value == null || keyClass == null)
+			return toKeyValue(value);
+		Object res;
+		if (keyClass == Long.class && value instanceof Number)
+			res = toLongExact((Number) value);
+		else if (keyClass == Double.class && value instanceof Number)
+			res = ((Number) value).doubleValue();
+		else if (keyClass == com.google.cloud.spanner.Date.class && value instanceof String)
+			res = parseDate((String) value);
+		else
+			res = toKeyValue(value);
+		if (!keyClass.isInstance(res))
+			throw new IllegalArgumentException("Unsupported key value for a column of type " + keyClass.getName()
+					+ ": " + value.getClass().getName());
+		return res;
+	}
+
+	/**
+	 * Converts a value to a value that can be appended to a key, based only on
+	 * the type of the value
+	 */
+	static Object toKeyValue(Object value)
+	{
+		if (value == null || value instanceof Boolean || value instanceof Long || value instanceof Double
+				|| value instanceof String || value instanceof ByteArray
+				|| value instanceof com.google.cloud.spanner.Date || value instanceof com.google.cloud.spanner.Timestamp)
+			return value;
+		if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+			return ((Number) value).longValue();
+		if (value instanceof Float || value instanceof BigDecimal)
+			return ((Number) value).doubleValue();
+		if (value instanceof byte[])
+			return ByteArray.copyFrom((byte[]) value);
+		if (value instanceof char[])
+			return new String((char[]) value);
+		if (value instanceof UUID)
+			return value.toString();
+		if (value instanceof Date)
+			return CloudSpannerConversionUtil.toCloudSpannerDate((Date) value);
+		if (value instanceof LocalDate)
+			return CloudSpannerConversionUtil.toCloudSpannerDate((LocalDate) value);
+		if (value instanceof Timestamp)
+			return CloudSpannerConversionUtil.toCloudSpannerTimestamp((Timestamp) value);
+		if (value instanceof Instant)
+			return CloudSpannerConversionUtil.toCloudSpannerTimestamp((Instant) value);
+		if (value instanceof LocalDateTime)
+			return CloudSpannerConversionUtil.toCloudSpannerTimestamp(((LocalDateTime) value).atZone(
+					ZoneId.systemDefault()).toInstant());
+		if (value instanceof OffsetDateTime)
+			return CloudSpannerConversionUtil.toCloudSpannerTimestamp(((OffsetDateTime) value).toInstant());
+		throw new IllegalArgumentException("Unsupported key value: " + value.getClass().getName());
+	}
+
+	private static Long toLongExact(Number value)
+	{
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+			return value.longValue();
+		try
+		{
+			if (value instanceof BigDecimal)
+				return ((BigDecimal) value).longValueExact();
+			if (value instanceof Double || value instanceof Float)
+				return new BigDecimal(value.doubleValue()).longValueExact();
+		}
+		catch (ArithmeticException | NumberFormatException e)
+		{
+			// not an integral value, or NaN or infinite
+		}
+		throw new IllegalArgumentException("Not an integral key value: " + value);
+	}
+
+	private static com.google.cloud.spanner.Date parseDate(String value)
+	{
+		try
+		{
+			return CloudSpannerConversionUtil.toCloudSpannerDate(LocalDate.parse(value.trim()));
+		}
+		catch (DateTimeParseException e)
+		{
+			throw new IllegalArgumentException("Invalid date key value: " + value, e);
+		}
+	}
+
+}
@@ -0,0 +1,194 @@
+package nl.topicus.jdbc.statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+
+/**
+ * A WHERE clause that selects a list of rows by their full primary key. Such
+ * a WHERE clause can be translated to one {@link KeySet} with multiple keys.
+ * Examples (primary key (ID) or (TENANT_ID, ID)):
+ * <ul>
+ * <li>WHERE ID IN (?, ?, ?)</li>
+ * <li>WHERE TENANT_ID=? AND ID IN (?, ?, ?)</li>
+ * <li>WHERE (TENANT_ID=? AND ID=?) OR (TENANT_ID=? AND ID=?)</li>
+ * </ul>
+ *
+ * @author loite
+ *
+ */
+class KeyListPredicate
+{
+	/**
+	 * The primary key columns of the table in key order
+	 */
+	private final List<String> keyColumns;
+
+	/**
+	 * The values of each key in primary key order
+	 */
+	private final List<List<Expression>> keys;
+
+	private KeyListPredicate(List<String> keyColumns, List<List<Expression>> keys)
+	{
+		this.keyColumns = keyColumns;
+		this.keys = keys;
+	}
+
+	/**
+	 * Analyzes a WHERE clause
+	 *
+	 * @param where
+	 *            The WHERE clause to analyze
+	 * @param keyColumns
+	 *            The primary key columns of the table in key order
+	 * @return The key list predicate, or null if the WHERE clause cannot be
+	 *         translated to a list of keys
+	 */
+	static KeyListPredicate parse(Expression where, List<String> keyColumns)
+	{
+		if (where == null || keyColumns.isEmpty())
+			return null;
+		List<Expression> disjuncts = new ArrayList<>();
+		collectDisjuncts(where, disjuncts);
+		List<List<Expression>> keys = new ArrayList<>();
+		for (Expression disjunct : disjuncts)
+		{
+			if (!collectKeys(disjunct, keyColumns, keys))
+				return null;
+		}
+		return new KeyListPredicate(keyColumns, keys);
+	}
+
+	private static void collectDisjuncts(Expression where, List<Expression> disjuncts)
+	{
+		if (where instanceof Parenthesis && !((Parenthesis) where).isNot()
+				&& ((Parenthesis) where).getExpression() instanceof OrExpression)
+		{
+			collectDisjuncts(((Parenthesis) where).getExpression(), disjuncts);
+		}
+		else if (where instanceof OrExpression && !((OrExpression) where).isNot())
+		{
+			collectDisjuncts(((OrExpression) where).getLeftExpression(), disjuncts);
+			collectDisjuncts(((OrExpression) where).getRightExpression(), disjuncts);
+		}
+		else
+		{
+			disjuncts.add(where);
+		}
+	}
+
+	/**
+	 * Collects the keys of a conjunction of equality conditions and at most
+	 * one IN condition that together cover all primary key columns
+	 */
+	private static boolean collectKeys(Expression conjunction, List<String> keyColumns, List<List<Expression>> keys)
+	{
+		Map<String, Expression> equalities = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		List<InExpression> inExpressions = new ArrayList<>();
+		if (!collect(conjunction, equalities, inExpressions) || inExpressions.size() > 1)
+			return false;
+		String inColumn = null;
+		List<Expression> inValues = null;
+		if (!inExpressions.isEmpty())
+		{
+			InExpression in = inExpressions.get(0);
+			inColumn = WhereClauseAnalyzer.getColumnName(in.getLeftExpression());
+			inValues = ((ExpressionList) in.getRightItemsList()).getExpressions();
+			if (equalities.containsKey(inColumn))
+				return false;
+		}
+		int coveredColumns = equalities.size() + (inColumn == null ? 0 : 1);
+		if (coveredColumns != keyColumns.size())
+			return false;
+		for (String keyColumn : keyColumns)
+		{
+			if (!equalities.containsKey(keyColumn) && !keyColumn.equalsIgnoreCase(inColumn))
+				return false;
+		}
+		int numberOfKeys = inValues == null ? 1 : inValues.size();
+		for (int index = 0; index < numberOfKeys; index++)
+		{
+			List<Expression> key = new ArrayList<>(keyColumns.size());
+			for (String keyColumn : keyColumns)
+			{
+				key.add(keyColumn.equalsIgnoreCase(inColumn) ? inValues.get(index) : equalities.get(keyColumn));
+			}
+			keys.add(key);
+		}
+		return true;
+	}
+
+	private static boolean collect(Expression where, Map<String, Expression> equalities,
+			List<InExpression> inExpressions)
+	{
+		if (where instanceof Parenthesis)
+		{
+			return !((Parenthesis) where).isNot()
+					&& collect(((Parenthesis) where).getExpression(), equalities, inExpressions);
+		}
+		if (where instanceof AndExpression)
+		{
+			AndExpression and = (AndExpression) where;
+			return !and.isNot() && collect(and.getLeftExpression(), equalities, inExpressions)
+					&& collect(and.getRightExpression(), equalities, inExpressions);
+		}
+		if (where instanceof EqualsTo)
+		{
+			return WhereClauseAnalyzer.collectEqualities(where, equalities);
+		}
+		if (where instanceof InExpression)
+		{
+			InExpression in = (InExpression) where;
+			if (in.isNot() || in.getLeftItemsList() != null || !WhereClauseAnalyzer.isColumn(in.getLeftExpression())
+					|| !(in.getRightItemsList() instanceof ExpressionList))
+				return false;
+			for (Expression value : ((ExpressionList) in.getRightItemsList()).getExpressions())
+			{
+				if (!WhereClauseAnalyzer.isValue(value))
+					return false;
+			}
+			inExpressions.add(in);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Creates the key set of this predicate
+	 *
+	 * @param parameterStore
+	 *            The parameter values to use
+	 * @return A key set containing all keys of this predicate, or null if a
+	 *         value cannot be converted to a key value
+	 */
+	KeySet createKeySet(ParameterStore parameterStore)
+	{
+		KeySet.Builder builder = KeySet.newBuilder();
+		for (List<Expression> key : keys)
+		{
+			Key.Builder keyBuilder = Key.newBuilder();
+			for (int index = 0; index < key.size(); index++)
+			{
+				if (!KeyBuilderExpressionVisitorAdapter.appendKeyValue(parameterStore, keyBuilder, keyColumns.get(index),
+						key.get(index)))
+					return null;
+			}
+			builder.addKey(keyBuilder.build());
+		}
+		return builder.build();
+	}
+
+}
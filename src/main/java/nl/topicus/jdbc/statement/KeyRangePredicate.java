@@ -0,0 +1,311 @@
+package nl.topicus.jdbc.statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.sf.jsqlparser.expression.BinaryExpression;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.relational.Between;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThan;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThanEquals;
+import net.sf.jsqlparser.expression.operators.relational.MinorThan;
+import net.sf.jsqlparser.expression.operators.relational.MinorThanEquals;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeyRange;
+import com.google.cloud.spanner.KeyRange.Endpoint;
+
+/**
+ * A WHERE clause that selects the rows of a table by a prefix of the primary
+ * key, optionally followed by a range on the next primary key column. Such a
+ * WHERE clause can be translated to a single {@link Key} or {@link KeyRange}
+ * without reading any data. Examples (primary key (TENANT_ID, TS)):
+ * <ul>
+ * <li>WHERE TENANT_ID=? AND TS=? : a single key</li>
+ * <li>WHERE TENANT_ID=? : all keys with the prefix (TENANT_ID)</li>
+ * <li>WHERE TENANT_ID=? AND TS BETWEEN ? AND ? : a closed range</li>
+ * <li>WHERE TENANT_ID=? AND TS&gt;=? AND TS&lt;? : a closed-open range</li>
+ * <li>WHERE TENANT_ID=? AND TS&lt;? : an open-open range that starts after
+ * the key (TENANT_ID, NULL)</li>
+ * </ul>
+ *
+ * @author loite
+ *
+ */
+class KeyRangePredicate
+{
+	/**
+	 * The primary key columns of the table in key order
+	 */
+	private final List<String> keyColumns;
+
+	private final List<Expression> prefix;
+
+	private final String rangeColumn;
+
+	private final Expression lower;
+
+	private final boolean lowerInclusive;
+
+	private final Expression upper;
+
+	private final boolean upperInclusive;
+
+	private KeyRangePredicate(List<String> keyColumns, List<Expression> prefix, String rangeColumn, Expression lower,
+			boolean lowerInclusive, Expression upper, boolean upperInclusive)
+	{
+		this.keyColumns = keyColumns;
+		this.prefix = prefix;
+		this.rangeColumn = rangeColumn;
+		this.lower = lower;
+		this.lowerInclusive = lowerInclusive;
+		this.upper = upper;
+		this.upperInclusive = upperInclusive;
+	}
+
+	/**
+	 * Bounds of one column of a WHERE clause
+	 */
+	private static final class Bounds
+	{
+		private Expression lower;
+
+		private boolean lowerInclusive;
+
+		private Expression upper;
+
+		private boolean upperInclusive;
+
+		private boolean setLower(Expression value, boolean inclusive)
+		{
+			if (lower != null)
+				return false;
+			lower = value;
+			lowerInclusive = inclusive;
+			return true;
+		}
+
+		private boolean setUpper(Expression value, boolean inclusive)
+		{
+			if (upper != null)
+				return false;
+			upper = value;
+			upperInclusive = inclusive;
+			return true;
+		}
+	}
+
+	/**
+	 * Analyzes a WHERE clause
+	 *
+	 * @param where
+	 *            The WHERE clause to analyze
+	 * @param keyColumns
+	 *            The primary key columns of the table in key order
+	 * @return The key predicate, or null if the WHERE clause cannot be
+	 *         translated to a key or key range
+	 */
+	static KeyRangePredicate parse(Expression where, List<String> keyColumns)
+	{
+		if (where == null || keyColumns.isEmpty())
+			return null;
+		Map<String, Expression> equalities = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		Map<String, Bounds> ranges = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		if (!collect(where, equalities, ranges))
+			return null;
+		List<Expression> prefix = new ArrayList<>();
+		while (prefix.size() < keyColumns.size() && equalities.containsKey(keyColumns.get(prefix.size())))
+		{
+			prefix.add(equalities.get(keyColumns.get(prefix.size())));
+		}
+		if (prefix.size() != equalities.size() || ranges.size() > 1)
+			return null;
+		if (ranges.isEmpty())
+		{
+			return prefix.isEmpty() ? null : new KeyRangePredicate(keyColumns, prefix, null, null, false, null,
+					false);
+		}
+		if (prefix.size() == keyColumns.size())
+			return null;
+		String rangeColumn = keyColumns.get(prefix.size());
+		Bounds bounds = ranges.get(rangeColumn);
+		if (bounds == null)
+			return null;
+		return new KeyRangePredicate(keyColumns, prefix, rangeColumn, bounds.lower, bounds.lowerInclusive,
+				bounds.upper, bounds.upperInclusive);
+	}
+
+	private static boolean collect(Expression where, Map<String, Expression> equalities, Map<String, Bounds> ranges)
+	{
+		if (where instanceof Parenthesis)
+		{
+			return !((Parenthesis) where).isNot()
+					&& collect(((Parenthesis) where).getExpression(), equalities, ranges);
+		}
+		if (where instanceof AndExpression)
+		{
+			AndExpression and = (AndExpression) where;
+			return !and.isNot() && collect(and.getLeftExpression(), equalities, ranges)
+					&& collect(and.getRightExpression(), equalities, ranges);
+		}
+		if (where instanceof EqualsTo)
+		{
+			return WhereClauseAnalyzer.collectEqualities(where, equalities);
+		}
+		if (where instanceof Between)
+		{
+			Between between = (Between) where;
+			if (between.isNot() || !WhereClauseAnalyzer.isColumn(between.getLeftExpression())
+					|| !WhereClauseAnalyzer.isValue(between.getBetweenExpressionStart())
+					|| !WhereClauseAnalyzer.isValue(between.getBetweenExpressionEnd()))
+				return false;
+			Bounds bounds = getBounds(ranges, between.getLeftExpression());
+			return bounds.setLower(between.getBetweenExpressionStart(), true)
+					&& bounds.setUpper(between.getBetweenExpressionEnd(), true);
+		}
+		if (where instanceof GreaterThan || where instanceof GreaterThanEquals || where instanceof MinorThan
+				|| where instanceof MinorThanEquals)
+		{
+			BinaryExpression comparison = (BinaryExpression) where;
+			if (comparison.isNot())
+				return false;
+			boolean inclusive = where instanceof GreaterThanEquals || where instanceof MinorThanEquals;
+			boolean lowerBound = where instanceof GreaterThan || where instanceof GreaterThanEquals;
+			Expression column;
+			Expression value;
+			if (WhereClauseAnalyzer.isColumn(comparison.getLeftExpression())
+					&& WhereClauseAnalyzer.isValue(comparison.getRightExpression()))
+			{
+				column = comparison.getLeftExpression();
+				value = comparison.getRightExpression();
+			}
+			else if (WhereClauseAnalyzer.isColumn(comparison.getRightExpression())
+					&& WhereClauseAnalyzer.isValue(comparison.getLeftExpression()))
+			{
+				// VALUE > COL is the same as COL < VALUE
+				column = comparison.getRightExpression();
+				value = comparison.getLeftExpression();
+				lowerBound = !lowerBound;
+			}
+			else
+			{
+				return false;
+			}
+			Bounds bounds = getBounds(ranges, column);
+			return lowerBound ? bounds.setLower(value, inclusive) : bounds.setUpper(value, inclusive);
+		}
+		return false;
+	}
+
+	private static Bounds getBounds(Map<String, Bounds> ranges, Expression column)
+	{
+		return ranges.computeIfAbsent(WhereClauseAnalyzer.getColumnName(column), name -> new Bounds());
+	}
+
+	/**
+	 * @return true if this predicate specifies a value for each primary key
+	 *         column
+	 */
+	boolean isSingleKey(int numberOfKeyColumns)
+	{
+		return rangeColumn == null && prefix.size() == numberOfKeyColumns;
+	}
+
+	/**
+	 * @return The name of the primary key column that has a range condition,
+	 *         or null if this predicate only contains equality conditions
+	 */
+	String getRangeColumn()
+	{
+		return rangeColumn;
+	}
+
+	/**
+	 * @return The key for a predicate that specifies a value for each primary
+	 *         key column, or null if a value cannot be converted to a key value
+	 */
+	Key createKey(ParameterStore parameterStore)
+	{
+		Key.Builder builder = createPrefix(parameterStore, null);
+		return builder == null ? null : builder.build();
+	}
+
+	/**
+	 * Creates the key range of this predicate
+	 *
+	 * @param parameterStore
+	 *            The parameter values to use
+	 * @param descending
+	 *            true if the range column is sorted in descending order in
+	 *            the primary key
+	 * @return The key range, or null if a value cannot be converted to a key
+	 *         value, or if the range only has one bound on a descending key
+	 *         column
+	 */
+	KeyRange createKeyRange(ParameterStore parameterStore, boolean descending)
+	{
+		// A comparison never matches a NULL value, but an endpoint that only
+		// contains the prefix includes the rows where the range column is
+		// NULL. NULL values are sorted before all other values of an
+		// ascending key column, so a range without a lower bound starts just
+		// after them. A range with only one bound on a descending key column
+		// is executed as a query instead.
+		if (rangeColumn != null && descending && (lower == null || upper == null))
+			return null;
+		// For a descending column the lower bound of the values is the end of
+		// the key range
+		Expression startValue = descending ? upper : lower;
+		boolean startInclusive = descending ? upperInclusive : lowerInclusive;
+		Expression endValue = descending ? lower : upper;
+		boolean endInclusive = descending ? lowerInclusive : upperInclusive;
+		Key.Builder start = createPrefix(parameterStore, startValue);
+		Key.Builder end = createPrefix(parameterStore, endValue);
+		if (start == null || end == null)
+			return null;
+		Endpoint startType;
+		if (startValue != null)
+		{
+			startType = startInclusive ? Endpoint.CLOSED : Endpoint.OPEN;
+		}
+		else if (rangeColumn != null)
+		{
+			// Exclude all keys where the range column is NULL
+			start.appendObject(null);
+			startType = Endpoint.OPEN;
+		}
+		else
+		{
+			// A closed endpoint that only contains the prefix includes all
+			// keys with that prefix
+			startType = Endpoint.CLOSED;
+		}
+		return KeyRange.newBuilder().setStart(start.build()).setStartType(startType).setEnd(end.build())
+				.setEndType(endValue == null || endInclusive ? Endpoint.CLOSED : Endpoint.OPEN).build();
+	}
+
+	/**
+	 * @return A key builder containing the prefix and the given value of the
+	 *         range column, or null if a value cannot be converted to a key
+	 *         value
+	 */
+	private Key.Builder createPrefix(ParameterStore parameterStore, Expression last)
+	{
+		Key.Builder builder = Key.newBuilder();
+		for (int index = 0; index < prefix.size(); index++)
+		{
+			if (!KeyBuilderExpressionVisitorAdapter.appendKeyValue(parameterStore, builder, keyColumns.get(index),
+					prefix.get(index)))
+				return null;
+		}
+		if (last != null
+				&& !KeyBuilderExpressionVisitorAdapter.appendKeyValue(parameterStore, builder, rangeColumn, last))
+			return null;
+		return builder;
+	}
+
+}
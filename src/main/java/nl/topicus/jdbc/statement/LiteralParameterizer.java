@@ -0,0 +1,365 @@
+package nl.topicus.jdbc.statement;
+
+import java.sql.Date;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import nl.topicus.jdbc.util.BoundedLruCache;
+import nl.topicus.jdbc.util.CloudSpannerConversionUtil;
+
+import com.google.cloud.spanner.Statement;
+
+/**
+ * Replaces the literals in the WHERE, LIMIT and OFFSET clauses of a query by
+ * named parameters. Queries that only differ in the values of these literals
+ * are then sent to Google Cloud Spanner with the same SQL text, so that the
+ * query plan of the first query can be reused for the others. String
+ * literals, numeric literals and DATE literals are parameterized. Literals
+ * in the select list, GROUP BY and ORDER BY clauses are left unchanged, as
+ * these can influence the result type or refer to columns by position.
+ *
+ * The parameterized templates of recently executed queries are cached, so
+ * that a query that is executed repeatedly is only scanned once.
+ *
+ * @author loite
+ *
+ */
+class LiteralParameterizer
+{
+	static final String PARAMETER_PREFIX = "lit";
+
+	private static final int MAX_CACHE_SIZE = 1000;
+
+	private static final BoundedLruCache<String, Template> CACHE = new BoundedLruCache<>(MAX_CACHE_SIZE);
+
+	private enum Clause
+	{
+		/**
+		 * Literals in this clause are parameterized
+		 */
+		WHERE,
+		/**
+		 * Literals in this clause are parameterized
+		 */
+		LIMIT,
+		/**
+		 * Literals in this clause are left unchanged
+		 */
+		OTHER;
+	}
+
+	/**
+	 * A query with parameters instead of literals and the values of the
+	 * literals
+	 */
+	private static final class Template
+	{
+		private final String sql;
+
+		private final List<Object> values;
+
+		private Template(String sql, List<Object> values)
+		{
+			this.sql = sql;
+			this.values = values;
+		}
+
+		private Statement createStatement()
+		{
+			if (values.isEmpty())
+				return Statement.of(sql);
+			Statement.Builder builder = Statement.newBuilder(sql);
+			for (int index = 0; index < values.size(); index++)
+			{
+				Object value = values.get(index);
+				String name = PARAMETER_PREFIX + (index + 1);
+				if (value instanceof Long)
+					builder.bind(name).to(((Long) value).longValue());
+				else if (value instanceof Double)
+					builder.bind(name).to(((Double) value).doubleValue());
+				else if (value instanceof Date)
+					builder.bind(name).to(CloudSpannerConversionUtil.toCloudSpannerDate((Date) value));
+				else
+					builder.bind(name).to((String) value);
+			}
+			return builder.build();
+		}
+	}
+
+	private LiteralParameterizer()
+	{
+	}
+
+	/**
+	 * Creates a statement with the literals of a query replaced by parameters
+	 *
+	 * @param sql
+	 *            The query to parameterize
+	 * @return A statement with the parameterized query and the values of the
+	 *         literals, or a statement with the original query if it could not
+	 *         be parameterized
+	 */
+	static Statement parameterize(String sql)
+	{
+		return CACHE.get(sql, LiteralParameterizer::createTemplate).createStatement();
+	}
+
+	private static Template createTemplate(String sql)
+	{
+		StringBuilder res = new StringBuilder(sql.length());
+		List<Object> values = new ArrayList<>();
+		Deque<Clause> clauses = new ArrayDeque<>();
+		Clause clause = Clause.OTHER;
+		// The last keyword or identifier if it was directly followed by the
+		// current token, and its start position in res
+		String previousWord = null;
+		int previousWordStart = -1;
+		int i = 0;
+		while (i < sql.length())
+		{
+			char c = sql.charAt(i);
+			char next = i + 1 < sql.length() ? sql.charAt(i + 1) : 0;
+			if (Character.isWhitespace(c))
+			{
+				res.append(c);
+				i++;
+			}
+			else if ((c == '-' && next == '-') || c == '#')
+			{
+				int end = sql.indexOf('\n', i);
+				end = end == -1 ? sql.length() : end;
+				res.append(sql, i, end);
+				i = end;
+			}
+			else if (c == '/' && next == '*')
+			{
+				int end = sql.indexOf("*/", i + 2);
+				end = end == -1 ? sql.length() : end + 2;
+				res.append(sql, i, end);
+				i = end;
+			}
+			else if (c == '?' || c == '@')
+			{
+				// The query already contains parameters
+				return new Template(sql, Collections.emptyList());
+			}
+			else if (c == '`' || c == '"')
+			{
+				// Quoted identifiers and double quoted strings are left
+				// unchanged
+				int end = findEndOfQuoted(sql, i, c);
+				res.append(sql, i, end);
+				i = end;
+				previousWord = null;
+			}
+			else if (c == '\'')
+			{
+				int end = findEndOfQuoted(sql, i, c);
+				String value = unquote(sql.substring(i, end));
+				boolean prefixed = i > 0 && Character.isJavaIdentifierPart(sql.charAt(i - 1));
+				if (value == null || prefixed || clause == Clause.OTHER || "INTERVAL".equals(previousWord))
+				{
+					res.append(sql, i, end);
+				}
+				else if ("DATE".equals(previousWord))
+				{
+					Date date = parseDate(value);
+					if (date == null)
+					{
+						res.append(sql, i, end);
+					}
+					else
+					{
+						res.setLength(previousWordStart);
+						appendParameter(res, values, date);
+					}
+				}
+				else if ("TIMESTAMP".equals(previousWord))
+				{
+					// The time zone of a timestamp literal without an explicit
+					// time zone depends on the server
+					res.append(sql, i, end);
+				}
+				else
+				{
+					appendParameter(res, values, value);
+				}
+				i = end;
+				previousWord = null;
+			}
+			else if ((Character.isDigit(c) || (c == '.' && Character.isDigit(next)))
+					&& (i == 0 || !Character.isJavaIdentifierPart(sql.charAt(i - 1))))
+			{
+				int end = findEndOfNumber(sql, i);
+				Object value = parseNumber(sql.substring(i, end));
+				boolean partOfIdentifier = end < sql.length() && Character.isJavaIdentifierPart(sql.charAt(end));
+				if (value == null || partOfIdentifier || clause == Clause.OTHER || "INTERVAL".equals(previousWord))
+					res.append(sql, i, end);
+				else
+					appendParameter(res, values, value);
+				i = end;
+				previousWord = null;
+			}
+			else if (Character.isJavaIdentifierStart(c))
+			{
+				int end = i + 1;
+				while (end < sql.length() && Character.isJavaIdentifierPart(sql.charAt(end)))
+					end++;
+				previousWord = sql.substring(i, end).toUpperCase();
+				previousWordStart = res.length();
+				clause = nextClause(clause, previousWord);
+				res.append(sql, i, end);
+				i = end;
+			}
+			else
+			{
+				if (c == '(')
+				{
+					clauses.push(clause);
+				}
+				else if (c == ')' && !clauses.isEmpty())
+				{
+					clause = clauses.pop();
+				}
+				res.append(c);
+				i++;
+				previousWord = null;
+			}
+		}
+		return new Template(res.toString(), values);
+	}
+
+	private static Clause nextClause(Clause current, String keyword)
+	{
+		switch (keyword)
+		{
+		case "WHERE":
+			return Clause.WHERE;
+		case "LIMIT":
+		case "OFFSET":
+			return Clause.LIMIT;
+		case "SELECT":
+		case "FROM":
+		case "JOIN":
+		case "ON":
+		case "USING":
+		case "GROUP":
+		case "HAVING":
+		case "ORDER":
+		case "UNION":
+		case "INTERSECT":
+		case "EXCEPT":
+		case "WITH":
+			return Clause.OTHER;
+		default:
+			return current;
+		}
+	}
+
+	private static void appendParameter(StringBuilder res, List<Object> values, Object value)
+	{
+		values.add(value);
+		res.append('@').append(PARAMETER_PREFIX).append(values.size());
+	}
+
+	private static int findEndOfQuoted(String sql, int start, char quote)
+	{
+		int i = start + 1;
+		while (i < sql.length())
+		{
+			char c = sql.charAt(i);
+			if (c == '\\')
+			{
+				i += 2;
+			}
+			else if (c == quote)
+			{
+				if (i + 1 < sql.length() && sql.charAt(i + 1) == quote)
+					i += 2;
+				else
+					return i + 1;
+			}
+			else
+			{
+				i++;
+			}
+		}
+		return sql.length();
+	}
+
+	/**
+	 * @return The value of a single quoted string literal, or null if the
+	 *         literal contains escape sequences, is a triple quoted string or
+	 *         is not terminated
+	 */
+	private static String unquote(String literal)
+	{
+		if (literal.length() < 2 || literal.charAt(literal.length() - 1) != '\'' || literal.indexOf('\\') >= 0
+				|| literal.startsWith("'''"))
+			return null;
+		return literal.substring(1, literal.length() - 1).replace("''", "'");
+	}
+
+	private static int findEndOfNumber(String sql, int start)
+	{
+		int i = start;
+		if (sql.startsWith("0x", i) || sql.startsWith("0X", i))
+		{
+			i += 2;
+			while (i < sql.length() && Character.digit(sql.charAt(i), 16) >= 0)
+				i++;
+			return i;
+		}
+		while (i < sql.length() && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.'))
+			i++;
+		if (i < sql.length() && (sql.charAt(i) == 'e' || sql.charAt(i) == 'E'))
+		{
+			int exponent = i + 1;
+			if (exponent < sql.length() && (sql.charAt(exponent) == '+' || sql.charAt(exponent) == '-'))
+				exponent++;
+			if (exponent < sql.length() && Character.isDigit(sql.charAt(exponent)))
+			{
+				i = exponent;
+				while (i < sql.length() && Character.isDigit(sql.charAt(i)))
+					i++;
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * @return A Long for an integer literal, a Double for a floating point
+	 *         literal, or null if the literal cannot be parsed
+	 */
+	private static Object parseNumber(String literal)
+	{
+		try
+		{
+			if (literal.startsWith("0x") || literal.startsWith("0X"))
+				return Long.valueOf(Long.parseLong(literal.substring(2), 16));
+			if (literal.indexOf('.') >= 0 || literal.indexOf('e') >= 0 || literal.indexOf('E') >= 0)
+				return Double.valueOf(literal);
+			return Long.valueOf(literal);
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+
+	private static Date parseDate(String literal)
+	{
+		try
+		{
+			return Date.valueOf(literal.trim());
+		}
+		catch (IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+
+}
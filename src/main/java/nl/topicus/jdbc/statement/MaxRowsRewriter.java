@@ -0,0 +1,118 @@
+package nl.topicus.jdbc.statement;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.statement.select.Limit;
+import net.sf.jsqlparser.statement.select.Offset;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectBody;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+
+/**
+ * Pushes the maximum number of rows of a statement (
+ * {@link java.sql.Statement#setMaxRows(int)}) down to Google Cloud Spanner by
+ * adding a LIMIT clause to a query that has no LIMIT clause, or by lowering
+ * the row count of a literal LIMIT clause that exceeds the maximum. Queries
+ * that cannot be rewritten are sent unchanged, the result set then stops
+ * returning rows when the maximum is reached.
+ *
+ * @author loite
+ *
+ */
+class MaxRowsRewriter
+{
+	private static final Pattern TRAILING_LIMIT = Pattern.compile(
+			"\\bLIMIT\\s+(\\d+)(\\s+OFFSET\\s+(\\d+|\\?))?\\s*;?\\s*$", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern TRAILING_SEMICOLON = Pattern.compile("\\s*;?\\s*$");
+
+	private MaxRowsRewriter()
+	{
+	}
+
+	/**
+	 * Limits the number of rows that a query returns
+	 *
+	 * @param sql
+	 *            The sql of the query
+	 * @param select
+	 *            The parsed query
+	 * @param maxRows
+	 *            The maximum number of rows, 0 means no maximum
+	 * @return The sql of the query with a LIMIT clause of at most maxRows rows,
+	 *         or the original sql if the query could not be rewritten
+	 */
+	static String rewrite(String sql, Select select, int maxRows)
+	{
+		if (maxRows <= 0)
+			return sql;
+		Limit limit = getLimit(select.getSelectBody());
+		if (limit == null)
+		{
+			if (getOffset(select.getSelectBody()) != null)
+				return sql;
+			// Use a new line in case the query ends with a comment
+			return TRAILING_SEMICOLON.matcher(sql).replaceFirst("") + "\nLIMIT " + maxRows;
+		}
+		Expression rowCount = limit.getRowCount();
+		if (rowCount instanceof LongValue && ((LongValue) rowCount).getValue() > maxRows)
+		{
+			Matcher matcher = TRAILING_LIMIT.matcher(sql);
+			if (matcher.find())
+			{
+				return sql.substring(0, matcher.start(1)) + maxRows + sql.substring(matcher.end(1));
+			}
+		}
+		return sql;
+	}
+
+	/**
+	 * @return The LIMIT clause that applies to the result of the query, or
+	 *         null if there is none
+	 */
+	static Limit getLimit(SelectBody body)
+	{
+		if (body instanceof PlainSelect)
+			return ((PlainSelect) body).getLimit();
+		if (body instanceof SetOperationList)
+		{
+			SetOperationList setOperationList = (SetOperationList) body;
+			if (setOperationList.getLimit() != null)
+				return setOperationList.getLimit();
+			// The parser assigns a LIMIT clause at the end of a set operation
+			// without parentheses to the last select
+			SelectBody last = getLast(setOperationList);
+			if (last instanceof PlainSelect)
+				return ((PlainSelect) last).getLimit();
+		}
+		return null;
+	}
+
+	private static Offset getOffset(SelectBody body)
+	{
+		if (body instanceof PlainSelect)
+			return ((PlainSelect) body).getOffset();
+		if (body instanceof SetOperationList)
+		{
+			SetOperationList setOperationList = (SetOperationList) body;
+			if (setOperationList.getOffset() != null)
+				return setOperationList.getOffset();
+			SelectBody last = getLast(setOperationList);
+			if (last instanceof PlainSelect)
+				return ((PlainSelect) last).getOffset();
+		}
+		return null;
+	}
+
+	private static SelectBody getLast(SetOperationList setOperationList)
+	{
+		List<SelectBody> selects = setOperationList.getSelects();
+		return selects == null || selects.isEmpty() ? null : selects.get(selects.size() - 1);
+	}
+
+}
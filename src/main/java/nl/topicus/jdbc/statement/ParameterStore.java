@@ -1,167 +1,480 @@
-package nl.topicus.jdbc.statement;
-
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.Arrays;
-
-/**
- * 
- * @author loite
- *
- */
-public class ParameterStore
-{
-	private Object[] parameters = new Object[10];
-
-	private Integer[] types = new Integer[10];
-
-	private Integer[] nullable = new Integer[10];
-
-	private Integer[] scalesOrLengths = new Integer[10];
-
-	private String table;
-
-	private String[] columns = new String[10];
-
-	private int highestIndex = 0;
-
-	void clearParameters()
-	{
-		parameters = new Object[10];
-		types = new Integer[10];
-		nullable = new Integer[10];
-		scalesOrLengths = new Integer[10];
-		columns = new String[10];
-		table = null;
-	}
-
-	Object getParameter(int parameterIndex)
-	{
-		int arrayIndex = parameterIndex - 1;
-		if (arrayIndex >= parameters.length)
-			return null;
-		return parameters[arrayIndex];
-	}
-
-	Integer getType(int parameterIndex)
-	{
-		int arrayIndex = parameterIndex - 1;
-		if (arrayIndex >= types.length)
-			return null;
-		return types[arrayIndex];
-	}
-
-	Integer getNullable(int parameterIndex)
-	{
-		int arrayIndex = parameterIndex - 1;
-		if (arrayIndex >= nullable.length)
-			return null;
-		return nullable[arrayIndex];
-	}
-
-	Integer getScaleOrLength(int parameterIndex)
-	{
-		int arrayIndex = parameterIndex - 1;
-		if (arrayIndex >= scalesOrLengths.length)
-			return null;
-		return scalesOrLengths[arrayIndex];
-	}
-
-	String getColumn(int parameterIndex)
-	{
-		int arrayIndex = parameterIndex - 1;
-		if (arrayIndex >= columns.length)
-			return null;
-		return columns[arrayIndex];
-	}
-
-	String getTable()
-	{
-		return table;
-	}
-
-	void setTable(String table)
-	{
-		this.table = table;
-	}
-
-	void setColumn(int parameterIndex, String column)
-	{
-		setParameter(parameterIndex, getParameter(parameterIndex), getType(parameterIndex),
-				getScaleOrLength(parameterIndex), column);
-	}
-
-	void setType(int parameterIndex, Integer type)
-	{
-		setParameter(parameterIndex, getParameter(parameterIndex), type, getScaleOrLength(parameterIndex),
-				getColumn(parameterIndex));
-	}
-
-	void setParameter(int parameterIndex, Object value)
-	{
-		setParameter(parameterIndex, value, null, null);
-	}
-
-	void setParameter(int parameterIndex, Object value, Integer sqlType, Integer scaleOrLength)
-	{
-		setParameter(parameterIndex, value, sqlType, scaleOrLength, null);
-	}
-
-	void setParameter(int parameterIndex, Object value, Integer sqlType, Integer scaleOrLength, String column)
-	{
-		highestIndex = Math.max(parameterIndex, highestIndex);
-		int arrayIndex = parameterIndex - 1;
-		if (arrayIndex >= parameters.length)
-		{
-			parameters = Arrays.copyOf(parameters, Math.max(parameters.length * 2, arrayIndex));
-			types = Arrays.copyOf(types, Math.max(types.length * 2, arrayIndex));
-			nullable = Arrays.copyOf(types, Math.max(nullable.length * 2, arrayIndex));
-			scalesOrLengths = Arrays.copyOf(scalesOrLengths, Math.max(scalesOrLengths.length * 2, arrayIndex));
-			columns = Arrays.copyOf(columns, Math.max(columns.length * 2, arrayIndex));
-		}
-		parameters[arrayIndex] = value;
-		types[arrayIndex] = sqlType;
-		scalesOrLengths[arrayIndex] = scaleOrLength;
-		columns[arrayIndex] = column;
-	}
-
-	int getHighestIndex()
-	{
-		return highestIndex;
-	}
-
-	void fetchMetaData(Connection connection) throws SQLException
-	{
-		if (table != null && !"".equals(table))
-		{
-			try (ResultSet columns = connection.getMetaData().getColumns(null, null, table, null))
-			{
-				while (columns.next())
-				{
-					String col = columns.getString("COLUMN_NAME");
-					int arrayIndex = getParameterArrayIndex(col);
-					if (arrayIndex > -1)
-					{
-						scalesOrLengths[arrayIndex] = columns.getInt("COLUMN_SIZE");
-						types[arrayIndex] = columns.getInt("DATA_TYPE");
-						nullable[arrayIndex] = columns.getInt("NULLABLE");
-					}
-				}
-			}
-		}
-	}
-
-	private int getParameterArrayIndex(String columnName)
-	{
-		for (int param = 0; param < highestIndex; param++)
-		{
-			if (columnName != null && columns[param] != null && columnName.equalsIgnoreCase(columns[param]))
-			{
-				return param;
-			}
-		}
-		return -1;
-	}
-
-}
+package nl.topicus.jdbc.statement;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.function.BiFunction;
+
+/**
+ * Storage for the parameters of a prepared statement. Primitive values are
+ * stored in primitive slots together with a tag indicating the original Java
+ * type, so that binding primitive values does not box them. The slots are
+ * reused when the parameters are cleared, which means that binding a row in a
+ * large batch does not allocate any new arrays.
+ *
+ * @author loite
+ *
+ */
+public class ParameterStore
+{
+	/**
+	 * Type tag of a parameter slot
+	 */
+	enum Kind
+	{
+		EMPTY, OBJECT, BOOLEAN, BYTE, SHORT, INT, LONG, FLOAT, DOUBLE;
+	}
+
+	/**
+	 * Marker value for type, scale/length and nullable slots that have not been
+	 * set
+	 */
+	private static final int UNSET = Integer.MIN_VALUE;
+
+	private static final int INITIAL_SIZE = 10;
+
+	private Kind[] kinds = newKinds(INITIAL_SIZE);
+
+	private Object[] objects = new Object[INITIAL_SIZE];
+
+	private long[] longs = new long[INITIAL_SIZE];
+
+	private double[] doubles = new double[INITIAL_SIZE];
+
+	private int[] types = newIntSlots(INITIAL_SIZE);
+
+	private int[] nullable = newIntSlots(INITIAL_SIZE);
+
+	private int[] scalesOrLengths = newIntSlots(INITIAL_SIZE);
+
+	private String table;
+
+	private String[] columns = new String[INITIAL_SIZE];
+
+	/**
+	 * Binders that have been resolved for each parameter slot, together with
+	 * the value class and target type they were resolved for. These are kept
+	 * when the parameters are cleared, so that binding a value of the same
+	 * class to the same slot does not need to resolve the binder again.
+	 */
+	private ParameterValueBinders.Binder[] binders = new ParameterValueBinders.Binder[INITIAL_SIZE];
+
+	private Class<?>[] binderClasses = new Class<?>[INITIAL_SIZE];
+
+	private int[] binderTypes = newIntSlots(INITIAL_SIZE);
+
+	/**
+	 * Binders for null values for each parameter slot. These are resolved from
+	 * the type of the last non-null value that was set for the slot, or from
+	 * the type of the column that the parameter is bound to. They are kept when
+	 * the parameters are cleared, so that a parameter that is set to null is
+	 * sent with the same type as a non-null value for the same parameter.
+	 */
+	private ParameterValueBinders.Binder[] nullBinders = new ParameterValueBinders.Binder[INITIAL_SIZE];
+
+	/**
+	 * Resolves the JDBC type of a column of a table
+	 */
+	private BiFunction<String, String, Integer> columnTypeResolver;
+
+	private int highestIndex = 0;
+
+	/**
+	 * The highest parameter index of any slot that has been written since the
+	 * parameters were last cleared. This may be higher than
+	 * {@link #highestIndex}, as column names and types are also stored for
+	 * parameters that have not (yet) been set.
+	 */
+	private int highestSlot = 0;
+
+	private static Kind[] newKinds(int size)
+	{
+		Kind[] res = new Kind[size];
+		Arrays.fill(res, Kind.EMPTY);
+		return res;
+	}
+
+	private static int[] newIntSlots(int size)
+	{
+		int[] res = new int[size];
+		Arrays.fill(res, UNSET);
+		return res;
+	}
+
+	private static Integer toInteger(int value)
+	{
+		return value == UNSET ? null : Integer.valueOf(value);
+	}
+
+	private static int fromInteger(Integer value)
+	{
+		return value == null ? UNSET : value.intValue();
+	}
+
+	/**
+	 * Clears all parameters in place. The existing slots are reset and kept
+	 * for the next set of parameters.
+	 */
+	void clearParameters()
+	{
+		Arrays.fill(kinds, 0, highestSlot, Kind.EMPTY);
+		Arrays.fill(objects, 0, highestSlot, null);
+		Arrays.fill(types, 0, highestSlot, UNSET);
+		Arrays.fill(nullable, 0, highestSlot, UNSET);
+		Arrays.fill(scalesOrLengths, 0, highestSlot, UNSET);
+		Arrays.fill(columns, 0, highestSlot, null);
+		table = null;
+		highestIndex = 0;
+		highestSlot = 0;
+	}
+
+	Kind getKind(int parameterIndex)
+	{
+		int arrayIndex = parameterIndex - 1;
+		if (arrayIndex >= kinds.length)
+			return Kind.EMPTY;
+		return kinds[arrayIndex];
+	}
+
+	/**
+	 * Returns the value of a parameter. Primitive values are boxed into their
+	 * original wrapper type. Use {@link #getKind(int)} together with
+	 * {@link #getLong(int)}, {@link #getDouble(int)} and
+	 * {@link #getBoolean(int)} to read primitive values without boxing.
+	 */
+	Object getParameter(int parameterIndex)
+	{
+		int arrayIndex = parameterIndex - 1;
+		if (arrayIndex >= kinds.length)
+			return null;
+		switch (kinds[arrayIndex])
+		{
+		case BOOLEAN:
+			return Boolean.valueOf(longs[arrayIndex] != 0L);
+		case BYTE:
+			return Byte.valueOf((byte) longs[arrayIndex]);
+		case SHORT:
+			return Short.valueOf((short) longs[arrayIndex]);
+		case INT:
+			return Integer.valueOf((int) longs[arrayIndex]);
+		case LONG:
+			return Long.valueOf(longs[arrayIndex]);
+		case FLOAT:
+			return Float.valueOf((float) doubles[arrayIndex]);
+		case DOUBLE:
+			return Double.valueOf(doubles[arrayIndex]);
+		case OBJECT:
+			return objects[arrayIndex];
+		case EMPTY:
+		default:
+			return null;
+		}
+	}
+
+	long getLong(int parameterIndex)
+	{
+		return longs[parameterIndex - 1];
+	}
+
+	double getDouble(int parameterIndex)
+	{
+		return doubles[parameterIndex - 1];
+	}
+
+	boolean getBoolean(int parameterIndex)
+	{
+		return longs[parameterIndex - 1] != 0L;
+	}
+
+	Integer getType(int parameterIndex)
+	{
+		int arrayIndex = parameterIndex - 1;
+		if (arrayIndex >= types.length)
+			return null;
+		return toInteger(types[arrayIndex]);
+	}
+
+	Integer getNullable(int parameterIndex)
+	{
+		int arrayIndex = parameterIndex - 1;
+		if (arrayIndex >= nullable.length)
+			return null;
+		return toInteger(nullable[arrayIndex]);
+	}
+
+	Integer getScaleOrLength(int parameterIndex)
+	{
+		int arrayIndex = parameterIndex - 1;
+		if (arrayIndex >= scalesOrLengths.length)
+			return null;
+		return toInteger(scalesOrLengths[arrayIndex]);
+	}
+
+	String getColumn(int parameterIndex)
+	{
+		int arrayIndex = parameterIndex - 1;
+		if (arrayIndex >= columns.length)
+			return null;
+		return columns[arrayIndex];
+	}
+
+	String getTable()
+	{
+		return table;
+	}
+
+	void setTable(String table)
+	{
+		this.table = table;
+	}
+
+	void setColumn(int parameterIndex, String column)
+	{
+		ensureCapacity(parameterIndex);
+		columns[parameterIndex - 1] = column;
+	}
+
+	void setType(int parameterIndex, Integer type)
+	{
+		ensureCapacity(parameterIndex);
+		types[parameterIndex - 1] = fromInteger(type);
+	}
+
+	void setBoolean(int parameterIndex, boolean value)
+	{
+		setPrimitive(parameterIndex, Kind.BOOLEAN, value ? 1L : 0L);
+	}
+
+	void setByte(int parameterIndex, byte value)
+	{
+		setPrimitive(parameterIndex, Kind.BYTE, value);
+	}
+
+	void setShort(int parameterIndex, short value)
+	{
+		setPrimitive(parameterIndex, Kind.SHORT, value);
+	}
+
+	void setInt(int parameterIndex, int value)
+	{
+		setPrimitive(parameterIndex, Kind.INT, value);
+	}
+
+	void setLong(int parameterIndex, long value)
+	{
+		setPrimitive(parameterIndex, Kind.LONG, value);
+	}
+
+	void setFloat(int parameterIndex, float value)
+	{
+		setPrimitive(parameterIndex, Kind.FLOAT, (double) value);
+	}
+
+	void setDouble(int parameterIndex, double value)
+	{
+		setPrimitive(parameterIndex, Kind.DOUBLE, value);
+	}
+
+	private void setPrimitive(int parameterIndex, Kind kind, long value)
+	{
+		int arrayIndex = prepareSlot(parameterIndex, kind);
+		longs[arrayIndex] = value;
+	}
+
+	private void setPrimitive(int parameterIndex, Kind kind, double value)
+	{
+		int arrayIndex = prepareSlot(parameterIndex, kind);
+		doubles[arrayIndex] = value;
+	}
+
+	private int prepareSlot(int parameterIndex, Kind kind)
+	{
+		ensureCapacity(parameterIndex);
+		highestIndex = Math.max(parameterIndex, highestIndex);
+		int arrayIndex = parameterIndex - 1;
+		kinds[arrayIndex] = kind;
+		if (kind != Kind.OBJECT)
+			nullBinders[arrayIndex] = ParameterValueBinders.resolveNull(kind);
+		objects[arrayIndex] = null;
+		types[arrayIndex] = UNSET;
+		scalesOrLengths[arrayIndex] = UNSET;
+		return arrayIndex;
+	}
+
+	void setParameter(int parameterIndex, Object value)
+	{
+		setParameter(parameterIndex, value, null, null);
+	}
+
+	void setParameter(int parameterIndex, Object value, Integer sqlType, Integer scaleOrLength)
+	{
+		int arrayIndex = prepareSlot(parameterIndex, Kind.OBJECT);
+		objects[arrayIndex] = value;
+		types[arrayIndex] = fromInteger(sqlType);
+		scalesOrLengths[arrayIndex] = fromInteger(scaleOrLength);
+	}
+
+	private void ensureCapacity(int parameterIndex)
+	{
+		int arrayIndex = parameterIndex - 1;
+		highestSlot = Math.max(parameterIndex, highestSlot);
+		if (arrayIndex >= kinds.length)
+		{
+			int oldLength = kinds.length;
+			int newLength = Math.max(oldLength * 2, arrayIndex + 1);
+			kinds = Arrays.copyOf(kinds, newLength);
+			Arrays.fill(kinds, oldLength, newLength, Kind.EMPTY);
+			objects = Arrays.copyOf(objects, newLength);
+			longs = Arrays.copyOf(longs, newLength);
+			doubles = Arrays.copyOf(doubles, newLength);
+			types = growIntSlots(types, newLength);
+			nullable = growIntSlots(nullable, newLength);
+			scalesOrLengths = growIntSlots(scalesOrLengths, newLength);
+			columns = Arrays.copyOf(columns, newLength);
+			binders = Arrays.copyOf(binders, newLength);
+			binderClasses = Arrays.copyOf(binderClasses, newLength);
+			binderTypes = growIntSlots(binderTypes, newLength);
+			nullBinders = Arrays.copyOf(nullBinders, newLength);
+		}
+	}
+
+	private static int[] growIntSlots(int[] slots, int newLength)
+	{
+		int oldLength = slots.length;
+		int[] res = Arrays.copyOf(slots, newLength);
+		Arrays.fill(res, oldLength, newLength, UNSET);
+		return res;
+	}
+
+	/**
+	 * Returns the binder to use for a value of the given class for the given
+	 * parameter. The binder is cached per parameter slot.
+	 * 
+	 * @param parameterIndex
+	 *            The index of the parameter
+	 * @param valueClass
+	 *            The runtime class of the value to bind
+	 * @return The binder to use, or null if values of the given class are not
+	 *         supported
+	 */
+	ParameterValueBinders.Binder getBinder(int parameterIndex, Class<?> valueClass)
+	{
+		ensureCapacity(parameterIndex);
+		int arrayIndex = parameterIndex - 1;
+		int type = types[arrayIndex];
+		if (binderClasses[arrayIndex] != valueClass || binderTypes[arrayIndex] != type
+				|| binders[arrayIndex] == null)
+		{
+			binders[arrayIndex] = ParameterValueBinders.resolve(valueClass, toInteger(type));
+			binderClasses[arrayIndex] = valueClass;
+			binderTypes[arrayIndex] = type;
+			ParameterValueBinders.Binder nullBinder = ParameterValueBinders.resolveNull(toInteger(type));
+			if (nullBinder == null)
+				nullBinder = ParameterValueBinders.resolveNull(valueClass);
+			if (nullBinder != null)
+				nullBinders[arrayIndex] = nullBinder;
+		}
+		return binders[arrayIndex];
+	}
+
+	/**
+	 * Returns the binder to use for a null value for the given parameter. The
+	 * type of the null value is determined by, in order of precedence:
+	 * <ol>
+	 * <li>The JDBC type that was specified for the parameter, e.g. with
+	 * {@link java.sql.PreparedStatement#setNull(int, int)}</li>
+	 * <li>The type of the last non-null value that was set for the
+	 * parameter</li>
+	 * <li>The type of the column that the parameter is bound to</li>
+	 * </ol>
+	 * If none of these are known, the value is bound as an untyped null.
+	 * 
+	 * @param parameterIndex
+	 *            The index of the parameter
+	 * @return The binder to use
+	 */
+	ParameterValueBinders.Binder getNullBinder(int parameterIndex)
+	{
+		ensureCapacity(parameterIndex);
+		return getNullBinder(parameterIndex, table, columns[parameterIndex - 1]);
+	}
+
+	/**
+	 * Returns the binder to use for a null value for the given parameter that
+	 * is bound to the given column.
+	 * 
+	 * @see #getNullBinder(int)
+	 */
+	ParameterValueBinders.Binder getNullBinder(int parameterIndex, String table, String column)
+	{
+		ensureCapacity(parameterIndex);
+		int arrayIndex = parameterIndex - 1;
+		ParameterValueBinders.Binder res = ParameterValueBinders.resolveNull(toInteger(types[arrayIndex]));
+		if (res != null)
+			return res;
+		if (nullBinders[arrayIndex] == null && table != null && column != null && columnTypeResolver != null)
+		{
+			nullBinders[arrayIndex] = ParameterValueBinders.resolveNull(columnTypeResolver.apply(table, column));
+		}
+		res = nullBinders[arrayIndex];
+		return res == null ? ParameterValueBinders.UNTYPED_NULL : res;
+	}
+
+	void setColumnTypeResolver(BiFunction<String, String, Integer> columnTypeResolver)
+	{
+		this.columnTypeResolver = columnTypeResolver;
+	}
+
+	/**
+	 * @param column
+	 *            The name of a column of the current table
+	 * @return The JDBC type of the column, or null if it could not be
+	 *         determined
+	 */
+	Integer getColumnType(String column)
+	{
+		if (table == null || column == null || columnTypeResolver == null)
+			return null;
+		return columnTypeResolver.apply(table, column);
+	}
+
+	int getHighestIndex()
+	{
+		return highestIndex;
+	}
+
+	void fetchMetaData(Connection connection) throws SQLException
+	{
+		if (table != null && !"".equals(table))
+		{
+			try (ResultSet columns = connection.getMetaData().getColumns(null, null, table, null))
+			{
+				while (columns.next())
+				{
+					String col = columns.getString("COLUMN_NAME");
+					int arrayIndex = getParameterArrayIndex(col);
+					if (arrayIndex > -1)
+					{
+						scalesOrLengths[arrayIndex] = columns.getInt("COLUMN_SIZE");
+						types[arrayIndex] = columns.getInt("DATA_TYPE");
+						nullable[arrayIndex] = columns.getInt("NULLABLE");
+					}
+				}
+			}
+		}
+	}
+
+	private int getParameterArrayIndex(String columnName)
+	{
+		for (int param = 0; param < highestIndex; param++)
+		{
+			if (columnName != null && columns[param] != null && columnName.equalsIgnoreCase(columns[param]))
+			{
+				return param;
+			}
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,401 @@
+package nl.topicus.jdbc.statement;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import nl.topicus.jdbc.CloudSpannerArray;
+import nl.topicus.jdbc.util.CloudSpannerConversionUtil;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.spanner.ValueBinder;
+
+/**
+ * Precomputed table of binders for parameter values. A binder is resolved
+ * once for a combination of the runtime class of a value and the JDBC target
+ * type of the parameter (if any). The resolved binder can be cached by the
+ * caller so that binding a value of a known class is a direct call.
+ *
+ * @author loite
+ *
+ */
+final class ParameterValueBinders
+{
+	/**
+	 * Binds a (non-null) value to a {@link ValueBinder}
+	 */
+	@FunctionalInterface
+	interface Binder
+	{
+		void bind(ValueBinder<?> binder, Object value);
+	}
+
+	private static final Binder BOOLEAN = (binder, value) -> binder.to((Boolean) value);
+
+	private static final Binder NUMBER_TO_LONG = (binder, value) -> binder.to(((Number) value).longValue());
+
+	private static final Binder NUMBER_TO_DOUBLE = (binder, value) -> binder.to(((Number) value).doubleValue());
+
+	private static final Binder NUMBER_TO_BOOLEAN = (binder, value) -> binder.to(((Number) value).longValue() != 0L);
+
+	private static final Binder BOOLEAN_TO_LONG = (binder, value) -> binder.to(((Boolean) value).booleanValue() ? 1L
+			: 0L);
+
+	private static final Binder STRING = (binder, value) -> binder.to((String) value);
+
+	private static final Binder STRING_TO_LONG = (binder, value) -> binder.to(Long.parseLong(((String) value).trim()));
+
+	private static final Binder STRING_TO_DOUBLE = (binder, value) -> binder.to(Double
+			.parseDouble(((String) value).trim()));
+
+	private static final Binder STRING_TO_BOOLEAN = (binder, value) -> binder.to(Boolean.valueOf(((String) value)
+			.trim()));
+
+	private static final Binder STRING_TO_BYTES = (binder, value) -> binder.to(ByteArray.copyFrom((String) value));
+
+	private static final Binder TO_STRING = (binder, value) -> binder.to(value.toString());
+
+	private static final Binder CHARS = (binder, value) -> binder.to(new String((char[]) value));
+
+	private static final Binder BYTES = (binder, value) -> binder.to(ByteArray.copyFrom((byte[]) value));
+
+	private static final Binder SQL_DATE = (binder, value) -> binder.to(CloudSpannerConversionUtil
+			.toCloudSpannerDate((Date) value));
+
+	private static final Binder LOCAL_DATE = (binder, value) -> binder.to(CloudSpannerConversionUtil
+			.toCloudSpannerDate((LocalDate) value));
+
+	private static final Binder SQL_TIMESTAMP = (binder, value) -> binder.to(CloudSpannerConversionUtil
+			.toCloudSpannerTimestamp((Timestamp) value));
+
+	private static final Binder INSTANT = (binder, value) -> binder.to(CloudSpannerConversionUtil
+			.toCloudSpannerTimestamp((Instant) value));
+
+	private static final Binder LOCAL_DATE_TIME = (binder, value) -> binder.to(CloudSpannerConversionUtil
+			.toCloudSpannerTimestamp(((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant()));
+
+	private static final Binder OFFSET_DATE_TIME = (binder, value) -> binder.to(CloudSpannerConversionUtil
+			.toCloudSpannerTimestamp(((OffsetDateTime) value).toInstant()));
+
+	private static final Binder LONG_ARRAY = (binder, value) -> binder.toInt64Array((long[]) value);
+
+	private static final Binder DOUBLE_ARRAY = (binder, value) -> binder.toFloat64Array((double[]) value);
+
+	private static final Binder BOOLEAN_ARRAY = (binder, value) -> binder.toBoolArray((boolean[]) value);
+
+	private static final Binder BOXED_LONG_ARRAY = (binder, value) -> binder.toInt64Array(Arrays.asList((Long[]) value));
+
+	private static final Binder BOXED_DOUBLE_ARRAY = (binder, value) -> binder.toFloat64Array(Arrays
+			.asList((Double[]) value));
+
+	private static final Binder BOXED_BOOLEAN_ARRAY = (binder, value) -> binder.toBoolArray(Arrays
+			.asList((Boolean[]) value));
+
+	private static final Binder STRING_ARRAY = (binder, value) -> binder.toStringArray(Arrays.asList((String[]) value));
+
+	private static final Binder CLOUD_SPANNER_ARRAY = (binder, value) -> ((CloudSpannerArray) value).bind(binder);
+
+	private static final Binder SQL_ARRAY = (binder, value) -> {
+		try
+		{
+			Array array = (Array) value;
+			CloudSpannerArray.createArray(array.getBaseTypeName(), array.getArray()).bind(binder);
+		}
+		catch (SQLException e)
+		{
+			throw new IllegalArgumentException("Unsupported array: " + e.getMessage(), e);
+		}
+	};
+
+	private static final Binder NULL_BOOL = (binder, value) -> binder.to((Boolean) null);
+
+	private static final Binder NULL_INT64 = (binder, value) -> binder.to((Long) null);
+
+	private static final Binder NULL_FLOAT64 = (binder, value) -> binder.to((Double) null);
+
+	private static final Binder NULL_STRING = (binder, value) -> binder.to((String) null);
+
+	private static final Binder NULL_BYTES = (binder, value) -> binder.to((ByteArray) null);
+
+	private static final Binder NULL_DATE = (binder, value) -> binder.to((com.google.cloud.spanner.Date) null);
+
+	private static final Binder NULL_TIMESTAMP = (binder, value) -> binder
+			.to((com.google.cloud.spanner.Timestamp) null);
+
+	/**
+	 * Binder for null values of which the type is unknown. These are bound as
+	 * a null BOOL value.
+	 */
+	static final Binder UNTYPED_NULL = NULL_BOOL;
+
+	private static final Map<Class<?>, Binder> CLASS_BINDERS;
+
+	private static final Map<Class<?>, Binder> NULL_CLASS_BINDERS;
+	static
+	{
+		Map<Class<?>, Binder> binders = new HashMap<>();
+		binders.put(Boolean.class, BOOLEAN);
+		binders.put(Byte.class, NUMBER_TO_LONG);
+		binders.put(Short.class, NUMBER_TO_LONG);
+		binders.put(Integer.class, NUMBER_TO_LONG);
+		binders.put(Long.class, NUMBER_TO_LONG);
+		binders.put(Float.class, NUMBER_TO_DOUBLE);
+		binders.put(Double.class, NUMBER_TO_DOUBLE);
+		binders.put(BigDecimal.class, NUMBER_TO_DOUBLE);
+		binders.put(String.class, STRING);
+		binders.put(char[].class, CHARS);
+		binders.put(byte[].class, BYTES);
+		binders.put(UUID.class, TO_STRING);
+		binders.put(Date.class, SQL_DATE);
+		binders.put(LocalDate.class, LOCAL_DATE);
+		binders.put(Timestamp.class, SQL_TIMESTAMP);
+		binders.put(Instant.class, INSTANT);
+		binders.put(LocalDateTime.class, LOCAL_DATE_TIME);
+		binders.put(OffsetDateTime.class, OFFSET_DATE_TIME);
+		binders.put(long[].class, LONG_ARRAY);
+		binders.put(double[].class, DOUBLE_ARRAY);
+		binders.put(boolean[].class, BOOLEAN_ARRAY);
+		binders.put(Long[].class, BOXED_LONG_ARRAY);
+		binders.put(Double[].class, BOXED_DOUBLE_ARRAY);
+		binders.put(Boolean[].class, BOXED_BOOLEAN_ARRAY);
+		binders.put(String[].class, STRING_ARRAY);
+		binders.put(CloudSpannerArray.class, CLOUD_SPANNER_ARRAY);
+		CLASS_BINDERS = Collections.unmodifiableMap(binders);
+
+		Map<Class<?>, Binder> nullBinders = new HashMap<>();
+		nullBinders.put(Boolean.class, NULL_BOOL);
+		nullBinders.put(Byte.class, NULL_INT64);
+		nullBinders.put(Short.class, NULL_INT64);
+		nullBinders.put(Integer.class, NULL_INT64);
+		nullBinders.put(Long.class, NULL_INT64);
+		nullBinders.put(Float.class, NULL_FLOAT64);
+		nullBinders.put(Double.class, NULL_FLOAT64);
+		nullBinders.put(BigDecimal.class, NULL_FLOAT64);
+		nullBinders.put(String.class, NULL_STRING);
+		nullBinders.put(char[].class, NULL_STRING);
+		nullBinders.put(UUID.class, NULL_STRING);
+		nullBinders.put(byte[].class, NULL_BYTES);
+		nullBinders.put(Date.class, NULL_DATE);
+		nullBinders.put(LocalDate.class, NULL_DATE);
+		nullBinders.put(Timestamp.class, NULL_TIMESTAMP);
+		nullBinders.put(Instant.class, NULL_TIMESTAMP);
+		nullBinders.put(LocalDateTime.class, NULL_TIMESTAMP);
+		nullBinders.put(OffsetDateTime.class, NULL_TIMESTAMP);
+		NULL_CLASS_BINDERS = Collections.unmodifiableMap(nullBinders);
+	}
+
+	private ParameterValueBinders()
+	{
+	}
+
+	/**
+	 * Resolves the binder to use for a value of the given class.
+	 *
+	 * @param valueClass
+	 *            The runtime class of the value to bind
+	 * @param sqlType
+	 *            The JDBC target type of the parameter, or null if no target
+	 *            type has been specified
+	 * @return The binder to use, or null if values of the given class are not
+	 *         supported
+	 */
+	static Binder resolve(Class<?> valueClass, Integer sqlType)
+	{
+		if (sqlType != null)
+		{
+			Binder binder = resolveForTargetType(valueClass, sqlType.intValue());
+			if (binder != null)
+				return binder;
+		}
+		return resolve(valueClass);
+	}
+
+	/**
+	 * Resolves the binder to use for a value of the given class without a
+	 * target type. Subclasses of supported classes are bound as their
+	 * supported superclass. Other implementations of {@link Array} are
+	 * converted to a {@link CloudSpannerArray} before they are bound.
+	 */
+	static Binder resolve(Class<?> valueClass)
+	{
+		Class<?> cls = valueClass;
+		while (cls != null)
+		{
+			Binder binder = CLASS_BINDERS.get(cls);
+			if (binder != null)
+				return binder;
+			cls = cls.getSuperclass();
+		}
+		if (Array.class.isAssignableFrom(valueClass))
+			return SQL_ARRAY;
+		return null;
+	}
+
+	/**
+	 * Resolves the binder for a null value of the given JDBC type.
+	 *
+	 * @param sqlType
+	 *            The JDBC type of the null value, or null if unknown
+	 * @return The binder to use, or null if the type is unknown or not
+	 *         supported
+	 */
+	static Binder resolveNull(Integer sqlType)
+	{
+		if (sqlType == null)
+			return null;
+		switch (sqlType.intValue())
+		{
+		case Types.BIT:
+		case Types.BOOLEAN:
+			return NULL_BOOL;
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+		case Types.BIGINT:
+			return NULL_INT64;
+		case Types.FLOAT:
+		case Types.REAL:
+		case Types.DOUBLE:
+		case Types.NUMERIC:
+		case Types.DECIMAL:
+			return NULL_FLOAT64;
+		case Types.CHAR:
+		case Types.VARCHAR:
+		case Types.LONGVARCHAR:
+		case Types.NCHAR:
+		case Types.NVARCHAR:
+		case Types.LONGNVARCHAR:
+		case Types.CLOB:
+		case Types.NCLOB:
+			return NULL_STRING;
+		case Types.BINARY:
+		case Types.VARBINARY:
+		case Types.LONGVARBINARY:
+		case Types.BLOB:
+			return NULL_BYTES;
+		case Types.DATE:
+			return NULL_DATE;
+		case Types.TIME:
+		case Types.TIMESTAMP:
+		case Types.TIME_WITH_TIMEZONE:
+		case Types.TIMESTAMP_WITH_TIMEZONE:
+			return NULL_TIMESTAMP;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Resolves the binder for a null value of the same type as a non-null
+	 * value of the given class.
+	 *
+	 * @return The binder to use, or null if the class is not supported
+	 */
+	static Binder resolveNull(Class<?> valueClass)
+	{
+		Class<?> cls = valueClass;
+		while (cls != null)
+		{
+			Binder binder = NULL_CLASS_BINDERS.get(cls);
+			if (binder != null)
+				return binder;
+			cls = cls.getSuperclass();
+		}
+		return null;
+	}
+
+	/**
+	 * Resolves the binder for a null value of the same type as a primitive
+	 * value of the given kind.
+	 */
+	static Binder resolveNull(ParameterStore.Kind kind)
+	{
+		switch (kind)
+		{
+		case BOOLEAN:
+			return NULL_BOOL;
+		case BYTE:
+		case SHORT:
+		case INT:
+		case LONG:
+			return NULL_INT64;
+		case FLOAT:
+		case DOUBLE:
+			return NULL_FLOAT64;
+		default:
+			return null;
+		}
+	}
+
+	private static Binder resolveForTargetType(Class<?> valueClass, int sqlType)
+	{
+		switch (sqlType)
+		{
+		case Types.BIT:
+		case Types.BOOLEAN:
+			if (valueClass == Boolean.class)
+				return BOOLEAN;
+			if (Number.class.isAssignableFrom(valueClass))
+				return NUMBER_TO_BOOLEAN;
+			if (valueClass == String.class)
+				return STRING_TO_BOOLEAN;
+			return null;
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+		case Types.BIGINT:
+			if (Number.class.isAssignableFrom(valueClass))
+				return NUMBER_TO_LONG;
+			if (valueClass == Boolean.class)
+				return BOOLEAN_TO_LONG;
+			if (valueClass == String.class)
+				return STRING_TO_LONG;
+			return null;
+		case Types.FLOAT:
+		case Types.REAL:
+		case Types.DOUBLE:
+		case Types.DECIMAL:
+		case Types.NUMERIC:
+			if (Number.class.isAssignableFrom(valueClass))
+				return NUMBER_TO_DOUBLE;
+			if (valueClass == String.class)
+				return STRING_TO_DOUBLE;
+			return null;
+		case Types.CHAR:
+		case Types.VARCHAR:
+		case Types.LONGVARCHAR:
+		case Types.NCHAR:
+		case Types.NVARCHAR:
+		case Types.LONGNVARCHAR:
+			if (valueClass == char[].class)
+				return CHARS;
+			if (valueClass == byte[].class)
+				return null;
+			return TO_STRING;
+		case Types.BINARY:
+		case Types.VARBINARY:
+		case Types.LONGVARBINARY:
+			if (valueClass == byte[].class)
+				return BYTES;
+			if (valueClass == String.class)
+				return STRING_TO_BYTES;
+			return null;
+		default:
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,323 @@
+package nl.topicus.jdbc.statement;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.StructReader;
+import com.google.cloud.spanner.TransactionContext;
+import com.google.cloud.spanner.TransactionRunner.TransactionCallable;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.ValueBinder;
+
+/**
+ * Executes DML statements that affect a set of rows that is determined by a
+ * query. For UPDATE and DELETE statements with an arbitrary WHERE clause the
+ * query streams the primary keys of the rows that match the WHERE clause, and
+ * each key is turned into an update or delete mutation. For INSERT ... SELECT
+ * statements the query is the SELECT of the statement, and each row is turned
+ * into an insert mutation. The mutations are either buffered in a (running or
+ * new) read/write transaction, or committed in bounded chunks in parallel
+ * with the query.
+ *
+ * @author loite
+ *
+ */
+class PipelinedDMLExecutor
+{
+	/**
+	 * Creates a mutation for a row returned by the query
+	 */
+	interface RowMutationFactory
+	{
+		Mutation createMutation(StructReader row);
+	}
+
+	/**
+	 * The maximum number of mutated cells that Google Cloud Spanner allows in
+	 * one commit
+	 */
+	private static final int MAX_CELLS_PER_COMMIT = 20000;
+
+	private static final int MAX_ROWS_PER_CHUNK = 1000;
+
+	private static final int MAX_PARALLEL_COMMITS = 4;
+
+	/**
+	 * Commits the chunks of all executors. The number of parallel commits is
+	 * bounded per execution.
+	 */
+	private static final ExecutorService COMMITTERS = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "cloudspanner-dml-commit");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Statement query;
+
+	private final RowMutationFactory factory;
+
+	private final int chunkSize;
+
+	/**
+	 *
+	 * @param query
+	 *            Query that returns the primary key of each row that should be
+	 *            updated or deleted, or the rows that should be inserted
+	 * @param factory
+	 *            The factory that creates a mutation for each row of the query
+	 * @param cellsPerRow
+	 *            The number of cells that are mutated per row
+	 */
+	PipelinedDMLExecutor(Statement query, RowMutationFactory factory, int cellsPerRow)
+	{
+		this.query = query;
+		this.factory = factory;
+		this.chunkSize = Math.max(1, Math.min(MAX_ROWS_PER_CHUNK, MAX_CELLS_PER_COMMIT / Math.max(1, cellsPerRow)));
+	}
+
+	/**
+	 * Executes the query and buffers the mutations in the given transaction.
+	 *
+	 * @return The number of affected rows
+	 */
+	long executeInTransaction(TransactionContext transaction)
+	{
+		long count = 0;
+		try (ResultSet rs = transaction.executeQuery(query))
+		{
+			while (rs.next())
+			{
+				transaction.buffer(factory.createMutation(rs));
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Executes the query and buffers the mutations in a new read/write
+	 * transaction. All rows are inserted, updated or deleted atomically.
+	 *
+	 * @return The number of affected rows
+	 */
+	long executeInNewTransaction(DatabaseClient dbClient)
+	{
+		return dbClient.readWriteTransaction().run(new TransactionCallable<Long>()
+		{
+
+			@Override
+			public Long run(TransactionContext transaction) throws Exception
+			{
+				return executeInTransaction(transaction);
+			}
+		});
+	}
+
+	/**
+	 * Streams the query and commits the mutations in chunks. The chunks are
+	 * committed in parallel with the query. The number of chunks that may be
+	 * waiting or committing at the same time is bounded, which causes the
+	 * query to wait when the commits cannot keep up. The rows are not
+	 * inserted, updated or deleted atomically.
+	 *
+	 * @return The number of affected rows
+	 * @throws SQLException
+	 *             If one of the chunks could not be committed
+	 */
+	long executeChunked(DatabaseClient dbClient) throws SQLException
+	{
+		Semaphore permits = new Semaphore(MAX_PARALLEL_COMMITS);
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		List<Future<?>> futures = new ArrayList<>();
+		long count = 0;
+		try (ReadContext context = dbClient.singleUse(); ResultSet rs = context.executeQuery(query))
+		{
+			List<Mutation> chunk = new ArrayList<>(chunkSize);
+			while (error.get() == null && rs.next())
+			{
+				chunk.add(factory.createMutation(rs));
+				count++;
+				if (chunk.size() >= chunkSize)
+				{
+					futures.add(commit(dbClient, permits, error, chunk));
+					chunk = new ArrayList<>(chunkSize);
+				}
+			}
+			if (!chunk.isEmpty() && error.get() == null)
+			{
+				futures.add(commit(dbClient, permits, error, chunk));
+			}
+			for (Future<?> future : futures)
+			{
+				future.get();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for commit", e);
+		}
+		catch (ExecutionException e)
+		{
+			throw new SQLException("Could not commit mutations: " + e.getCause().getMessage(), e.getCause());
+		}
+		if (error.get() != null)
+		{
+			throw new SQLException("Could not commit mutations: " + error.get().getMessage(), error.get());
+		}
+		return count;
+	}
+
+	private static Future<?> commit(DatabaseClient dbClient, Semaphore permits, AtomicReference<Throwable> error,
+			List<Mutation> chunk) throws InterruptedException
+	{
+		permits.acquire();
+		return COMMITTERS.submit(() -> {
+			try
+			{
+				dbClient.write(chunk);
+			}
+			catch (RuntimeException e)
+			{
+				error.compareAndSet(null, e);
+				throw e;
+			}
+			finally
+			{
+				permits.release();
+			}
+		});
+	}
+
+	/**
+	 * Creates a key from the first columns of a row
+	 *
+	 * @param row
+	 *            The row to get the key values from
+	 * @param numberOfColumns
+	 *            The number of key columns
+	 * @return The key
+	 */
+	static Key createKey(StructReader row, int numberOfColumns)
+	{
+		Key.Builder builder = Key.newBuilder();
+		for (int index = 0; index < numberOfColumns; index++)
+		{
+			builder.appendObject(getValue(row, index));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Binds the value of a column of a row to a value binder
+	 */
+	static void bindValue(ValueBinder<?> binder, StructReader row, int index)
+	{
+		boolean isNull = row.isNull(index);
+		Type type = row.getColumnType(index);
+		switch (type.getCode())
+		{
+		case BOOL:
+			binder.to(isNull ? null : Boolean.valueOf(row.getBoolean(index)));
+			break;
+		case INT64:
+			binder.to(isNull ? null : Long.valueOf(row.getLong(index)));
+			break;
+		case FLOAT64:
+			binder.to(isNull ? null : Double.valueOf(row.getDouble(index)));
+			break;
+		case STRING:
+			binder.to(isNull ? null : row.getString(index));
+			break;
+		case BYTES:
+			binder.to(isNull ? null : row.getBytes(index));
+			break;
+		case TIMESTAMP:
+			binder.to(isNull ? null : row.getTimestamp(index));
+			break;
+		case DATE:
+			binder.to(isNull ? null : row.getDate(index));
+			break;
+		case ARRAY:
+			bindArray(binder, row, index, isNull);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported column type: " + type);
+		}
+	}
+
+	private static void bindArray(ValueBinder<?> binder, StructReader row, int index, boolean isNull)
+	{
+		Type elementType = row.getColumnType(index).getArrayElementType();
+		switch (elementType.getCode())
+		{
+		case BOOL:
+			binder.toBoolArray(isNull ? null : row.getBooleanList(index));
+			break;
+		case INT64:
+			binder.toInt64Array(isNull ? null : row.getLongList(index));
+			break;
+		case FLOAT64:
+			binder.toFloat64Array(isNull ? null : row.getDoubleList(index));
+			break;
+		case STRING:
+			binder.toStringArray(isNull ? null : row.getStringList(index));
+			break;
+		case BYTES:
+			binder.toBytesArray(isNull ? null : row.getBytesList(index));
+			break;
+		case TIMESTAMP:
+			binder.toTimestampArray(isNull ? null : row.getTimestampList(index));
+			break;
+		case DATE:
+			binder.toDateArray(isNull ? null : row.getDateList(index));
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported array element type: " + elementType);
+		}
+	}
+
+	/**
+	 * Returns the value of a column of a row as an object that can be used in
+	 * a {@link Key}
+	 */
+	static Object getValue(StructReader row, int index)
+	{
+		if (row.isNull(index))
+			return null;
+		Type type = row.getColumnType(index);
+		switch (type.getCode())
+		{
+		case BOOL:
+			return row.getBoolean(index);
+		case INT64:
+			return row.getLong(index);
+		case FLOAT64:
+			return row.getDouble(index);
+		case STRING:
+			return row.getString(index);
+		case BYTES:
+			return row.getBytes(index);
+		case TIMESTAMP:
+			return row.getTimestamp(index);
+		case DATE:
+			return row.getDate(index);
+		default:
+			throw new IllegalArgumentException("Unsupported key column type: " + type);
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package nl.topicus.jdbc.statement;
+
+import java.util.List;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.ResultSet;
+
+/**
+ * A SELECT statement that selects at most one row of a table by its full
+ * primary key or by the full key of a unique index. Such a statement is
+ * executed with the read API instead of as a SQL query, which skips query
+ * planning.
+ *
+ * @author loite
+ *
+ */
+class PointLookup
+{
+	private final String table;
+
+	/**
+	 * The unique index to read from, or null if the row is read by its primary
+	 * key
+	 */
+	private final String index;
+
+	private final List<String> columns;
+
+	private final Key key;
+
+	/**
+	 * The positions of the key columns in {@link #columns}, or null if not all
+	 * key columns are selected
+	 */
+	private final int[] keyIndexes;
+
+	/**
+	 * 
+	 * @param table
+	 *            The table to read from
+	 * @param index
+	 *            The unique index to read from, or null to read by primary key
+	 * @param columns
+	 *            The columns to select
+	 * @param keyColumns
+	 *            The key columns of the primary key or the index
+	 * @param key
+	 *            The key of the row to select
+	 */
+	PointLookup(String table, String index, List<String> columns, List<String> keyColumns, Key key)
+	{
+		this.table = table;
+		this.index = index;
+		this.columns = columns;
+		this.key = key;
+		this.keyIndexes = findKeyIndexes(columns, keyColumns);
+	}
+
+	private static int[] findKeyIndexes(List<String> columns, List<String> keyColumns)
+	{
+		int[] res = new int[keyColumns.size()];
+		for (int keyIndex = 0; keyIndex < res.length; keyIndex++)
+		{
+			res[keyIndex] = -1;
+			for (int column = 0; column < columns.size(); column++)
+			{
+				if (columns.get(column).equalsIgnoreCase(keyColumns.get(keyIndex)))
+				{
+					res[keyIndex] = column;
+					break;
+				}
+			}
+			if (res[keyIndex] == -1)
+				return null;
+		}
+		return res;
+	}
+
+	String getTable()
+	{
+		return table;
+	}
+
+	String getIndex()
+	{
+		return index;
+	}
+
+	List<String> getColumns()
+	{
+		return columns;
+	}
+
+	Key getKey()
+	{
+		return key;
+	}
+
+	int[] getKeyIndexes()
+	{
+		return keyIndexes;
+	}
+
+	ResultSet execute(ReadContext context)
+	{
+		if (index == null)
+			return context.read(table, KeySet.singleKey(key), columns);
+		return context.readUsingIndex(table, index, KeySet.singleKey(key), columns);
+	}
+
+}
@@ -0,0 +1,265 @@
+package nl.topicus.jdbc.statement;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import nl.topicus.jdbc.resultset.StructListResultSet;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+
+/**
+ * Coalesces point lookups from different threads into multi-key reads. Point
+ * lookups on the same table, index and columns that arrive within a short
+ * window are executed as one read with a {@link KeySet} that contains all
+ * requested keys. The first lookup of a batch waits for the window to pass and
+ * then executes the read on behalf of all lookups in the batch. The rows are
+ * handed back to the waiting lookups by their key.
+ *
+ * One coalescer is used for all connections to the same database.
+ *
+ * @author loite
+ *
+ */
+class PointLookupCoalescer
+{
+	private static final Map<String, PointLookupCoalescer> COALESCERS = new ConcurrentHashMap<>();
+
+	/**
+	 * The time that the first lookup of a batch waits for other lookups
+	 */
+	private static final long WINDOW_NANOS = TimeUnit.MICROSECONDS.toNanos(500L);
+
+	/**
+	 * The maximum number of keys in one read. A batch that reaches this size
+	 * is executed immediately.
+	 */
+	private static final int MAX_BATCH_SIZE = 200;
+
+	/**
+	 * The batches that are currently accepting lookups, keyed by table, index
+	 * and columns
+	 */
+	private final Map<String, Batch> batches = new HashMap<>();
+
+	private PointLookupCoalescer()
+	{
+	}
+
+	/**
+	 * @param database
+	 *            A string that identifies the database, such as the connection
+	 *            URL
+	 * @return The coalescer for the database
+	 */
+	static PointLookupCoalescer getInstance(String database)
+	{
+		return COALESCERS.computeIfAbsent(database, key -> new PointLookupCoalescer());
+	}
+
+	/**
+	 * Checks whether a point lookup can be coalesced. This is only possible if
+	 * the key columns of the lookup are included in the selected columns, as
+	 * these are needed to hand the rows back to the right lookup.
+	 */
+	static boolean canCoalesce(PointLookup lookup)
+	{
+		return lookup.getKeyIndexes() != null;
+	}
+
+	/**
+	 * A group of lookups that is executed as one read
+	 */
+	private static final class Batch
+	{
+		private final PointLookup template;
+
+		private final Map<List<Object>, Key> keys = new HashMap<>();
+
+		private final Map<List<Object>, CompletableFuture<Struct>> results = new HashMap<>();
+
+		private final CompletableFuture<Type> type = new CompletableFuture<>();
+
+		private boolean closed;
+
+		private Batch(PointLookup template)
+		{
+			this.template = template;
+		}
+
+		private CompletableFuture<Struct> add(Key key)
+		{
+			List<Object> normalized = normalize(key.getParts());
+			keys.putIfAbsent(normalized, key);
+			return results.computeIfAbsent(normalized, k -> new CompletableFuture<>());
+		}
+
+		private void execute(DatabaseClient dbClient)
+		{
+			try
+			{
+				KeySet.Builder keySet = KeySet.newBuilder();
+				for (Key key : keys.values())
+				{
+					keySet.addKey(key);
+				}
+				try (ReadContext context = dbClient.singleUse();
+						ResultSet rs = template.getIndex() == null ? context.read(template.getTable(),
+								keySet.build(), template.getColumns()) : context.readUsingIndex(
+								template.getTable(), template.getIndex(), keySet.build(), template.getColumns()))
+				{
+					while (rs.next())
+					{
+						List<Object> key = new ArrayList<>(template.getKeyIndexes().length);
+						for (int index : template.getKeyIndexes())
+						{
+							key.add(PipelinedDMLExecutor.getValue(rs, index));
+						}
+						CompletableFuture<Struct> result = results.get(normalize(key));
+						if (result != null)
+							result.complete(rs.getCurrentRowAsStruct());
+					}
+					type.complete(rs.getType());
+				}
+				for (CompletableFuture<Struct> result : results.values())
+				{
+					result.complete(null);
+				}
+			}
+			catch (Throwable t)
+			{
+				// The other lookups of the batch wait for these futures, also
+				// when the read failed with an Error
+				type.completeExceptionally(t);
+				for (CompletableFuture<Struct> result : results.values())
+				{
+					result.completeExceptionally(t);
+				}
+				if (t instanceof Error)
+					throw (Error) t;
+			}
+		}
+
+		/**
+		 * Normalizes the values of a key so that a key that was built from
+		 * parameter values is equal to the same key that was read from the
+		 * database
+		 */
+		private static List<Object> normalize(Iterable<Object> parts)
+		{
+			List<Object> res = new ArrayList<>();
+			for (Object part : parts)
+			{
+				if (part instanceof Double || part instanceof Float)
+					res.add(BigDecimal.valueOf(((Number) part).doubleValue()).stripTrailingZeros());
+				else if (part instanceof Number)
+					res.add(BigDecimal.valueOf(((Number) part).longValue()).stripTrailingZeros());
+				else
+					res.add(part);
+			}
+			return res;
+		}
+	}
+
+	/**
+	 * Executes a point lookup together with other lookups on the same table,
+	 * index and columns
+	 *
+	 * @param dbClient
+	 *            The client to use if this lookup executes the batch
+	 * @param lookup
+	 *            The lookup to execute
+	 * @return A result set containing the row that was found, or no rows
+	 */
+	ResultSet lookup(DatabaseClient dbClient, PointLookup lookup)
+	{
+		String batchKey = lookup.getTable() + "/" + lookup.getIndex() + "/" + lookup.getColumns();
+		Batch batch;
+		CompletableFuture<Struct> result;
+		boolean leader = false;
+		boolean full = false;
+		synchronized (batches)
+		{
+			batch = batches.get(batchKey);
+			if (batch == null)
+			{
+				batch = new Batch(lookup);
+				batches.put(batchKey, batch);
+				leader = true;
+			}
+			result = batch.add(lookup.getKey());
+			if (batch.keys.size() >= MAX_BATCH_SIZE)
+			{
+				batches.remove(batchKey);
+				batch.closed = true;
+				full = true;
+			}
+		}
+		if (full)
+		{
+			batch.execute(dbClient);
+		}
+		else if (leader)
+		{
+			long deadline = System.nanoTime() + WINDOW_NANOS;
+			long remaining;
+			while ((remaining = deadline - System.nanoTime()) > 0L)
+			{
+				try
+				{
+					TimeUnit.NANOSECONDS.sleep(remaining);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			boolean execute = false;
+			synchronized (batches)
+			{
+				if (!batch.closed)
+				{
+					batches.remove(batchKey, batch);
+					batch.closed = true;
+					execute = true;
+				}
+			}
+			if (execute)
+				batch.execute(dbClient);
+		}
+		try
+		{
+			Struct row = result.get();
+			Type type = batch.type.get();
+			return new StructListResultSet(type, row == null ? Collections.<Struct> emptyList()
+					: Collections.singletonList(row));
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for point lookup", e);
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof SpannerException)
+				throw (SpannerException) e.getCause();
+			throw new IllegalStateException("Point lookup failed: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+}
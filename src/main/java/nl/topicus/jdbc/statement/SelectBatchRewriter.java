@@ -0,0 +1,171 @@
+package nl.topicus.jdbc.statement;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.SelectBody;
+import net.sf.jsqlparser.statement.select.SelectExpressionItem;
+import net.sf.jsqlparser.statement.select.SelectItem;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Value;
+
+/**
+ * Combines a batch of SELECT statements into one query. The SELECT statements
+ * are combined with UNION ALL, and each row is prefixed with a
+ * {@link CloudSpannerPreparedStatement#BATCH_ORDINAL_COLUMN} column that
+ * contains the index of the statement in the batch that returned the row. The
+ * rows are ordered by this column, and then by the ORDER BY clause of the
+ * SELECT statement.
+ *
+ * @author loite
+ *
+ */
+class SelectBatchRewriter
+{
+	/**
+	 * See {@link CloudSpannerPreparedStatement#BATCH_ORDINAL_COLUMN}
+	 */
+	static final String BATCH_ORDINAL_COLUMN = "BATCH_ORDINAL";
+
+	private SelectBatchRewriter()
+	{
+	}
+
+	/**
+	 * Creates the query that executes a batch of SELECT statements
+	 *
+	 * @param selects
+	 *            The SELECT statements of the batch with their parameters.
+	 *            The parameter names must be unique within the batch.
+	 * @param orderBy
+	 *            The ORDER BY items of the SELECT statement, as returned by
+	 *            {@link #getOrderBy(SelectBody)}
+	 * @return The query that returns the rows of all statements of the batch
+	 */
+	static Statement rewrite(List<Statement> selects, String orderBy)
+	{
+		StringBuilder batchSql = new StringBuilder();
+		for (int index = 0; index < selects.size(); index++)
+		{
+			if (index > 0)
+				batchSql.append(" UNION ALL ");
+			batchSql.append("SELECT ").append(index).append(" AS ").append(BATCH_ORDINAL_COLUMN)
+					.append(", BATCH_ROW.* FROM (").append(selects.get(index).getSql()).append(") AS BATCH_ROW");
+		}
+		batchSql.append(" ORDER BY ").append(BATCH_ORDINAL_COLUMN).append(orderBy);
+		Statement.Builder builder = Statement.newBuilder(batchSql.toString());
+		for (Statement select : selects)
+		{
+			for (Map.Entry<String, Value> parameter : select.getParameters().entrySet())
+			{
+				builder.bind(parameter.getKey()).to(parameter.getValue());
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * The order of the rows of a subquery is not preserved by the query that
+	 * executes a batch of SELECT statements. The ORDER BY clause of the
+	 * SELECT statement is therefore repeated in the outer query, which is
+	 * only possible if it only refers to columns of the result by name or by
+	 * position.
+	 *
+	 * @return The ORDER BY items to append to the ORDER BY clause of the
+	 *         query that executes the batch, starting with a comma, or an
+	 *         empty string if the statement has no ORDER BY clause
+	 * @throws SQLFeatureNotSupportedException
+	 *             if the ORDER BY clause refers to something else than a
+	 *             column of the result
+	 */
+	static String getOrderBy(SelectBody body) throws SQLException
+	{
+		List<OrderByElement> orderBy;
+		List<SelectItem> selectItems = null;
+		if (body instanceof PlainSelect)
+		{
+			orderBy = ((PlainSelect) body).getOrderByElements();
+			selectItems = ((PlainSelect) body).getSelectItems();
+		}
+		else if (body instanceof SetOperationList)
+		{
+			// The ORDER BY clause of a set operation can only refer to the
+			// columns of the result. The parser adds it to the last SELECT
+			// statement if that statement is not between brackets.
+			SetOperationList setOperation = (SetOperationList) body;
+			orderBy = setOperation.getOrderByElements();
+			int last = setOperation.getSelects().size() - 1;
+			if (orderBy == null && !setOperation.getBrackets().get(last)
+					&& setOperation.getSelects().get(last) instanceof PlainSelect)
+				orderBy = ((PlainSelect) setOperation.getSelects().get(last)).getOrderByElements();
+		}
+		else
+		{
+			return "";
+		}
+		if (orderBy == null)
+			return "";
+		StringBuilder res = new StringBuilder();
+		for (OrderByElement element : orderBy)
+		{
+			res.append(", ");
+			Expression expression = element.getExpression();
+			if (expression instanceof LongValue)
+			{
+				// The result of the batch starts with the batch ordinal column
+				res.append(((LongValue) expression).getValue() + 1L);
+			}
+			else if (expression instanceof Column
+					&& (selectItems == null || isResultColumn(selectItems, ((Column) expression).getColumnName())))
+			{
+				res.append(((Column) expression).getColumnName());
+			}
+			else
+			{
+				throw new SQLFeatureNotSupportedException(
+						"SELECT statements in a batch may only be ordered by selected columns: " + expression);
+			}
+			if (!element.isAsc())
+				res.append(" DESC");
+		}
+		return res.toString();
+	}
+
+	/**
+	 * @return true if the given name is the name of a column in the result
+	 *         of a query with the given select list
+	 */
+	private static boolean isResultColumn(List<SelectItem> selectItems, String name)
+	{
+		for (SelectItem item : selectItems)
+		{
+			if (!(item instanceof SelectExpressionItem))
+			{
+				// All columns of one or more tables are selected
+				return true;
+			}
+			SelectExpressionItem expressionItem = (SelectExpressionItem) item;
+			if (expressionItem.getAlias() != null)
+			{
+				if (name.equalsIgnoreCase(expressionItem.getAlias().getName()))
+					return true;
+			}
+			else if (expressionItem.getExpression() instanceof Column
+					&& name.equalsIgnoreCase(((Column) expressionItem.getExpression()).getColumnName()))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,234 @@
+package nl.topicus.jdbc.statement;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.cloud.spanner.Mutation;
+
+/**
+ * Recognizes upsert statements and rewrites them to plain INSERT statements
+ * that can be parsed by the SQL parser. The type of upsert determines the
+ * mutation operation that should be used for the rows of the statement. The
+ * following statements are recognized:
+ * <ul>
+ * <li>INSERT OR UPDATE INTO ... : insertOrUpdate</li>
+ * <li>INSERT ... ON DUPLICATE KEY UPDATE COL=VALUES(COL), ... :
+ * insertOrUpdate, if all inserted non-key columns are assigned</li>
+ * <li>MERGE INTO TABLE (COLUMNS) [KEY (COLUMNS)] VALUES ... :
+ * insertOrUpdate</li>
+ * <li>REPLACE INTO ... and INSERT OR REPLACE INTO ... : replace</li>
+ * </ul>
+ *
+ * @author loite
+ *
+ */
+class UpsertSqlRewriter
+{
+	private static final Pattern INSERT_OR_UPDATE = Pattern.compile("^\\s*INSERT\\s+OR\\s+UPDATE\\s+INTO\\s",
+			Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern INSERT_OR_REPLACE = Pattern.compile("^\\s*INSERT\\s+OR\\s+REPLACE\\s+INTO\\s",
+			Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern REPLACE = Pattern.compile("^\\s*REPLACE\\s+INTO\\s", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern MERGE = Pattern.compile("^\\s*MERGE\\s+INTO\\s", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern MERGE_USING = Pattern.compile("\\bUSING\\b", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern MERGE_KEY = Pattern.compile("\\bKEY\\s*\\([^)]*\\)(?=\\s*(VALUES|SELECT)\\b)",
+			Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern ON_DUPLICATE_KEY_UPDATE = Pattern.compile(
+			"\\bON\\s+DUPLICATE\\s+KEY\\s+UPDATE\\b", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern VALUES_ASSIGNMENT = Pattern.compile(
+			"^\\s*`?(\\w+)`?\\s*=\\s*VALUES\\s*\\(\\s*`?(\\w+)`?\\s*\\)\\s*$", Pattern.CASE_INSENSITIVE);
+
+	private static final String INSERT_INTO = "INSERT INTO ";
+
+	/**
+	 * The result of rewriting a SQL statement
+	 */
+	static final class Result
+	{
+		private final String sql;
+
+		private final Mutation.Op operation;
+
+		private final List<String> updatedColumns;
+
+		private Result(String sql, Mutation.Op operation)
+		{
+			this(sql, operation, null);
+		}
+
+		private Result(String sql, Mutation.Op operation, List<String> updatedColumns)
+		{
+			this.sql = sql;
+			this.operation = operation;
+			this.updatedColumns = updatedColumns;
+		}
+
+		/**
+		 * @return The SQL statement that should be parsed
+		 */
+		String getSql()
+		{
+			return sql;
+		}
+
+		/**
+		 * @return The mutation operation to use for an INSERT statement
+		 */
+		Mutation.Op getOperation()
+		{
+			return operation;
+		}
+
+		/**
+		 * @return The columns that are assigned in the ON DUPLICATE KEY UPDATE
+		 *         clause of the statement, or null if the statement has no
+		 *         such clause
+		 */
+		List<String> getUpdatedColumns()
+		{
+			return updatedColumns;
+		}
+	}
+
+	private UpsertSqlRewriter()
+	{
+	}
+
+	static Result rewrite(String sql) throws SQLException
+	{
+		Matcher matcher = INSERT_OR_UPDATE.matcher(sql);
+		if (matcher.find())
+		{
+			return new Result(INSERT_INTO + sql.substring(matcher.end()), Mutation.Op.INSERT_OR_UPDATE);
+		}
+		matcher = INSERT_OR_REPLACE.matcher(sql);
+		if (matcher.find())
+		{
+			return new Result(INSERT_INTO + sql.substring(matcher.end()), Mutation.Op.REPLACE);
+		}
+		matcher = REPLACE.matcher(sql);
+		if (matcher.find())
+		{
+			return new Result(INSERT_INTO + sql.substring(matcher.end()), Mutation.Op.REPLACE);
+		}
+		matcher = MERGE.matcher(sql);
+		if (matcher.find())
+		{
+			String rest = sql.substring(matcher.end());
+			if (findOutsideLiterals(MERGE_USING, rest) > -1)
+				throw new SQLFeatureNotSupportedException(
+						"MERGE statements with a USING clause are not supported. Use MERGE INTO TABLE (COLUMNS) VALUES (...) instead.");
+			rest = MERGE_KEY.matcher(rest).replaceFirst("");
+			return new Result(INSERT_INTO + rest, Mutation.Op.INSERT_OR_UPDATE);
+		}
+		int duplicateIndex = findOutsideLiterals(ON_DUPLICATE_KEY_UPDATE, sql);
+		if (duplicateIndex > -1)
+		{
+			Matcher duplicate = ON_DUPLICATE_KEY_UPDATE.matcher(sql);
+			duplicate.find(duplicateIndex);
+			List<String> updatedColumns = getDuplicateKeyAssignments(sql.substring(duplicate.end()));
+			return new Result(sql.substring(0, duplicateIndex), Mutation.Op.INSERT_OR_UPDATE, updatedColumns);
+		}
+		return new Result(sql, Mutation.Op.INSERT);
+	}
+
+	/**
+	 * Google Cloud Spanner writes all inserted values when a row already
+	 * exists. An ON DUPLICATE KEY UPDATE clause can therefore only be mapped
+	 * to an insertOrUpdate mutation if it assigns the inserted value to each
+	 * column (COL=VALUES(COL)).
+	 *
+	 * @return The assigned columns
+	 */
+	private static List<String> getDuplicateKeyAssignments(String assignments) throws SQLException
+	{
+		List<String> res = new ArrayList<>();
+		for (String assignment : assignments.split(","))
+		{
+			Matcher matcher = VALUES_ASSIGNMENT.matcher(assignment);
+			if (!matcher.matches() || !matcher.group(1).equalsIgnoreCase(matcher.group(2)))
+			{
+				throw new SQLFeatureNotSupportedException(
+						"Only assignments in the form COL=VALUES(COL) are supported in an ON DUPLICATE KEY UPDATE clause: "
+								+ assignment.trim());
+			}
+			res.add(matcher.group(1));
+		}
+		return res;
+	}
+
+	/**
+	 * Checks that an ON DUPLICATE KEY UPDATE clause assigns exactly the
+	 * inserted columns that are not part of the primary key. An insertOrUpdate
+	 * mutation overwrites all inserted columns of an existing row, so a clause
+	 * that leaves an inserted column unchanged cannot be mapped to it.
+	 *
+	 * @param updatedColumns
+	 *            The columns that are assigned in the ON DUPLICATE KEY UPDATE
+	 *            clause
+	 * @param insertedColumns
+	 *            The columns of the INSERT statement
+	 * @param keyColumns
+	 *            The primary key columns of the table
+	 * @throws SQLException
+	 *             if the assigned columns differ from the inserted non-key
+	 *             columns
+	 */
+	static void checkDuplicateKeyColumns(List<String> updatedColumns, List<String> insertedColumns,
+			List<String> keyColumns) throws SQLException
+	{
+		Set<String> expected = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		expected.addAll(insertedColumns);
+		expected.removeAll(keyColumns);
+		Set<String> updated = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		updated.addAll(updatedColumns);
+		if (!expected.equals(updated))
+		{
+			throw new SQLFeatureNotSupportedException(
+					"The ON DUPLICATE KEY UPDATE clause must assign all inserted columns that are not part of the primary key, and only those columns. Expected "
+							+ expected + ", found " + updated);
+		}
+	}
+
+	/**
+	 * Finds the first match of the pattern that is not inside a string
+	 * literal
+	 *
+	 * @return The start index of the match, or -1 if there is no match
+	 */
+	private static int findOutsideLiterals(Pattern pattern, String sql)
+	{
+		Matcher matcher = pattern.matcher(sql);
+		while (matcher.find())
+		{
+			if (!isInsideLiteral(sql, matcher.start()))
+				return matcher.start();
+		}
+		return -1;
+	}
+
+	private static boolean isInsideLiteral(String sql, int index)
+	{
+		boolean inString = false;
+		for (int i = 0; i < index; i++)
+		{
+			if (sql.charAt(i) == '\'')
+				inString = !inString;
+		}
+		return inString;
+	}
+
+}
@@ -0,0 +1,160 @@
+package nl.topicus.jdbc.statement;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.sf.jsqlparser.expression.DateValue;
+import net.sf.jsqlparser.expression.DoubleValue;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.HexValue;
+import net.sf.jsqlparser.expression.JdbcParameter;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.NullValue;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.SignedExpression;
+import net.sf.jsqlparser.expression.StringValue;
+import net.sf.jsqlparser.expression.TimeValue;
+import net.sf.jsqlparser.expression.TimestampValue;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.util.deparser.ExpressionDeParser;
+import net.sf.jsqlparser.util.deparser.SelectDeParser;
+
+/**
+ * Utility methods for analyzing the WHERE clause of UPDATE and DELETE
+ * statements.
+ *
+ * @author loite
+ *
+ */
+class WhereClauseAnalyzer
+{
+
+	private WhereClauseAnalyzer()
+	{
+	}
+
+	/**
+	 * Checks whether the expression is a value that can be set directly on a
+	 * mutation, i.e. a literal or a JDBC parameter.
+	 */
+	static boolean isValue(Expression expression)
+	{
+		if (expression instanceof SignedExpression)
+		{
+			Expression underlying = ((SignedExpression) expression).getExpression();
+			return underlying instanceof LongValue || underlying instanceof DoubleValue;
+		}
+		if (expression instanceof Column)
+		{
+			// Booleans are not recognized by the parser, but are seen as
+			// column names
+			String name = ((Column) expression).getColumnName();
+			return "true".equalsIgnoreCase(name) || "false".equalsIgnoreCase(name);
+		}
+		return expression instanceof JdbcParameter || expression instanceof LongValue
+				|| expression instanceof DoubleValue || expression instanceof StringValue
+				|| expression instanceof DateValue || expression instanceof TimeValue
+				|| expression instanceof TimestampValue || expression instanceof NullValue
+				|| expression instanceof HexValue;
+	}
+
+	/**
+	 * Collects the column = value comparisons of a WHERE clause that consists
+	 * only of such comparisons combined with AND.
+	 *
+	 * @param where
+	 *            The WHERE clause to analyze
+	 * @param equalities
+	 *            The map to add the comparisons to, keyed by column name
+	 * @return true if the WHERE clause only contains column = value
+	 *         comparisons combined with AND, and no column is compared more
+	 *         than once
+	 */
+	static boolean collectEqualities(Expression where, Map<String, Expression> equalities)
+	{
+		if (where instanceof Parenthesis)
+		{
+			return !((Parenthesis) where).isNot()
+					&& collectEqualities(((Parenthesis) where).getExpression(), equalities);
+		}
+		if (where instanceof AndExpression)
+		{
+			AndExpression and = (AndExpression) where;
+			return !and.isNot() && collectEqualities(and.getLeftExpression(), equalities)
+					&& collectEqualities(and.getRightExpression(), equalities);
+		}
+		if (where instanceof EqualsTo)
+		{
+			EqualsTo equals = (EqualsTo) where;
+			if (equals.isNot())
+				return false;
+			if (isColumn(equals.getLeftExpression()) && isValue(equals.getRightExpression()))
+			{
+				return equalities.putIfAbsent(getColumnName(equals.getLeftExpression()), equals.getRightExpression()) == null;
+			}
+			if (isColumn(equals.getRightExpression()) && isValue(equals.getLeftExpression()))
+			{
+				return equalities.putIfAbsent(getColumnName(equals.getRightExpression()), equals.getLeftExpression()) == null;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the WHERE clause specifies exactly one row by an equality
+	 * comparison on each primary key column.
+	 */
+	static boolean isPrimaryKeyEquality(Expression where, List<String> keyColumns)
+	{
+		if (keyColumns.isEmpty())
+			return false;
+		Map<String, Expression> equalities = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		if (!collectEqualities(where, equalities) || equalities.size() != keyColumns.size())
+			return false;
+		for (String keyColumn : keyColumns)
+		{
+			if (!equalities.containsKey(keyColumn))
+				return false;
+		}
+		return true;
+	}
+
+	static boolean isColumn(Expression expression)
+	{
+		return expression instanceof Column && !isValue(expression);
+	}
+
+	static String getColumnName(Expression column)
+	{
+		String name = ((Column) column).getColumnName();
+		if (name.length() > 1 && name.charAt(0) == '`' && name.charAt(name.length() - 1) == '`')
+			name = name.substring(1, name.length() - 1);
+		return name;
+	}
+
+	/**
+	 * Converts an expression to SQL where each JDBC parameter is replaced by a
+	 * named parameter &#64;p&lt;index&gt;.
+	 */
+	static String toNamedParameterSql(Expression expression)
+	{
+		StringBuilder buffer = new StringBuilder();
+		SelectDeParser selectDeParser = new SelectDeParser();
+		selectDeParser.setBuffer(buffer);
+		ExpressionDeParser expressionDeParser = new ExpressionDeParser(selectDeParser, buffer)
+		{
+			@Override
+			public void visit(JdbcParameter parameter)
+			{
+				getBuffer().append("@p").append(parameter.getIndex());
+			}
+		};
+		selectDeParser.setExpressionVisitor(expressionDeParser);
+		expression.accept(expressionDeParser);
+		return buffer.toString();
+	}
+
+}
@@ -1,130 +1,168 @@
-package nl.topicus.jdbc.transaction;
-
-import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-
-import com.google.cloud.spanner.DatabaseClient;
-import com.google.cloud.spanner.Mutation;
-import com.google.cloud.spanner.ResultSet;
-import com.google.cloud.spanner.Statement;
-import com.google.cloud.spanner.TransactionContext;
-import com.google.cloud.spanner.TransactionRunner;
-import com.google.cloud.spanner.TransactionRunner.TransactionCallable;
-
-class TransactionThread extends Thread
-{
-	private DatabaseClient dbClient;
-
-	private boolean stop;
-
-	private boolean stopped;
-
-	private boolean commit;
-
-	private List<Mutation> mutations = new ArrayList<>(40);
-
-	private BlockingQueue<Statement> statements = new LinkedBlockingQueue<>();
-
-	private BlockingQueue<ResultSet> resultSets = new LinkedBlockingQueue<>();
-
-	TransactionThread(DatabaseClient dbClient)
-	{
-		this.dbClient = dbClient;
-		setDaemon(true);
-	}
-
-	@Override
-	public void run()
-	{
-		TransactionRunner runner = dbClient.readWriteTransaction();
-		runner.run(new TransactionCallable<Void>()
-		{
-
-			@Override
-			public Void run(TransactionContext transaction) throws Exception
-			{
-				while (!stop)
-				{
-					try
-					{
-						Statement statement = statements.take();
-						if (!(statement.getSql().equals("commit") || statement.getSql().equals("rollback")))
-						{
-							resultSets.put(transaction.executeQuery(statement));
-						}
-					}
-					catch (InterruptedException e)
-					{
-						System.err.println("Transaction interrupted while waiting for statement");
-					}
-				}
-
-				if (commit)
-				{
-					transaction.buffer(mutations);
-				}
-				stopped = true;
-				transaction.close();
-				return null;
-			}
-		});
-	}
-
-	ResultSet executeQuery(Statement statement)
-	{
-		try
-		{
-			statements.put(statement);
-			return resultSets.take();
-		}
-		catch (InterruptedException e)
-		{
-			throw new RuntimeException("Query execution interrupted", e);
-		}
-	}
-
-	void buffer(Mutation mutation)
-	{
-		mutations.add(mutation);
-	}
-
-	void buffer(Iterable<Mutation> mutations)
-	{
-		Iterator<Mutation> it = mutations.iterator();
-		while (it.hasNext())
-			buffer(it.next());
-	}
-
-	void commit() throws SQLException
-	{
-		stopTransaction(true);
-	}
-
-	void rollback() throws SQLException
-	{
-		stopTransaction(false);
-	}
-
-	private void stopTransaction(boolean commit) throws SQLException
-	{
-		this.commit = commit;
-		stop = true;
-		// Add a null object in order to get the transaction thread to proceed
-		statements.add(Statement.of(commit ? "commit" : "rollback"));
-		while (!stopped)
-		{
-			try
-			{
-				Thread.sleep(0, 5);
-			}
-			catch (InterruptedException e)
-			{
-			}
-		}
-	}
-
-}
+package nl.topicus.jdbc.transaction;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.Options.ReadOption;
+import com.google.cloud.spanner.ReadContext.QueryAnalyzeMode;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.TransactionContext;
+import com.google.cloud.spanner.TransactionRunner;
+import com.google.cloud.spanner.TransactionRunner.TransactionCallable;
+
+class TransactionThread extends Thread
+{
+	/**
+	 * An operation that is executed by the transaction thread on the
+	 * read/write transaction
+	 */
+	private interface TransactionOperation
+	{
+		ResultSet execute(TransactionContext transaction);
+	}
+
+	/**
+	 * Operation that signals the transaction thread to stop
+	 */
+	private static final TransactionOperation STOP = transaction -> null;
+
+	private DatabaseClient dbClient;
+
+	private boolean stop;
+
+	private boolean stopped;
+
+	private boolean commit;
+
+	private List<Mutation> mutations = new ArrayList<>(40);
+
+	private BlockingQueue<TransactionOperation> operations = new LinkedBlockingQueue<>();
+
+	private BlockingQueue<ResultSet> resultSets = new LinkedBlockingQueue<>();
+
+	TransactionThread(DatabaseClient dbClient)
+	{
+		this.dbClient = dbClient;
+		setDaemon(true);
+	}
+
+	@Override
+	public void run()
+	{
+		TransactionRunner runner = dbClient.readWriteTransaction();
+		runner.run(new TransactionCallable<Void>()
+		{
+
+			@Override
+			public Void run(TransactionContext transaction) throws Exception
+			{
+				while (!stop)
+				{
+					try
+					{
+						TransactionOperation operation = operations.take();
+						if (operation != STOP)
+						{
+							resultSets.put(operation.execute(transaction));
+						}
+					}
+					catch (InterruptedException e)
+					{
+						System.err.println("Transaction interrupted while waiting for operation");
+					}
+				}
+
+				if (commit)
+				{
+					transaction.buffer(mutations);
+				}
+				stopped = true;
+				transaction.close();
+				return null;
+			}
+		});
+	}
+
+	ResultSet executeQuery(Statement statement)
+	{
+		return execute(transaction -> transaction.executeQuery(statement));
+	}
+
+	ResultSet analyzeQuery(Statement statement, QueryAnalyzeMode queryMode)
+	{
+		return execute(transaction -> transaction.analyzeQuery(statement, queryMode));
+	}
+
+	ResultSet read(String table, KeySet keys, Iterable<String> columns, ReadOption... options)
+	{
+		return execute(transaction -> transaction.read(table, keys, columns, options));
+	}
+
+	ResultSet readUsingIndex(String table, String index, KeySet keys, Iterable<String> columns, ReadOption... options)
+	{
+		return execute(transaction -> transaction.readUsingIndex(table, index, keys, columns, options));
+	}
+
+	private ResultSet execute(TransactionOperation operation)
+	{
+		try
+		{
+			operations.put(operation);
+			return resultSets.take();
+		}
+		catch (InterruptedException e)
+		{
+			throw new RuntimeException("Query execution interrupted", e);
+		}
+	}
+
+	void buffer(Mutation mutation)
+	{
+		mutations.add(mutation);
+	}
+
+	void buffer(Iterable<Mutation> mutations)
+	{
+		Iterator<Mutation> it = mutations.iterator();
+		while (it.hasNext())
+			buffer(it.next());
+	}
+
+	void commit() throws SQLException
+	{
+		stopTransaction(true);
+	}
+
+	void rollback() throws SQLException
+	{
+		stopTransaction(false);
+	}
+
+	private void stopTransaction(boolean commit) throws SQLException
+	{
+		this.commit = commit;
+		stop = true;
+		// Add a stop operation in order to get the transaction thread to
+		// proceed
+		operations.add(STOP);
+		while (!stopped)
+		{
+			try
+			{
+				Thread.sleep(0, 5);
+			}
+			catch (InterruptedException e)
+			{
+			}
+		}
+	}
+
+}
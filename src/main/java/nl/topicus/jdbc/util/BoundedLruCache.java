@@ -0,0 +1,66 @@
+package nl.topicus.jdbc.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Thread-safe cache with a maximum number of entries. The least recently used
+ * entry is removed when the maximum is exceeded.
+ *
+ * @author loite
+ *
+ * @param <K>
+ *            The type of the keys
+ * @param <V>
+ *            The type of the cached values
+ */
+public class BoundedLruCache<K, V>
+{
+	private final Map<K, V> map;
+
+	/**
+	 *
+	 * @param maxSize
+	 *            The maximum number of entries of the cache
+	 */
+	public BoundedLruCache(int maxSize)
+	{
+		this.map = Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+			{
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/**
+	 * Returns the cached value for a key, and computes and caches the value
+	 * if it is not in the cache. The value is computed without holding a
+	 * lock, so concurrent callers may compute the value of the same key more
+	 * than once.
+	 *
+	 * @param key
+	 *            The key of the value
+	 * @param loader
+	 *            Computes the value of a key that is not in the cache, may
+	 *            not return null
+	 * @return The value of the key
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader)
+	{
+		V res = map.get(key);
+		if (res == null)
+		{
+			res = loader.apply(key);
+			map.put(key, res);
+		}
+		return res;
+	}
+
+}
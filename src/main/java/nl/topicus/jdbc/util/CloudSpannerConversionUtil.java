@@ -1,41 +1,194 @@
-package nl.topicus.jdbc.util;
-
-import java.sql.Date;
-import java.sql.Timestamp;
-import java.util.concurrent.TimeUnit;
-
-public class CloudSpannerConversionUtil
-{
-	public static Date toSqlDate(com.google.cloud.spanner.Date date)
-	{
-		@SuppressWarnings("deprecation")
-		Date res = new Date(date.getYear() - 1900, date.getMonth() - 1, date.getDayOfMonth());
-		return res;
-	}
-
-	public static com.google.cloud.spanner.Date toCloudSpannerDate(Date date)
-	{
-		@SuppressWarnings("deprecation")
-		com.google.cloud.spanner.Date res = com.google.cloud.spanner.Date.fromYearMonthDay(date.getYear() + 1900,
-				date.getMonth() + 1, date.getDate());
-		return res;
-	}
-
-	public static Timestamp toSqlTimestamp(com.google.cloud.spanner.Timestamp ts)
-	{
-		Timestamp res = ts.toSqlTimestamp();
-		return res;
-	}
-
-	public static com.google.cloud.spanner.Timestamp toCloudSpannerTimestamp(Timestamp ts)
-	{
-		long milliseconds = ts.getTime();
-		long seconds = milliseconds / 1000l;
-		int rest = (int) (milliseconds % 1000l);
-		int nanos = (int) TimeUnit.MILLISECONDS.toNanos(rest);
-		com.google.cloud.spanner.Timestamp res = com.google.cloud.spanner.Timestamp.ofTimeSecondsAndNanos(seconds,
-				nanos);
-		return res;
-	}
-
-}
+package nl.topicus.jdbc.util;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Conversions between the date and time types of JDBC, java.time and Google
+ * Cloud Spanner. Dates are converted through their number of days since
+ * 1970-01-01 (the epoch day) and timestamps through their number of seconds
+ * and nanoseconds since 1970-01-01T00:00:00Z, using plain arithmetic instead
+ * of {@link Calendar}s. Timestamps keep their full nanosecond precision.
+ *
+ * @author loite
+ *
+ */
+public class CloudSpannerConversionUtil
+{
+	private static final long MILLIS_PER_SECOND = 1000L;
+
+	private static final long MILLIS_PER_DAY = 86400000L;
+
+	private static final int NANOS_PER_MILLI = 1000000;
+
+	/**
+	 * Days between 0000-03-01 and 1970-01-01 in the proleptic Gregorian
+	 * calendar
+	 */
+	private static final long DAYS_0000_TO_1970 = 719468L;
+
+	private static final long DAYS_PER_ERA = 146097L;
+
+	/**
+	 * The epoch day of 1582-10-15. {@link java.sql.Date} uses the Julian
+	 * calendar for earlier dates, which the arithmetic conversions do not.
+	 */
+	private static final long GREGORIAN_CUTOVER_DAY = -141427L;
+
+	/**
+	 * @param year
+	 *            The year in the proleptic Gregorian calendar
+	 * @param month
+	 *            The month, 1-12
+	 * @param dayOfMonth
+	 *            The day of the month, 1-31
+	 * @return The number of days since 1970-01-01
+	 */
+	public static long toEpochDay(int year, int month, int dayOfMonth)
+	{
+		long y = month <= 2 ? year - 1 : year;
+		long era = Math.floorDiv(y, 400L);
+		long yearOfEra = y - era * 400L;
+		long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2L) / 5L + dayOfMonth - 1L;
+		long dayOfEra = yearOfEra * 365L + yearOfEra / 4L - yearOfEra / 100L + dayOfYear;
+		return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+	}
+
+	public static long toEpochDay(com.google.cloud.spanner.Date date)
+	{
+		return toEpochDay(date.getYear(), date.getMonth(), date.getDayOfMonth());
+	}
+
+	/**
+	 * @param epochDay
+	 *            The number of days since 1970-01-01
+	 * @return The date in the proleptic Gregorian calendar
+	 */
+	public static com.google.cloud.spanner.Date ofEpochDay(long epochDay)
+	{
+		long days = epochDay + DAYS_0000_TO_1970;
+		long era = Math.floorDiv(days, DAYS_PER_ERA);
+		long dayOfEra = days - era * DAYS_PER_ERA;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460L + dayOfEra / 36524L - dayOfEra / 146096L) / 365L;
+		long dayOfYear = dayOfEra - (365L * yearOfEra + yearOfEra / 4L - yearOfEra / 100L);
+		long shiftedMonth = (5L * dayOfYear + 2L) / 153L;
+		int dayOfMonth = (int) (dayOfYear - (153L * shiftedMonth + 2L) / 5L + 1L);
+		int month = (int) (shiftedMonth < 10L ? shiftedMonth + 3L : shiftedMonth - 9L);
+		int year = (int) (yearOfEra + era * 400L + (month <= 2 ? 1L : 0L));
+		return com.google.cloud.spanner.Date.fromYearMonthDay(year, month, dayOfMonth);
+	}
+
+	public static Date toSqlDate(com.google.cloud.spanner.Date date)
+	{
+		return toSqlDate(date, TimeZone.getDefault());
+	}
+
+	/**
+	 * @param date
+	 *            The date to convert
+	 * @param zone
+	 *            The time zone to interpret the date in
+	 * @return A {@link java.sql.Date} that points to the start of the day in
+	 *         the given time zone
+	 */
+	public static Date toSqlDate(com.google.cloud.spanner.Date date, TimeZone zone)
+	{
+		long epochDay = toEpochDay(date);
+		if (epochDay >= GREGORIAN_CUTOVER_DAY)
+		{
+			// Try the offsets of the day before and the day after, the latter
+			// first, so that the later of two midnights is chosen if the
+			// clocks are set back at midnight, like a calendar does
+			long local = epochDay * MILLIS_PER_DAY;
+			long millis = local - zone.getOffset(local + MILLIS_PER_DAY);
+			if (millis + zone.getOffset(millis) == local)
+				return new Date(millis);
+			millis = local - zone.getOffset(local - MILLIS_PER_DAY);
+			if (millis + zone.getOffset(millis) == local)
+				return new Date(millis);
+			// The start of the day does not exist if the clocks are set forward
+			// at midnight, let the calendar decide in that case
+		}
+		Calendar calendar = Calendar.getInstance(zone);
+		calendar.clear();
+		calendar.set(date.getYear(), date.getMonth() - 1, date.getDayOfMonth());
+		return new Date(calendar.getTimeInMillis());
+	}
+
+	public static com.google.cloud.spanner.Date toCloudSpannerDate(Date date)
+	{
+		return toCloudSpannerDate(date, TimeZone.getDefault());
+	}
+
+	/**
+	 * @param date
+	 *            The date to convert
+	 * @param zone
+	 *            The time zone to interpret the date in
+	 * @return The day in the given time zone that contains the date
+	 */
+	public static com.google.cloud.spanner.Date toCloudSpannerDate(java.util.Date date, TimeZone zone)
+	{
+		long millis = date.getTime();
+		long epochDay = Math.floorDiv(millis + zone.getOffset(millis), MILLIS_PER_DAY);
+		if (epochDay >= GREGORIAN_CUTOVER_DAY)
+			return ofEpochDay(epochDay);
+		Calendar calendar = Calendar.getInstance(zone);
+		calendar.setTimeInMillis(millis);
+		return com.google.cloud.spanner.Date.fromYearMonthDay(calendar.get(Calendar.YEAR),
+				calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH));
+	}
+
+	public static com.google.cloud.spanner.Date toCloudSpannerDate(LocalDate date)
+	{
+		return com.google.cloud.spanner.Date.fromYearMonthDay(date.getYear(), date.getMonthValue(),
+				date.getDayOfMonth());
+	}
+
+	public static LocalDate toLocalDate(com.google.cloud.spanner.Date date)
+	{
+		return LocalDate.of(date.getYear(), date.getMonth(), date.getDayOfMonth());
+	}
+
+	public static Timestamp toSqlTimestamp(com.google.cloud.spanner.Timestamp ts)
+	{
+		Timestamp res = new Timestamp(ts.getSeconds() * MILLIS_PER_SECOND);
+		res.setNanos(ts.getNanos());
+		return res;
+	}
+
+	/**
+	 * @param ts
+	 *            The timestamp to convert
+	 * @return The time with millisecond precision, as {@link java.sql.Time}
+	 *         does not support a higher precision
+	 */
+	public static Time toSqlTime(com.google.cloud.spanner.Timestamp ts)
+	{
+		return new Time(ts.getSeconds() * MILLIS_PER_SECOND + ts.getNanos() / NANOS_PER_MILLI);
+	}
+
+	public static com.google.cloud.spanner.Timestamp toCloudSpannerTimestamp(Timestamp ts)
+	{
+		// getTime() includes the milliseconds of the nanos, so the seconds
+		// must be rounded down to get the seconds of the nanos
+		long seconds = Math.floorDiv(ts.getTime(), MILLIS_PER_SECOND);
+		return com.google.cloud.spanner.Timestamp.ofTimeSecondsAndNanos(seconds, ts.getNanos());
+	}
+
+	public static com.google.cloud.spanner.Timestamp toCloudSpannerTimestamp(Instant instant)
+	{
+		return com.google.cloud.spanner.Timestamp.ofTimeSecondsAndNanos(instant.getEpochSecond(), instant.getNano());
+	}
+
+	public static Instant toInstant(com.google.cloud.spanner.Timestamp ts)
+	{
+		return Instant.ofEpochSecond(ts.getSeconds(), ts.getNanos());
+	}
+
+}
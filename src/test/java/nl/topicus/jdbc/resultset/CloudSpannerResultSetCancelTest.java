@@ -0,0 +1,170 @@
+package nl.topicus.jdbc.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+
+public class CloudSpannerResultSetCancelTest
+{
+	private static final Type ROW_TYPE = Type.struct(StructField.of("ID", Type.int64()));
+
+	/**
+	 * A result set that blocks before returning the row after the given
+	 * number of rows until it is closed
+	 */
+	private static final class SlowResultSet extends StructListResultSet
+	{
+		private final CountDownLatch closed = new CountDownLatch(1);
+
+		private final int blockAfter;
+
+		private int rows;
+
+		private SlowResultSet(int count, int blockAfter)
+		{
+			super(ROW_TYPE, createRows(count));
+			this.blockAfter = blockAfter;
+		}
+
+		@Override
+		public boolean next()
+		{
+			if (rows++ == blockAfter)
+			{
+				try
+				{
+					closed.await();
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+				throw new IllegalStateException("stream closed");
+			}
+			return super.next();
+		}
+
+		@Override
+		public void close()
+		{
+			closed.countDown();
+			super.close();
+		}
+	}
+
+	private static List<Struct> createRows(int count)
+	{
+		List<Struct> rows = new ArrayList<>(count);
+		for (long id = 1L; id <= count; id++)
+			rows.add(Struct.newBuilder().set("ID").to(id).build());
+		return rows;
+	}
+
+	@Test
+	public void testCancel() throws SQLException
+	{
+		SlowResultSet delegate = new SlowResultSet(10, -1);
+		try (CloudSpannerResultSet rs = new CloudSpannerResultSet(delegate))
+		{
+			assertTrue(rs.next());
+			rs.cancel(false);
+			assertEquals(0L, delegate.closed.getCount());
+			try
+			{
+				rs.next();
+				fail("Missing expected exception");
+			}
+			catch (SQLTimeoutException e)
+			{
+				fail("The query did not time out");
+			}
+			catch (SQLException e)
+			{
+				assertEquals("Query was cancelled", e.getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void testTimeout() throws SQLException
+	{
+		try (CloudSpannerResultSet rs = new CloudSpannerResultSet(new SlowResultSet(10, -1)))
+		{
+			rs.cancel(true);
+			try
+			{
+				rs.next();
+				fail("Missing expected exception");
+			}
+			catch (SQLTimeoutException e)
+			{
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testTimeoutTimerStoppedByFirstRow() throws SQLException
+	{
+		CompletableFuture<Void> timer = new CompletableFuture<>();
+		try (CloudSpannerResultSet rs = new CloudSpannerResultSet(new SlowResultSet(10, -1)))
+		{
+			rs.setTimeoutTimer(timer);
+			assertFalse(timer.isCancelled());
+			assertTrue(rs.next());
+			assertTrue(timer.isCancelled());
+		}
+	}
+
+	@Test
+	public void testCancelWhileWaitingForPrefetchedRow() throws Exception
+	{
+		SlowResultSet delegate = new SlowResultSet(10, 1);
+		CloudSpannerResultSet rs = new CloudSpannerResultSet(new PrefetchingResultSet(delegate, 10));
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			assertTrue(rs.next());
+			Future<Boolean> next = executor.submit(() -> rs.next());
+			// Give the consumer time to wait for the next row
+			Thread.sleep(50L);
+			rs.cancel(true);
+			try
+			{
+				next.get(10L, TimeUnit.SECONDS);
+				fail("Missing expected exception");
+			}
+			catch (ExecutionException e)
+			{
+				assertTrue(e.getCause() instanceof SQLTimeoutException);
+			}
+			// The producer stops and closes the stream of the query
+			assertTrue(delegate.closed.await(10L, TimeUnit.SECONDS));
+		}
+		finally
+		{
+			executor.shutdownNow();
+			rs.close();
+		}
+	}
+
+}
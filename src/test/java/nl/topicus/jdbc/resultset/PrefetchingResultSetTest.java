@@ -0,0 +1,150 @@
+package nl.topicus.jdbc.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+
+public class PrefetchingResultSetTest
+{
+	private static final Type ROW_TYPE = Type.struct(StructField.of("ID", Type.int64()));
+
+	/**
+	 * A result set that counts how often it is closed, and that fails when
+	 * the row after the given number of rows is requested
+	 */
+	private static final class TestResultSet extends StructListResultSet
+	{
+		private final AtomicInteger closed = new AtomicInteger();
+
+		private final int failAfter;
+
+		private int rows;
+
+		private TestResultSet(int count, int failAfter)
+		{
+			super(ROW_TYPE, createRows(count));
+			this.failAfter = failAfter;
+		}
+
+		@Override
+		public boolean next()
+		{
+			if (rows++ == failAfter)
+				throw new IllegalStateException("read failed");
+			return super.next();
+		}
+
+		@Override
+		public void close()
+		{
+			closed.incrementAndGet();
+			super.close();
+		}
+
+		/**
+		 * Waits until this result set has been closed
+		 */
+		private int awaitClosed() throws InterruptedException
+		{
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+			while (closed.get() == 0 && System.nanoTime() < deadline)
+				Thread.sleep(1L);
+			return closed.get();
+		}
+	}
+
+	private static List<Struct> createRows(int count)
+	{
+		List<Struct> rows = new ArrayList<>(count);
+		for (long id = 1L; id <= count; id++)
+			rows.add(Struct.newBuilder().set("ID").to(id).build());
+		return rows;
+	}
+
+	@Test
+	public void testReadAll() throws InterruptedException
+	{
+		TestResultSet delegate = new TestResultSet(100, -1);
+		try (PrefetchingResultSet rs = new PrefetchingResultSet(delegate, 10))
+		{
+			for (long id = 1L; id <= 100L; id++)
+			{
+				assertTrue(rs.next());
+				assertEquals(id, rs.getLong(0));
+			}
+			assertFalse(rs.next());
+			assertFalse(rs.next());
+		}
+		assertEquals(1, delegate.awaitClosed());
+	}
+
+	@Test
+	public void testCloseImmediately() throws InterruptedException
+	{
+		// The result set may be closed before or after the producer started,
+		// the delegate must be closed exactly once in both cases
+		for (int i = 0; i < 200; i++)
+		{
+			TestResultSet delegate = new TestResultSet(10, -1);
+			new PrefetchingResultSet(delegate, 1).close();
+			assertEquals(1, delegate.awaitClosed());
+			Thread.sleep(0L, 100);
+			assertEquals(1, delegate.closed.get());
+		}
+	}
+
+	@Test
+	public void testCloseWhileProducerWaits() throws InterruptedException
+	{
+		TestResultSet delegate = new TestResultSet(100, -1);
+		PrefetchingResultSet rs = new PrefetchingResultSet(delegate, 1);
+		assertTrue(rs.next());
+		assertEquals(1L, rs.getLong(0));
+		rs.close();
+		assertEquals(1, delegate.awaitClosed());
+		try
+		{
+			rs.next();
+			fail("Missing expected exception");
+		}
+		catch (IllegalStateException e)
+		{
+			// expected
+		}
+	}
+
+	@Test
+	public void testProducerError() throws InterruptedException
+	{
+		TestResultSet delegate = new TestResultSet(10, 2);
+		try (PrefetchingResultSet rs = new PrefetchingResultSet(delegate, 10))
+		{
+			assertTrue(rs.next());
+			assertTrue(rs.next());
+			try
+			{
+				rs.next();
+				fail("Missing expected exception");
+			}
+			catch (IllegalStateException e)
+			{
+				assertEquals("read failed", e.getMessage());
+			}
+			assertFalse(rs.next());
+		}
+		assertEquals(1, delegate.awaitClosed());
+	}
+
+}
@@ -0,0 +1,131 @@
+package nl.topicus.jdbc.resultset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RowCacheTest
+{
+	/**
+	 * @return A row of between 10 and 59 bytes that all have the value of
+	 *         the row index
+	 */
+	private static byte[] createRow(int index)
+	{
+		byte[] row = new byte[10 + index % 50];
+		Arrays.fill(row, (byte) index);
+		return row;
+	}
+
+	private static void assertRow(RowCache cache, int index) throws IOException
+	{
+		ByteBuffer buffer = cache.get(index);
+		byte[] row = new byte[buffer.remaining()];
+		buffer.get(row);
+		assertArrayEquals("Row " + index, createRow(index), row);
+	}
+
+	private static RowCache createCache(long memoryLimit, int windowSize, int rows) throws IOException
+	{
+		RowCache cache = new RowCache(memoryLimit, windowSize);
+		for (int index = 0; index < rows; index++)
+		{
+			byte[] row = createRow(index);
+			cache.add(row, row.length);
+		}
+		return cache;
+	}
+
+	@Test
+	public void testInMemory() throws IOException
+	{
+		try (RowCache cache = createCache(1024L * 1024L, 64, 500))
+		{
+			assertEquals(500, cache.size());
+			for (int index = 499; index >= 0; index--)
+				assertRow(cache, index);
+		}
+	}
+
+	@Test
+	public void testSpill() throws IOException
+	{
+		// The first rows are kept in memory, the others are written to the
+		// temporary file
+		try (RowCache cache = createCache(100L, 1024 * 1024, 1000))
+		{
+			assertEquals(1000, cache.size());
+			for (int index = 0; index < 1000; index++)
+				assertRow(cache, index);
+			for (int index = 999; index >= 0; index--)
+				assertRow(cache, index);
+		}
+	}
+
+	@Test
+	public void testNoMemory() throws IOException
+	{
+		try (RowCache cache = createCache(0L, 1024, 100))
+		{
+			for (int index = 0; index < 100; index++)
+				assertRow(cache, index);
+		}
+	}
+
+	@Test
+	public void testWindowRemap() throws IOException
+	{
+		// Rows are larger than half a window, so most rows cross a window
+		// boundary, and some rows are larger than a window
+		try (RowCache cache = createCache(100L, 32, 1000))
+		{
+			for (int index = 999; index >= 0; index--)
+				assertRow(cache, index);
+			Random random = new Random(1L);
+			for (int i = 0; i < 5000; i++)
+				assertRow(cache, random.nextInt(1000));
+		}
+	}
+
+	@Test
+	public void testReadWhileAdding() throws IOException
+	{
+		// A window that is mapped while rows are added ends at the end of the
+		// file, and must be mapped again for rows that are added later
+		try (RowCache cache = new RowCache(50L, 4096))
+		{
+			for (int index = 0; index < 1000; index++)
+			{
+				byte[] row = createRow(index);
+				cache.add(row, row.length);
+				assertRow(cache, index);
+				assertRow(cache, index / 2);
+			}
+		}
+	}
+
+	@Test
+	public void testOutOfBounds() throws IOException
+	{
+		try (RowCache cache = createCache(100L, 64, 10))
+		{
+			try
+			{
+				cache.get(10);
+				fail("Missing expected exception");
+			}
+			catch (IndexOutOfBoundsException e)
+			{
+				// expected
+			}
+		}
+	}
+
+}
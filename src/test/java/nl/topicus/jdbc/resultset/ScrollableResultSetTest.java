@@ -0,0 +1,114 @@
+package nl.topicus.jdbc.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+
+public class ScrollableResultSetTest
+{
+	private static final Type ROW_TYPE = Type.struct(StructField.of("ID", Type.int64()),
+			StructField.of("NAME", Type.string()));
+
+	private static StructListResultSet createRows(int count)
+	{
+		List<Struct> rows = new ArrayList<>(count);
+		for (long id = 1L; id <= count; id++)
+			rows.add(Struct.newBuilder().set("ID").to(id).set("NAME").to(id % 3 == 0 ? null : "name" + id).build());
+		return new StructListResultSet(ROW_TYPE, rows);
+	}
+
+	private static void assertRow(ScrollableResultSet rs, int row)
+	{
+		assertEquals(row, rs.getRowNumber());
+		assertEquals(row, rs.getLong(0));
+		if (row % 3 == 0)
+			assertTrue(rs.isNull(1));
+		else
+			assertEquals("name" + row, rs.getString(1));
+	}
+
+	@Test
+	public void testScroll()
+	{
+		try (ScrollableResultSet rs = new ScrollableResultSet(createRows(10), 1024L * 1024L, 0))
+		{
+			assertEquals(0, rs.getRowNumber());
+			assertTrue(rs.moveTo(5));
+			assertRow(rs, 5);
+			assertTrue(rs.next());
+			assertRow(rs, 6);
+			assertTrue(rs.moveTo(1));
+			assertRow(rs, 1);
+			assertFalse(rs.isOnLastRow());
+			assertTrue(rs.moveTo(10));
+			assertTrue(rs.isOnLastRow());
+			assertFalse(rs.next());
+			assertTrue(rs.isAfterLastRow());
+			assertEquals(11, rs.getRowNumber());
+			assertFalse(rs.moveTo(0));
+			assertEquals(10, rs.getRowCount());
+		}
+	}
+
+	@Test
+	public void testMaxRows()
+	{
+		try (ScrollableResultSet rs = new ScrollableResultSet(createRows(10), 1024L * 1024L, 4))
+		{
+			assertEquals(4, rs.getRowCount());
+			assertFalse(rs.moveTo(5));
+			assertTrue(rs.moveTo(4));
+			assertRow(rs, 4);
+		}
+	}
+
+	@Test
+	public void testSpill()
+	{
+		// Only the first rows fit in memory, the other rows are read from the
+		// temporary file
+		try (ScrollableResultSet rs = new ScrollableResultSet(createRows(5000), 1024L, 0))
+		{
+			for (int row = 1; row <= 5000; row++)
+			{
+				assertTrue(rs.next());
+				assertRow(rs, row);
+			}
+			assertFalse(rs.next());
+			for (int row = 5000; row >= 1; row--)
+			{
+				assertTrue(rs.moveTo(row));
+				assertRow(rs, row);
+			}
+			Random random = new Random(1L);
+			for (int i = 0; i < 1000; i++)
+			{
+				int row = random.nextInt(5000) + 1;
+				assertTrue(rs.moveTo(row));
+				assertRow(rs, row);
+			}
+		}
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		try (ScrollableResultSet rs = new ScrollableResultSet(createRows(0), 1024L, 0))
+		{
+			assertEquals(ROW_TYPE, rs.getType());
+			assertFalse(rs.next());
+			assertEquals(0, rs.getRowCount());
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+package nl.topicus.jdbc.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.insert.Insert;
+
+import org.junit.Test;
+
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.Mutation.WriteBuilder;
+
+public class ColumnarBatchBufferTest
+{
+	private static final String[] COLUMNS = { "ID", "VALUE" };
+
+	private static Expression[] getSources(String sql) throws JSQLParserException
+	{
+		Insert insert = (Insert) CCJSqlParserUtil.parse(sql);
+		List<Expression> expressions = ((ExpressionList) insert.getItemsList()).getExpressions();
+		return expressions.toArray(new Expression[expressions.size()]);
+	}
+
+	private static List<Mutation> toList(Iterable<Mutation> mutations)
+	{
+		List<Mutation> res = new ArrayList<>();
+		for (Mutation mutation : mutations)
+			res.add(mutation);
+		return res;
+	}
+
+	private static Mutation insert(long id, String value)
+	{
+		return Mutation.newInsertBuilder("FOO").set("ID").to(id).set("VALUE").to(value).build();
+	}
+
+	@Test
+	public void testFlush() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		ColumnarBatchBuffer buffer = new ColumnarBatchBuffer(Mutation.Op.INSERT, "FOO", COLUMNS,
+				getSources("INSERT INTO FOO (ID, VALUE) VALUES (?, ?)"), parameters);
+		parameters.setLong(1, 1L);
+		parameters.setParameter(2, "one");
+		buffer.addRow();
+		parameters.clearParameters();
+		parameters.setLong(1, 2L);
+		parameters.setParameter(2, null);
+		buffer.addRow();
+		parameters.clearParameters();
+		assertEquals(2, buffer.size());
+		assertEquals(Arrays.asList(insert(1L, "one"), insert(2L, null)), toList(buffer));
+
+		buffer.clear();
+		assertEquals(0, buffer.size());
+		assertFalse(buffer.iterator().hasNext());
+		parameters.setLong(1, 3L);
+		parameters.setParameter(2, "three");
+		buffer.addRow();
+		assertEquals(Arrays.asList(insert(3L, "three")), toList(buffer));
+	}
+
+	@Test
+	public void testFlushLiteral() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		ColumnarBatchBuffer buffer = new ColumnarBatchBuffer(Mutation.Op.INSERT, "FOO", COLUMNS,
+				getSources("INSERT INTO FOO (ID, VALUE) VALUES (?, 'literal')"), parameters);
+		for (long id = 1L; id <= 100L; id++)
+		{
+			parameters.setLong(1, id);
+			buffer.addRow();
+			parameters.clearParameters();
+		}
+		List<Mutation> mutations = toList(buffer);
+		assertEquals(100, mutations.size());
+		assertEquals(insert(1L, "literal"), mutations.get(0));
+		assertEquals(insert(100L, "literal"), mutations.get(99));
+	}
+
+	@Test
+	public void testUnsupportedValue() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		ColumnarBatchBuffer buffer = new ColumnarBatchBuffer(Mutation.Op.INSERT, "FOO", COLUMNS,
+				getSources("INSERT INTO FOO (ID, VALUE) VALUES (?, ?)"), parameters);
+		parameters.setLong(1, 1L);
+		parameters.setParameter(2, new Object());
+		try
+		{
+			buffer.addRow();
+			fail("Missing expected exception");
+		}
+		catch (IllegalArgumentException e)
+		{
+			// expected
+		}
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	public void testCanBuffer() throws JSQLParserException
+	{
+		assertTrue(ColumnarBatchBuffer.canBuffer(getSources("INSERT INTO FOO (ID, VALUE) VALUES (?, ?)")));
+		assertTrue(ColumnarBatchBuffer.canBuffer(getSources("INSERT INTO FOO (ID, VALUE) VALUES (?, -1)")));
+		assertFalse(ColumnarBatchBuffer.canBuffer(getSources("INSERT INTO FOO (ID, VALUE) VALUES (?, -?)")));
+		assertFalse(ColumnarBatchBuffer.canBuffer(getSources("INSERT INTO FOO (ID, VALUE) VALUES (?, (?))")));
+		assertFalse(ColumnarBatchBuffer.canBuffer(getSources("INSERT INTO FOO (ID, VALUE) VALUES (?, CAST(? AS INT64))")));
+	}
+
+	/**
+	 * A statement with a negated parameter cannot be buffered in columns, and
+	 * each row of the batch is converted to a mutation with the parameter
+	 * values of that row instead
+	 */
+	@Test
+	public void testBatchNegatedParameter() throws JSQLParserException
+	{
+		Expression[] sources = getSources("INSERT INTO FOO (ID, VALUE) VALUES (?, -?)");
+		assertFalse(ColumnarBatchBuffer.canBuffer(sources));
+		ParameterStore parameters = new ParameterStore();
+		List<Mutation> mutations = new ArrayList<>();
+		for (long id = 1L; id <= 2L; id++)
+		{
+			parameters.setLong(1, id);
+			parameters.setLong(2, id * 10L);
+			WriteBuilder builder = Mutation.newInsertBuilder("FOO");
+			for (int col = 0; col < COLUMNS.length; col++)
+			{
+				sources[col].accept(new ValueBinderExpressionVisitorAdapter<WriteBuilder>(parameters, builder
+						.set(COLUMNS[col]), COLUMNS[col]));
+			}
+			mutations.add(builder.build());
+			parameters.clearParameters();
+		}
+		assertEquals(Arrays.asList(Mutation.newInsertBuilder("FOO").set("ID").to(1L).set("VALUE").to(-10L).build(),
+				Mutation.newInsertBuilder("FOO").set("ID").to(2L).set("VALUE").to(-20L).build()), mutations);
+	}
+
+}
@@ -0,0 +1,117 @@
+package nl.topicus.jdbc.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+
+import org.junit.Test;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.spanner.Date;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.Timestamp;
+
+public class KeyBuilderExpressionVisitorAdapterTest
+{
+	private static Expression getValue(String condition) throws JSQLParserException
+	{
+		return ((EqualsTo) CCJSqlParserUtil.parseCondExpression(condition)).getRightExpression();
+	}
+
+	@Test
+	public void testTimestamp()
+	{
+		java.sql.Timestamp ts = java.sql.Timestamp.valueOf("2017-06-01 10:15:30.123456789");
+		Timestamp expected = Timestamp.ofTimeSecondsAndNanos(Math.floorDiv(ts.getTime(), 1000L), 123456789);
+		assertEquals(expected, KeyBuilderExpressionVisitorAdapter.toKeyValue(ts));
+		assertEquals(expected, KeyBuilderExpressionVisitorAdapter.toKeyValue(ts, Timestamp.class));
+	}
+
+	@Test
+	public void testDate()
+	{
+		Date expected = Date.fromYearMonthDay(2017, 6, 1);
+		assertEquals(expected, KeyBuilderExpressionVisitorAdapter.toKeyValue(java.sql.Date.valueOf("2017-06-01")));
+		assertEquals(expected, KeyBuilderExpressionVisitorAdapter.toKeyValue(LocalDate.of(2017, 6, 1)));
+		assertEquals(expected, KeyBuilderExpressionVisitorAdapter.toKeyValue("2017-06-01", Date.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidDateString()
+	{
+		KeyBuilderExpressionVisitorAdapter.toKeyValue("2017-6-1", Date.class);
+	}
+
+	@Test
+	public void testNumbers()
+	{
+		assertEquals(Long.valueOf(1L), KeyBuilderExpressionVisitorAdapter.toKeyValue(Integer.valueOf(1)));
+		assertEquals(Double.valueOf(1.5d), KeyBuilderExpressionVisitorAdapter.toKeyValue(new BigDecimal("1.5")));
+		assertEquals(Long.valueOf(10L), KeyBuilderExpressionVisitorAdapter.toKeyValue(new BigDecimal("10"), Long.class));
+		assertEquals(Long.valueOf(10L), KeyBuilderExpressionVisitorAdapter.toKeyValue(Double.valueOf(10d), Long.class));
+		assertEquals(Double.valueOf(10d), KeyBuilderExpressionVisitorAdapter.toKeyValue(Long.valueOf(10L), Double.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonIntegralLong()
+	{
+		KeyBuilderExpressionVisitorAdapter.toKeyValue(new BigDecimal("1.5"), Long.class);
+	}
+
+	@Test
+	public void testOtherTypes()
+	{
+		UUID uuid = UUID.randomUUID();
+		assertEquals(uuid.toString(), KeyBuilderExpressionVisitorAdapter.toKeyValue(uuid));
+		assertEquals(ByteArray.copyFrom(new byte[] { 1, 2 }),
+				KeyBuilderExpressionVisitorAdapter.toKeyValue(new byte[] { 1, 2 }));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongColumnType()
+	{
+		KeyBuilderExpressionVisitorAdapter.toKeyValue("1", Long.class);
+	}
+
+	@Test
+	public void testAppendParameter() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		java.sql.Timestamp ts = java.sql.Timestamp.valueOf("2017-06-01 10:15:30");
+		parameters.setParameter(1, ts);
+		Key.Builder builder = Key.newBuilder();
+		assertTrue(KeyBuilderExpressionVisitorAdapter.appendKeyValue(parameters, builder, "TS", getValue("TS = ?")));
+		assertEquals(Key.of(Timestamp.ofTimeSecondsAndNanos(ts.getTime() / 1000L, 0)), builder.build());
+	}
+
+	@Test
+	public void testAppendUnsupportedParameter() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		parameters.setParameter(1, new Time(0L));
+		assertFalse(KeyBuilderExpressionVisitorAdapter.appendKeyValue(parameters, Key.newBuilder(), "TS",
+				getValue("TS = ?")));
+	}
+
+	@Test
+	public void testAppendLiteral() throws JSQLParserException
+	{
+		Key.Builder builder = Key.newBuilder();
+		assertTrue(KeyBuilderExpressionVisitorAdapter.appendKeyValue(new ParameterStore(), builder, "ID",
+				getValue("ID = 1")));
+		assertTrue(KeyBuilderExpressionVisitorAdapter.appendKeyValue(new ParameterStore(), builder, "NAME",
+				getValue("NAME = 'foo'")));
+		assertEquals(Key.of(1L, "foo"), builder.build());
+	}
+
+}
@@ -0,0 +1,72 @@
+package nl.topicus.jdbc.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+
+import org.junit.Test;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+
+public class KeyListPredicateTest
+{
+	private static final List<String> KEY = Arrays.asList("TENANT_ID", "ID");
+
+	private static KeyListPredicate parse(String where) throws JSQLParserException
+	{
+		return KeyListPredicate.parse(CCJSqlParserUtil.parseCondExpression(where), KEY);
+	}
+
+	private static List<Key> getKeys(KeySet keySet)
+	{
+		List<Key> res = new ArrayList<>();
+		for (Key key : keySet.getKeys())
+			res.add(key);
+		return res;
+	}
+
+	@Test
+	public void testInList() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		parameters.setLong(1, 1L);
+		parameters.setLong(2, 2L);
+		parameters.setLong(3, 3L);
+		KeySet keySet = parse("TENANT_ID=? AND ID IN (?, ?)").createKeySet(parameters);
+		assertEquals(Arrays.asList(Key.of(1L, 2L), Key.of(1L, 3L)), getKeys(keySet));
+	}
+
+	@Test
+	public void testDisjunction() throws JSQLParserException
+	{
+		KeySet keySet = parse("(TENANT_ID=1 AND ID=2) OR (TENANT_ID=3 AND ID=4)").createKeySet(new ParameterStore());
+		assertEquals(Arrays.asList(Key.of(1L, 2L), Key.of(3L, 4L)), getKeys(keySet));
+	}
+
+	@Test
+	public void testNullInList() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		parameters.setLong(1, 1L);
+		parameters.setLong(2, 2L);
+		// ID IN (?, NULL) does not delete a row with a NULL key value
+		assertNull(parse("TENANT_ID=? AND ID IN (?, NULL)").createKeySet(parameters));
+		parameters.setParameter(3, null);
+		assertNull(parse("TENANT_ID=? AND ID IN (?, ?)").createKeySet(parameters));
+	}
+
+	@Test
+	public void testNotAKeyList() throws JSQLParserException
+	{
+		assertNull(parse("ID IN (1, 2)"));
+		assertNull(parse("TENANT_ID=1 AND ID IN (1, 2) AND NAME='foo'"));
+	}
+
+}
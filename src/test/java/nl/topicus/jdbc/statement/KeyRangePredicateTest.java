@@ -0,0 +1,152 @@
+package nl.topicus.jdbc.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+
+import org.junit.Test;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeyRange;
+import com.google.cloud.spanner.KeyRange.Endpoint;
+
+public class KeyRangePredicateTest
+{
+	private static final List<String> KEY = Arrays.asList("TENANT_ID", "ID");
+
+	private static KeyRangePredicate parse(String where) throws JSQLParserException
+	{
+		return KeyRangePredicate.parse(CCJSqlParserUtil.parseCondExpression(where), KEY);
+	}
+
+	@Test
+	public void testKey() throws JSQLParserException
+	{
+		KeyRangePredicate predicate = parse("TENANT_ID=? AND ID=?");
+		assertTrue(predicate.isSingleKey(KEY.size()));
+		ParameterStore parameters = new ParameterStore();
+		parameters.setLong(1, 1L);
+		parameters.setLong(2, 2L);
+		assertEquals(Key.of(1L, 2L), predicate.createKey(parameters));
+	}
+
+	@Test
+	public void testRange() throws JSQLParserException
+	{
+		KeyRangePredicate predicate = parse("TENANT_ID=? AND ID>=? AND ID<?");
+		ParameterStore parameters = new ParameterStore();
+		parameters.setLong(1, 1L);
+		parameters.setLong(2, 10L);
+		parameters.setLong(3, 20L);
+		KeyRange range = predicate.createKeyRange(parameters, false);
+		assertEquals(Key.of(1L, 10L), range.getStart());
+		assertEquals(Endpoint.CLOSED, range.getStartType());
+		assertEquals(Key.of(1L, 20L), range.getEnd());
+		assertEquals(Endpoint.OPEN, range.getEndType());
+	}
+
+	@Test
+	public void testNullKeyValue() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		parameters.setLong(1, 1L);
+		parameters.setParameter(2, null);
+		assertNull(parse("TENANT_ID=? AND ID=?").createKey(parameters));
+		assertNull(parse("TENANT_ID=? AND ID=NULL").createKey(parameters));
+	}
+
+	@Test
+	public void testNullBound() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		parameters.setLong(1, 1L);
+		parameters.setParameter(2, null);
+		// WHERE ID > NULL deletes nothing, while a range that starts at a
+		// NULL key would delete almost all rows with the prefix
+		assertNull(parse("TENANT_ID=? AND ID>?").createKeyRange(parameters, false));
+		assertNull(parse("TENANT_ID=? AND ID>?").createKeyRange(parameters, true));
+		assertNull(parse("TENANT_ID=? AND ID BETWEEN ? AND 10").createKeyRange(parameters, false));
+	}
+
+	@Test
+	public void testNullPrefix() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		parameters.setParameter(1, null);
+		parameters.setLong(2, 10L);
+		assertNull(parse("TENANT_ID=?").createKeyRange(parameters, false));
+		assertNull(parse("TENANT_ID=? AND ID<?").createKeyRange(parameters, false));
+		assertNull(parse("TENANT_ID=NULL").createKeyRange(parameters, false));
+		parameters.setLong(1, 1L);
+		assertNotNull(parse("TENANT_ID=? AND ID<?").createKeyRange(parameters, false));
+	}
+
+	@Test
+	public void testNoLowerBound() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		parameters.setLong(1, 1L);
+		parameters.setLong(2, 10L);
+		// WHERE ID < 10 does not match the rows where ID is NULL
+		KeyRange range = parse("TENANT_ID=? AND ID<?").createKeyRange(parameters, false);
+		assertEquals(Key.of(1L, null), range.getStart());
+		assertEquals(Endpoint.OPEN, range.getStartType());
+		assertEquals(Key.of(1L, 10L), range.getEnd());
+		assertEquals(Endpoint.OPEN, range.getEndType());
+		range = parse("TENANT_ID=? AND ID<=?").createKeyRange(parameters, false);
+		assertEquals(Key.of(1L, null), range.getStart());
+		assertEquals(Endpoint.OPEN, range.getStartType());
+		assertEquals(Endpoint.CLOSED, range.getEndType());
+	}
+
+	@Test
+	public void testNoUpperBound() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		parameters.setLong(1, 1L);
+		parameters.setLong(2, 10L);
+		KeyRange range = parse("TENANT_ID=? AND ID>?").createKeyRange(parameters, false);
+		assertEquals(Key.of(1L, 10L), range.getStart());
+		assertEquals(Endpoint.OPEN, range.getStartType());
+		assertEquals(Key.of(1L), range.getEnd());
+		assertEquals(Endpoint.CLOSED, range.getEndType());
+	}
+
+	@Test
+	public void testPrefix() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		parameters.setLong(1, 1L);
+		KeyRange range = parse("TENANT_ID=?").createKeyRange(parameters, false);
+		assertEquals(Key.of(1L), range.getStart());
+		assertEquals(Endpoint.CLOSED, range.getStartType());
+		assertEquals(Key.of(1L), range.getEnd());
+		assertEquals(Endpoint.CLOSED, range.getEndType());
+	}
+
+	@Test
+	public void testDescending() throws JSQLParserException
+	{
+		ParameterStore parameters = new ParameterStore();
+		parameters.setLong(1, 1L);
+		parameters.setLong(2, 10L);
+		parameters.setLong(3, 20L);
+		KeyRange range = parse("TENANT_ID=? AND ID>=? AND ID<?").createKeyRange(parameters, true);
+		assertEquals(Key.of(1L, 20L), range.getStart());
+		assertEquals(Endpoint.OPEN, range.getStartType());
+		assertEquals(Key.of(1L, 10L), range.getEnd());
+		assertEquals(Endpoint.CLOSED, range.getEndType());
+		// A range with one bound on a descending column is executed as a
+		// query
+		assertNull(parse("TENANT_ID=? AND ID<?").createKeyRange(parameters, true));
+		assertNull(parse("TENANT_ID=? AND ID>?").createKeyRange(parameters, true));
+	}
+
+}
@@ -0,0 +1,213 @@
+package nl.topicus.jdbc.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import nl.topicus.jdbc.resultset.StructListResultSet;
+
+import org.junit.Test;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.Mutation.WriteBuilder;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.TransactionContext;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+
+public class PipelinedDMLExecutorTest
+{
+	private static final Type KEY_TYPE = Type.struct(StructField.of("ID", Type.int64()));
+
+	private static final Statement KEY_QUERY = Statement.of("SELECT ID FROM FOO WHERE BAR=1");
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler)
+	{
+		return (T) Proxy.newProxyInstance(PipelinedDMLExecutorTest.class.getClassLoader(), new Class<?>[] { type },
+				handler);
+	}
+
+	private static ResultSet createKeys(int count)
+	{
+		List<Struct> rows = new ArrayList<>(count);
+		for (long id = 1L; id <= count; id++)
+			rows.add(Struct.newBuilder().set("ID").to(id).build());
+		return new StructListResultSet(KEY_TYPE, rows);
+	}
+
+	private static PipelinedDMLExecutor createDeleteExecutor()
+	{
+		return new PipelinedDMLExecutor(KEY_QUERY, row -> Mutation.delete("FOO", PipelinedDMLExecutor.createKey(row, 1)),
+				1);
+	}
+
+	/**
+	 * Creates a database client that returns the given number of keys for
+	 * each query, and that records the mutations that are written
+	 */
+	private static DatabaseClient createClient(int keys, List<List<Mutation>> written)
+	{
+		ReadContext context = proxy(ReadContext.class, (proxy, method, args) -> {
+			if (method.getName().equals("executeQuery"))
+				return createKeys(keys);
+			return null;
+		});
+		return proxy(DatabaseClient.class, (proxy, method, args) -> {
+			if (method.getName().equals("singleUse"))
+				return context;
+			if (method.getName().equals("write"))
+			{
+				List<Mutation> chunk = new ArrayList<>();
+				for (Mutation mutation : (Iterable<Mutation>) args[0])
+					chunk.add(mutation);
+				synchronized (written)
+				{
+					written.add(chunk);
+				}
+				return null;
+			}
+			throw new UnsupportedOperationException(method.getName());
+		});
+	}
+
+	@Test
+	public void testDeleteInTransaction()
+	{
+		List<Mutation> buffered = new ArrayList<>();
+		TransactionContext transaction = proxy(TransactionContext.class, (proxy, method, args) -> {
+			if (method.getName().equals("executeQuery"))
+			{
+				assertEquals(KEY_QUERY, args[0]);
+				return createKeys(3);
+			}
+			if (method.getName().equals("buffer"))
+			{
+				buffered.add((Mutation) args[0]);
+				return null;
+			}
+			throw new UnsupportedOperationException(method.getName());
+		});
+		assertEquals(3L, createDeleteExecutor().executeInTransaction(transaction));
+		assertEquals(3, buffered.size());
+		assertEquals(Mutation.delete("FOO", Key.of(1L)), buffered.get(0));
+		assertEquals(Mutation.delete("FOO", Key.of(3L)), buffered.get(2));
+	}
+
+	@Test
+	public void testUpdateInTransaction()
+	{
+		List<Mutation> buffered = new ArrayList<>();
+		TransactionContext transaction = proxy(TransactionContext.class, (proxy, method, args) -> {
+			if (method.getName().equals("executeQuery"))
+				return createKeys(2);
+			if (method.getName().equals("buffer"))
+			{
+				buffered.add((Mutation) args[0]);
+				return null;
+			}
+			throw new UnsupportedOperationException(method.getName());
+		});
+		PipelinedDMLExecutor executor = new PipelinedDMLExecutor(KEY_QUERY, row -> {
+			WriteBuilder builder = Mutation.newUpdateBuilder("FOO");
+			PipelinedDMLExecutor.bindValue(builder.set("ID"), row, 0);
+			return builder.set("NAME").to("updated").build();
+		}, 2);
+		assertEquals(2L, executor.executeInTransaction(transaction));
+		assertEquals(Mutation.newUpdateBuilder("FOO").set("ID").to(2L).set("NAME").to("updated").build(),
+				buffered.get(1));
+	}
+
+	@Test
+	public void testInsertArrays()
+	{
+		Struct row = Struct.newBuilder().set("ID").to(1L).set("TAGS").toStringArray(Arrays.asList("a", "b"))
+				.set("SCORES").toInt64Array((Iterable<Long>) null).build();
+		List<Mutation> buffered = new ArrayList<>();
+		TransactionContext transaction = proxy(TransactionContext.class, (proxy, method, args) -> {
+			if (method.getName().equals("executeQuery"))
+				return new StructListResultSet(row.getType(), Collections.singletonList(row));
+			if (method.getName().equals("buffer"))
+			{
+				buffered.add((Mutation) args[0]);
+				return null;
+			}
+			throw new UnsupportedOperationException(method.getName());
+		});
+		PipelinedDMLExecutor executor = new PipelinedDMLExecutor(KEY_QUERY, rs -> {
+			WriteBuilder builder = Mutation.newInsertBuilder("BAR");
+			PipelinedDMLExecutor.bindValue(builder.set("ID"), rs, 0);
+			PipelinedDMLExecutor.bindValue(builder.set("TAGS"), rs, 1);
+			PipelinedDMLExecutor.bindValue(builder.set("SCORES"), rs, 2);
+			return builder.build();
+		}, 3);
+		assertEquals(1L, executor.executeInTransaction(transaction));
+		assertEquals(
+				Mutation.newInsertBuilder("BAR").set("ID").to(1L).set("TAGS").toStringArray(Arrays.asList("a", "b"))
+						.set("SCORES").toInt64Array((Iterable<Long>) null).build(), buffered.get(0));
+	}
+
+	@Test
+	public void testChunked() throws SQLException
+	{
+		List<List<Mutation>> written = new ArrayList<>();
+		assertEquals(2500L, createDeleteExecutor().executeChunked(createClient(2500, written)));
+		Set<Mutation> mutations = new HashSet<>();
+		for (List<Mutation> chunk : written)
+		{
+			assertTrue(chunk.size() <= 1000);
+			mutations.addAll(chunk);
+		}
+		assertEquals(3, written.size());
+		assertEquals(2500, mutations.size());
+		assertTrue(mutations.contains(Mutation.delete("FOO", Key.of(2500L))));
+	}
+
+	@Test
+	public void testChunkedNoRows() throws SQLException
+	{
+		List<List<Mutation>> written = new ArrayList<>();
+		assertEquals(0L, createDeleteExecutor().executeChunked(createClient(0, written)));
+		assertEquals(Collections.emptyList(), written);
+	}
+
+	@Test
+	public void testChunkedCommitError()
+	{
+		ReadContext context = proxy(ReadContext.class, (proxy, method, args) -> {
+			if (method.getName().equals("executeQuery"))
+				return createKeys(5000);
+			return null;
+		});
+		DatabaseClient client = proxy(DatabaseClient.class, (proxy, method, args) -> {
+			if (method.getName().equals("singleUse"))
+				return context;
+			throw new IllegalStateException("commit failed");
+		});
+		try
+		{
+			createDeleteExecutor().executeChunked(client);
+			fail("Missing expected exception");
+		}
+		catch (SQLException e)
+		{
+			assertTrue(e.getMessage(), e.getMessage().contains("commit failed"));
+		}
+	}
+
+}
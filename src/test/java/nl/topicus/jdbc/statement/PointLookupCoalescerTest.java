@@ -0,0 +1,188 @@
+package nl.topicus.jdbc.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import nl.topicus.jdbc.resultset.StructListResultSet;
+
+import org.junit.Test;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+
+public class PointLookupCoalescerTest
+{
+	private static final Type ROW_TYPE = Type.struct(StructField.of("ID", Type.int64()),
+			StructField.of("NAME", Type.string()));
+
+	private static final int NUMBER_OF_ROWS = 10;
+
+	private static PointLookup createLookup(long id)
+	{
+		return new PointLookup("FOO", null, Arrays.asList("ID", "NAME"), Arrays.asList("ID"), Key.of(id));
+	}
+
+	/**
+	 * Creates a database client with the rows 1 to {@link #NUMBER_OF_ROWS}
+	 * that counts the number of reads and keys
+	 */
+	private static DatabaseClient createClient(AtomicInteger reads, AtomicInteger keys)
+	{
+		ReadContext context = (ReadContext) Proxy.newProxyInstance(PointLookupCoalescerTest.class.getClassLoader(),
+				new Class<?>[] { ReadContext.class }, (proxy, method, args) -> {
+					if (method.getName().equals("read"))
+					{
+						reads.incrementAndGet();
+						List<Struct> rows = new ArrayList<>();
+						for (Key key : ((KeySet) args[1]).getKeys())
+						{
+							keys.incrementAndGet();
+							long id = (Long) key.getParts().iterator().next();
+							if (id <= NUMBER_OF_ROWS)
+								rows.add(Struct.newBuilder().set("ID").to(id).set("NAME").to("name" + id).build());
+						}
+						return new StructListResultSet(ROW_TYPE, rows);
+					}
+					return null;
+				});
+		return createClient(context);
+	}
+
+	private static DatabaseClient createClient(ReadContext context)
+	{
+		return (DatabaseClient) Proxy.newProxyInstance(PointLookupCoalescerTest.class.getClassLoader(),
+				new Class<?>[] { DatabaseClient.class }, (proxy, method, args) -> {
+					if (method.getName().equals("singleUse"))
+						return context;
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	@Test
+	public void testLookup()
+	{
+		AtomicInteger reads = new AtomicInteger();
+		DatabaseClient client = createClient(reads, new AtomicInteger());
+		PointLookupCoalescer coalescer = PointLookupCoalescer.getInstance("testLookup");
+		try (ResultSet rs = coalescer.lookup(client, createLookup(3L)))
+		{
+			assertTrue(rs.next());
+			assertEquals(3L, rs.getLong(0));
+			assertEquals("name3", rs.getString(1));
+			assertFalse(rs.next());
+		}
+		try (ResultSet rs = coalescer.lookup(client, createLookup(NUMBER_OF_ROWS + 1L)))
+		{
+			assertFalse(rs.next());
+		}
+		assertEquals(2, reads.get());
+	}
+
+	@Test
+	public void testConcurrentLookups() throws Exception
+	{
+		int threads = 20;
+		AtomicInteger reads = new AtomicInteger();
+		AtomicInteger keys = new AtomicInteger();
+		DatabaseClient client = createClient(reads, keys);
+		PointLookupCoalescer coalescer = PointLookupCoalescer.getInstance("testConcurrentLookups");
+		CyclicBarrier barrier = new CyclicBarrier(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			List<Future<Long>> futures = new ArrayList<>();
+			for (int thread = 0; thread < threads; thread++)
+			{
+				long id = thread % NUMBER_OF_ROWS + 1L;
+				futures.add(executor.submit(() -> {
+					barrier.await();
+					try (ResultSet rs = coalescer.lookup(client, createLookup(id)))
+					{
+						assertTrue(rs.next());
+						long res = rs.getLong(0);
+						assertEquals("name" + res, rs.getString(1));
+						assertFalse(rs.next());
+						return res;
+					}
+				}));
+			}
+			for (int thread = 0; thread < threads; thread++)
+			{
+				assertEquals(Long.valueOf(thread % NUMBER_OF_ROWS + 1L), futures.get(thread).get(10L, TimeUnit.SECONDS));
+			}
+			// Each batch reads every key once
+			assertTrue(reads.get() <= threads);
+			assertTrue(keys.get() <= threads);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testReadError() throws Exception
+	{
+		int threads = 10;
+		ReadContext context = (ReadContext) Proxy.newProxyInstance(PointLookupCoalescerTest.class.getClassLoader(),
+				new Class<?>[] { ReadContext.class }, (proxy, method, args) -> {
+					if (method.getName().equals("read"))
+						throw new Error("read failed");
+					return null;
+				});
+		DatabaseClient client = createClient(context);
+		PointLookupCoalescer coalescer = PointLookupCoalescer.getInstance("testReadError");
+		CyclicBarrier barrier = new CyclicBarrier(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < threads; thread++)
+			{
+				long id = thread + 1L;
+				futures.add(executor.submit(() -> {
+					barrier.await();
+					return coalescer.lookup(client, createLookup(id));
+				}));
+			}
+			// The lookups that did not execute the read must not wait forever
+			for (Future<?> future : futures)
+			{
+				try
+				{
+					future.get(10L, TimeUnit.SECONDS);
+					fail("Missing expected exception");
+				}
+				catch (ExecutionException e)
+				{
+					assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains("read failed"));
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package nl.topicus.jdbc.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Arrays;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectBody;
+
+import org.junit.Test;
+
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Value;
+
+public class SelectBatchRewriterTest
+{
+	private static SelectBody parse(String sql) throws JSQLParserException
+	{
+		return ((Select) CCJSqlParserUtil.parse(sql)).getSelectBody();
+	}
+
+	private static void assertNotSupported(String sql) throws JSQLParserException, SQLException
+	{
+		try
+		{
+			SelectBatchRewriter.getOrderBy(parse(sql));
+			fail("Missing expected exception for " + sql);
+		}
+		catch (SQLFeatureNotSupportedException e)
+		{
+			// expected
+		}
+	}
+
+	@Test
+	public void testGetOrderBy() throws JSQLParserException, SQLException
+	{
+		assertEquals("", SelectBatchRewriter.getOrderBy(parse("SELECT ID, NAME FROM FOO WHERE BAR=?")));
+		assertEquals(", NAME", SelectBatchRewriter.getOrderBy(parse("SELECT ID, NAME FROM FOO WHERE BAR=? ORDER BY NAME")));
+		assertEquals(", NAME DESC, ID",
+				SelectBatchRewriter.getOrderBy(parse("SELECT ID, NAME FROM FOO WHERE BAR=? ORDER BY NAME DESC, ID")));
+		assertEquals(", N", SelectBatchRewriter.getOrderBy(parse("SELECT ID, NAME AS N FROM FOO ORDER BY N")));
+		assertEquals(", NAME", SelectBatchRewriter.getOrderBy(parse("SELECT * FROM FOO ORDER BY NAME")));
+	}
+
+	@Test
+	public void testGetOrderByPosition() throws JSQLParserException, SQLException
+	{
+		// The batch ordinal column is the first column of the result
+		assertEquals(", 3 DESC, 2", SelectBatchRewriter.getOrderBy(parse("SELECT ID, NAME FROM FOO ORDER BY 2 DESC, 1")));
+	}
+
+	@Test
+	public void testGetOrderBySetOperation() throws JSQLParserException, SQLException
+	{
+		assertEquals(", NAME",
+				SelectBatchRewriter.getOrderBy(parse("SELECT ID, NAME FROM FOO UNION ALL SELECT ID, NAME FROM BAR ORDER BY NAME")));
+	}
+
+	@Test
+	public void testGetOrderByNotSupported() throws JSQLParserException, SQLException
+	{
+		assertNotSupported("SELECT ID, NAME FROM FOO ORDER BY UPPER(NAME)");
+		assertNotSupported("SELECT ID, NAME FROM FOO ORDER BY DESCRIPTION");
+		assertNotSupported("SELECT ID, NAME AS N FROM FOO ORDER BY NAME");
+	}
+
+	@Test
+	public void testRewrite()
+	{
+		Statement first = Statement.newBuilder("SELECT ID, NAME FROM FOO WHERE BAR=@b0p1 ORDER BY NAME").bind("b0p1")
+				.to(1L).build();
+		Statement second = Statement.newBuilder("SELECT ID, NAME FROM FOO WHERE BAR=@b1p1 ORDER BY NAME").bind("b1p1")
+				.to(2L).build();
+		Statement batch = SelectBatchRewriter.rewrite(Arrays.asList(first, second), ", NAME");
+		assertEquals("SELECT 0 AS BATCH_ORDINAL, BATCH_ROW.* FROM (SELECT ID, NAME FROM FOO WHERE BAR=@b0p1 ORDER BY NAME) AS BATCH_ROW"
+				+ " UNION ALL SELECT 1 AS BATCH_ORDINAL, BATCH_ROW.* FROM (SELECT ID, NAME FROM FOO WHERE BAR=@b1p1 ORDER BY NAME) AS BATCH_ROW"
+				+ " ORDER BY BATCH_ORDINAL, NAME", batch.getSql());
+		assertEquals(Value.int64(1L), batch.getParameters().get("b0p1"));
+		assertEquals(Value.int64(2L), batch.getParameters().get("b1p1"));
+	}
+
+}
@@ -0,0 +1,123 @@
+package nl.topicus.jdbc.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.cloud.spanner.Mutation;
+
+public class UpsertSqlRewriterTest
+{
+	private static final List<String> KEY = Arrays.asList("ID");
+
+	@Test
+	public void testInsert() throws SQLException
+	{
+		String sql = "INSERT INTO FOO (ID, A) VALUES (?, ?)";
+		UpsertSqlRewriter.Result result = UpsertSqlRewriter.rewrite(sql);
+		assertEquals(sql, result.getSql());
+		assertEquals(Mutation.Op.INSERT, result.getOperation());
+		assertNull(result.getUpdatedColumns());
+	}
+
+	@Test
+	public void testInsertOrUpdate() throws SQLException
+	{
+		UpsertSqlRewriter.Result result = UpsertSqlRewriter.rewrite("insert or update into FOO (ID, A) VALUES (?, ?)");
+		assertEquals("INSERT INTO FOO (ID, A) VALUES (?, ?)", result.getSql());
+		assertEquals(Mutation.Op.INSERT_OR_UPDATE, result.getOperation());
+	}
+
+	@Test
+	public void testInsertOrReplace() throws SQLException
+	{
+		UpsertSqlRewriter.Result result = UpsertSqlRewriter.rewrite("INSERT OR REPLACE INTO FOO (ID, A) VALUES (?, ?)");
+		assertEquals("INSERT INTO FOO (ID, A) VALUES (?, ?)", result.getSql());
+		assertEquals(Mutation.Op.REPLACE, result.getOperation());
+	}
+
+	@Test
+	public void testReplace() throws SQLException
+	{
+		UpsertSqlRewriter.Result result = UpsertSqlRewriter.rewrite("  REPLACE INTO FOO (ID, A) VALUES (?, ?)");
+		assertEquals("INSERT INTO FOO (ID, A) VALUES (?, ?)", result.getSql());
+		assertEquals(Mutation.Op.REPLACE, result.getOperation());
+	}
+
+	@Test
+	public void testMerge() throws SQLException
+	{
+		UpsertSqlRewriter.Result result = UpsertSqlRewriter.rewrite("MERGE INTO FOO (ID, A) KEY (ID) VALUES (?, ?)");
+		assertEquals("INSERT INTO FOO (ID, A)  VALUES (?, ?)", result.getSql());
+		assertEquals(Mutation.Op.INSERT_OR_UPDATE, result.getOperation());
+	}
+
+	@Test(expected = SQLFeatureNotSupportedException.class)
+	public void testMergeUsing() throws SQLException
+	{
+		UpsertSqlRewriter.rewrite("MERGE INTO FOO USING BAR ON FOO.ID=BAR.ID WHEN MATCHED THEN UPDATE SET A=BAR.A");
+	}
+
+	@Test
+	public void testOnDuplicateKeyUpdate() throws SQLException
+	{
+		UpsertSqlRewriter.Result result = UpsertSqlRewriter
+				.rewrite("INSERT INTO FOO (ID, A, B) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE A=VALUES(A), `B` = VALUES(`B`)");
+		assertEquals("INSERT INTO FOO (ID, A, B) VALUES (?, ?, ?) ", result.getSql());
+		assertEquals(Mutation.Op.INSERT_OR_UPDATE, result.getOperation());
+		assertEquals(Arrays.asList("A", "B"), result.getUpdatedColumns());
+		UpsertSqlRewriter.checkDuplicateKeyColumns(result.getUpdatedColumns(), Arrays.asList("ID", "A", "B"), KEY);
+	}
+
+	@Test
+	public void testOnDuplicateKeyUpdateInLiteral() throws SQLException
+	{
+		String sql = "INSERT INTO FOO (ID, A) VALUES (1, 'ON DUPLICATE KEY UPDATE A=1')";
+		UpsertSqlRewriter.Result result = UpsertSqlRewriter.rewrite(sql);
+		assertEquals(sql, result.getSql());
+		assertEquals(Mutation.Op.INSERT, result.getOperation());
+	}
+
+	@Test(expected = SQLFeatureNotSupportedException.class)
+	public void testOnDuplicateKeyUpdateOtherValue() throws SQLException
+	{
+		UpsertSqlRewriter.rewrite("INSERT INTO FOO (ID, A) VALUES (?, ?) ON DUPLICATE KEY UPDATE A=A+1");
+	}
+
+	@Test(expected = SQLFeatureNotSupportedException.class)
+	public void testOnDuplicateKeyUpdateOtherColumn() throws SQLException
+	{
+		UpsertSqlRewriter.rewrite("INSERT INTO FOO (ID, A, B) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE A=VALUES(B)");
+	}
+
+	@Test(expected = SQLFeatureNotSupportedException.class)
+	public void testOnDuplicateKeyUpdateMissingColumn() throws SQLException
+	{
+		UpsertSqlRewriter.Result result = UpsertSqlRewriter
+				.rewrite("INSERT INTO FOO (ID, A, B) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE A=VALUES(A)");
+		UpsertSqlRewriter.checkDuplicateKeyColumns(result.getUpdatedColumns(), Arrays.asList("ID", "A", "B"), KEY);
+	}
+
+	@Test(expected = SQLFeatureNotSupportedException.class)
+	public void testOnDuplicateKeyUpdateKeyColumn() throws SQLException
+	{
+		UpsertSqlRewriter.Result result = UpsertSqlRewriter
+				.rewrite("INSERT INTO FOO (ID, A) VALUES (?, ?) ON DUPLICATE KEY UPDATE ID=VALUES(ID), A=VALUES(A)");
+		UpsertSqlRewriter.checkDuplicateKeyColumns(result.getUpdatedColumns(), Arrays.asList("ID", "A"), KEY);
+	}
+
+	@Test
+	public void testOnDuplicateKeyUpdateCaseInsensitive() throws SQLException
+	{
+		UpsertSqlRewriter.Result result = UpsertSqlRewriter
+				.rewrite("insert into foo (id, a) values (?, ?) on duplicate key update a=values(a)");
+		UpsertSqlRewriter.checkDuplicateKeyColumns(result.getUpdatedColumns(), Arrays.asList("id", "a"), KEY);
+	}
+
+}
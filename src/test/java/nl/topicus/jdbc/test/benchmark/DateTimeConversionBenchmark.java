@@ -0,0 +1,104 @@
+package nl.topicus.jdbc.test.benchmark;
+
+import java.util.Random;
+
+import nl.topicus.jdbc.util.CloudSpannerConversionUtil;
+
+import com.google.cloud.spanner.Date;
+import com.google.cloud.spanner.Timestamp;
+
+/**
+ * Measures the number of date and timestamp values per second that
+ * {@link CloudSpannerConversionUtil} converts between Google Cloud Spanner and
+ * JDBC. The conversion of dates through the deprecated, calendar based
+ * constructor and getters of {@link java.sql.Date} is measured as a baseline.
+ *
+ * @author loite
+ *
+ */
+public class DateTimeConversionBenchmark
+{
+	private static final int VALUES = 100000;
+
+	private static final int WARMUP_ITERATIONS = 20;
+
+	private static final int MEASUREMENT_ITERATIONS = 20;
+
+	private enum Conversion
+	{
+		TO_SQL_DATE, TO_SQL_DATE_BASELINE, TO_SPANNER_DATE, TO_SPANNER_DATE_BASELINE, TO_SQL_TIMESTAMP, TO_SPANNER_TIMESTAMP;
+	}
+
+	/**
+	 * Expected parameters: none
+	 *
+	 * @param args
+	 *            not used
+	 */
+	public static void main(String... args)
+	{
+		Random random = new Random(1L);
+		Date[] dates = new Date[VALUES];
+		java.sql.Date[] sqlDates = new java.sql.Date[VALUES];
+		Timestamp[] timestamps = new Timestamp[VALUES];
+		java.sql.Timestamp[] sqlTimestamps = new java.sql.Timestamp[VALUES];
+		for (int i = 0; i < VALUES; i++)
+		{
+			long seconds = 946684800L + random.nextInt(1000000000);
+			timestamps[i] = Timestamp.ofTimeSecondsAndNanos(seconds, random.nextInt(1000000000));
+			sqlTimestamps[i] = CloudSpannerConversionUtil.toSqlTimestamp(timestamps[i]);
+			dates[i] = CloudSpannerConversionUtil.ofEpochDay(seconds / 86400L);
+			sqlDates[i] = CloudSpannerConversionUtil.toSqlDate(dates[i]);
+		}
+		for (Conversion conversion : Conversion.values())
+		{
+			long checksum = 0;
+			for (int i = 0; i < WARMUP_ITERATIONS; i++)
+				checksum += convert(conversion, dates, sqlDates, timestamps, sqlTimestamps);
+			long start = System.nanoTime();
+			for (int i = 0; i < MEASUREMENT_ITERATIONS; i++)
+				checksum += convert(conversion, dates, sqlDates, timestamps, sqlTimestamps);
+			long elapsed = System.nanoTime() - start;
+			double values = (double) VALUES * MEASUREMENT_ITERATIONS;
+			System.out.println(String.format("%-25s %,15.0f values/s (checksum %d)", conversion, values * 1e9
+					/ elapsed, checksum));
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private static long convert(Conversion conversion, Date[] dates, java.sql.Date[] sqlDates, Timestamp[] timestamps,
+			java.sql.Timestamp[] sqlTimestamps)
+	{
+		long checksum = 0;
+		for (int i = 0; i < VALUES; i++)
+		{
+			switch (conversion)
+			{
+			case TO_SQL_DATE:
+				checksum += CloudSpannerConversionUtil.toSqlDate(dates[i]).getTime();
+				break;
+			case TO_SQL_DATE_BASELINE:
+				checksum += new java.sql.Date(dates[i].getYear() - 1900, dates[i].getMonth() - 1,
+						dates[i].getDayOfMonth()).getTime();
+				break;
+			case TO_SPANNER_DATE:
+				checksum += CloudSpannerConversionUtil.toCloudSpannerDate(sqlDates[i]).getDayOfMonth();
+				break;
+			case TO_SPANNER_DATE_BASELINE:
+				// Use a new instance, as java.sql.Date caches its calendar fields
+				java.sql.Date date = new java.sql.Date(sqlDates[i].getTime());
+				checksum += Date.fromYearMonthDay(date.getYear() + 1900, date.getMonth() + 1, date.getDate())
+						.getDayOfMonth();
+				break;
+			case TO_SQL_TIMESTAMP:
+				checksum += CloudSpannerConversionUtil.toSqlTimestamp(timestamps[i]).getNanos();
+				break;
+			case TO_SPANNER_TIMESTAMP:
+				checksum += CloudSpannerConversionUtil.toCloudSpannerTimestamp(sqlTimestamps[i]).getNanos();
+				break;
+			}
+		}
+		return checksum;
+	}
+
+}
@@ -0,0 +1,134 @@
+package nl.topicus.jdbc.test.benchmark;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
+import nl.topicus.jdbc.resultset.StructListResultSet;
+
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Timestamp;
+import com.google.cloud.spanner.Type;
+
+/**
+ * Measures the number of cells per second that can be read from a
+ * {@link CloudSpannerResultSet} with wide rows of INT64, FLOAT64, STRING and
+ * TIMESTAMP columns. The rows are held in memory, so that only the accessors
+ * of the result set are measured. Every tenth value is null.
+ *
+ * @author loite
+ *
+ */
+public class ResultSetAccessorBenchmark
+{
+	private static final int COLUMNS_PER_TYPE = 16;
+
+	private static final int ROWS = 10000;
+
+	private static final int WARMUP_ITERATIONS = 20;
+
+	private static final int MEASUREMENT_ITERATIONS = 20;
+
+	private enum ColumnType
+	{
+		INT64, FLOAT64, STRING, TIMESTAMP;
+	}
+
+	/**
+	 * Expected parameters: none
+	 *
+	 * @param args
+	 *            not used
+	 */
+	public static void main(String... args) throws SQLException
+	{
+		List<Struct> rows = createRows();
+		Type type = rows.get(0).getType();
+		for (ColumnType columnType : ColumnType.values())
+		{
+			long checksum = 0;
+			for (int i = 0; i < WARMUP_ITERATIONS; i++)
+				checksum += readColumns(type, rows, columnType);
+			long start = System.nanoTime();
+			for (int i = 0; i < MEASUREMENT_ITERATIONS; i++)
+				checksum += readColumns(type, rows, columnType);
+			long elapsed = System.nanoTime() - start;
+			double cells = (double) ROWS * COLUMNS_PER_TYPE * MEASUREMENT_ITERATIONS;
+			System.out.println(String.format("%-10s %,15.0f cells/s (checksum %d)", columnType, cells * 1e9
+					/ elapsed, checksum));
+		}
+	}
+
+	private static List<Struct> createRows()
+	{
+		List<Struct> rows = new ArrayList<>(ROWS);
+		for (int row = 0; row < ROWS; row++)
+		{
+			Struct.Builder builder = Struct.newBuilder();
+			for (ColumnType columnType : ColumnType.values())
+			{
+				for (int col = 0; col < COLUMNS_PER_TYPE; col++)
+				{
+					String name = columnType.name() + col;
+					boolean isNull = (row + col) % 10 == 0;
+					switch (columnType)
+					{
+					case INT64:
+						builder.set(name).to(isNull ? null : Long.valueOf(row * col));
+						break;
+					case FLOAT64:
+						builder.set(name).to(isNull ? null : Double.valueOf(row * 1.5d + col));
+						break;
+					case STRING:
+						builder.set(name).to(isNull ? null : "value " + row + "/" + col);
+						break;
+					case TIMESTAMP:
+						builder.set(name).to(
+								isNull ? null : Timestamp.ofTimeSecondsAndNanos(1500000000L + row, col * 1000));
+						break;
+					}
+				}
+			}
+			rows.add(builder.build());
+		}
+		return rows;
+	}
+
+	private static long readColumns(Type type, List<Struct> rows, ColumnType columnType) throws SQLException
+	{
+		long checksum = 0;
+		int first = columnType.ordinal() * COLUMNS_PER_TYPE + 1;
+		int last = first + COLUMNS_PER_TYPE;
+		try (CloudSpannerResultSet rs = new CloudSpannerResultSet(new StructListResultSet(type, rows)))
+		{
+			while (rs.next())
+			{
+				for (int col = first; col < last; col++)
+				{
+					switch (columnType)
+					{
+					case INT64:
+						checksum += rs.getLong(col);
+						break;
+					case FLOAT64:
+						checksum += (long) rs.getDouble(col);
+						break;
+					case STRING:
+						String s = rs.getString(col);
+						checksum += s == null ? 0 : s.length();
+						break;
+					case TIMESTAMP:
+						java.sql.Timestamp ts = rs.getTimestamp(col);
+						checksum += ts == null ? 0 : ts.getNanos();
+						break;
+					}
+					if (rs.wasNull())
+						checksum++;
+				}
+			}
+		}
+		return checksum;
+	}
+
+}
@@ -0,0 +1,38 @@
+package nl.topicus.jdbc.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class BoundedLruCacheTest
+{
+	@Test
+	public void testGet()
+	{
+		AtomicInteger loads = new AtomicInteger();
+		BoundedLruCache<String, Integer> cache = new BoundedLruCache<>(10);
+		assertEquals(Integer.valueOf(3), cache.get("foo", key -> key.length() + loads.getAndIncrement() * 100));
+		assertEquals(Integer.valueOf(3), cache.get("foo", key -> key.length() + loads.getAndIncrement() * 100));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed()
+	{
+		AtomicInteger loads = new AtomicInteger();
+		BoundedLruCache<Integer, Integer> cache = new BoundedLruCache<>(2);
+		cache.get(1, key -> loads.incrementAndGet());
+		cache.get(2, key -> loads.incrementAndGet());
+		// Use 1, so that 2 is the least recently used entry
+		cache.get(1, key -> loads.incrementAndGet());
+		cache.get(3, key -> loads.incrementAndGet());
+		assertEquals(3, loads.get());
+		cache.get(1, key -> loads.incrementAndGet());
+		assertEquals(3, loads.get());
+		cache.get(2, key -> loads.incrementAndGet());
+		assertEquals(4, loads.get());
+	}
+
+}
@@ -1 +1 @@
-ALTER TABLE TESTCHILD ADD COLUMN NEW_COLUMN STRING(50)
+ALTER TABLE TESTCHILD ADD COLUMN NEW_COLUMN STRING(50)
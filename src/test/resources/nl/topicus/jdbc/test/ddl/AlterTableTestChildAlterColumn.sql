@@ -1 +1 @@
-ALTER TABLE TESTCHILD ALTER COLUMN NEW_COLUMN INT64
+ALTER TABLE TESTCHILD ALTER COLUMN NEW_COLUMN INT64
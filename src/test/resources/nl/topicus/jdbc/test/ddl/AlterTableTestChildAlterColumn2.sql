@@ -1 +1 @@
-ALTER TABLE TESTCHILD ALTER COLUMN NEW_COLUMN STRING(100)
+ALTER TABLE TESTCHILD ALTER COLUMN NEW_COLUMN STRING(100)
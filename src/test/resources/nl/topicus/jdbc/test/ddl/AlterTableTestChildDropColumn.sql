@@ -1 +1 @@
-ALTER TABLE TESTCHILD DROP COLUMN NEW_COLUMN
+ALTER TABLE TESTCHILD DROP COLUMN NEW_COLUMN
@@ -1,7 +1,7 @@
-CREATE TABLE TESTCHILD
-(
-	ID INT64 NOT NULL,
-	CHILDID INT64 NOT NULL,
-	DESCRIPTION STRING(200) NOT NULL
-) PRIMARY KEY (ID, CHILDID),
-INTERLEAVE IN PARENT TEST ON DELETE CASCADE
+CREATE TABLE TESTCHILD
+(
+	ID INT64 NOT NULL,
+	CHILDID INT64 NOT NULL,
+	DESCRIPTION STRING(200) NOT NULL
+) PRIMARY KEY (ID, CHILDID),
+INTERLEAVE IN PARENT TEST ON DELETE CASCADE
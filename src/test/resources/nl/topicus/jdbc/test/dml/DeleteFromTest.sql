@@ -1 +1 @@
-DELETE FROM TEST WHERE ID=1;
+DELETE FROM TEST WHERE ID=1;
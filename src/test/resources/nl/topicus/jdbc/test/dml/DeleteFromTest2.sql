@@ -1 +1 @@
-DELETE FROM TEST WHERE ID=2;
+DELETE FROM TEST WHERE ID=2;
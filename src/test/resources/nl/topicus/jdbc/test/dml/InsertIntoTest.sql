@@ -1,7 +1,7 @@
-INSERT INTO TEST (ID, UUID, ACTIVE, AMOUNT, DESCRIPTION, CREATED_DATE, LAST_UPDATED)
-VALUES
-(1, 0x00112233445566778899aabbccddeeff, true, 29.95, 'Description 1', {d '2017-03-18'}, {ts '2017-03-18 07:00:00'});
-
-INSERT INTO TEST (ID, UUID, ACTIVE, AMOUNT, DESCRIPTION, CREATED_DATE, LAST_UPDATED)
-VALUES
-(2, 0x00112233445566778899001122334455, false, -29.95, 'Description 2', {d '2017-03-17'}, {ts '2017-03-17 08:00:00'});
+INSERT INTO TEST (ID, UUID, ACTIVE, AMOUNT, DESCRIPTION, CREATED_DATE, LAST_UPDATED)
+VALUES
+(1, 0x00112233445566778899aabbccddeeff, true, 29.95, 'Description 1', {d '2017-03-18'}, {ts '2017-03-18 07:00:00'});
+
+INSERT INTO TEST (ID, UUID, ACTIVE, AMOUNT, DESCRIPTION, CREATED_DATE, LAST_UPDATED)
+VALUES
+(2, 0x00112233445566778899001122334455, false, -29.95, 'Description 2', {d '2017-03-17'}, {ts '2017-03-17 08:00:00'});
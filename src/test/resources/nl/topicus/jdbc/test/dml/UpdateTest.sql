@@ -1,5 +1,5 @@
-UPDATE TEST SET UUID=0xaabbcc, ACTIVE=false, AMOUNT=129.95
-WHERE ID=1;
-
-UPDATE TEST SET AMOUNT=-129.95, CREATED_DATE={d '2017-02-17'}, LAST_UPDATED={ts '2017-02-17 08:00:00'}
-WHERE ID = 2;
+UPDATE TEST SET UUID=0xaabbcc, ACTIVE=false, AMOUNT=129.95
+WHERE ID=1;
+
+UPDATE TEST SET AMOUNT=-129.95, CREATED_DATE={d '2017-02-17'}, LAST_UPDATED={ts '2017-02-17 08:00:00'}
+WHERE ID = 2;
@@ -1,5 +1,5 @@
-UPDATE TESTCHILD SET DESCRIPTION = 'Updated description 1.1'
-WHERE ID=1 AND CHILDID=1;
-
-UPDATE TESTCHILD SET DESCRIPTION = 'Updated description 1.2'
-WHERE ID = 1 AND CHILDID = 2;
+UPDATE TESTCHILD SET DESCRIPTION = 'Updated description 1.1'
+WHERE ID=1 AND CHILDID=1;
+
+UPDATE TESTCHILD SET DESCRIPTION = 'Updated description 1.2'
+WHERE ID = 1 AND CHILDID = 2;